@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.services.lambda.runtime.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks how many bytes a warm invocation allocates for a canonical <code>GET</code> and <code>POST</code> request. The
+ * invocations go through <code>proxyStream</code> with the bare servlet handler and with
+ * {@link com.amazonaws.serverless.proxy.model.ContainerConfig#setReuseContainerObjects(boolean)} enabled, so the
+ * results only include the allocations of the library itself: the event model, the servlet request and the Lambda
+ * response.
+ *
+ * The {@link #main(String[])} method runs the benchmark with the JMH GC profiler and fails when the normalized
+ * allocation rate of any combination goes over its budget in {@link #BUDGETS}. Run it with
+ * <code>java -cp target/benchmarks.jar com.amazonaws.serverless.proxy.benchmarks.AllocationBudgetBenchmark</code>. The
+ * <code>verify</code> phase of the <code>benchmarks</code> profile runs it too, so <code>mvn -P benchmarks verify</code>
+ * from the root of the project fails when a budget is exceeded; pass <code>-Dallocation.budget.skip=true</code> to skip
+ * the check. The CI job only reports the results, a shared runner is too noisy to fail the build on them. Re-measure
+ * and lower the budgets when a change reduces the allocations so that they do not creep back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBudgetBenchmark {
+
+    static final String GC_ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    /**
+     * Maximum bytes allocated per invocation, by event name and HTTP method. The budgets leave about 50% over the
+     * values measured on JDK 17 with all the changes to the request and response paths in place, because the
+     * normalized allocation rate moves between JVM versions, garbage collectors and shared build hosts. A budget only
+     * catches a regression that adds a large share of allocations, for example buffering the whole event again. Most
+     * of the remaining bytes are the event model deserialized from JSON.
+     */
+    static final Map<String, Long> BUDGETS = new HashMap<>();
+
+    static {
+        // measured: 12768, 14576, 9296, 11540, 6880 and 8488 B/op
+        BUDGETS.put(Events.API_GATEWAY_V1 + ":GET", 19_000L);
+        BUDGETS.put(Events.API_GATEWAY_V1 + ":POST", 22_000L);
+        BUDGETS.put(Events.HTTP_API_V2 + ":GET", 14_000L);
+        BUDGETS.put(Events.HTTP_API_V2 + ":POST", 17_000L);
+        BUDGETS.put(Events.ALB + ":GET", 10_500L);
+        BUDGETS.put(Events.ALB + ":POST", 13_000L);
+    }
+
+    @Param({ "GET", "POST" })
+    public String method;
+
+    @Param({ Events.API_GATEWAY_V1, Events.HTTP_API_V2, Events.ALB })
+    public String event;
+
+    private LambdaContainerHandler<?, ?, ?, ?> handler;
+    private byte[] eventBytes;
+    private ByteArrayOutputStream output;
+    private Context context;
+
+    @Setup
+    public void setUp() throws ContainerInitializationException {
+        LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(true);
+        handler = Handlers.create(Handlers.SERVLET, event);
+        eventBytes = Events.load(event, "GET".equals(method) ? Events.NO_BODY : Events.SMALL_BODY);
+        output = new ByteArrayOutputStream(16 * 1024);
+        context = new BenchmarkContext();
+    }
+
+    @Benchmark
+    public int proxyStream() throws IOException {
+        output.reset();
+        handler.proxyStream(new ByteArrayInputStream(eventBytes), output, context);
+        return output.size();
+    }
+
+    /**
+     * Runs the benchmark with the GC profiler and exits with status 1 if an invocation allocates more than its budget.
+     * JMH command line options, for example <code>-f 2</code>, are applied on top of the defaults.
+     * @param args JMH command line options
+     * @throws RunnerException If the benchmark fails to run
+     * @throws CommandLineOptionException If the options cannot be parsed
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(AllocationBudgetBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        int failures = 0;
+        for (RunResult result : results) {
+            String key = result.getParams().getParam("event") + ":" + result.getParams().getParam("method");
+            Result<?> allocated = result.getSecondaryResults().get(GC_ALLOC_RATE_NORM);
+            Long budget = BUDGETS.get(key);
+            if (allocated == null || budget == null) {
+                System.err.println("No allocation result or budget for " + key);
+                failures++;
+                continue;
+            }
+            boolean overBudget = allocated.getScore() > budget;
+            System.out.printf("%-22s %10.0f B/op  budget %6d B/op  %s%n",
+                              key, allocated.getScore(), budget, overBudget ? "OVER BUDGET" : "ok");
+            if (overBudget) {
+                failures++;
+            }
+        }
+        if (failures > 0 || results.isEmpty()) {
+            System.err.println("Allocation budget check failed");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+/**
+ * Lambda context passed to the handlers by the benchmarks. The logger discards its output so that logging does not
+ * show up in the results.
+ */
+public class BenchmarkContext implements Context {
+
+    private static final LambdaLogger NOOP_LOGGER = new LambdaLogger() {
+        @Override
+        public void log(String message) {
+            // discarded
+        }
+
+        @Override
+        public void log(byte[] message) {
+            // discarded
+        }
+    };
+
+    @Override
+    public String getAwsRequestId() {
+        return "c6af9ac6-7b61-11e6-9a41-93e8deadbeef";
+    }
+
+    @Override
+    public String getLogGroupName() {
+        return "/aws/lambda/benchmark";
+    }
+
+    @Override
+    public String getLogStreamName() {
+        return "2024/01/01/[$LATEST]benchmark";
+    }
+
+    @Override
+    public String getFunctionName() {
+        return "benchmark";
+    }
+
+    @Override
+    public String getFunctionVersion() {
+        return "$LATEST";
+    }
+
+    @Override
+    public String getInvokedFunctionArn() {
+        return "arn:aws:lambda:us-east-1:123456789012:function:benchmark";
+    }
+
+    @Override
+    public CognitoIdentity getIdentity() {
+        return null;
+    }
+
+    @Override
+    public ClientContext getClientContext() {
+        return null;
+    }
+
+    @Override
+    public int getRemainingTimeInMillis() {
+        return 300000;
+    }
+
+    @Override
+    public int getMemoryLimitInMB() {
+        return 1024;
+    }
+
+    @Override
+    public LambdaLogger getLogger() {
+        return NOOP_LOGGER;
+    }
+}
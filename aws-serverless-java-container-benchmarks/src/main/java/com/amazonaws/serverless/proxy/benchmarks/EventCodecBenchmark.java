@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.EventCodec;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.jackson.BlackbirdEventCodec;
+import com.amazonaws.serverless.proxy.internal.jackson.JacksonEventCodec;
+import com.amazonaws.serverless.proxy.internal.jackson.StreamingEventCodec;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link EventCodec} implementations on real API Gateway, HTTP API and ALB events. The
+ * <code>afterburner</code> codec is the handler default, which uses the shared <code>ObjectMapper</code> with the
+ * Afterburner module; <code>jackson</code> is the plain Jackson codec and <code>blackbird</code> the codec the builders
+ * pick on Java 9 and later. The <code>streaming</code> codec does not use databind, so the <code>streamingParser</code>
+ * parameter does not change its results.
+ *
+ * Run with <code>java -jar target/benchmarks.jar EventCodecBenchmark -prof gc</code> to also compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EventCodecBenchmark {
+
+    @Param({ "afterburner", "jackson", "blackbird", "streaming" })
+    public String codec;
+
+    @Param({ Events.API_GATEWAY_V1, Events.HTTP_API_V2, Events.ALB })
+    public String event;
+
+    @Param({ "false", "true" })
+    public boolean streamingParser;
+
+    private EventCodec<Object, AwsProxyResponse> eventCodec;
+    private byte[] eventBytes;
+    private AwsProxyResponse response;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Class<Object> requestType = (Class<Object>) Events.requestType(event);
+        switch (codec) {
+            case "afterburner":
+                eventCodec = new JacksonEventCodec<>(requestType, AwsProxyResponse.class, LambdaContainerHandler.getObjectMapper());
+                break;
+            case "jackson":
+                eventCodec = new JacksonEventCodec<>(requestType, AwsProxyResponse.class);
+                break;
+            case "blackbird":
+                eventCodec = new BlackbirdEventCodec<>(requestType, AwsProxyResponse.class);
+                break;
+            case "streaming":
+                eventCodec = new StreamingEventCodec<>(requestType);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown codec " + codec);
+        }
+        LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(streamingParser);
+        eventBytes = Events.load(event);
+        response = Events.jsonResponse();
+        output = new ByteArrayOutputStream(4096);
+    }
+
+    @Benchmark
+    public Object readEvent() throws IOException {
+        return eventCodec.readEvent(new ByteArrayInputStream(eventBytes));
+    }
+
+    @Benchmark
+    public int writeResponse() throws IOException {
+        output.reset();
+        eventCodec.writeResponse(response, output);
+        return output.size();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Sample events used by the benchmarks. The events are captured from API Gateway REST APIs (payload version 1.0),
+ * HTTP APIs (payload version 2.0) and Application Load Balancers, and are loaded from the <code>events</code>
+ * resource folder.
+ */
+public final class Events {
+    public static final String API_GATEWAY_V1 = "api-gateway-v1";
+    public static final String HTTP_API_V2 = "http-api-v2";
+    public static final String ALB = "alb";
+
+    /**
+     * The JSON body of the captured event, about 100 bytes.
+     */
+    public static final String SMALL_BODY = "small";
+    /**
+     * A JSON body of about 256KB.
+     */
+    public static final String LARGE_BODY = "large";
+    /**
+     * 64KB of random bytes sent as <code>application/octet-stream</code>, the body is Base64 encoded in the event and
+     * in the response.
+     */
+    public static final String BINARY_BODY = "binary";
+    /**
+     * Turns the event into a <code>GET</code> request without a body.
+     */
+    public static final String NO_BODY = "none";
+
+    private static final int LARGE_BODY_ITEMS = 2048;
+    private static final int BINARY_BODY_BYTES = 64 * 1024;
+
+    private Events() {
+    }
+
+    /**
+     * Loads the raw JSON bytes of a sample event.
+     * @param name One of the event name constants
+     * @return The event JSON as UTF-8 bytes
+     */
+    public static byte[] load(String name) {
+        try (InputStream input = Events.class.getResourceAsStream("/events/" + name + ".json")) {
+            if (input == null) {
+                throw new IllegalArgumentException("Unknown event " + name);
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads a sample event and replaces its body. All sample events are <code>POST</code> requests to
+     * <code>/pets/42</code>, {@link #NO_BODY} turns them into <code>GET</code> requests.
+     * @param name One of the event name constants
+     * @param body One of the body constants
+     * @return The event JSON as UTF-8 bytes
+     */
+    public static byte[] load(String name, String body) {
+        byte[] event = load(name);
+        if (SMALL_BODY.equals(body)) {
+            return event;
+        }
+        ObjectMapper mapper = LambdaContainerHandler.getObjectMapper();
+        try {
+            ObjectNode root = (ObjectNode) mapper.readTree(event);
+            switch (body) {
+                case LARGE_BODY:
+                    root.put("body", largeJsonBody());
+                    root.put("isBase64Encoded", false);
+                    setContentType(root, "application/json;charset=UTF-8");
+                    break;
+                case BINARY_BODY:
+                    byte[] bytes = new byte[BINARY_BODY_BYTES];
+                    new Random(42).nextBytes(bytes);
+                    root.put("body", Base64.getEncoder().encodeToString(bytes));
+                    root.put("isBase64Encoded", true);
+                    setContentType(root, "application/octet-stream");
+                    break;
+                case NO_BODY:
+                    root.remove("body");
+                    root.put("isBase64Encoded", false);
+                    if (root.has("httpMethod")) {
+                        root.put("httpMethod", "GET");
+                    } else {
+                        ((ObjectNode) root.get("requestContext").get("http")).put("method", "GET");
+                    }
+                    setContentType(root, null);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown body " + body);
+            }
+            return mapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The event model class for a sample event.
+     * @param name One of the event name constants
+     * @return The model class the event is read into
+     */
+    public static Class<?> requestType(String name) {
+        return HTTP_API_V2.equals(name) ? HttpApiV2ProxyRequest.class : AwsProxyRequest.class;
+    }
+
+    /**
+     * Reads a sample event into its model class.
+     * @param name One of the event name constants
+     * @param body One of the body constants
+     * @return The event object
+     */
+    public static Object read(String name, String body) {
+        try {
+            return LambdaContainerHandler.getObjectMapper().readValue(load(name, body), requestType(name));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A typical JSON API response.
+     * @return A new response object
+     */
+    public static AwsProxyResponse jsonResponse() {
+        AwsProxyResponse response = new AwsProxyResponse(200);
+        response.addHeader("Content-Type", "application/json; charset=UTF-8");
+        response.addHeader("Cache-Control", "no-cache");
+        response.addHeader("X-Request-Id", "41b45ea3-70b5-11e6-b7bd-69b5aaebc7d9");
+        response.addHeader("Set-Cookie", "session=4f8c1d2e7a9b; Path=/; HttpOnly");
+        response.setBody("{\"id\":42,\"name\":\"Rex\",\"breed\":\"Labrador Retriever\",\"age\":3,\"vaccinated\":true,"
+                + "\"owner\":{\"id\":7,\"name\":\"Jane Doe\",\"email\":\"jane@example.com\"},\"tags\":[\"friendly\",\"large\"]}");
+        return response;
+    }
+
+    private static String largeJsonBody() {
+        StringBuilder json = new StringBuilder("{\"pets\":[");
+        for (int i = 0; i < LARGE_BODY_ITEMS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Pet ").append(i)
+                    .append("\",\"breed\":\"Labrador Retriever\",\"age\":").append(i % 15)
+                    .append(",\"vaccinated\":true,\"tags\":[\"friendly\",\"large\"],\"notes\":\"")
+                    .append("Likes long walks on the beach and chasing tennis balls in the park")
+                    .append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Replaces the content type in the single and multi value headers of the event, whatever the case of the header
+     * name, or removes it when the content type is <code>null</code>. The HTTP API event also declares a content
+     * length, it is removed.
+     */
+    private static void setContentType(ObjectNode event, String contentType) {
+        for (String field : new String[] { "headers", "multiValueHeaders" }) {
+            JsonNode headers = event.get(field);
+            if (headers == null || !headers.isObject()) {
+                continue;
+            }
+            Iterator<Map.Entry<String, JsonNode>> entries = headers.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> header = entries.next();
+                if ("content-length".equalsIgnoreCase(header.getKey())
+                        || (contentType == null && "content-type".equalsIgnoreCase(header.getKey()))) {
+                    entries.remove();
+                } else if ("content-type".equalsIgnoreCase(header.getKey())) {
+                    if (header.getValue().isArray()) {
+                        ArrayNode values = (ArrayNode) header.getValue();
+                        values.removeAll();
+                        values.add(contentType);
+                    } else {
+                        header.setValue(event.textNode(contentType));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.benchmarks.apps.EchoServletHandler;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.services.lambda.runtime.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of the filter chain for a request, which runs at least once per invocation. Half of the filters
+ * registered by {@link EchoServletHandler} match the request and the other half do not.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FilterChainBenchmark {
+
+    @Param({ "0", "2", "10" })
+    public int filters;
+
+    private EchoServletHandler<AwsProxyRequest> handler;
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() throws ContainerInitializationException, InvalidRequestEventException {
+        handler = EchoServletHandler.getAwsProxyHandler(filters);
+        AwsProxyRequest event = (AwsProxyRequest) Events.read(Events.API_GATEWAY_V1, Events.SMALL_BODY);
+        Context context = new BenchmarkContext();
+        AwsProxyHttpServletRequestReader reader = new AwsProxyHttpServletRequestReader();
+        request = reader.readRequest(event, new AwsProxySecurityContextWriter().writeSecurityContext(event, context),
+                                     context, LambdaContainerHandler.getContainerConfig());
+    }
+
+    @Benchmark
+    public FilterChain getFilterChain() {
+        return handler.filterChain(request);
+    }
+}
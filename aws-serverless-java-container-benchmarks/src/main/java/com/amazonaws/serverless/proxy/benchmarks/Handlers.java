@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.benchmarks.apps.EchoResource;
+import com.amazonaws.serverless.proxy.benchmarks.apps.EchoServletHandler;
+import com.amazonaws.serverless.proxy.benchmarks.apps.EchoSpringConfig;
+import com.amazonaws.serverless.proxy.benchmarks.apps.springboot.EchoSpringBootApplication;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.jersey.JerseyLambdaContainerHandler;
+import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
+import com.amazonaws.serverless.proxy.spring.SpringLambdaContainerHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * Builds the container handlers compared by the benchmarks. Each framework serves the same echo endpoint on
+ * <code>POST /pets/{petId}</code>.
+ */
+public final class Handlers {
+
+    public static final String SERVLET = "servlet";
+    public static final String JERSEY = "jersey";
+    public static final String SPRING = "spring";
+    public static final String SPRING_BOOT = "springboot";
+
+    private Handlers() {
+        // static methods only
+    }
+
+    /**
+     * Creates and initializes a handler.
+     * @param framework One of the framework constants
+     * @param event One of the event name constants from {@link Events}, HTTP API events get a handler for the
+     *              <code>HttpApiV2ProxyRequest</code> type and the other events one for <code>AwsProxyRequest</code>
+     * @return An initialized handler
+     * @throws ContainerInitializationException If the framework fails to start
+     */
+    public static LambdaContainerHandler<?, ?, ?, ?> create(String framework, String event)
+            throws ContainerInitializationException {
+        boolean httpApi = Events.HTTP_API_V2.equals(event);
+        switch (framework) {
+            case SERVLET:
+                return httpApi ? EchoServletHandler.getHttpApiV2ProxyHandler(EchoServletHandler.DEFAULT_FILTER_COUNT)
+                        : EchoServletHandler.getAwsProxyHandler(EchoServletHandler.DEFAULT_FILTER_COUNT);
+            case JERSEY:
+                ResourceConfig app = new ResourceConfig().register(EchoResource.class);
+                return httpApi ? JerseyLambdaContainerHandler.getHttpApiV2ProxyHandler(app)
+                        : JerseyLambdaContainerHandler.getAwsProxyHandler(app);
+            case SPRING:
+                return httpApi ? SpringLambdaContainerHandler.getHttpApiV2ProxyHandler(EchoSpringConfig.class)
+                        : SpringLambdaContainerHandler.getAwsProxyHandler(EchoSpringConfig.class);
+            case SPRING_BOOT:
+                return httpApi ? SpringBootLambdaContainerHandler.getHttpApiV2ProxyHandler(EchoSpringBootApplication.class)
+                        : SpringBootLambdaContainerHandler.getAwsProxyHandler(EchoSpringBootApplication.class);
+            default:
+                throw new IllegalArgumentException("Unknown framework " + framework);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a complete invocation through <code>proxyStream</code>, from the event bytes to the response bytes, for each
+ * framework, event type and body size. The handlers use their default configuration and all of them serve an echo
+ * endpoint, so the differences come from the library and the framework rather than from the application.
+ *
+ * Run with <code>java -jar target/benchmarks.jar ProxyStreamBenchmark -p framework=servlet -prof gc</code> to select a
+ * framework and also compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProxyStreamBenchmark {
+
+    @Param({ Handlers.SERVLET, Handlers.JERSEY, Handlers.SPRING, Handlers.SPRING_BOOT })
+    public String framework;
+
+    @Param({ Events.API_GATEWAY_V1, Events.HTTP_API_V2, Events.ALB })
+    public String event;
+
+    @Param({ Events.SMALL_BODY, Events.LARGE_BODY, Events.BINARY_BODY })
+    public String body;
+
+    private LambdaContainerHandler<?, ?, ?, ?> handler;
+    private byte[] eventBytes;
+    private ByteArrayOutputStream output;
+    private Context context;
+
+    @Setup
+    public void setUp() throws ContainerInitializationException, IOException {
+        handler = Handlers.create(framework, event);
+        eventBytes = Events.load(event, body);
+        output = new ByteArrayOutputStream(128 * 1024);
+        context = new BenchmarkContext();
+
+        // fail early rather than measure an error response
+        proxyStream();
+        JsonNode response = LambdaContainerHandler.getObjectMapper().readTree(output.toByteArray());
+        if (response.path("statusCode").asInt() != 200) {
+            throw new IllegalStateException("Unexpected response from " + framework + ": " + response);
+        }
+    }
+
+    @Benchmark
+    public int proxyStream() throws IOException {
+        output.reset();
+        handler.proxyStream(new ByteArrayInputStream(eventBytes), output, context);
+        return output.size();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.proxy.AwsHttpApiV2SecurityContextWriter;
+import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.RequestReader;
+import com.amazonaws.serverless.proxy.SecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpApiV2HttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.model.ContainerConfig;
+import com.amazonaws.services.lambda.runtime.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.core.SecurityContext;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the request readers that turn a proxy event into an <code>HttpServletRequest</code>. The
+ * <code>readRequest</code> benchmark only creates the request, <code>readRequestAndAccess</code> also reads the
+ * properties most frameworks look at for every request: the path, the headers, the content type and the parameters.
+ *
+ * The event object is deserialized once. The readers normalize the path and content type of API Gateway events in
+ * place, which only changes the event the first time it is read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RequestReaderBenchmark {
+
+    @Param({ Events.API_GATEWAY_V1, Events.HTTP_API_V2, Events.ALB })
+    public String event;
+
+    private RequestReader<Object, HttpServletRequest> reader;
+    private Object request;
+    private SecurityContext securityContext;
+    private Context context;
+    private ContainerConfig config;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SecurityContextWriter<Object> securityContextWriter;
+        if (Events.HTTP_API_V2.equals(event)) {
+            reader = (RequestReader<Object, HttpServletRequest>) (RequestReader<?, HttpServletRequest>) new AwsHttpApiV2HttpServletRequestReader();
+            securityContextWriter = (SecurityContextWriter<Object>) (SecurityContextWriter<?>) new AwsHttpApiV2SecurityContextWriter();
+        } else {
+            reader = (RequestReader<Object, HttpServletRequest>) (RequestReader<?, HttpServletRequest>) new AwsProxyHttpServletRequestReader();
+            securityContextWriter = (SecurityContextWriter<Object>) (SecurityContextWriter<?>) new AwsProxySecurityContextWriter();
+        }
+        request = Events.read(event, Events.SMALL_BODY);
+        context = new BenchmarkContext();
+        securityContext = securityContextWriter.writeSecurityContext(request, context);
+        config = LambdaContainerHandler.getContainerConfig();
+    }
+
+    @Benchmark
+    public HttpServletRequest readRequest() throws InvalidRequestEventException {
+        return reader.readRequest(request, securityContext, context, config);
+    }
+
+    @Benchmark
+    public void readRequestAndAccess(Blackhole blackhole) throws InvalidRequestEventException {
+        HttpServletRequest servletRequest = reader.readRequest(request, securityContext, context, config);
+        blackhole.consume(servletRequest.getPathInfo());
+        blackhole.consume(servletRequest.getContentType());
+        blackhole.consume(servletRequest.getContentLength());
+        Enumeration<String> names = servletRequest.getHeaderNames();
+        while (names.hasMoreElements()) {
+            blackhole.consume(servletRequest.getHeader(names.nextElement()));
+        }
+        blackhole.consume(servletRequest.getParameterMap());
+    }
+}
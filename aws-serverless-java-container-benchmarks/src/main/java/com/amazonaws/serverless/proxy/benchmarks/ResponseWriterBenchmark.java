@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks;
+
+import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
+import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletOutputStreamResponseWriter;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stages of writing a servlet response back to Lambda:
+ * <ul>
+ *     <li><code>toProxyResponse</code> converts the servlet response into an <code>AwsProxyResponse</code> with
+ *     {@link AwsProxyHttpServletResponseWriter}, which includes the UTF-8 check and the Base64 encoding of the body</li>
+ *     <li><code>serializeProxyResponse</code> serializes that object to JSON</li>
+ *     <li><code>writeBuffered</code> runs both stages, like <code>proxyStream</code> with the default writer</li>
+ *     <li><code>writeStreaming</code> writes the JSON straight from the servlet response with
+ *     {@link AwsProxyHttpServletOutputStreamResponseWriter}</li>
+ * </ul>
+ * The body of the response is the body of the matching {@link Events} request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResponseWriterBenchmark {
+
+    @Param({ Events.SMALL_BODY, Events.LARGE_BODY, Events.BINARY_BODY })
+    public String body;
+
+    private AwsProxyHttpServletResponseWriter bufferedWriter;
+    private AwsProxyHttpServletOutputStreamResponseWriter streamingWriter;
+    private ObjectWriter objectWriter;
+    private AwsHttpServletResponse response;
+    private AwsProxyResponse proxyResponse;
+    private Context context;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setUp() throws IOException, InvalidRequestEventException, InvalidResponseObjectException {
+        AwsProxyRequest event = (AwsProxyRequest) Events.read(Events.API_GATEWAY_V1, body);
+        context = new BenchmarkContext();
+        HttpServletRequest request = new AwsProxyHttpServletRequestReader().readRequest(
+                event, new AwsProxySecurityContextWriter().writeSecurityContext(event, context), context,
+                LambdaContainerHandler.getContainerConfig());
+
+        response = new AwsHttpServletResponse(request, new CountDownLatch(1));
+        response.setStatus(200);
+        response.setContentType(request.getContentType());
+        response.setHeader("X-Pet-Id", "42");
+        response.getOutputStream().write(event.isBase64Encoded()
+                ? Base64.getDecoder().decode(event.getBody()) : event.getBody().getBytes(StandardCharsets.UTF_8));
+        response.flushBuffer();
+
+        bufferedWriter = new AwsProxyHttpServletResponseWriter();
+        streamingWriter = new AwsProxyHttpServletOutputStreamResponseWriter();
+        objectWriter = LambdaContainerHandler.getObjectMapper().writerFor(AwsProxyResponse.class);
+        proxyResponse = bufferedWriter.writeResponse(response, context);
+        output = new ByteArrayOutputStream(128 * 1024);
+    }
+
+    @Benchmark
+    public AwsProxyResponse toProxyResponse() throws InvalidResponseObjectException {
+        return bufferedWriter.writeResponse(response, context);
+    }
+
+    @Benchmark
+    public int serializeProxyResponse() throws IOException {
+        output.reset();
+        objectWriter.writeValue(output, proxyResponse);
+        return output.size();
+    }
+
+    @Benchmark
+    public int writeBuffered() throws IOException, InvalidResponseObjectException {
+        output.reset();
+        objectWriter.writeValue(output, bufferedWriter.writeResponse(response, context));
+        return output.size();
+    }
+
+    @Benchmark
+    public int writeStreaming() throws IOException, InvalidResponseObjectException {
+        output.reset();
+        streamingWriter.writeResponse(response, context, output);
+        return output.size();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks.apps;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.AwsHttpApiV2SecurityContextWriter;
+import com.amazonaws.serverless.proxy.AwsProxyExceptionHandler;
+import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.RequestReader;
+import com.amazonaws.serverless.proxy.SecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpApiV2HttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletRequest;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsLambdaServletContainerHandler;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsServletContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRegistration;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Container handler that runs a single servlet without any framework, it measures the cost of the servlet layer of the
+ * library on its own. The servlet echoes the body of <code>POST</code> requests with the request content type and
+ * returns a small JSON document for <code>GET</code> requests. The handler registers a number of filters: even filters
+ * match every request and odd filters are mapped to paths the sample events never use, so that the filter chain
+ * lookup has to discard some of them.
+ * @param <RequestType> The incoming event type
+ */
+public class EchoServletHandler<RequestType>
+        extends AwsLambdaServletContainerHandler<RequestType, AwsProxyResponse, HttpServletRequest, AwsHttpServletResponse> {
+
+    public static final int DEFAULT_FILTER_COUNT = 2;
+
+    private Servlet servlet;
+
+    public static EchoServletHandler<AwsProxyRequest> getAwsProxyHandler(int filterCount)
+            throws ContainerInitializationException {
+        EchoServletHandler<AwsProxyRequest> handler = new EchoServletHandler<>(
+                AwsProxyRequest.class,
+                new AwsProxyHttpServletRequestReader(),
+                new AwsProxyHttpServletResponseWriter(),
+                new AwsProxySecurityContextWriter(),
+                filterCount);
+        handler.initialize();
+        return handler;
+    }
+
+    public static EchoServletHandler<HttpApiV2ProxyRequest> getHttpApiV2ProxyHandler(int filterCount)
+            throws ContainerInitializationException {
+        EchoServletHandler<HttpApiV2ProxyRequest> handler = new EchoServletHandler<>(
+                HttpApiV2ProxyRequest.class,
+                new AwsHttpApiV2HttpServletRequestReader(),
+                new AwsProxyHttpServletResponseWriter(true),
+                new AwsHttpApiV2SecurityContextWriter(),
+                filterCount);
+        handler.initialize();
+        return handler;
+    }
+
+    private EchoServletHandler(Class<RequestType> requestTypeClass,
+                               RequestReader<RequestType, HttpServletRequest> requestReader,
+                               AwsProxyHttpServletResponseWriter responseWriter,
+                               SecurityContextWriter<RequestType> securityContextWriter,
+                               int filterCount) {
+        super(requestTypeClass, AwsProxyResponse.class, requestReader, responseWriter, securityContextWriter,
+              new AwsProxyExceptionHandler());
+        ServletRegistration.Dynamic registration = getServletContext().addServlet("echo", new EchoServlet());
+        registration.addMapping("/*");
+        registration.setLoadOnStartup(1);
+        for (int i = 0; i < filterCount; i++) {
+            FilterRegistration.Dynamic filter = getServletContext().addFilter("filter" + i, new HeaderFilter("X-Filter-" + i));
+            filter.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true,
+                                            i % 2 == 0 ? "/*" : "/admin/" + i + "/*");
+        }
+    }
+
+    /**
+     * Returns the filter chain the handler would run for the request, the benchmarks use it to measure the lookup.
+     * @param request A request read by the request reader of this handler
+     * @return The filter chain
+     */
+    public FilterChain filterChain(HttpServletRequest request) {
+        return getFilterChain(request, servlet);
+    }
+
+    @Override
+    protected AwsHttpServletResponse getContainerResponse(HttpServletRequest request, CountDownLatch latch) {
+        return newServletResponse(request, latch);
+    }
+
+    @Override
+    protected void handleRequest(HttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext)
+            throws Exception {
+        if (containerRequest instanceof AwsHttpServletRequest) {
+            ((AwsHttpServletRequest) containerRequest).setServletContext(getServletContext());
+            ((AwsHttpServletRequest) containerRequest).setResponse(containerResponse);
+        }
+        doFilter(containerRequest, containerResponse, servlet);
+    }
+
+    @Override
+    public void initialize() throws ContainerInitializationException {
+        super.initialize();
+        servlet = ((AwsServletContext) getServletContext()).getServletForPath("/pets/42");
+    }
+
+    private static class EchoServlet extends HttpServlet {
+        private static final long serialVersionUID = 1L;
+        private static final byte[] PET = "{\"id\":42,\"name\":\"Bella\",\"breed\":\"Labrador Retriever\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        // the copy buffer is kept so that the servlet does not add its own allocations to the measurements
+        private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.setContentType("application/json");
+            resp.getOutputStream().write(PET);
+        }
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.setContentType(req.getContentType());
+            resp.setHeader("X-Pet-Id", req.getPathInfo().substring(req.getPathInfo().lastIndexOf('/') + 1));
+            byte[] buffer = BUFFER.get();
+            int read;
+            while ((read = req.getInputStream().read(buffer)) != -1) {
+                resp.getOutputStream().write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static class HeaderFilter implements Filter {
+        private final String header;
+
+        HeaderFilter(String header) {
+            this.header = header;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            ((HttpServletResponse) response).setHeader(header, "true");
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks.coldstart;
+
+import com.amazonaws.serverless.proxy.benchmarks.Events;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the cold start of the sample applications. Each run starts the application in a fresh JVM against a
+ * {@link RuntimeApiEmulator}, sends it a single API Gateway event and records the time from the start of the process to
+ * the first completed response. The run is broken down into the milestones reported by {@link ColdStartRuntime}, the
+ * end of the init phase as seen by the Runtime API, and the time the library spent in each
+ * {@link com.amazonaws.serverless.proxy.internal.metrics.Phase}.
+ *
+ * Build the samples first, for example with <code>mvn package</code> in <code>samples/jersey/pet-store</code>, then
+ * run the harness from the root of the project:
+ * <pre>
+ * java -cp aws-serverless-java-container-benchmarks/target/benchmarks.jar \
+ *     com.amazonaws.serverless.proxy.benchmarks.coldstart.ColdStartHarness --runs 5 --json cold-start.json
+ * </pre>
+ * Options:
+ * <ul>
+ *     <li><code>--sample &lt;name&gt;</code> measures one of the {@link SampleApp#SAMPLES}, can be repeated. By
+ *     default all the samples that have been built are measured.</li>
+ *     <li><code>--classpath &lt;classpath&gt; --handler &lt;class&gt;</code> or
+ *     <code>--classpath &lt;classpath&gt; --main &lt;class&gt;</code> measures another application.</li>
+ *     <li><code>--samples-dir &lt;folder&gt;</code> the samples folder, <code>samples</code> by default.</li>
+ *     <li><code>--event &lt;name&gt;</code> the event type, one of the {@link Events} names.</li>
+ *     <li><code>--runs &lt;count&gt;</code> the number of JVMs started for each application, 5 by default.</li>
+ *     <li><code>--jvm-arg &lt;argument&gt;</code> adds an argument to the command line of the JVMs, can be repeated.</li>
+ *     <li><code>--timeout &lt;seconds&gt;</code> how long to wait for the first response, 60 by default.</li>
+ *     <li><code>--json &lt;file&gt;</code> also writes the measurements of every run to a JSON file.</li>
+ *     <li><code>--verbose</code> prints the output of the applications.</li>
+ * </ul>
+ */
+public final class ColdStartHarness {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    static final String INIT_COMPLETED = "init_completed";
+    static final String RESPONSE_COMPLETED = "response_completed";
+
+    /**
+     * The milestones of a run in chronological order.
+     */
+    private static final List<String> MILESTONES = Arrays.asList(ColdStartRuntime.JVM_START,
+                                                                 ColdStartRuntime.RUNTIME_MAIN,
+                                                                 ColdStartRuntime.HANDLER_LOADED,
+                                                                 ColdStartRuntime.HANDLER_CREATED,
+                                                                 ColdStartRuntime.APPLICATION_STARTED,
+                                                                 INIT_COMPLETED,
+                                                                 ColdStartRuntime.EVENT_RECEIVED,
+                                                                 ColdStartRuntime.EVENT_HANDLED,
+                                                                 RESPONSE_COMPLETED);
+
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    private final List<String> jvmArguments = new ArrayList<>();
+    private String eventName = Events.API_GATEWAY_V1;
+    private int runs = 5;
+    private long timeoutSeconds = 60;
+    private boolean verbose;
+    private Path runtimeClasses;
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+        ColdStartHarness harness = new ColdStartHarness();
+        File samplesDirectory = new File("samples");
+        List<String> sampleNames = new ArrayList<>();
+        String classpath = null;
+        String handler = null;
+        String mainClass = null;
+        String jsonFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sample":
+                    sampleNames.add(args[++i]);
+                    break;
+                case "--samples-dir":
+                    samplesDirectory = new File(args[++i]);
+                    break;
+                case "--classpath":
+                    classpath = args[++i];
+                    break;
+                case "--handler":
+                    handler = args[++i];
+                    break;
+                case "--main":
+                    mainClass = args[++i];
+                    break;
+                case "--event":
+                    harness.eventName = args[++i];
+                    break;
+                case "--runs":
+                    harness.runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--jvm-arg":
+                    harness.jvmArguments.add(args[++i]);
+                    break;
+                case "--timeout":
+                    harness.timeoutSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--json":
+                    jsonFile = args[++i];
+                    break;
+                case "--verbose":
+                    harness.verbose = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Map<SampleApp, String> apps = new LinkedHashMap<>();
+        if (classpath != null) {
+            if ((handler == null) == (mainClass == null)) {
+                throw new IllegalArgumentException("--classpath requires either --handler or --main");
+            }
+            apps.put(handler != null
+                             ? new SampleApp("custom", null, ColdStartRuntime.MODE_STREAM, handler, "GET", "/pets", null)
+                             : new SampleApp("custom", null, ColdStartRuntime.MODE_MAIN, mainClass, "GET", "/pets", null)
+                                     .withEnvironment("_HANDLER", "NOP"),
+                     classpath);
+        } else {
+            List<SampleApp> samples = new ArrayList<>();
+            if (sampleNames.isEmpty()) {
+                samples.addAll(SampleApp.SAMPLES);
+            } else {
+                for (String name : sampleNames) {
+                    samples.add(SampleApp.find(name));
+                }
+            }
+            for (SampleApp sample : samples) {
+                String sampleClasspath = sample.classpath(samplesDirectory);
+                if (sampleClasspath == null) {
+                    System.out.println("Skipping " + sample.getName() + ", the sample has not been built");
+                } else {
+                    apps.put(sample, sampleClasspath);
+                }
+            }
+        }
+        if (apps.isEmpty()) {
+            System.out.println("Nothing to measure, build the samples with mvn package first");
+            System.exit(1);
+        }
+
+        ObjectMapper mapper = LambdaContainerHandler.getObjectMapper();
+        ArrayNode results = mapper.createArrayNode();
+        boolean failed = false;
+        for (Map.Entry<SampleApp, String> app : apps.entrySet()) {
+            List<Run> sampleRuns = new ArrayList<>();
+            for (int i = 0; i < harness.runs; i++) {
+                Run run = harness.measure(app.getKey(), app.getValue());
+                if (run.failure != null) {
+                    System.out.println(app.getKey().getName() + " run " + (i + 1) + " failed: " + run.failure);
+                    failed = true;
+                }
+                sampleRuns.add(run);
+            }
+            print(app.getKey(), sampleRuns);
+            results.add(toJson(mapper, app.getKey(), sampleRuns));
+        }
+        if (jsonFile != null) {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(new File(jsonFile), results);
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Starts the application in a new JVM and waits for the response to its first event.
+     * @param app The application
+     * @param classpath The classpath of the application
+     * @return The measurements of the run
+     */
+    Run measure(SampleApp app, String classpath) throws IOException, InterruptedException {
+        Run run = new Run();
+        try (RuntimeApiEmulator emulator = new RuntimeApiEmulator(event(app, eventName))) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(jvmArguments);
+            command.add("-cp");
+            command.add(runtimeClasses() + File.pathSeparator + classpath);
+            command.add(ColdStartRuntime.class.getName());
+            command.add(app.getMode());
+            command.add(app.getTarget());
+
+            ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+            builder.environment().put("AWS_LAMBDA_RUNTIME_API", emulator.getAddress());
+            builder.environment().putAll(app.getEnvironment());
+
+            long start = ColdStartRuntime.epochNanos();
+            Process process = builder.start();
+            Thread reader = new Thread(() -> readOutput(process.getInputStream(), run, start), "cold-start-output");
+            reader.setDaemon(true);
+            reader.start();
+            try {
+                if (!emulator.awaitCompletion(timeoutSeconds, TimeUnit.SECONDS)) {
+                    run.failure = process.isAlive() ? "no response after " + timeoutSeconds + " seconds"
+                            : "the JVM exited with status " + process.exitValue();
+                } else if (emulator.isError()) {
+                    run.failure = emulator.getResult();
+                } else {
+                    run.statusCode = statusCode(emulator.getResult());
+                    if (run.statusCode < 200 || run.statusCode >= 400) {
+                        run.failure = "status code " + run.statusCode;
+                    }
+                }
+            } finally {
+                process.destroyForcibly();
+                process.waitFor();
+                reader.join(TimeUnit.SECONDS.toMillis(5));
+            }
+            run.milestone(INIT_COMPLETED, emulator.getFirstNextNanos(), start);
+            run.milestone(RESPONSE_COMPLETED, emulator.getCompletedNanos(), start);
+        }
+        return run;
+    }
+
+    /**
+     * Builds the event sent to an application from one of the sample events.
+     */
+    static byte[] event(SampleApp app, String eventName) throws IOException {
+        ObjectMapper mapper = LambdaContainerHandler.getObjectMapper();
+        ObjectNode root = (ObjectNode) mapper.readTree(Events.load(eventName, Events.NO_BODY));
+        if (root.has("rawPath")) {
+            root.put("rawPath", app.getPath());
+            ObjectNode http = (ObjectNode) root.get("requestContext").get("http");
+            http.put("method", app.getMethod());
+            http.put("path", app.getPath());
+        } else {
+            root.put("path", app.getPath());
+            root.put("httpMethod", app.getMethod());
+            JsonNode requestContext = root.get("requestContext");
+            if (requestContext != null && requestContext.has("path")) {
+                ((ObjectNode) requestContext).put("path", "/prod" + app.getPath());
+            }
+        }
+        if (root.has("pathParameters")) {
+            root.putObject("pathParameters").put("proxy", app.getPath().substring(1));
+        }
+        if (app.getBody() != null) {
+            root.put("body", app.getBody());
+            ObjectNode headers = root.has("headers") ? (ObjectNode) root.get("headers") : root.putObject("headers");
+            headers.put("content-type", "application/json");
+            if (root.has("multiValueHeaders")) {
+                ((ObjectNode) root.get("multiValueHeaders")).putArray("content-type").add("application/json");
+            }
+        }
+        return mapper.writeValueAsBytes(root);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    /**
+     * Copies the {@link ColdStartRuntime} classes to a folder that is added in front of the classpath of the
+     * applications. The benchmarks jar itself cannot be added, its copy of the libraries would clash with the
+     * versions the application was built with.
+     */
+    private Path runtimeClasses() throws IOException {
+        if (runtimeClasses != null) {
+            return runtimeClasses;
+        }
+        Path directory = Files.createTempDirectory("cold-start-runtime");
+        List<Class<?>> classes = new ArrayList<>();
+        classes.add(ColdStartRuntime.class);
+        classes.addAll(Arrays.asList(ColdStartRuntime.class.getDeclaredClasses()));
+        for (Class<?> type : classes) {
+            String resource = type.getName().replace('.', '/') + ".class";
+            Path file = directory.resolve(resource);
+            Files.createDirectories(file.getParent());
+            try (InputStream input = ColdStartHarness.class.getClassLoader().getResourceAsStream(resource)) {
+                if (input == null) {
+                    throw new IllegalStateException("Could not find " + resource);
+                }
+                Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        runtimeClasses = directory;
+        return directory;
+    }
+
+    private void readOutput(InputStream output, Run run, long start) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.startsWith(ColdStartRuntime.OUTPUT_PREFIX)) {
+                    if (verbose) {
+                        System.out.println(line);
+                    }
+                    continue;
+                }
+                String[] fields = line.substring(ColdStartRuntime.OUTPUT_PREFIX.length()).split(" ");
+                if (ColdStartRuntime.PHASE.equals(fields[0]) && fields.length == 4) {
+                    run.phases.put(fields[1], Long.parseLong(fields[2]) / NANOS_PER_MILLISECOND);
+                } else if (fields.length == 2) {
+                    run.milestone(fields[0], Long.parseLong(fields[1]), start);
+                }
+            }
+        } catch (IOException e) {
+            // the process was destroyed
+        }
+    }
+
+    private static int statusCode(String response) {
+        try {
+            JsonNode statusCode = LambdaContainerHandler.getObjectMapper().readTree(response).get("statusCode");
+            return statusCode == null ? 0 : statusCode.asInt();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void print(SampleApp app, List<Run> runs) {
+        System.out.println();
+        System.out.println(app.getName() + " (" + app.getMode() + " " + app.getTarget() + "), " + runs.size()
+                                   + " runs, milliseconds since the process started");
+        System.out.println(String.format("  %-40s %10s %10s %10s", "", "min", "median", "max"));
+        for (String milestone : MILESTONES) {
+            printRow(milestone, values(runs, run -> run.milestones.get(milestone)));
+        }
+        List<String> phases = new ArrayList<>();
+        for (Run run : runs) {
+            for (String phase : run.phases.keySet()) {
+                if (!phases.contains(phase)) {
+                    phases.add(phase);
+                }
+            }
+        }
+        if (!phases.isEmpty()) {
+            System.out.println("  time spent in each phase of the library, milliseconds");
+            for (String phase : phases) {
+                printRow(phase, values(runs, run -> run.phases.get(phase)));
+            }
+        }
+    }
+
+    private static void printRow(String name, List<Double> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        Collections.sort(values);
+        System.out.println(String.format("  %-40s %10.1f %10.1f %10.1f", name, values.get(0),
+                                         values.get(values.size() / 2), values.get(values.size() - 1)));
+    }
+
+    private static List<Double> values(List<Run> runs, Function<Run, Double> value) {
+        List<Double> values = new ArrayList<>();
+        for (Run run : runs) {
+            Double runValue = value.apply(run);
+            if (runValue != null) {
+                values.add(runValue);
+            }
+        }
+        return values;
+    }
+
+    private static ObjectNode toJson(ObjectMapper mapper, SampleApp app, List<Run> runs) {
+        ObjectNode result = mapper.createObjectNode();
+        result.put("name", app.getName());
+        result.put("mode", app.getMode());
+        result.put("target", app.getTarget());
+        ArrayNode runsNode = result.putArray("runs");
+        for (Run run : runs) {
+            ObjectNode runNode = runsNode.addObject();
+            runNode.put("statusCode", run.statusCode);
+            if (run.failure != null) {
+                runNode.put("failure", run.failure);
+            }
+            ObjectNode milestones = runNode.putObject("milestones");
+            run.milestones.forEach(milestones::put);
+            ObjectNode phases = runNode.putObject("phases");
+            run.phases.forEach(phases::put);
+        }
+        return result;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner classes
+    //-------------------------------------------------------------
+
+    /**
+     * The measurements of a single JVM, all values in milliseconds. Milestones are relative to the start of the
+     * process.
+     */
+    static final class Run {
+        final Map<String, Double> milestones = Collections.synchronizedMap(new LinkedHashMap<>());
+        final Map<String, Double> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+        int statusCode;
+        String failure;
+
+        void milestone(String name, long epochNanos, long start) {
+            if (epochNanos >= 0) {
+                milestones.put(name, (epochNanos - start) / NANOS_PER_MILLISECOND);
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks.coldstart;
+
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseStatistics;
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the JVM started by the {@link ColdStartHarness}. The class runs in the classpath of the sample
+ * application, so it only depends on the JDK and on the <code>aws-lambda-java-core</code> interfaces the samples
+ * include. The library metrics classes are optional: when the sample uses a version of the library that does not have
+ * them, the per-phase breakdown is not reported.
+ *
+ * The first argument selects the mode:
+ * <ul>
+ *     <li><code>stream &lt;handler class&gt;</code> loads a <code>RequestStreamHandler</code> and runs a minimal
+ *     version of the Lambda Java runtime loop against <code>AWS_LAMBDA_RUNTIME_API</code>.</li>
+ *     <li><code>main &lt;main class&gt; [args]</code> calls the main method of an application that runs its own
+ *     event loop, such as a Spring Boot application using the <code>AwsSpringWebCustomRuntimeEventLoop</code>.</li>
+ * </ul>
+ * The milestones of the startup are written to standard output as lines that start with {@link #OUTPUT_PREFIX}.
+ */
+public final class ColdStartRuntime {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    static final String OUTPUT_PREFIX = "[cold-start] ";
+    static final String MODE_STREAM = "stream";
+    static final String MODE_MAIN = "main";
+
+    static final String JVM_START = "jvm_start";
+    static final String RUNTIME_MAIN = "runtime_main";
+    static final String HANDLER_LOADED = "handler_loaded";
+    static final String HANDLER_CREATED = "handler_created";
+    static final String APPLICATION_STARTED = "application_started";
+    static final String EVENT_RECEIVED = "event_received";
+    static final String EVENT_HANDLED = "event_handled";
+    static final String PHASE = "phase";
+
+    private static final long ANCHOR_MILLIS = System.currentTimeMillis();
+    private static final long ANCHOR_NANOS = System.nanoTime();
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    private ColdStartRuntime() {
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+        mark(RUNTIME_MAIN);
+        if (args.length < 2) {
+            System.err.println("Usage: ColdStartRuntime stream <handler class> | main <main class> [args]");
+            System.exit(2);
+        }
+        print(JVM_START, TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getStartTime()));
+        enableRecorder();
+
+        if (MODE_STREAM.equals(args[0])) {
+            runStreamHandler(args[1], System.getenv("AWS_LAMBDA_RUNTIME_API"));
+        } else if (MODE_MAIN.equals(args[0])) {
+            Method main = Class.forName(args[1]).getMethod("main", String[].class);
+            main.invoke(null, (Object) Arrays.copyOfRange(args, 2, args.length));
+            mark(APPLICATION_STARTED);
+            printPhases();
+        } else {
+            System.err.println("Unknown mode " + args[0]);
+            System.exit(2);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * The current time in nanoseconds since the epoch. The value is derived from <code>System.nanoTime()</code> and
+     * anchored to the wall clock once, so that the JVMs of the harness and of the application can be compared.
+     */
+    static long epochNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(ANCHOR_MILLIS) + System.nanoTime() - ANCHOR_NANOS;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private - Static
+    //-------------------------------------------------------------
+
+    private static void runStreamHandler(String handlerClass, String runtimeApi) throws IOException {
+        String baseUrl = "http://" + runtimeApi + "/" + RuntimeApiEmulator.API_VERSION + "/runtime/";
+        RequestStreamHandler handler;
+        try {
+            Class<?> type = Class.forName(handlerClass);
+            mark(HANDLER_LOADED);
+            handler = (RequestStreamHandler) type.getDeclaredConstructor().newInstance();
+            mark(HANDLER_CREATED);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            post(baseUrl + "init/error", error(e instanceof InvocationTargetException ? e.getCause() : e));
+            throw new IllegalStateException("Could not initialize handler " + handlerClass, e);
+        }
+
+        boolean first = true;
+        while (true) {
+            HttpURLConnection next = (HttpURLConnection) new URL(baseUrl + "invocation/next").openConnection();
+            byte[] event;
+            try (InputStream input = next.getInputStream()) {
+                event = read(input);
+            }
+            String requestId = next.getHeaderField("Lambda-Runtime-Aws-Request-Id");
+            if (first) {
+                mark(EVENT_RECEIVED);
+            }
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try {
+                handler.handleRequest(new ByteArrayInputStream(event), output, new RuntimeContext(requestId));
+            } catch (IOException | RuntimeException e) {
+                post(baseUrl + "invocation/" + requestId + "/error", error(e));
+                continue;
+            }
+            if (first) {
+                mark(EVENT_HANDLED);
+                printPhases();
+                first = false;
+            }
+            post(baseUrl + "invocation/" + requestId + "/response", output.toByteArray());
+        }
+    }
+
+    private static void enableRecorder() {
+        try {
+            PhaseRecorder.enable();
+        } catch (LinkageError e) {
+            // the library version of the sample does not include the metrics classes
+        }
+    }
+
+    private static void printPhases() {
+        try {
+            for (Map.Entry<Phase, PhaseStatistics> phase : PhaseRecorder.getStatistics().entrySet()) {
+                System.out.println(OUTPUT_PREFIX + PHASE + " " + phase.getKey().name() + " "
+                        + phase.getValue().getTotalNanos() + " " + phase.getValue().getCount());
+            }
+        } catch (LinkageError e) {
+            // the library version of the sample does not include the metrics classes
+        }
+    }
+
+    private static void mark(String milestone) {
+        print(milestone, epochNanos());
+    }
+
+    private static void print(String milestone, long epochNanos) {
+        System.out.println(OUTPUT_PREFIX + milestone + " " + epochNanos);
+    }
+
+    private static void post(String url, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        connection.getResponseCode();
+        connection.disconnect();
+    }
+
+    private static byte[] error(Throwable error) {
+        StringWriter stackTrace = new StringWriter();
+        error.printStackTrace(new PrintWriter(stackTrace));
+        return ("{\"errorType\":\"" + error.getClass().getName() + "\",\"errorMessage\":\""
+                + escape(String.valueOf(error.getMessage())) + "\",\"stackTrace\":\"" + escape(stackTrace.toString())
+                + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < ' ') {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static byte[] read(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner classes
+    //-------------------------------------------------------------
+
+    /**
+     * Lambda context of the invocations, the logger writes to standard error like the Lambda Java runtime does for
+     * messages that cannot be sent to the log daemon.
+     */
+    static final class RuntimeContext implements Context, LambdaLogger {
+        private final String requestId;
+
+        RuntimeContext(String requestId) {
+            this.requestId = requestId;
+        }
+
+        @Override
+        public String getAwsRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return "/aws/lambda/cold-start";
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return "2024/01/01/[$LATEST]cold-start";
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "cold-start";
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return "$LATEST";
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return "arn:aws:lambda:us-east-1:123456789012:function:cold-start";
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return 300000;
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            return 1024;
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return this;
+        }
+
+        @Override
+        public void log(String message) {
+            System.err.println(message);
+        }
+
+        @Override
+        public void log(byte[] message) {
+            System.err.println(new String(message, StandardCharsets.UTF_8));
+        }
+    }
+}
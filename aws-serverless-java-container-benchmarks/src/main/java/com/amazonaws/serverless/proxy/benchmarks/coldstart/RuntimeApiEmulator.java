@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks.coldstart;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the Lambda Runtime API. The emulator listens on an ephemeral port of the loopback interface and
+ * implements the endpoints a runtime calls: <code>GET /2018-06-01/runtime/invocation/next</code> to receive an event,
+ * <code>POST /2018-06-01/runtime/invocation/{id}/response</code> and <code>.../error</code> to complete it, and
+ * <code>POST /2018-06-01/runtime/init/error</code> to report an initialization failure.
+ *
+ * Each emulator serves a single event. The first call to the next endpoint returns it, later calls block like the real
+ * API does when there is no traffic. The emulator records when the runtime first asked for an event and when it
+ * completed the invocation, using the same clock as {@link ColdStartRuntime}.
+ */
+public class RuntimeApiEmulator implements AutoCloseable {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    static final String API_VERSION = "2018-06-01";
+    private static final String RUNTIME_PATH = "/" + API_VERSION + "/runtime/";
+    private static final String NEXT_PATH = RUNTIME_PATH + "invocation/next";
+    private static final String INIT_ERROR_PATH = RUNTIME_PATH + "init/error";
+    private static final String INVOCATION_PATH = RUNTIME_PATH + "invocation/";
+    private static final long DEADLINE_MS = 300_000L;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final BlockingQueue<byte[]> events = new LinkedBlockingQueue<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final String requestId = UUID.randomUUID().toString();
+
+    private volatile long firstNextNanos = -1L;
+    private volatile long completedNanos = -1L;
+    private volatile boolean error;
+    private volatile String result;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Starts an emulator that serves the given event.
+     * @param event The JSON event returned by the first call to the next endpoint
+     * @throws IOException If the server cannot be started
+     */
+    public RuntimeApiEmulator(byte[] event) throws IOException {
+        events.add(event);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "runtime-api-emulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(RUNTIME_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * The value of the <code>AWS_LAMBDA_RUNTIME_API</code> environment variable a runtime needs to reach the emulator.
+     * @return The host and port of the emulator
+     */
+    public String getAddress() {
+        return server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Waits until the runtime posts a response or an error for the event, or reports an initialization error.
+     * @param timeout The maximum time to wait
+     * @param unit The unit of the timeout
+     * @return <code>true</code> if the invocation completed, <code>false</code> if the timeout elapsed
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return completed.await(timeout, unit);
+    }
+
+    /**
+     * When the runtime first called the next endpoint, this is the end of the init phase from the point of view of
+     * the Lambda service.
+     * @return The time in epoch nanoseconds, or -1 if the runtime never asked for an event
+     */
+    public long getFirstNextNanos() {
+        return firstNextNanos;
+    }
+
+    /**
+     * When the runtime posted the response or the error.
+     * @return The time in epoch nanoseconds, or -1 if the invocation did not complete
+     */
+    public long getCompletedNanos() {
+        return completedNanos;
+    }
+
+    /**
+     * Whether the runtime reported an initialization or invocation error instead of a response.
+     * @return <code>true</code> if an error endpoint was called
+     */
+    public boolean isError() {
+        return error;
+    }
+
+    /**
+     * The body the runtime posted to the response or error endpoint.
+     * @return The body as a string, or <code>null</code> if the invocation did not complete
+     */
+    public String getResult() {
+        return result;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if ("GET".equals(exchange.getRequestMethod()) && NEXT_PATH.equals(path)) {
+                next(exchange);
+            } else if ("POST".equals(exchange.getRequestMethod()) && INIT_ERROR_PATH.equals(path)) {
+                complete(exchange, true);
+            } else if ("POST".equals(exchange.getRequestMethod())
+                    && (INVOCATION_PATH + requestId + "/response").equals(path)) {
+                complete(exchange, false);
+            } else if ("POST".equals(exchange.getRequestMethod())
+                    && (INVOCATION_PATH + requestId + "/error").equals(path)) {
+                complete(exchange, true);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void next(HttpExchange exchange) throws IOException {
+        if (firstNextNanos < 0) {
+            firstNextNanos = ColdStartRuntime.epochNanos();
+        }
+        byte[] event;
+        try {
+            event = events.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", requestId);
+        exchange.getResponseHeaders().add("Lambda-Runtime-Deadline-Ms",
+                Long.toString(System.currentTimeMillis() + DEADLINE_MS));
+        exchange.getResponseHeaders().add("Lambda-Runtime-Invoked-Function-Arn",
+                "arn:aws:lambda:us-east-1:123456789012:function:cold-start");
+        exchange.getResponseHeaders().add("Lambda-Runtime-Trace-Id",
+                "Root=1-5759e988-bd862e3fe1be46a994272793;Parent=53995c3f42cd8ad8;Sampled=0");
+        exchange.sendResponseHeaders(200, event.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(event);
+        }
+    }
+
+    private void complete(HttpExchange exchange, boolean isError) throws IOException {
+        String body = read(exchange.getRequestBody());
+        if (completedNanos < 0) {
+            completedNanos = ColdStartRuntime.epochNanos();
+            error = isError;
+            result = body;
+            completed.countDown();
+        }
+        exchange.sendResponseHeaders(202, -1);
+    }
+
+    private static String read(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+            output.write(buffer, 0, read);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.benchmarks.coldstart;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An application measured by the {@link ColdStartHarness}: how to start it and which request to send it. The
+ * {@link #SAMPLES} list describes the sample applications of the <code>samples</code> folder.
+ */
+public final class SampleApp {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final String JERSEY_HANDLER = "com.amazonaws.serverless.sample.jersey.StreamLambdaHandler";
+    private static final String SPRING_HANDLER = "com.amazonaws.serverless.sample.spring.StreamLambdaHandler";
+    private static final String SPRINGBOOT_HANDLER = "com.amazonaws.serverless.sample.springboot3.StreamLambdaHandler";
+    private static final String SPRINGBOOT_APPLICATION = "com.amazonaws.serverless.sample.springboot3.Application";
+    private static final String DELEGATING_HANDLER = "com.amazonaws.serverless.proxy.spring.SpringDelegatingLambdaContainerHandler";
+    /**
+     * The <code>AwsSpringWebRuntimeInitializer</code> starts the custom runtime event loop when the <code>_HANDLER</code>
+     * variable names a class that is not in the classpath.
+     */
+    private static final String CUSTOM_RUNTIME_HANDLER = "NOP";
+
+    /**
+     * The sample applications, each handler type of a sample is a separate entry.
+     */
+    public static final List<SampleApp> SAMPLES;
+
+    static {
+        List<SampleApp> samples = new ArrayList<>();
+        samples.add(new SampleApp("jersey-pet-store", "jersey/pet-store",
+                                  ColdStartRuntime.MODE_STREAM, JERSEY_HANDLER, "GET", "/pets", null));
+        samples.add(new SampleApp("spring-pet-store", "spring/pet-store",
+                                  ColdStartRuntime.MODE_STREAM, SPRING_HANDLER, "GET", "/pets", null));
+        samples.add(new SampleApp("springboot3-pet-store", "springboot3/pet-store",
+                                  ColdStartRuntime.MODE_STREAM, SPRINGBOOT_HANDLER, "GET", "/pets", null));
+        samples.add(new SampleApp("springboot3-pet-store-custom-runtime", "springboot3/pet-store",
+                                  ColdStartRuntime.MODE_MAIN, SPRINGBOOT_APPLICATION, "GET", "/pets", null)
+                            .withEnvironment("_HANDLER", CUSTOM_RUNTIME_HANDLER));
+        samples.add(new SampleApp("springboot3-alt-pet-store", "springboot3/alt-pet-store",
+                                  ColdStartRuntime.MODE_STREAM, DELEGATING_HANDLER, "GET", "/pets", null)
+                            .withEnvironment("MAIN_CLASS", SPRINGBOOT_APPLICATION));
+        samples.add(new SampleApp("springboot3-graphql-pet-store", "springboot3/graphql-pet-store",
+                                  ColdStartRuntime.MODE_STREAM, SPRINGBOOT_HANDLER, "POST", "/graphql",
+                                  "{\"query\":\"{ __typename }\"}"));
+        samples.add(new SampleApp("springboot3-pet-store-native", "springboot3/pet-store-native",
+                                  ColdStartRuntime.MODE_MAIN, "com.amazonaws.serverless.sample.springboot3.DemoApplication",
+                                  "GET", "/pets", null)
+                            .withEnvironment("_HANDLER", CUSTOM_RUNTIME_HANDLER));
+        SAMPLES = Collections.unmodifiableList(samples);
+    }
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final String name;
+    private final String directory;
+    private final String mode;
+    private final String target;
+    private final String method;
+    private final String path;
+    private final String body;
+    private final Map<String, String> environment = new LinkedHashMap<>();
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Describes an application.
+     * @param name The name used in the report
+     * @param directory The project folder of the application, relative to the samples folder, or <code>null</code>
+     *                  when the classpath is given explicitly
+     * @param mode {@link ColdStartRuntime#MODE_STREAM} or {@link ColdStartRuntime#MODE_MAIN}
+     * @param target The handler class or the main class
+     * @param method The HTTP method of the request
+     * @param path The path of the request
+     * @param body The JSON body of the request, or <code>null</code>
+     */
+    public SampleApp(String name, String directory, String mode, String target, String method, String path, String body) {
+        this.name = name;
+        this.directory = directory;
+        this.mode = mode;
+        this.target = target;
+        this.method = method;
+        this.path = path;
+        this.body = body;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    public static SampleApp find(String name) {
+        for (SampleApp sample : SAMPLES) {
+            if (sample.name.equals(name)) {
+                return sample;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sample " + name);
+    }
+
+    public SampleApp withEnvironment(String variable, String value) {
+        environment.put(variable, value);
+        return this;
+    }
+
+    /**
+     * Builds the classpath of a sample from its build output. The default profile of the samples compiles the classes
+     * to <code>target/classes</code> and copies the dependencies to <code>target/lib</code>; when the sample was
+     * built with the <code>shaded-jar</code> profile instead, the shaded jar is used.
+     * @param samplesDirectory The <code>samples</code> folder
+     * @return The classpath, or <code>null</code> if the sample has not been built
+     */
+    public String classpath(File samplesDirectory) {
+        File targetDirectory = new File(new File(samplesDirectory, directory), "target");
+        File classes = new File(targetDirectory, "classes");
+        File lib = new File(targetDirectory, "lib");
+        if (classes.isDirectory() && lib.isDirectory()) {
+            return classes.getPath() + File.pathSeparator + lib.getPath() + File.separator + "*";
+        }
+        File[] jars = targetDirectory.listFiles((dir, file) -> file.endsWith(".jar") && !file.startsWith("original-")
+                && !file.endsWith("-sources.jar") && !file.endsWith("-javadoc.jar"));
+        return jars == null || jars.length == 0 ? null : jars[0].getPath();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+}
@@ -15,7 +15,9 @@ package com.amazonaws.serverless.proxy;
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.internal.InitializableLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.crac.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,14 +32,17 @@ import java.util.concurrent.TimeUnit;
  * initialization time of 10 seconds, if the <code>initialize</code> method takes longer than 10 seconds to return, the
  * {@link #start(InitializableLambdaContainerHandler)} returns control to the caller and lets the initialization thread continue in
  * the background. The {@link com.amazonaws.serverless.proxy.internal.LambdaContainerHandler#proxy(Object, Context)} automatically waits for the latch of the
- * initializer to be released.
+ * initializer to be released. When the <code>initialize</code> method returns in time, the handler is primed with
+ * {@link InitializableLambdaContainerHandler#prime(long, TimeUnit)} before control returns to the caller, for at most
+ * the part of the 10 seconds that is left minus the grace time; handlers that finish their initialization in the
+ * background are only primed before a checkpoint.
  *
  * The constructor of this class expects an epoch long. This is meant to be as close as possible to the time the Lambda
  * function actually started. In most cases, the first action in the constructor of the handler class should be to populate
  * this long value ({@code Instant.now().toEpochMs();}). This class uses the value to estimate how much of the init 10
  * seconds has already been used up.
  */
-public class AsyncInitializationWrapper extends InitializationWrapper {
+public class AsyncInitializationWrapper extends InitializationWrapper implements Resource {
 
     private static final int DEFAULT_INIT_GRACE_TIME_MS = 150;
     private static final String INIT_GRACE_TIME_ENVIRONMENT_VARIABLE_NAME = "AWS_SERVERLESS_JAVA_CONTAINER_INIT_GRACE_TIME";
@@ -47,7 +52,7 @@ public class AsyncInitializationWrapper extends InitializationWrapper {
 
     private CountDownLatch initializationLatch;
     private final long actualStartTime;
-    private final Logger log = LoggerFactory.getLogger(AsyncInitializationWrapper.class);
+    private static final Logger log = LoggerFactory.getLogger(AsyncInitializationWrapper.class);
 
 
     /**
@@ -75,7 +80,7 @@ public class AsyncInitializationWrapper extends InitializationWrapper {
             return;
         }
         initializationLatch = new CountDownLatch(1);
-        AsyncInitializer initializer = new AsyncInitializer(initializationLatch, handler);
+        AsyncInitializer initializer = new AsyncInitializer(initializationLatch, handler, this);
         Thread initThread = new Thread(initializer);
         initThread.start();
         try {
@@ -85,11 +90,21 @@ public class AsyncInitializationWrapper extends InitializationWrapper {
             log.info("Async initialization will wait for {}ms (init grace time is configured to {})",
                     awaitTime, INIT_GRACE_TIME_MS);
             if (!initializationLatch.await(awaitTime, TimeUnit.MILLISECONDS)) {
+                // the handler is primed before the checkpoint instead, priming during a request would delay it
                 log.info("Initialization took longer than " + LAMBDA_MAX_INIT_TIME_MS + ", setting new CountDownLatch and " +
                         "continuing in event handler");
                 initializationLatch = new CountDownLatch(1);
                 initializer.replaceLatch(initializationLatch);
+            } else {
+                // the framework is ready within the init phase, we use the time that is left to prime it
+                long primingTime = (actualStartTime + LAMBDA_MAX_INIT_TIME_MS) - Instant.now().toEpochMilli() - INIT_GRACE_TIME_MS;
+                if (primingTime > 0) {
+                    handler.prime(primingTime, TimeUnit.MILLISECONDS);
+                } else {
+                    log.info("No init time left to prime the container");
+                }
             }
+            registerCheckpointResources(handler);
         } catch (InterruptedException e) {
             // at the moment we assume that this happened because of a timeout since the init thread calls System.exit
             // when an exception is thrown.
@@ -97,6 +112,27 @@ public class AsyncInitializationWrapper extends InitializationWrapper {
         }
     }
 
+    /**
+     * Waits for the background initialization to complete, a snapshot taken while the framework is still starting
+     * would restore a half-initialized container.
+     * @param context The CRaC context
+     * @throws Exception If the initialization does not complete within the configured timeout
+     */
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) throws Exception {
+        CountDownLatch latch = getInitializationLatch();
+        long timeout = LambdaContainerHandler.getContainerConfig().getInitializationTimeout();
+        if (latch != null && !latch.await(timeout, TimeUnit.MILLISECONDS)) {
+            throw new ContainerInitializationException("Could not initialize framework before the checkpoint within the "
+                    + timeout + "ms timeout", null);
+        }
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+        // the start time and latch refer to the original initialization, there is nothing to refresh
+    }
+
     public long getActualStartTimeMs() {
         return actualStartTime;
     }
@@ -111,12 +147,14 @@ public class AsyncInitializationWrapper extends InitializationWrapper {
 
     private static class AsyncInitializer implements Runnable {
         private final InitializableLambdaContainerHandler handler;
+        private final AsyncInitializationWrapper wrapper;
         private CountDownLatch initLatch;
-        private final Logger log = LoggerFactory.getLogger(AsyncInitializationWrapper.class);
+        private static final Logger log = LoggerFactory.getLogger(AsyncInitializationWrapper.class);
 
-        AsyncInitializer(CountDownLatch latch, InitializableLambdaContainerHandler h) {
+        AsyncInitializer(CountDownLatch latch, InitializableLambdaContainerHandler h, AsyncInitializationWrapper w) {
             initLatch = latch;
             handler = h;
+            wrapper = w;
         }
 
         synchronized void replaceLatch(CountDownLatch newLatch) {
@@ -134,6 +172,7 @@ public class AsyncInitializationWrapper extends InitializationWrapper {
                 // we cannot return the exception so we crash the whole kaboodle here
                 System.exit(1);
             }
+            wrapper.setInitializationDurationMs(Instant.now().toEpochMilli() - wrapper.getActualStartTimeMs());
             synchronized(this) {
                 initLatch.countDown();
             }
@@ -42,7 +42,7 @@ import java.io.OutputStream;
 public class AwsProxyExceptionHandler
         implements ExceptionHandler<AwsProxyResponse> {
 
-    private Logger log = LoggerFactory.getLogger(AwsProxyExceptionHandler.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsProxyExceptionHandler.class);
 
     //-------------------------------------------------------------
     // Constants
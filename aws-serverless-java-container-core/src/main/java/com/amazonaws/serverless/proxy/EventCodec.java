@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads Lambda events from the function input stream and writes Lambda return values to the output stream. The
+ * {@link com.amazonaws.serverless.proxy.internal.LambdaContainerHandler#proxyStream(InputStream, OutputStream, com.amazonaws.services.lambda.runtime.Context)}
+ * method uses the codec configured on the handler, which makes it possible to pick the JSON library, or the Jackson
+ * configuration, that performs best in the target runtime. The library ships with Jackson based implementations in
+ * the <code>com.amazonaws.serverless.proxy.internal.jackson</code> package.
+ *
+ * Implementations must be thread-safe, a single codec instance is used for all events received by a handler.
+ *
+ * @param <RequestType> The event model class
+ * @param <ResponseType> The Lambda return value model class
+ */
+public interface EventCodec<RequestType, ResponseType> {
+    /**
+     * Reads an event from the Lambda input stream.
+     * @param input The Lambda input stream
+     * @return The populated event object
+     * @throws com.fasterxml.jackson.core.JsonProcessingException If the stream does not contain a valid event. The
+     *         container handler maps these exceptions to an error response with the exception handler
+     * @throws IOException If the stream cannot be read
+     */
+    RequestType readEvent(InputStream input) throws IOException;
+
+    /**
+     * Writes the JSON representation of a Lambda return value to the output stream.
+     * @param response The return value
+     * @param output The Lambda output stream
+     * @throws IOException If the value cannot be serialized or the stream cannot be written
+     */
+    void writeResponse(ResponseType response, OutputStream output) throws IOException;
+}
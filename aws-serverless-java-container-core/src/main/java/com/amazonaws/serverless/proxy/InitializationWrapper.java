@@ -14,8 +14,11 @@ package com.amazonaws.serverless.proxy;
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.internal.InitializableLambdaContainerHandler;
+import org.crac.Core;
+import org.crac.Resource;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is in charge of initializing a {@link InitializableLambdaContainerHandler}.
@@ -25,14 +28,21 @@ import java.util.concurrent.CountDownLatch;
  * {@link AsyncInitializationWrapper} for frameworks that are likely to take longer than 10 seconds to start.
  */
 public class InitializationWrapper {
+    private volatile long initializationDurationMs = -1;
+
     /**
      * This is the main entry point. Container handler builder and the static <code>getAwsProxyHandler()</code> methods
-     * of the various implementations will call this to initialize the underlying framework
+     * of the various implementations will call this to initialize the underlying framework. Once the framework is
+     * initialized, the handler is primed with {@link InitializableLambdaContainerHandler#prime()}.
      * @param handler The container handler to be initializer
      * @throws ContainerInitializationException If anything goes wrong during container initialization.
      */
     public void start(InitializableLambdaContainerHandler handler) throws ContainerInitializationException {
+        long start = System.nanoTime();
         handler.initialize();
+        setInitializationDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        handler.prime();
+        registerCheckpointResources(handler);
     }
 
     /**
@@ -43,4 +53,39 @@ public class InitializationWrapper {
     public CountDownLatch getInitializationLatch() {
         return null;
     }
+
+    /**
+     * Returns how long the framework took to initialize. This wrapper measures the <code>initialize</code> method of
+     * the handler; the {@link AsyncInitializationWrapper} measures from the start time passed to its constructor to the
+     * end of the background initialization.
+     * @return The duration in milliseconds, or <code>-1</code> if the initialization has not completed
+     */
+    public long getInitializationDurationMs() {
+        return initializationDurationMs;
+    }
+
+    /**
+     * Records the initialization duration returned by {@link #getInitializationDurationMs()}.
+     * @param durationMs The duration in milliseconds
+     */
+    protected void setInitializationDurationMs(long durationMs) {
+        initializationDurationMs = durationMs;
+    }
+
+    /**
+     * Registers the handler, and this wrapper if it implements <code>org.crac.Resource</code>, with the global CRaC
+     * context so that they are notified before a checkpoint and after a restore. The global context only keeps weak
+     * references: the Lambda handler class must keep a reference to the container handler, as it does to handle events.
+     * On JVMs without CRaC support the registration has no effect.
+     * @param handler The container handler being started
+     */
+    protected void registerCheckpointResources(InitializableLambdaContainerHandler handler) {
+        if (handler instanceof Resource) {
+            Core.getGlobalContext().register((Resource) handler);
+        }
+        if (this instanceof Resource) {
+            // checkpoint notifications run in reverse registration order, the wrapper is notified before the handler
+            Core.getGlobalContext().register((Resource) this);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy;
+
+import com.amazonaws.serverless.proxy.internal.metrics.InvocationMetrics;
+
+/**
+ * Implementations of the metrics sink interface receive the measurements of each invocation processed by the
+ * {@link com.amazonaws.serverless.proxy.internal.LambdaContainerHandler}. You can set the sink using the
+ * {@link com.amazonaws.serverless.proxy.internal.LambdaContainerHandler#setMetricsSink(MetricsSink)} method. The library
+ * includes a sink that writes CloudWatch Embedded Metric Format log lines,
+ * {@link com.amazonaws.serverless.proxy.internal.metrics.EmfMetricsSink}.
+ */
+public interface MetricsSink {
+    /**
+     * Called by the container handler once the response of an invocation has been written. The metrics object is reused
+     * for the next invocation on the same thread: implementations must copy the values they need before returning.
+     * @param metrics The measurements of the invocation
+     */
+    void invocationCompleted(InvocationMetrics metrics);
+
+    /**
+     * Called by the container handler before a checkpoint. Sinks that hold the values of several invocations before
+     * writing them write the pending values here. The default implementation does nothing.
+     */
+    default void flush() {
+        // nothing is held by default
+    }
+}
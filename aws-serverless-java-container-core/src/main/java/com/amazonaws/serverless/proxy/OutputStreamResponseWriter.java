@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy;
+
+import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link ResponseWriter} implementations can also implement this interface to serialize the container response
+ * directly to the Lambda output stream, skipping the Lambda return value object. When the response writer of a
+ * {@link com.amazonaws.serverless.proxy.internal.LambdaContainerHandler} implements this interface, the
+ * {@link com.amazonaws.serverless.proxy.internal.LambdaContainerHandler#proxyStream(java.io.InputStream, OutputStream, Context)}
+ * method uses it in place of the <code>ObjectWriter</code> for the response type.
+ * @param <ContainerResponseType> The response object expected from the underlying container
+ */
+public interface OutputStreamResponseWriter<ContainerResponseType> {
+    /**
+     * Writes the status code, headers, and body from the container response as the JSON representation of the
+     * Lambda return value. Implementations must validate the container response before writing to the stream: once
+     * this method starts writing, the caller cannot replace the output with an error response.
+     * @param containerResponse The container response or response reader object
+     * @param lambdaContext The context for the Lambda function execution
+     * @param output The Lambda output stream. Implementations should flush the stream but not close it
+     * @throws InvalidResponseObjectException When the implementation cannot read the container response object. This
+     *                                        exception is thrown before any data is written to the stream
+     * @throws IOException If an error occurs while writing to the output stream
+     */
+    void writeResponse(ContainerResponseType containerResponse, Context lambdaContext, OutputStream output)
+            throws InvalidResponseObjectException, IOException;
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.model.AlbContext;
+import com.amazonaws.serverless.proxy.model.ApiGatewayRequestIdentity;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.serverless.proxy.model.HttpApiV2HttpContext;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+import com.amazonaws.serverless.proxy.model.SingleValueHeaders;
+
+import java.util.HashMap;
+
+/**
+ * Factory methods for the synthetic events passed to {@link LambdaContainerHandler#addPrimingEvent(Object)}. The events
+ * contain the minimum request context the container needs to route a request; callers can add headers, query string
+ * parameters or a body to the returned objects before registering them.
+ */
+public final class PrimingEvents {
+
+    private static final String PRIMING_REQUEST_ID = "priming";
+    private static final String LOCAL_SOURCE_IP = "127.0.0.1";
+    private static final String PROTOCOL = "HTTP/1.1";
+
+    private PrimingEvents() {
+        // static factory methods only
+    }
+
+    /**
+     * Creates an API Gateway REST API event.
+     * @param httpMethod The HTTP method of the request
+     * @param path The request path
+     * @return A new event object
+     */
+    public static AwsProxyRequest restApi(String httpMethod, String path) {
+        AwsProxyRequest request = new AwsProxyRequest();
+        request.setHttpMethod(httpMethod);
+        request.setPath(path);
+        request.setMultiValueHeaders(new Headers());
+        request.setHeaders(new SingleValueHeaders());
+        request.setMultiValueQueryStringParameters(new MultiValuedTreeMap<>());
+
+        AwsProxyRequestContext context = new AwsProxyRequestContext();
+        context.setRequestId(PRIMING_REQUEST_ID);
+        context.setHttpMethod(httpMethod);
+        context.setPath(path);
+        context.setProtocol(PROTOCOL);
+        context.setRequestTimeEpoch(System.currentTimeMillis());
+        ApiGatewayRequestIdentity identity = new ApiGatewayRequestIdentity();
+        identity.setSourceIp(LOCAL_SOURCE_IP);
+        context.setIdentity(identity);
+        request.setRequestContext(context);
+        return request;
+    }
+
+    /**
+     * Creates an Application Load Balancer event.
+     * @param httpMethod The HTTP method of the request
+     * @param path The request path
+     * @return A new event object
+     */
+    public static AwsProxyRequest alb(String httpMethod, String path) {
+        AwsProxyRequest request = restApi(httpMethod, path);
+        request.getRequestContext().setElb(new AlbContext());
+        return request;
+    }
+
+    /**
+     * Creates an API Gateway HTTP API event with the 2.0 payload format.
+     * @param httpMethod The HTTP method of the request
+     * @param path The request path
+     * @return A new event object
+     */
+    public static HttpApiV2ProxyRequest httpApiV2(String httpMethod, String path) {
+        HttpApiV2ProxyRequest request = new HttpApiV2ProxyRequest();
+        request.setVersion("2.0");
+        request.setRouteKey("$default");
+        request.setRawPath(path);
+        request.setHeaders(new HashMap<>());
+
+        HttpApiV2ProxyRequestContext context = new HttpApiV2ProxyRequestContext();
+        context.setRequestId(PRIMING_REQUEST_ID);
+        context.setRouteKey("$default");
+        context.setStage("$default");
+        context.setTimeEpoch(System.currentTimeMillis());
+        HttpApiV2HttpContext http = new HttpApiV2HttpContext();
+        http.setMethod(httpMethod);
+        http.setPath(path);
+        http.setProtocol(PROTOCOL);
+        http.setSourceIp(LOCAL_SOURCE_IP);
+        context.setHttp(http);
+        request.setRequestContext(context);
+        return request;
+    }
+}
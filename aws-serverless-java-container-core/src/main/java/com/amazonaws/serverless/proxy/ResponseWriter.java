@@ -49,17 +49,28 @@ public abstract class ResponseWriter<ContainerResponseType, ResponseType> {
      * @param input The byte[] to check against
      * @return true if the contend is valid UTF-8, false otherwise
      */
-    @SuppressFBWarnings("NS_NON_SHORT_CIRCUIT")
     protected boolean isValidUtf8(final byte[] input) {
+        return isValidUtf8(input, input.length);
+    }
+
+    /**
+     * Checks whether the first <code>length</code> bytes of the given array contain a UTF-8 encoded string. This
+     * allows writers to validate a buffer in place without copying it first.
+     * @param input The byte[] to check against
+     * @param length The number of bytes from the beginning of the array to check
+     * @return true if the content is valid UTF-8, false otherwise
+     */
+    @SuppressFBWarnings("NS_NON_SHORT_CIRCUIT")
+    protected boolean isValidUtf8(final byte[] input, final int length) {
         int i = 0;
         // Check for BOM
-        if (input.length >= 3 && (input[0] & 0xFF) == 0xEF
+        if (length >= 3 && (input[0] & 0xFF) == 0xEF
                 && (input[1] & 0xFF) == 0xBB & (input[2] & 0xFF) == 0xBF) {
             i = 3;
         }
 
         int end;
-        for (int j = input.length; i < j; ++i) {
+        for (int j = length; i < j; ++i) {
             int octet = input[i];
             if ((octet & 0x80) == 0) {
                 continue; // ASCII
@@ -76,6 +87,10 @@ public abstract class ResponseWriter<ContainerResponseType, ResponseType> {
                 // Java only supports BMP so 3 is max
                 return false;
             }
+            if (end >= length) {
+                // truncated sequence at the end of the input
+                return false;
+            }
 
             while (i < end) {
                 i++;
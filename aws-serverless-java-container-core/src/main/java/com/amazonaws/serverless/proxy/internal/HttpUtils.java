@@ -5,12 +5,19 @@ import org.apache.commons.io.Charsets;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
+import java.util.Optional;
 
 public final class HttpUtils {
 
     static final String HEADER_KEY_VALUE_SEPARATOR = "=";
     static final String HEADER_VALUE_SEPARATOR = ";";
     static final String ENCODING_VALUE_KEY = "charset";
+    static final int CHARSET_CACHE_SIZE = 256;
+
+    /**
+     * The charset of the content type values seen so far, empty if the content type does not declare a supported one.
+     */
+    private static final LruCache<String, Optional<Charset>> charsetCache = new LruCache<>(CHARSET_CACHE_SIZE);
 
 
     static public Charset parseCharacterEncoding(String contentTypeHeader,Charset defaultCharset) {
@@ -19,26 +26,29 @@ public final class HttpUtils {
         if (contentTypeHeader == null) {
             return defaultCharset;
         }
+        return charsetCache.get(contentTypeHeader, HttpUtils::parseCharset).orElse(defaultCharset);
+    }
 
+    private static Optional<Charset> parseCharset(String contentTypeHeader) {
         String[] contentTypeValues = contentTypeHeader.split(HEADER_VALUE_SEPARATOR);
         if (contentTypeValues.length <= 1) {
-            return defaultCharset;
+            return Optional.empty();
         }
 
         for (String contentTypeValue : contentTypeValues) {
             if (contentTypeValue.trim().startsWith(ENCODING_VALUE_KEY)) {
                 String[] encodingValues = contentTypeValue.split(HEADER_KEY_VALUE_SEPARATOR);
                 if (encodingValues.length <= 1) {
-                    return defaultCharset;
+                    return Optional.empty();
                 }
                 try {
-                    return Charsets.toCharset(encodingValues[1]);
+                    return Optional.of(Charsets.toCharset(encodingValues[1]));
                 } catch (UnsupportedCharsetException ex) {
-                    return defaultCharset;
+                    return Optional.empty();
                 }
             }
         }
-        return defaultCharset;
+        return Optional.empty();
     }
 
 
@@ -14,6 +14,8 @@ package com.amazonaws.serverless.proxy.internal;
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Interface to define initialization/ cold-start related methods.
  * See also the documentation for
@@ -28,4 +30,25 @@ public interface InitializableLambdaContainerHandler {
      * @throws ContainerInitializationException in case initialization fails
      */
     void initialize() throws ContainerInitializationException;
+
+    /**
+     * This method is called by the initialization wrapper once {@link #initialize()} has completed, while the function is
+     * still in its init phase. Implementations can use it to send synthetic requests through the container so that the
+     * first real request does not pay for class loading and lazy initialization. The default implementation does
+     * nothing.
+     */
+    default void prime() {
+        // no priming by default
+    }
+
+    /**
+     * Primes the container like {@link #prime()}, within a time limit. The {@link com.amazonaws.serverless.proxy.AsyncInitializationWrapper}
+     * calls this method with the part of the init phase that {@link #initialize()} left. The default implementation
+     * calls {@link #prime()} and ignores the limit.
+     * @param timeout The maximum time to spend priming the container
+     * @param unit The unit of the timeout
+     */
+    default void prime(long timeout, TimeUnit unit) {
+        prime();
+    }
 }
@@ -14,27 +14,41 @@ package com.amazonaws.serverless.proxy.internal;
 
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
 import com.amazonaws.serverless.proxy.*;
+import com.amazonaws.serverless.proxy.internal.jackson.JacksonEventCodec;
+import com.amazonaws.serverless.proxy.internal.metrics.InvocationMetrics;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.internal.servlet.ApacheCombinedServletLogFormatter;
 import com.amazonaws.serverless.proxy.model.ContainerConfig;
 import com.amazonaws.services.lambda.runtime.Context;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.crac.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jakarta.ws.rs.core.SecurityContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -46,7 +60,7 @@ import java.util.concurrent.TimeUnit;
  * @param <ContainerResponseType> The response or response writer type for the wrapped Java container
  */
 public abstract class LambdaContainerHandler<RequestType, ResponseType, ContainerRequestType, ContainerResponseType>
-        implements InitializableLambdaContainerHandler {
+        implements InitializableLambdaContainerHandler, Resource {
 
     //-------------------------------------------------------------
     // Constants
@@ -70,10 +84,17 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
     protected Context lambdaContext;
     private LogFormatter<ContainerRequestType, ContainerResponseType> logFormatter;
 
-    private Logger log = LoggerFactory.getLogger(LambdaContainerHandler.class);
+    private static final Logger log = LoggerFactory.getLogger(LambdaContainerHandler.class);
 
-    private ObjectReader objectReader;
-    private ObjectWriter objectWriter;
+    private EventCodec<RequestType, ResponseType> eventCodec;
+    private final List<RequestType> primingEvents = new ArrayList<>();
+    // events read from resources are kept as JSON and decoded with the event codec when the container is primed
+    private final List<byte[]> primingEventPayloads = new ArrayList<>();
+    private final AtomicBoolean primed = new AtomicBoolean(false);
+
+    private MetricsSink metricsSink;
+    private boolean coldStart = true;
+    private boolean restored = false;
 
     //-------------------------------------------------------------
     // Variables - Private - Static
@@ -109,9 +130,7 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
         this.securityContextWriter = securityContextWriter;
         this.exceptionHandler = exceptionHandler;
         initializationWrapper = init;
-        objectReader = getObjectMapper().readerFor(requestTypeClass);
-        objectWriter = getObjectMapper().writerFor(responseTypeClass);
-
+        eventCodec = new JacksonEventCodec<>(requestTypeClass, responseTypeClass, getObjectMapper());
     }
 
     protected LambdaContainerHandler(Class<RequestType> requestClass,
@@ -188,6 +207,186 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
         this.logFormatter = formatter;
     }
 
+    /**
+     * Sets the sink that receives the metrics of each invocation, for example an {@link com.amazonaws.serverless.proxy.internal.metrics.EmfMetricsSink}. Setting a
+     * sink enables the {@link PhaseRecorder}, clearing it disables the recorder again. Priming requests are not reported.
+     * By default, handlers do not collect invocation metrics.
+     * @param sink The metrics sink, <code>null</code> to stop reporting metrics
+     */
+    public void setMetricsSink(MetricsSink sink) {
+        MetricsSink previous = metricsSink;
+        metricsSink = sink;
+        if (sink != null) {
+            PhaseRecorder.enable();
+        } else if (previous != null) {
+            PhaseRecorder.disable();
+        }
+    }
+
+    /**
+     * Returns the codec the <code>proxyStream</code> method uses to read events and write return values.
+     * @return The event codec for this handler
+     */
+    public EventCodec<RequestType, ResponseType> getEventCodec() {
+        return eventCodec;
+    }
+
+    /**
+     * Sets the codec used to read events from the Lambda input stream and write return values to the output stream. By
+     * default, handlers use a {@link JacksonEventCodec} with the shared <code>ObjectMapper</code> returned by
+     * {@link #getObjectMapper()}.
+     * @param codec The event codec
+     */
+    public void setEventCodec(EventCodec<RequestType, ResponseType> codec) {
+        eventCodec = codec;
+    }
+
+    /**
+     * Adds a synthetic event that {@link #prime()} sends through the container during the init phase. Events should be
+     * representative of the real traffic, for example a request to the most frequently used API route, so that the
+     * classes, caches and filter chains they touch are ready before the first invocation. Priming requests go through
+     * the application like any other request; events should target routes that have no side effects.
+     * @param event The priming event
+     * @throws IllegalStateException If the container has already been primed with other events
+     */
+    public void addPrimingEvent(RequestType event) {
+        checkNotPrimed();
+        primingEvents.add(event);
+    }
+
+    /**
+     * Reads priming events from a classpath resource. The resource contains either a single event JSON object or a JSON
+     * array of events, in the same format Lambda sends to the function. The events are decoded with the event codec of
+     * the handler when the container is primed, the same way real events are, so that priming also warms the codec.
+     * Events that cannot be decoded are logged as failed priming requests.
+     * @param resourceName The name of the resource, for example <code>priming/events.json</code>
+     * @throws IOException If the resource cannot be found or does not contain JSON events
+     * @throws IllegalStateException If the container has already been primed with other events
+     */
+    public void addPrimingEvents(String resourceName) throws IOException {
+        checkNotPrimed();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = LambdaContainerHandler.class.getClassLoader();
+        }
+        try (InputStream input = classLoader.getResourceAsStream(resourceName)) {
+            if (input == null) {
+                throw new IOException("Could not find priming events resource " + resourceName);
+            }
+            JsonFactory factory = getObjectMapper().getFactory();
+            try (JsonParser parser = factory.createParser(input)) {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                while (token == JsonToken.START_OBJECT) {
+                    ByteArrayOutputStream event = new ByteArrayOutputStream();
+                    try (JsonGenerator generator = factory.createGenerator(event)) {
+                        generator.copyCurrentStructure(parser);
+                    }
+                    primingEventPayloads.add(event.toByteArray());
+                    token = array ? parser.nextToken() : null;
+                }
+                if (token != (array ? JsonToken.END_ARRAY : null)) {
+                    throw new IOException("Priming events resource " + resourceName + " does not contain event objects");
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the priming events through {@link #proxy(Object, Context)} and serializes the results with the event codec,
+     * then discards them. This loads the classes, fills the Jackson caches and builds the filter chains that the first
+     * real request would otherwise have to pay for. Failed priming requests are logged and do not stop the
+     * initialization. Handlers without priming events do nothing.
+     *
+     * The container is primed once, the first time this method is called with priming events. The
+     * {@link InitializationWrapper} calls this method once the framework is initialized within the init phase. When an
+     * asynchronous initialization takes longer than that, the container is primed before the checkpoint. Later calls
+     * do nothing, and priming events can no longer be added.
+     */
+    @Override
+    public void prime() {
+        prime(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Primes the container like {@link #prime()}, but stops sending priming events once the timeout has elapsed. The
+     * {@link AsyncInitializationWrapper} uses the part of the init phase that the initialization left. The request in
+     * progress when the timeout elapses completes, the remaining events are skipped.
+     * @param timeout The maximum time to spend priming the container
+     * @param unit The unit of the timeout
+     */
+    @Override
+    public void prime(long timeout, TimeUnit unit) {
+        if (primingEvents.isEmpty() && primingEventPayloads.isEmpty() || !primed.compareAndSet(false, true)) {
+            return;
+        }
+        long budget = unit.toNanos(timeout);
+        long start = System.nanoTime();
+        int sent = 0;
+        int failed = 0;
+        for (int i = 0; i < primingEvents.size() + primingEventPayloads.size(); i++) {
+            if (System.nanoTime() - start >= budget) {
+                break;
+            }
+            boolean success = i < primingEvents.size()
+                    ? sendPrimingEvent(primingEvents.get(i), null)
+                    : sendPrimingEvent(null, primingEventPayloads.get(i - primingEvents.size()));
+            sent++;
+            if (!success) {
+                failed++;
+            }
+        }
+        lambdaContext = null;
+        int skipped = primingEvents.size() + primingEventPayloads.size() - sent;
+        log.info("Primed container with {} events ({} failed, {} skipped) in {}ms", sent, failed, skipped,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Called by CRaC, or Lambda SnapStart, before the snapshot of the execution environment is taken. The handler waits
+     * for an asynchronous initialization to complete, primes the container if the initialization wrapper could not,
+     * releases the objects returned by {@link #trimBeforeCheckpoint()}, flushes the metrics sink and runs a garbage
+     * collection so that the snapshot contains a warm container and as little garbage as possible. The handler is
+     * registered with the global CRaC context by the {@link InitializationWrapper}.
+     * @param context The CRaC context
+     * @throws Exception If the initialization does not complete within the configured timeout
+     */
+    @Override
+    @SuppressFBWarnings(value = "DM_GC", justification = "Collecting garbage before a snapshot makes the snapshot smaller")
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) throws Exception {
+        if (initializationWrapper != null && initializationWrapper.getInitializationLatch() != null
+                && !initializationWrapper.getInitializationLatch().await(config.getInitializationTimeout(), TimeUnit.MILLISECONDS)) {
+            throw new ContainerInitializationException("Could not initialize framework before the checkpoint within the "
+                    + config.getInitializationTimeout() + "ms timeout", null);
+        }
+        prime();
+        lambdaContext = null;
+        trimBeforeCheckpoint();
+        if (metricsSink != null) {
+            // values held by the sink would otherwise be written by every environment restored from the snapshot
+            metricsSink.flush();
+        }
+        System.gc();
+    }
+
+    /**
+     * Called by CRaC, or Lambda SnapStart, when the execution environment is restored from a snapshot. The same snapshot
+     * can be restored many times: subclasses should refresh state that must be unique to an execution environment or
+     * that depends on the wall clock, and call the super implementation.
+     * @param context The CRaC context
+     * @throws Exception If the state cannot be refreshed
+     */
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) throws Exception {
+        lambdaContext = null;
+        // the first invocation after a restore is reported as a cold start, the initialization happened before the snapshot
+        coldStart = true;
+        restored = true;
+    }
+
 
     /**
      * Proxies requests to the underlying container given the incoming Lambda request. This method returns a populated
@@ -198,53 +397,28 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
      * @return A valid response type
      */
     public ResponseType proxy(RequestType request, Context context) {
+        InvocationMetrics metrics = beginInvocationMetrics(context);
         lambdaContext = context;
         CountDownLatch latch = new CountDownLatch(1);
         try {
-            SecurityContext securityContext = securityContextWriter.writeSecurityContext(request, context);
-            ContainerRequestType containerRequest = requestReader.readRequest(request, securityContext, context, config);
-            ContainerResponseType containerResponse = getContainerResponse(containerRequest, latch);
-
-            if (initializationWrapper != null && initializationWrapper.getInitializationLatch() != null) {
-                // we let the potential InterruptedException bubble up
-                if (!initializationWrapper.getInitializationLatch().await(config.getInitializationTimeout(), TimeUnit.MILLISECONDS)) {
-                    throw new ContainerInitializationException("Could not initialize framework within the " + config.getInitializationTimeout() + "ms timeout", null);
-                }
-            }
-
-            handleRequest(containerRequest, containerResponse, context);
-
-            latch.await();
-
-            if (logFormatter != null) {
-                log.info(SecurityUtils.crlf(logFormatter.format(containerRequest, containerResponse, securityContext)));
-            }
-
-            return responseWriter.writeResponse(containerResponse, context);
+            ContainerResponseType containerResponse = execute(request, context, latch);
+            ResponseType response = responseWriter.writeResponse(containerResponse, context);
+            releaseContainerResponse(containerResponse);
+            return response;
         } catch (Exception e) {
-            log.error("Error while handling request", e);
-            // release all waiting threads. This is safe here because if the count was already 0
-            // the latch will do nothing
-            latch.countDown();
-
-            if (getContainerConfig().isDisableExceptionMapper()) {
-                if (e instanceof RuntimeException) {
-                    throw (RuntimeException) e;
-                } else {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                return exceptionHandler.handle(e);
-            }
+            return handleException(e, latch);
+        } finally {
+            completeInvocationMetrics(metrics);
         }
     }
 
 
     /**
-     * Handles Lambda <code>RequestStreamHandler</code> method. The method uses an <code>ObjectMapper</code>
+     * Handles Lambda <code>RequestStreamHandler</code> method. The method uses the {@link EventCodec} of the handler
      * to transform the incoming input stream into the given {@link RequestType} and then calls the
      * {@link #proxy(Object, Context)} method to handle the request. The output from the proxy method is
-     * written on the given output stream.
+     * written on the given output stream with the same codec. If the response writer implements {@link OutputStreamResponseWriter}, the
+     * container response is serialized to the output stream by the writer instead.
      * @param input Lambda's incoming input stream
      * @param output Lambda's response output stream
      * @param context Lambda's context object
@@ -252,21 +426,219 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
      */
     public void proxyStream(InputStream input, OutputStream output, Context context)
             throws IOException {
+        InvocationMetrics metrics = beginInvocationMetrics(context);
+        if (metrics != null) {
+            input = metrics.countRequestBytes(input);
+            output = metrics.countResponseBytes(output);
+        }
 
         try {
-            RequestType request = objectReader.readValue(input);
-            ResponseType resp = proxy(request, context);
+            RequestType request = readEvent(input);
+            if (responseWriter instanceof OutputStreamResponseWriter) {
+                proxyToOutputStream(request, context, output);
+            } else {
+                ResponseType resp = proxy(request, context);
 
-            objectWriter.writeValue(output, resp);
+                PhaseRecorder.start(Phase.EVENT_WRITE);
+                try {
+                    eventCodec.writeResponse(resp, output);
+                } finally {
+                    PhaseRecorder.stop(Phase.EVENT_WRITE);
+                }
+            }
         } catch (JsonParseException e) {
             log.error("Error while parsing request object stream", e);
-            getObjectMapper().writeValue(output, exceptionHandler.handle(e));
+            eventCodec.writeResponse(exceptionHandler.handle(e), output);
         } catch (JsonMappingException e) {
             log.error("Error while mapping object to RequestType class", e);
-            getObjectMapper().writeValue(output, exceptionHandler.handle(e));
+            eventCodec.writeResponse(exceptionHandler.handle(e), output);
         } finally {
             output.flush();
             output.close();
+            completeInvocationMetrics(metrics);
+        }
+    }
+
+
+    /**
+     * Runs the event through the container: builds the security context and the container request, waits for the
+     * framework initialization, hands the request to the framework and waits for the response to be completed.
+     * @param request The incoming Lambda request
+     * @param context The execution context for the Lambda function
+     * @param latch The latch passed to the container response, counted down when the response is complete
+     * @return The completed container response
+     * @throws Exception Any exception thrown while reading the request or by the underlying framework
+     */
+    protected ContainerResponseType execute(RequestType request, Context context, CountDownLatch latch) throws Exception {
+        SecurityContext securityContext = securityContextWriter.writeSecurityContext(request, context);
+        PhaseRecorder.start(Phase.REQUEST_READ);
+        ContainerRequestType containerRequest = requestReader.readRequest(request, securityContext, context, config);
+        PhaseRecorder.stop(Phase.REQUEST_READ);
+        ContainerResponseType containerResponse = getContainerResponse(containerRequest, latch);
+
+        if (initializationWrapper != null && initializationWrapper.getInitializationLatch() != null) {
+            // we let the potential InterruptedException bubble up
+            if (!initializationWrapper.getInitializationLatch().await(config.getInitializationTimeout(), TimeUnit.MILLISECONDS)) {
+                throw new ContainerInitializationException("Could not initialize framework within the " + config.getInitializationTimeout() + "ms timeout", null);
+            }
+        }
+
+        handleRequest(containerRequest, containerResponse, context);
+
+        latch.await();
+
+        // the access log line is only formatted when it is going to be written
+        if (logFormatter != null && log.isInfoEnabled()) {
+            log.info(SecurityUtils.crlf(logFormatter.format(containerRequest, containerResponse, securityContext)));
+        }
+        return containerResponse;
+    }
+
+    /**
+     * Called before a checkpoint, once the container is primed. Implementations that keep caches or buffers between
+     * invocations release them here so that they are not part of the snapshot. The default implementation does nothing.
+     */
+    protected void trimBeforeCheckpoint() {
+        // nothing to release by default
+    }
+
+    /**
+     * Called once the Lambda response has been produced from a container response. Implementations that reuse
+     * per-invocation objects override this method to make the response available for the next event. The default
+     * implementation does nothing.
+     * @param containerResponse The container response that is no longer needed
+     */
+    protected void releaseContainerResponse(ContainerResponseType containerResponse) {
+        // nothing to release by default
+    }
+
+    /**
+     * Maps an exception thrown while handling an event to the Lambda return value using the exception handler. If
+     * the exception mapper is disabled in the container configuration, the exception is re-thrown instead.
+     * @param e The exception
+     * @param latch The latch for the current container response, this is released so that no threads are left waiting
+     * @return The return value produced by the exception handler
+     */
+    protected ResponseType handleException(Exception e, CountDownLatch latch) {
+        log.error("Error while handling request", e);
+        // release all waiting threads. This is safe here because if the count was already 0
+        // the latch will do nothing
+        latch.countDown();
+
+        if (getContainerConfig().isDisableExceptionMapper()) {
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            } else {
+                throw new RuntimeException(e);
+            }
+        } else {
+            return exceptionHandler.handle(e);
+        }
+    }
+
+    /**
+     * Proxies the event and serializes the container response directly to the Lambda output stream with the response
+     * writer, which implements {@link OutputStreamResponseWriter}. Errors are still mapped through the exception handler and
+     * written with the event codec.
+     */
+    @SuppressWarnings("unchecked")
+    private void proxyToOutputStream(RequestType request, Context context, OutputStream output) throws IOException {
+        lambdaContext = context;
+        CountDownLatch latch = new CountDownLatch(1);
+        ContainerResponseType containerResponse;
+        try {
+            containerResponse = execute(request, context, latch);
+        } catch (Exception e) {
+            eventCodec.writeResponse(handleException(e, latch), output);
+            return;
+        }
+        try {
+            ((OutputStreamResponseWriter<ContainerResponseType>) responseWriter).writeResponse(containerResponse, context, output);
+            releaseContainerResponse(containerResponse);
+        } catch (InvalidResponseObjectException e) {
+            // thrown before the writer starts writing the output
+            eventCodec.writeResponse(handleException(e, latch), output);
+        }
+    }
+
+    private void checkNotPrimed() {
+        if (primed.get()) {
+            throw new IllegalStateException("The container has already been primed, priming events must be added before "
+                    + "the handler is started");
+        }
+    }
+
+    /**
+     * Sends a priming event through the container and serializes the result with the event codec.
+     * @param event The priming event, or <code>null</code> to decode it from the payload with the event codec
+     * @param payload The JSON of the event when it was read from a resource
+     * @return <code>false</code> if the event could not be decoded or the request failed
+     */
+    private boolean sendPrimingEvent(RequestType event, byte[] payload) {
+        try {
+            RequestType request = event != null ? event : eventCodec.readEvent(new ByteArrayInputStream(payload));
+            ResponseType response = proxy(request, PrimingContext.INSTANCE);
+            eventCodec.writeResponse(response, new ByteArrayOutputStream());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Priming request failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads the event from the Lambda input stream with the event codec of the handler.
+     * @param input Lambda's incoming input stream
+     * @return The event object
+     * @throws IOException If the event cannot be read or mapped to the request type
+     */
+    protected RequestType readEvent(InputStream input) throws IOException {
+        PhaseRecorder.start(Phase.EVENT_READ);
+        RequestType event = eventCodec.readEvent(input);
+        PhaseRecorder.stop(Phase.EVENT_READ);
+        return event;
+    }
+
+    /**
+     * Starts measuring an invocation if a metrics sink is set. Calls made while an invocation is already being
+     * measured on the current thread, for example the <code>proxy</code> call made by <code>proxyStream</code>, and
+     * priming requests are not measured.
+     * @param context The Lambda context of the invocation
+     * @return The metrics object to pass to {@link #completeInvocationMetrics(InvocationMetrics)}, or <code>null</code>
+     */
+    protected InvocationMetrics beginInvocationMetrics(Context context) {
+        if (metricsSink == null || context == PrimingContext.INSTANCE) {
+            return null;
+        }
+        InvocationMetrics metrics = PhaseRecorder.currentInvocation();
+        if (metrics.isActive()) {
+            return null;
+        }
+        metrics.begin();
+        return metrics;
+    }
+
+    /**
+     * Completes the measurement started by {@link #beginInvocationMetrics(Context)} and passes it to the metrics sink.
+     * Errors thrown by the sink are logged, they do not fail the invocation.
+     * @param metrics The metrics object, this method does nothing when it is <code>null</code>
+     */
+    protected void completeInvocationMetrics(InvocationMetrics metrics) {
+        if (metrics == null) {
+            return;
+        }
+        metrics.end();
+        if (coldStart) {
+            metrics.setColdStart(true);
+            if (!restored && initializationWrapper != null) {
+                metrics.setInitializationDurationMs(initializationWrapper.getInitializationDurationMs());
+            }
+            coldStart = false;
+        }
+        try {
+            metricsSink.invocationCompleted(metrics);
+        } catch (RuntimeException e) {
+            log.warn("Could not report invocation metrics", e);
         }
     }
 
@@ -275,6 +647,22 @@ public abstract class LambdaContainerHandler<RequestType, ResponseType, Containe
     // Methods - Getter/Setter
     //-------------------------------------------------------------
 
+    /**
+     * Returns the response writer that transforms the container response into the Lambda return value.
+     * @return The response writer passed to the constructor
+     */
+    protected ResponseWriter<ContainerResponseType, ResponseType> getResponseWriter() {
+        return responseWriter;
+    }
+
+    /**
+     * Returns the exception handler used to map errors to the Lambda return value.
+     * @return The exception handler passed to the constructor
+     */
+    protected ExceptionHandler<ResponseType> getExceptionHandler() {
+        return exceptionHandler;
+    }
+
     /**
      * Returns the current container configuration object.
      * @return The container configuration object
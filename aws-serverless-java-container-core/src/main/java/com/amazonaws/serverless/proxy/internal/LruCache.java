@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A small, thread safe, least recently used cache. It is meant to be held in a static field to keep the result of
+ * parsing header values across invocations: the distinct values of headers such as <code>Accept-Language</code> or
+ * <code>Content-Type</code> are few, so once warm most lookups are hits.
+ *
+ * Cached values are shared by all the requests and must be immutable. Null keys and values are not cached.
+ * @param <K> The type of the keys, usually the raw header value
+ * @param <V> The type of the parsed values
+ */
+public final class LruCache<K, V> {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final Map<K, V> entries;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * @param maxSize The maximum number of entries, the least recently used entry is evicted when it is reached
+     */
+    public LruCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be positive");
+        }
+        entries = new AccessOrderedMap<>(maxSize);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Returns the cached value for the key or computes it. The value is computed outside of the lock, two threads
+     * missing on the same key at the same time may both compute it.
+     * @param key The key, if null the value is computed and not cached
+     * @param mappingFunction The function that computes the value of a key
+     * @return The cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null) {
+            return mappingFunction.apply(null);
+        }
+        V value;
+        synchronized (entries) {
+            value = entries.get(key);
+        }
+        if (value != null) {
+            return value;
+        }
+        value = mappingFunction.apply(key);
+        if (value != null) {
+            synchronized (entries) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+
+    /**
+     * Linked hash map in access order that removes its eldest entry when it grows over its maximum size.
+     */
+    private static final class AccessOrderedMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        AccessOrderedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -31,7 +31,11 @@ import java.util.Set;
  * and file path validation.
  */
 public final class SecurityUtils {
-    private static Logger log = LoggerFactory.getLogger(SecurityUtils.class);
+    private static final Logger log = LoggerFactory.getLogger(SecurityUtils.class);
+
+    private static final String ALB_HOST_SUFFIX = ".elb.amazonaws.com";
+    private static final String API_GATEWAY_HOST_INFIX = ".execute-api.";
+    private static final String AMAZONAWS_HOST_SUFFIX = ".amazonaws.com";
 
     private static Set<String> SCHEMES = new HashSet<String>() {{
         add("http");
@@ -63,20 +67,33 @@ public final class SecurityUtils {
         return SCHEMES.contains(scheme);
     }
 
+    /**
+     * Checks the host of a request: ALB hosts must end with <code>{region}.elb.amazonaws.com</code>, API Gateway hosts
+     * must be <code>{apiId}.execute-api.{region}.amazonaws.com</code> and any other host must be one of the custom
+     * domain names in the container configuration. The host is compared in place with the expected parts, no string
+     * is built for the comparison.
+     * @param host The host of the request
+     * @param apiId The API id from the request context
+     * @param elb The ALB context, null for API Gateway requests
+     * @param region The region the function runs in
+     * @return true if the host is allowed
+     */
     public static boolean isValidHost(String host, String apiId, AlbContext elb, String region) {
         if (host == null) {
             return false;
         }
+        // String.valueOf keeps the behavior of the concatenation this replaces, where a null part becomes "null"
+        String regionName = String.valueOf(region);
         if (!Objects.isNull(elb)) {
-            String albhost = new StringBuilder().append(region)
-                                                .append(".elb.amazonaws.com").toString();
-            return host.endsWith(albhost) || LambdaContainerHandler.getContainerConfig().getCustomDomainNames().contains(host);
-        } else if (host.endsWith(".amazonaws.com")) {
-            String defaultHost = new StringBuilder().append(apiId)
-                                                    .append(".execute-api.")
-                                                    .append(region)
-                                                    .append(".amazonaws.com").toString();
-            return host.equals(defaultHost);
+            return endsWith(host, regionName, ALB_HOST_SUFFIX)
+                    || LambdaContainerHandler.getContainerConfig().getCustomDomainNames().contains(host);
+        } else if (host.endsWith(AMAZONAWS_HOST_SUFFIX)) {
+            String api = String.valueOf(apiId);
+            int regionStart = api.length() + API_GATEWAY_HOST_INFIX.length();
+            return host.length() == regionStart + regionName.length() + AMAZONAWS_HOST_SUFFIX.length()
+                    && host.startsWith(api)
+                    && host.startsWith(API_GATEWAY_HOST_INFIX, api.length())
+                    && host.startsWith(regionName, regionStart);
         } else {
             return LambdaContainerHandler.getContainerConfig().getCustomDomainNames().contains(host);
         }
@@ -85,13 +102,29 @@ public final class SecurityUtils {
     /**
      * Replaces CRLF characters in a string with empty string ("").
      * @param s The string to be cleaned
-     * @return A copy of the original string without CRLF characters
+     * @return The original string if it does not contain CRLF characters, otherwise a copy without them
      */
     public static String crlf(String s) {
         if (s == null) {
             return null;
         }
-        return s.replaceAll("[\r\n]", "");
+        int length = s.length();
+        int first = 0;
+        while (first < length && s.charAt(first) != '\r' && s.charAt(first) != '\n') {
+            first++;
+        }
+        if (first == length) {
+            return s;
+        }
+        StringBuilder cleaned = new StringBuilder(length - 1);
+        cleaned.append(s, 0, first);
+        for (int i = first + 1; i < length; i++) {
+            char c = s.charAt(i);
+            if (c != '\r' && c != '\n') {
+                cleaned.append(c);
+            }
+        }
+        return cleaned.toString();
     }
 
 
@@ -175,6 +208,14 @@ public final class SecurityUtils {
         return buffer.toString();
     }
 
+    /**
+     * Returns true if the string ends with the prefix immediately followed by the suffix.
+     */
+    private static boolean endsWith(String s, String prefix, String suffix) {
+        int start = s.length() - suffix.length() - prefix.length();
+        return start >= 0 && s.endsWith(suffix) && s.startsWith(prefix, start);
+    }
+
     public static String getValidFilePath(String inputPath) {
         return getValidFilePath(inputPath, false);
     }
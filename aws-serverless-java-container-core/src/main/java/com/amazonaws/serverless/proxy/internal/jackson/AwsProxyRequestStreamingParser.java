@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+import com.amazonaws.serverless.proxy.model.SingleValueHeaders;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Streaming parser for API Gateway REST API and Application Load Balancer events. See {@link StreamingEventParser}.
+ */
+public class AwsProxyRequestStreamingParser extends StreamingEventParser<AwsProxyRequest> {
+
+    public AwsProxyRequestStreamingParser(JsonFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    public AwsProxyRequest parse(JsonParser parser) throws IOException {
+        if (!startEvent(parser, AwsProxyRequest.class)) {
+            return null;
+        }
+        AwsProxyRequest request = new AwsProxyRequest();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "body":
+                    request.setBody(readString(parser));
+                    break;
+                case "version":
+                    request.setVersion(readString(parser));
+                    break;
+                case "resource":
+                    request.setResource(readString(parser));
+                    break;
+                case "path":
+                    request.setPath(readString(parser));
+                    break;
+                case "httpMethod":
+                    request.setHttpMethod(readString(parser));
+                    break;
+                case "isBase64Encoded":
+                    request.setIsBase64Encoded(readBoolean(parser));
+                    break;
+                case "multiValueHeaders":
+                    request.setMultiValueHeaders(readMultiValueMap(parser, new Headers()));
+                    break;
+                case "headers":
+                    request.setHeaders(readStringMap(parser, new SingleValueHeaders()));
+                    break;
+                case "multiValueQueryStringParameters":
+                    request.setMultiValueQueryStringParameters(readMultiValueMap(parser, new MultiValuedTreeMap<>()));
+                    break;
+                case "queryStringParameters":
+                    request.setQueryStringParameters(readStringMap(parser));
+                    break;
+                case "pathParameters":
+                    request.setPathParameters(readStringMap(parser));
+                    break;
+                case "stageVariables":
+                    request.setStageVariables(readStringMap(parser));
+                    break;
+                case "requestContext":
+                    request.setRequestContext(RequestContextStreamingParser.readAwsProxyRequestContext(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * {@link JacksonEventCodec} that reads and writes with a new <code>ObjectMapper</code> that has the Jackson
+ * <code>BlackbirdModule</code> as its only module. The features and settings of the shared mapper returned by
+ * {@link LambdaContainerHandler#getObjectMapper()} are copied to it, its modules are not: the shared mapper registers
+ * the <code>AfterburnerModule</code>, and two bytecode optimizers must not be combined on the same mapper. Use
+ * {@link JacksonEventCodec#JacksonEventCodec(Class, Class, ObjectMapper)} to read events with other modules.
+ *
+ * Blackbird replaces the reflection-based property accessors with <code>LambdaMetafactory</code> generated ones, which
+ * the JIT can inline. Unlike the <code>AfterburnerModule</code>, it does not generate bytecode with its own class
+ * loader, so it keeps working on recent JDKs. Blackbird needs Java 9 or later; on GraalVM native images use the plain
+ * {@link JacksonEventCodec} instead, see {@link #isSupported()}.
+ *
+ * @param <RequestType> The event model class
+ * @param <ResponseType> The Lambda return value model class
+ */
+public class BlackbirdEventCodec<RequestType, ResponseType> extends JacksonEventCodec<RequestType, ResponseType> {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    static final String NATIVE_IMAGE_PROPERTY = "org.graalvm.nativeimage.imagecode";
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    public BlackbirdEventCodec(Class<RequestType> requestType, Class<ResponseType> responseType) {
+        super(requestType, responseType, newBlackbirdMapper());
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Whether Blackbird can be used in the current runtime. It requires Java 9 or later, and it is not used in GraalVM
+     * native images, which cannot spin the <code>LambdaMetafactory</code> classes at run time.
+     * @return <code>true</code> if the current JVM supports the Blackbird codec
+     */
+    public static boolean isSupported() {
+        if (System.getProperty(NATIVE_IMAGE_PROPERTY) != null) {
+            return false;
+        }
+        String specVersion = System.getProperty("java.specification.version", "1.8");
+        return !specVersion.startsWith("1.");
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static ObjectMapper newBlackbirdMapper() {
+        // the copy gives the new mapper its own mix-ins and config overrides instead of sharing them
+        ObjectMapper shared = LambdaContainerHandler.getObjectMapper().copy();
+        ObjectMapper mapper = new ObjectMapper(shared.getFactory().copy());
+        mapper.setConfig(shared.getDeserializationConfig());
+        mapper.setConfig(shared.getSerializationConfig());
+        return mapper.registerModule(new BlackbirdModule());
+    }
+}
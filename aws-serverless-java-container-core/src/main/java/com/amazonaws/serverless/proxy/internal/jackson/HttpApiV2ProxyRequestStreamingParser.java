@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Streaming parser for API Gateway HTTP API payload format 2.0 events. See {@link StreamingEventParser}.
+ */
+public class HttpApiV2ProxyRequestStreamingParser extends StreamingEventParser<HttpApiV2ProxyRequest> {
+
+    public HttpApiV2ProxyRequestStreamingParser(JsonFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    public HttpApiV2ProxyRequest parse(JsonParser parser) throws IOException {
+        if (!startEvent(parser, HttpApiV2ProxyRequest.class)) {
+            return null;
+        }
+        HttpApiV2ProxyRequest request = new HttpApiV2ProxyRequest();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "version":
+                    request.setVersion(readString(parser));
+                    break;
+                case "routeKey":
+                    request.setRouteKey(readString(parser));
+                    break;
+                case "rawPath":
+                    request.setRawPath(readString(parser));
+                    break;
+                case "rawQueryString":
+                    request.setRawQueryString(readString(parser));
+                    break;
+                case "body":
+                    request.setBody(readString(parser));
+                    break;
+                case "isBase64Encoded":
+                    request.setBase64Encoded(readBoolean(parser));
+                    break;
+                case "cookies":
+                    request.setCookies(readStringList(parser));
+                    break;
+                case "headers":
+                    request.setHeaders(readStringMap(parser));
+                    break;
+                case "queryStringParameters":
+                    request.setQueryStringParameters(readStringMap(parser));
+                    break;
+                case "pathParameters":
+                    request.setPathParameters(readStringMap(parser));
+                    break;
+                case "stageVariables":
+                    request.setStageVariables(readStringMap(parser));
+                    break;
+                case "requestContext":
+                    request.setRequestContext(RequestContextStreamingParser.readHttpApiV2ProxyRequestContext(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.EventCodec;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link EventCodec} implementation that uses Jackson databind. By default, the codec uses the shared
+ * <code>ObjectMapper</code> returned by {@link LambdaContainerHandler#getObjectMapper()}, the same one handlers use
+ * when no codec is set. Unlike the {@link BlackbirdEventCodec}, it does not add bytecode generation modules, which makes
+ * it the choice for GraalVM native images, where the model classes are registered for reflection at build time.
+ *
+ * When the streaming event parser is enabled in the container configuration, events of the supported types are read
+ * with a {@link StreamingEventParser} instead of the <code>ObjectReader</code>.
+ *
+ * @param <RequestType> The event model class
+ * @param <ResponseType> The Lambda return value model class
+ */
+public class JacksonEventCodec<RequestType, ResponseType> implements EventCodec<RequestType, ResponseType> {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader objectReader;
+    private final ObjectWriter objectWriter;
+    private final StreamingEventParser<RequestType> streamingEventParser;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Creates a codec that uses the shared <code>ObjectMapper</code> of the container handlers.
+     * @param requestType The event model class
+     * @param responseType The Lambda return value model class
+     */
+    public JacksonEventCodec(Class<RequestType> requestType, Class<ResponseType> responseType) {
+        this(requestType, responseType, LambdaContainerHandler.getObjectMapper());
+    }
+
+    /**
+     * Creates a codec that reads and writes values with the given <code>ObjectMapper</code>.
+     * @param requestType The event model class
+     * @param responseType The Lambda return value model class
+     * @param mapper A configured object mapper, the codec does not change its configuration
+     */
+    public JacksonEventCodec(Class<RequestType> requestType, Class<ResponseType> responseType, ObjectMapper mapper) {
+        objectMapper = mapper;
+        objectReader = mapper.readerFor(requestType);
+        objectWriter = mapper.writerFor(responseType);
+        streamingEventParser = StreamingEventParser.forType(requestType, mapper);
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - EventCodec
+    //-------------------------------------------------------------
+
+    @Override
+    public RequestType readEvent(InputStream input) throws IOException {
+        if (streamingEventParser != null && LambdaContainerHandler.getContainerConfig().isUseStreamingEventParser()) {
+            return streamingEventParser.parse(input);
+        }
+        return objectReader.readValue(input);
+    }
+
+    @Override
+    public void writeResponse(ResponseType response, OutputStream output) throws IOException {
+        objectWriter.writeValue(output, response);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.model.AlbContext;
+import com.amazonaws.serverless.proxy.model.ApiGatewayAuthorizerContext;
+import com.amazonaws.serverless.proxy.model.ApiGatewayRequestIdentity;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.CognitoAuthorizerClaims;
+import com.amazonaws.serverless.proxy.model.HttpApiV2AuthorizerMap;
+import com.amazonaws.serverless.proxy.model.HttpApiV2HttpContext;
+import com.amazonaws.serverless.proxy.model.HttpApiV2IamAuthorizer;
+import com.amazonaws.serverless.proxy.model.HttpApiV2JwtAuthorizer;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequestContext;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the <code>requestContext</code> objects of API Gateway and Application Load Balancer events from the token
+ * stream. Together with the event parsers, this lets {@link StreamingEventParser} implementations populate the
+ * complete event model without going through databind, including the identity and authorizer objects read by the
+ * security context writers. Property names follow the Jackson annotations on the model classes.
+ */
+final class RequestContextStreamingParser {
+
+    private static final String JWT_KEY = "jwt";
+    private static final String LAMBDA_KEY = "lambda";
+    private static final String IAM_KEY = "iam";
+
+    private RequestContextStreamingParser() {
+        // static methods only
+    }
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    static AwsProxyRequestContext readAwsProxyRequestContext(JsonParser parser) throws IOException {
+        if (!startObject(parser, AwsProxyRequestContext.class)) {
+            return null;
+        }
+        AwsProxyRequestContext context = new AwsProxyRequestContext();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "resourceId":
+                    context.setResourceId(StreamingEventParser.readString(parser));
+                    break;
+                case "apiId":
+                    context.setApiId(StreamingEventParser.readString(parser));
+                    break;
+                case "resourcePath":
+                    context.setResourcePath(StreamingEventParser.readString(parser));
+                    break;
+                case "httpMethod":
+                    context.setHttpMethod(StreamingEventParser.readString(parser));
+                    break;
+                case "requestId":
+                    context.setRequestId(StreamingEventParser.readString(parser));
+                    break;
+                case "extendedRequestId":
+                    context.setExtendedRequestId(StreamingEventParser.readString(parser));
+                    break;
+                case "accountId":
+                    context.setAccountId(StreamingEventParser.readString(parser));
+                    break;
+                case "identity":
+                    context.setIdentity(readIdentity(parser));
+                    break;
+                case "authorizer":
+                    context.setAuthorizer(readAuthorizerContext(parser));
+                    break;
+                case "stage":
+                    context.setStage(StreamingEventParser.readString(parser));
+                    break;
+                case "path":
+                    context.setPath(StreamingEventParser.readString(parser));
+                    break;
+                case "protocol":
+                    context.setProtocol(StreamingEventParser.readString(parser));
+                    break;
+                case "requestTime":
+                    context.setRequestTime(StreamingEventParser.readString(parser));
+                    break;
+                case "requestTimeEpoch":
+                    context.setRequestTimeEpoch(readLong(parser));
+                    break;
+                case "elb":
+                    context.setElb(readAlbContext(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return context;
+    }
+
+    static HttpApiV2ProxyRequestContext readHttpApiV2ProxyRequestContext(JsonParser parser) throws IOException {
+        if (!startObject(parser, HttpApiV2ProxyRequestContext.class)) {
+            return null;
+        }
+        HttpApiV2ProxyRequestContext context = new HttpApiV2ProxyRequestContext();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "accountId":
+                    context.setAccountId(StreamingEventParser.readString(parser));
+                    break;
+                case "apiId":
+                    context.setApiId(StreamingEventParser.readString(parser));
+                    break;
+                case "domainName":
+                    context.setDomainName(StreamingEventParser.readString(parser));
+                    break;
+                case "domainPrefix":
+                    context.setDomainPrefix(StreamingEventParser.readString(parser));
+                    break;
+                case "requestId":
+                    context.setRequestId(StreamingEventParser.readString(parser));
+                    break;
+                case "routeKey":
+                    context.setRouteKey(StreamingEventParser.readString(parser));
+                    break;
+                case "stage":
+                    context.setStage(StreamingEventParser.readString(parser));
+                    break;
+                case "time":
+                    context.setTime(StreamingEventParser.readString(parser));
+                    break;
+                case "timeEpoch":
+                    context.setTimeEpoch(readLong(parser));
+                    break;
+                case "elb":
+                    context.setElb(readAlbContext(parser));
+                    break;
+                case "http":
+                    context.setHttp(readHttpContext(parser));
+                    break;
+                case "authorizer":
+                    context.setAuthorizer(readAuthorizerMap(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return context;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private - REST API
+    //-------------------------------------------------------------
+
+    private static ApiGatewayRequestIdentity readIdentity(JsonParser parser) throws IOException {
+        if (!startObject(parser, ApiGatewayRequestIdentity.class)) {
+            return null;
+        }
+        ApiGatewayRequestIdentity identity = new ApiGatewayRequestIdentity();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "apiKey":
+                    identity.setApiKey(StreamingEventParser.readString(parser));
+                    break;
+                case "apiKeyId":
+                    identity.setApiKeyId(StreamingEventParser.readString(parser));
+                    break;
+                case "userArn":
+                    identity.setUserArn(StreamingEventParser.readString(parser));
+                    break;
+                case "cognitoAuthenticationType":
+                    identity.setCognitoAuthenticationType(StreamingEventParser.readString(parser));
+                    break;
+                case "caller":
+                    identity.setCaller(StreamingEventParser.readString(parser));
+                    break;
+                case "userAgent":
+                    identity.setUserAgent(StreamingEventParser.readString(parser));
+                    break;
+                case "user":
+                    identity.setUser(StreamingEventParser.readString(parser));
+                    break;
+                case "cognitoIdentityPoolId":
+                    identity.setCognitoIdentityPoolId(StreamingEventParser.readString(parser));
+                    break;
+                case "cognitoIdentityId":
+                    identity.setCognitoIdentityId(StreamingEventParser.readString(parser));
+                    break;
+                case "cognitoAuthenticationProvider":
+                    identity.setCognitoAuthenticationProvider(StreamingEventParser.readString(parser));
+                    break;
+                case "sourceIp":
+                    identity.setSourceIp(StreamingEventParser.readString(parser));
+                    break;
+                case "accountId":
+                    identity.setAccountId(StreamingEventParser.readString(parser));
+                    break;
+                case "accessKey":
+                    identity.setAccessKey(StreamingEventParser.readString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return identity;
+    }
+
+    private static ApiGatewayAuthorizerContext readAuthorizerContext(JsonParser parser) throws IOException {
+        if (!startObject(parser, ApiGatewayAuthorizerContext.class)) {
+            return null;
+        }
+        ApiGatewayAuthorizerContext authorizer = new ApiGatewayAuthorizerContext();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "principalId":
+                    authorizer.setPrincipalId(StreamingEventParser.readString(parser));
+                    break;
+                case "claims":
+                    authorizer.setClaims(readClaims(parser));
+                    break;
+                default:
+                    // custom authorizers return a flat map of context values
+                    authorizer.setContextValue(name, StreamingEventParser.readString(parser));
+            }
+        }
+        return authorizer;
+    }
+
+    private static CognitoAuthorizerClaims readClaims(JsonParser parser) throws IOException {
+        if (!startObject(parser, CognitoAuthorizerClaims.class)) {
+            return null;
+        }
+        CognitoAuthorizerClaims claims = new CognitoAuthorizerClaims();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "sub":
+                    claims.setSubject(StreamingEventParser.readString(parser));
+                    break;
+                case "aud":
+                    claims.setAudience(StreamingEventParser.readString(parser));
+                    break;
+                case "iss":
+                    claims.setIssuer(StreamingEventParser.readString(parser));
+                    break;
+                case "token_use":
+                    claims.setTokenUse(StreamingEventParser.readString(parser));
+                    break;
+                case "cognito:username":
+                    claims.setUsername(StreamingEventParser.readString(parser));
+                    break;
+                case "email":
+                    claims.setEmail(StreamingEventParser.readString(parser));
+                    break;
+                case "email_verified":
+                    claims.setEmailVerified(StreamingEventParser.readBoolean(parser));
+                    break;
+                case "auth_time":
+                    claims.setAuthTime(readLongObject(parser));
+                    break;
+                case "exp":
+                    claims.setExpiration(StreamingEventParser.readString(parser));
+                    break;
+                case "iat":
+                    claims.setIssuedAt(StreamingEventParser.readString(parser));
+                    break;
+                default:
+                    claims.setClaim(name, StreamingEventParser.readString(parser));
+            }
+        }
+        return claims;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private - HTTP API
+    //-------------------------------------------------------------
+
+    private static HttpApiV2HttpContext readHttpContext(JsonParser parser) throws IOException {
+        if (!startObject(parser, HttpApiV2HttpContext.class)) {
+            return null;
+        }
+        HttpApiV2HttpContext http = new HttpApiV2HttpContext();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "method":
+                    http.setMethod(StreamingEventParser.readString(parser));
+                    break;
+                case "path":
+                    http.setPath(StreamingEventParser.readString(parser));
+                    break;
+                case "protocol":
+                    http.setProtocol(StreamingEventParser.readString(parser));
+                    break;
+                case "sourceIp":
+                    http.setSourceIp(StreamingEventParser.readString(parser));
+                    break;
+                case "userAgent":
+                    http.setUserAgent(StreamingEventParser.readString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return http;
+    }
+
+    private static HttpApiV2AuthorizerMap readAuthorizerMap(JsonParser parser) throws IOException {
+        if (!startObject(parser, HttpApiV2AuthorizerMap.class)) {
+            return null;
+        }
+        HttpApiV2AuthorizerMap authorizer = new HttpApiV2AuthorizerMap();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case JWT_KEY:
+                    authorizer.putJwtAuthorizer(readJwtAuthorizer(parser));
+                    break;
+                case LAMBDA_KEY:
+                    authorizer.put(LAMBDA_KEY, readLambdaContext(parser));
+                    break;
+                case IAM_KEY:
+                    authorizer.putIamAuthorizer(readIamAuthorizer(parser));
+                    break;
+                default:
+                    // we ignore other, unknown values
+                    parser.skipChildren();
+            }
+        }
+        return authorizer;
+    }
+
+    private static HttpApiV2JwtAuthorizer readJwtAuthorizer(JsonParser parser) throws IOException {
+        if (!startObject(parser, HttpApiV2JwtAuthorizer.class)) {
+            return null;
+        }
+        HttpApiV2JwtAuthorizer jwt = new HttpApiV2JwtAuthorizer();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "claims":
+                    jwt.setClaims(StreamingEventParser.readStringMap(parser));
+                    break;
+                case "scopes":
+                    jwt.setScopes(StreamingEventParser.readStringList(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return jwt;
+    }
+
+    private static HttpApiV2IamAuthorizer readIamAuthorizer(JsonParser parser) throws IOException {
+        if (!startObject(parser, HttpApiV2IamAuthorizer.class)) {
+            return null;
+        }
+        HttpApiV2IamAuthorizer iam = new HttpApiV2IamAuthorizer();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (name) {
+                case "accessKey":
+                    iam.setAccessKey(StreamingEventParser.readString(parser));
+                    break;
+                case "accountId":
+                    iam.setAccountId(StreamingEventParser.readString(parser));
+                    break;
+                case "callerId":
+                    iam.setCallerId(StreamingEventParser.readString(parser));
+                    break;
+                case "cognitoIdentity":
+                    iam.setCognitoIdentity(StreamingEventParser.readString(parser));
+                    break;
+                case "principalOrgId":
+                    iam.setPrincipalOrgId(StreamingEventParser.readString(parser));
+                    break;
+                case "userArn":
+                    iam.setUserArn(StreamingEventParser.readString(parser));
+                    break;
+                case "userId":
+                    iam.setUserId(StreamingEventParser.readString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return iam;
+    }
+
+    private static Map<String, Object> readLambdaContext(JsonParser parser) throws IOException {
+        if (!startObject(parser, Map.class)) {
+            return null;
+        }
+        Map<String, Object> context = new HashMap<>();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            context.put(name, readUntyped(parser));
+        }
+        return context;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private - Values
+    //-------------------------------------------------------------
+
+    private static AlbContext readAlbContext(JsonParser parser) throws IOException {
+        if (!startObject(parser, AlbContext.class)) {
+            return null;
+        }
+        AlbContext elb = new AlbContext();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            if ("targetGroupArn".equals(name)) {
+                elb.setTargetGroupArn(StreamingEventParser.readString(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return elb;
+    }
+
+    /**
+     * Reads any JSON value into the same types databind uses for <code>Object</code> properties.
+     */
+    private static Object readUntyped(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                Map<String, Object> object = new LinkedHashMap<>();
+                for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+                    parser.nextToken();
+                    object.put(name, readUntyped(parser));
+                }
+                return object;
+            case START_ARRAY:
+                List<Object> array = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(readUntyped(parser));
+                }
+                return array;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private static long readLong(JsonParser parser) throws IOException {
+        Long value = readLongObject(parser);
+        return value == null ? 0L : value;
+    }
+
+    private static Long readLongObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw MismatchedInputException.from(parser, Long.class, "Cannot read \"" + text + "\" as a long value");
+            }
+        }
+        throw MismatchedInputException.from(parser, Long.class, "Cannot read " + token + " as a long value");
+    }
+
+    private static boolean startObject(JsonParser parser, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, type, "Expected an object but found " + token);
+        }
+        return true;
+    }
+}
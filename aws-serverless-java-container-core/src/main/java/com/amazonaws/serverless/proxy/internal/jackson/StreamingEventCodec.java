@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.EventCodec;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link EventCodec} implementation that reads and writes the proxy model classes with hand-written code on top of
+ * the Jackson streaming API. Events are read with a {@link StreamingEventParser} and <code>AwsProxyResponse</code>
+ * objects are written field by field with a <code>JsonGenerator</code>. Since databind is never used, there is no
+ * bean introspection at cold start and, for handlers that read events with this codec, the model classes do not need
+ * to be registered for reflection in a GraalVM native image. The codec is only used when the streaming event parser
+ * is enabled in the container configuration while the handler is built, so the Spring Boot AOT processor keeps
+ * registering the model classes for the handlers that still read events with databind.
+ *
+ * The codec supports the API Gateway REST API, HTTP API and Application Load Balancer event types, use
+ * {@link #isSupported(Class, Class)} to check a pair of types before creating it.
+ *
+ * @param <RequestType> The event model class
+ */
+public class StreamingEventCodec<RequestType> implements EventCodec<RequestType, AwsProxyResponse> {
+
+    //-------------------------------------------------------------
+    // Variables - Private - Static
+    //-------------------------------------------------------------
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final StreamingEventParser<RequestType> eventParser;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Creates a codec for the given event type.
+     * @param requestType The event model class
+     * @throws IllegalArgumentException If the library does not ship a streaming parser for the event type
+     */
+    public StreamingEventCodec(Class<RequestType> requestType) {
+        eventParser = StreamingEventParser.forType(requestType, jsonFactory);
+        if (eventParser == null) {
+            throw new IllegalArgumentException("No streaming parser available for " + requestType.getName());
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    /**
+     * Whether the codec can read and write the given types.
+     * @param requestType The event model class
+     * @param responseType The Lambda return value model class
+     * @return <code>true</code> if the response type is <code>AwsProxyResponse</code> and the library ships a
+     *         streaming parser for the event type
+     */
+    public static boolean isSupported(Class<?> requestType, Class<?> responseType) {
+        return AwsProxyResponse.class.equals(responseType) && StreamingEventParser.forType(requestType, jsonFactory) != null;
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - EventCodec
+    //-------------------------------------------------------------
+
+    @Override
+    public RequestType readEvent(InputStream input) throws IOException {
+        return eventParser.parse(input);
+    }
+
+    /**
+     * Writes the response with the same properties databind produces for <code>AwsProxyResponse</code>: <code>null</code>
+     * values are omitted and <code>isBase64Encoded</code> is always included.
+     */
+    @Override
+    public void writeResponse(AwsProxyResponse response, OutputStream output) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            if (response == null) {
+                generator.writeNull();
+                return;
+            }
+            generator.writeStartObject();
+            generator.writeNumberField("statusCode", response.getStatusCode());
+            if (response.getStatusDescription() != null) {
+                generator.writeStringField("statusDescription", response.getStatusDescription());
+            }
+            if (response.getHeaders() != null) {
+                generator.writeObjectFieldStart("headers");
+                for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                    generator.writeStringField(header.getKey(), header.getValue());
+                }
+                generator.writeEndObject();
+            }
+            if (response.getMultiValueHeaders() != null) {
+                generator.writeObjectFieldStart("multiValueHeaders");
+                for (Map.Entry<String, List<String>> header : response.getMultiValueHeaders().entrySet()) {
+                    generator.writeFieldName(header.getKey());
+                    writeStringList(generator, header.getValue());
+                }
+                generator.writeEndObject();
+            }
+            if (response.getBody() != null) {
+                generator.writeStringField("body", response.getBody());
+            }
+            generator.writeBooleanField("isBase64Encoded", response.isBase64Encoded());
+            generator.writeEndObject();
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static void writeStringList(JsonGenerator generator, List<String> values) throws IOException {
+        if (values == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+}
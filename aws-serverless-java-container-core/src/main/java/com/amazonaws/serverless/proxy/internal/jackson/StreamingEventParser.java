@@ -0,0 +1,260 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an incoming Lambda event in a single pass over the Jackson token stream. Unlike an <code>ObjectReader</code>,
+ * implementations of this class do not go through databind's bean introspection for the top-level event: headers,
+ * query string parameters and the body are copied from the tokens straight into the structures the servlet request
+ * reads them from, and the request context objects are read by hand-written code as well. Because no bean
+ * introspection happens, the model classes do not need to be registered for reflection when events are read with
+ * these parsers.
+ *
+ * The parsers follow the same rules as the default databind configuration: unknown properties are skipped, JSON
+ * <code>null</code> values reset the property to <code>null</code>, and scalar values are coerced to strings.
+ *
+ * @param <RequestType> The event model class produced by this parser
+ */
+public abstract class StreamingEventParser<RequestType> {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final JsonFactory jsonFactory;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    protected StreamingEventParser(JsonFactory factory) {
+        jsonFactory = factory;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Abstract
+    //-------------------------------------------------------------
+
+    /**
+     * Reads the event object the parser is currently positioned on. When the parser has not been advanced yet, the
+     * first token is read by this method.
+     * @param parser The parser for the event stream
+     * @return A populated event object, or <code>null</code> if the event is the JSON <code>null</code> literal
+     * @throws IOException If the stream cannot be read or the event does not match the model
+     */
+    public abstract RequestType parse(JsonParser parser) throws IOException;
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Reads an event from the given input stream. The stream is closed once the event has been read.
+     * @param input The Lambda input stream
+     * @return A populated event object
+     * @throws IOException If the stream cannot be read or the event does not match the model
+     */
+    public RequestType parse(InputStream input) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            return parse(parser);
+        }
+    }
+
+    /**
+     * Returns the streaming parser for the given event type, if the library ships one.
+     * @param requestType The event model class
+     * @param mapper The object mapper whose factory is used to create parsers
+     * @param <T> The event model type
+     * @return A parser for the event type, or <code>null</code> if the type is not supported
+     */
+    public static <T> StreamingEventParser<T> forType(Class<T> requestType, ObjectMapper mapper) {
+        return forType(requestType, mapper.getFactory());
+    }
+
+    /**
+     * Returns the streaming parser for the given event type, if the library ships one.
+     * @param requestType The event model class
+     * @param factory The factory used to create parsers
+     * @param <T> The event model type
+     * @return A parser for the event type, or <code>null</code> if the type is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StreamingEventParser<T> forType(Class<T> requestType, JsonFactory factory) {
+        if (AwsProxyRequest.class.equals(requestType)) {
+            return (StreamingEventParser<T>) new AwsProxyRequestStreamingParser(factory);
+        }
+        if (HttpApiV2ProxyRequest.class.equals(requestType)) {
+            return (StreamingEventParser<T>) new HttpApiV2ProxyRequestStreamingParser(factory);
+        }
+        return null;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Protected
+    //-------------------------------------------------------------
+
+    protected JsonFactory getJsonFactory() {
+        return jsonFactory;
+    }
+
+    /**
+     * Moves the parser to the start of the event object.
+     * @param parser The event parser
+     * @param requestType The event model class, used in error messages
+     * @return <code>false</code> if the event is the JSON <code>null</code> literal
+     * @throws IOException If the stream is empty or does not contain a JSON object
+     */
+    protected static boolean startEvent(JsonParser parser, Class<?> requestType) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            token = parser.nextToken();
+        }
+        if (token == null) {
+            throw MismatchedInputException.from(parser, requestType, "No content to map due to end-of-input");
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, requestType, "Expected an object for " + requestType.getName() + " but found " + token);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the current scalar token as a string.
+     */
+    protected static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        throw MismatchedInputException.from(parser, String.class, "Cannot read " + token + " as a String value");
+    }
+
+    /**
+     * Reads the current token as a boolean, accepting the same string coercions as databind.
+     */
+    protected static boolean readBoolean(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return true;
+        }
+        if (token == JsonToken.VALUE_FALSE || token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsBoolean();
+        }
+        throw MismatchedInputException.from(parser, Boolean.TYPE, "Cannot read " + token + " as a boolean value");
+    }
+
+    /**
+     * Reads a JSON object of string values into a new map. Like databind, the map preserves the order of the event.
+     */
+    protected static Map<String, String> readStringMap(JsonParser parser) throws IOException {
+        if (!startObject(parser, Map.class)) {
+            return null;
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            values.put(name, readString(parser));
+        }
+        return values;
+    }
+
+    /**
+     * Reads a JSON object of string values into the given map.
+     */
+    protected static <M extends Map<String, String>> M readStringMap(JsonParser parser, M target) throws IOException {
+        if (!startObject(parser, target.getClass())) {
+            return null;
+        }
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            target.put(name, readString(parser));
+        }
+        return target;
+    }
+
+    /**
+     * Reads a JSON object of string arrays into the given multi-valued map.
+     */
+    protected static <M extends MultiValuedTreeMap<String, String>> M readMultiValueMap(JsonParser parser, M target) throws IOException {
+        if (!startObject(parser, target.getClass())) {
+            return null;
+        }
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            parser.nextToken();
+            target.put(name, readStringList(parser));
+        }
+        return target;
+    }
+
+    /**
+     * Reads a JSON array of strings.
+     */
+    protected static List<String> readStringList(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(parser, List.class, "Expected an array of strings but found " + token);
+        }
+        // most headers and parameters carry a single value
+        List<String> values = new ArrayList<>(2);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(parser));
+        }
+        return values;
+    }
+
+    private static boolean startObject(JsonParser parser, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, type, "Expected an object but found " + token);
+        }
+        return true;
+    }
+}
@@ -30,7 +30,7 @@ import java.util.Base64;
 public class AwsHttpApiV2SecurityContext implements SecurityContext {
     public static final String AUTH_SCHEME_JWT = "JWT";
 
-    private static Logger log = LoggerFactory.getLogger(AwsHttpApiV2SecurityContext.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsHttpApiV2SecurityContext.class);
 
     private Context lambdaContext;
     private HttpApiV2ProxyRequest event;
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+import com.amazonaws.serverless.proxy.MetricsSink;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.PrintStream;
+
+/**
+ * {@link MetricsSink} implementation that writes the metrics as CloudWatch Embedded Metric Format (EMF) log lines. When
+ * the lines are written to the Lambda log, CloudWatch extracts the metrics without any call to the CloudWatch API.
+ *
+ * Each line contains the total latency of the invocations, the time spent in each {@link Phase} that ran, the request
+ * and response payload sizes, whether the request and response bodies were Base64 encoded, whether the invocation was
+ * a cold start and, for cold starts, the initialization duration. All durations are in milliseconds. The metrics use
+ * the <code>FunctionName</code> dimension when the function name is available from the environment.
+ *
+ * The sink writes a line after each invocation by default. With a batch size greater than 1, the values of several
+ * invocations are collected and written as EMF value arrays in a single line, which reduces the log volume. Values
+ * collected since the last line can be written at any time with {@link #flush()}, the container handler flushes the
+ * sink before a checkpoint. Values still pending when an execution environment is shut down are not written.
+ */
+public class EmfMetricsSink implements MetricsSink {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    public static final String DEFAULT_NAMESPACE = "aws-serverless-java-container";
+    /**
+     * The maximum number of values EMF accepts for a metric in a single log line.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final String FUNCTION_NAME_DIMENSION = "FunctionName";
+    private static final String UNIT_MILLISECONDS = "Milliseconds";
+    private static final String UNIT_BYTES = "Bytes";
+    private static final String UNIT_COUNT = "Count";
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    private static final Phase[] PHASES = Phase.values();
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final String namespace;
+    private final String functionName;
+    private final int batchSize;
+    private final PrintStream output;
+
+    private final Metric latency;
+    private final Metric[] phases;
+    private final Metric requestSize;
+    private final Metric responseSize;
+    private final Metric requestBase64Encoded;
+    private final Metric responseBase64Encoded;
+    private final Metric coldStart;
+    private final Metric initDuration;
+    private final Metric[] metrics;
+
+    private final StringBuilder line = new StringBuilder(2048);
+    private int pendingInvocations;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * Creates a sink that writes a line to <code>System.out</code> after each invocation.
+     */
+    public EmfMetricsSink() {
+        this(DEFAULT_NAMESPACE, 1);
+    }
+
+    /**
+     * Creates a sink that writes to <code>System.out</code>.
+     * @param namespace The CloudWatch namespace of the metrics
+     * @param batchSize The number of invocations written in each line, between 1 and {@link #MAX_BATCH_SIZE}
+     */
+    public EmfMetricsSink(String namespace, int batchSize) {
+        this(namespace, batchSize, System.out, System.getenv("AWS_LAMBDA_FUNCTION_NAME"));
+    }
+
+    /**
+     * Creates a new sink.
+     * @param namespace The CloudWatch namespace of the metrics
+     * @param batchSize The number of invocations written in each line, between 1 and {@link #MAX_BATCH_SIZE}
+     * @param output The stream the lines are written to
+     * @param functionName The value of the <code>FunctionName</code> dimension, the dimension is omitted when this is
+     *                     <code>null</code>
+     */
+    public EmfMetricsSink(String namespace, int batchSize, PrintStream output, String functionName) {
+        if (namespace == null || namespace.isEmpty()) {
+            throw new IllegalArgumentException("Namespace cannot be empty");
+        }
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE + ": " + batchSize);
+        }
+        this.namespace = escape(namespace);
+        this.functionName = functionName == null ? null : escape(functionName);
+        this.batchSize = batchSize;
+        this.output = output;
+
+        latency = new Metric("Latency", UNIT_MILLISECONDS, batchSize);
+        phases = new Metric[PHASES.length];
+        for (Phase phase : PHASES) {
+            phases[phase.ordinal()] = new Metric(phase.name(), UNIT_MILLISECONDS, batchSize);
+        }
+        requestSize = new Metric("RequestSize", UNIT_BYTES, batchSize);
+        responseSize = new Metric("ResponseSize", UNIT_BYTES, batchSize);
+        requestBase64Encoded = new Metric("RequestBase64Encoded", UNIT_COUNT, batchSize);
+        responseBase64Encoded = new Metric("ResponseBase64Encoded", UNIT_COUNT, batchSize);
+        coldStart = new Metric("ColdStart", UNIT_COUNT, batchSize);
+        initDuration = new Metric("InitDuration", UNIT_MILLISECONDS, batchSize);
+
+        metrics = new Metric[phases.length + 7];
+        metrics[0] = latency;
+        System.arraycopy(phases, 0, metrics, 1, phases.length);
+        int i = phases.length + 1;
+        metrics[i++] = requestSize;
+        metrics[i++] = responseSize;
+        metrics[i++] = requestBase64Encoded;
+        metrics[i++] = responseBase64Encoded;
+        metrics[i++] = coldStart;
+        metrics[i] = initDuration;
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - MetricsSink
+    //-------------------------------------------------------------
+
+    @Override
+    public synchronized void invocationCompleted(InvocationMetrics invocation) {
+        latency.add(invocation.getDurationNanos() / NANOS_PER_MILLISECOND);
+        for (Phase phase : PHASES) {
+            if (invocation.getPhaseCount(phase) > 0) {
+                phases[phase.ordinal()].add(invocation.getPhaseNanos(phase) / NANOS_PER_MILLISECOND);
+            }
+        }
+        if (invocation.getRequestBytes() >= 0) {
+            requestSize.add(invocation.getRequestBytes());
+        }
+        if (invocation.getResponseBytes() >= 0) {
+            responseSize.add(invocation.getResponseBytes());
+        }
+        requestBase64Encoded.add(invocation.isRequestBase64Encoded() ? 1 : 0);
+        responseBase64Encoded.add(invocation.isResponseBase64Encoded() ? 1 : 0);
+        coldStart.add(invocation.isColdStart() ? 1 : 0);
+        if (invocation.isColdStart() && invocation.getInitializationDurationMs() >= 0) {
+            initDuration.add(invocation.getInitializationDurationMs());
+        }
+
+        pendingInvocations++;
+        if (pendingInvocations >= batchSize) {
+            flush();
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Writes the values collected since the last line. Does nothing if no invocation completed since then.
+     */
+    @Override
+    public synchronized void flush() {
+        if (pendingInvocations == 0) {
+            return;
+        }
+        line.setLength(0);
+        line.append("{\"_aws\":{\"Timestamp\":").append(System.currentTimeMillis())
+                .append(",\"CloudWatchMetrics\":[{\"Namespace\":\"").append(namespace)
+                .append("\",\"Dimensions\":[[");
+        if (functionName != null) {
+            line.append('"').append(FUNCTION_NAME_DIMENSION).append('"');
+        }
+        line.append("]],\"Metrics\":[");
+        boolean first = true;
+        for (Metric metric : metrics) {
+            if (metric.count == 0) {
+                continue;
+            }
+            if (!first) {
+                line.append(',');
+            }
+            first = false;
+            line.append("{\"Name\":\"").append(metric.name).append("\",\"Unit\":\"").append(metric.unit).append("\"}");
+        }
+        line.append("]}]}");
+        if (functionName != null) {
+            line.append(",\"").append(FUNCTION_NAME_DIMENSION).append("\":\"").append(functionName).append('"');
+        }
+        for (Metric metric : metrics) {
+            if (metric.count == 0) {
+                continue;
+            }
+            line.append(",\"").append(metric.name).append("\":");
+            metric.appendValues(line);
+            metric.count = 0;
+        }
+        line.append('}');
+        pendingInvocations = 0;
+        output.println(line);
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static String escape(String value) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner classes
+    //-------------------------------------------------------------
+
+    private static final class Metric {
+        private final String name;
+        private final String unit;
+        private final double[] values;
+        private int count;
+
+        Metric(String name, String unit, int capacity) {
+            this.name = name;
+            this.unit = unit;
+            values = new double[capacity];
+        }
+
+        void add(double value) {
+            values[count++] = value;
+        }
+
+        void appendValues(StringBuilder builder) {
+            if (count == 1) {
+                appendValue(builder, values[0]);
+                return;
+            }
+            builder.append('[');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendValue(builder, values[i]);
+            }
+            builder.append(']');
+        }
+
+        private static void appendValue(StringBuilder builder, double value) {
+            if (value == (long) value) {
+                builder.append((long) value);
+            } else {
+                builder.append(value);
+            }
+        }
+    }
+}
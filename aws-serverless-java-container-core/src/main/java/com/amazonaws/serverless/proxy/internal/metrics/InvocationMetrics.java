@@ -0,0 +1,347 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The measurements of a single invocation on the current thread. Each thread owns one instance, returned by
+ * {@link PhaseRecorder#currentInvocation()}, which is reset at the beginning of every invocation and reused so that
+ * collecting metrics does not allocate on a warm thread. Durations are in nanoseconds; sizes and the initialization
+ * duration are <code>-1</code> when they are not known.
+ *
+ * Instances are passed to {@link MetricsSink#invocationCompleted(InvocationMetrics)} and must not be kept after the
+ * method returns.
+ */
+public final class InvocationMetrics {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final long[] phaseStartTimes;
+    private final long[] phaseNanos;
+    private final int[] phaseCounts;
+    private final CountingInputStream requestStream = new CountingInputStream();
+    private final CountingOutputStream responseStream = new CountingOutputStream();
+
+    private boolean active;
+    private long startTime;
+    private long durationNanos;
+    private long requestBytes;
+    private long responseBytes;
+    private boolean requestBase64Encoded;
+    private boolean responseBase64Encoded;
+    private boolean coldStart;
+    private long initializationDurationMs;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    InvocationMetrics(int phaseCount) {
+        phaseStartTimes = new long[phaseCount];
+        phaseNanos = new long[phaseCount];
+        phaseCounts = new int[phaseCount];
+        Arrays.fill(phaseStartTimes, NOT_STARTED);
+        reset();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Resets the measurements and starts the invocation clock.
+     */
+    public void begin() {
+        reset();
+        active = true;
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Stops the invocation clock and collects the payload sizes counted by the stream wrappers.
+     */
+    public void end() {
+        durationNanos = System.nanoTime() - startTime;
+        active = false;
+        if (requestStream.isAttached()) {
+            requestBytes = requestStream.detach();
+        }
+        if (responseStream.isAttached()) {
+            responseBytes = responseStream.detach();
+        }
+    }
+
+    /**
+     * Whether {@link #begin()} was called and {@link #end()} was not.
+     * @return <code>true</code> while an invocation is being measured on this thread
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Wraps the Lambda input stream so that the size of the event is measured. The wrapper is reused across
+     * invocations, the stream is released by {@link #end()}.
+     * @param input The Lambda input stream
+     * @return A stream that counts the bytes read from the input stream
+     */
+    public InputStream countRequestBytes(InputStream input) {
+        requestStream.attach(input);
+        return requestStream;
+    }
+
+    /**
+     * Wraps the Lambda output stream so that the size of the response is measured. The wrapper is reused across
+     * invocations, the stream is released by {@link #end()}.
+     * @param output The Lambda output stream
+     * @return A stream that counts the bytes written to the output stream
+     */
+    public OutputStream countResponseBytes(OutputStream output) {
+        responseStream.attach(output);
+        return responseStream;
+    }
+
+    /**
+     * Returns the time spent in a phase during the invocation. Phases that ran more than once are summed.
+     * @param phase The phase
+     * @return The duration in nanoseconds, 0 if the phase did not run
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns the number of times a phase ran during the invocation.
+     * @param phase The phase
+     * @return The number of recorded durations
+     */
+    public int getPhaseCount(Phase phase) {
+        return phaseCounts[phase.ordinal()];
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public boolean isRequestBase64Encoded() {
+        return requestBase64Encoded;
+    }
+
+    public void setRequestBase64Encoded(boolean requestBase64Encoded) {
+        this.requestBase64Encoded = requestBase64Encoded;
+    }
+
+    public boolean isResponseBase64Encoded() {
+        return responseBase64Encoded;
+    }
+
+    public void setResponseBase64Encoded(boolean responseBase64Encoded) {
+        this.responseBase64Encoded = responseBase64Encoded;
+    }
+
+    /**
+     * Whether this is the first invocation handled by the container after the initialization or after a restore.
+     * @return <code>true</code> for the first invocation
+     */
+    public boolean isColdStart() {
+        return coldStart;
+    }
+
+    public void setColdStart(boolean coldStart) {
+        this.coldStart = coldStart;
+    }
+
+    /**
+     * Returns the initialization duration reported by the {@link com.amazonaws.serverless.proxy.InitializationWrapper}.
+     * This is only set for cold starts.
+     * @return The duration in milliseconds, or <code>-1</code>
+     */
+    public long getInitializationDurationMs() {
+        return initializationDurationMs;
+    }
+
+    public void setInitializationDurationMs(long initializationDurationMs) {
+        this.initializationDurationMs = initializationDurationMs;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    void startPhase(int phase, long now) {
+        phaseStartTimes[phase] = now;
+    }
+
+    boolean isPhaseStarted(int phase) {
+        return phaseStartTimes[phase] != NOT_STARTED;
+    }
+
+    /**
+     * Returns the start time of the phase and clears it, or <code>Long.MIN_VALUE</code> if the phase was not started.
+     */
+    long takePhaseStart(int phase) {
+        long start = phaseStartTimes[phase];
+        phaseStartTimes[phase] = NOT_STARTED;
+        return start;
+    }
+
+    void clearPhaseStarts() {
+        Arrays.fill(phaseStartTimes, NOT_STARTED);
+    }
+
+    void addPhase(int phase, long nanos) {
+        phaseNanos[phase] += nanos;
+        phaseCounts[phase]++;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void reset() {
+        Arrays.fill(phaseNanos, 0L);
+        Arrays.fill(phaseCounts, 0);
+        active = false;
+        durationNanos = 0L;
+        requestBytes = -1L;
+        responseBytes = -1L;
+        requestBase64Encoded = false;
+        responseBase64Encoded = false;
+        coldStart = false;
+        initializationDurationMs = -1L;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner classes
+    //-------------------------------------------------------------
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream() {
+            super(null);
+        }
+
+        void attach(InputStream input) {
+            in = input;
+            count = 0;
+        }
+
+        boolean isAttached() {
+            return in != null;
+        }
+
+        long detach() {
+            in = null;
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = in.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream() {
+            super(null);
+        }
+
+        void attach(OutputStream output) {
+            out = output;
+            count = 0;
+        }
+
+        boolean isAttached() {
+            return out != null;
+        }
+
+        long detach() {
+            out = null;
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // FilterOutputStream only closes once, the wrapper is reused for the next invocation
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+/**
+ * The phases of the container lifecycle and of a request that the {@link PhaseRecorder} can measure. Each phase owns a
+ * fixed slot in the recorder, identified by its ordinal. The first four phases are recorded by the core container
+ * handlers and apply to all frameworks; the others are recorded by the servlet implementation and by the framework
+ * specific handlers.
+ */
+public enum Phase {
+    EVENT_READ,
+    REQUEST_READ,
+    FILTER_CHAIN,
+    EVENT_WRITE,
+
+    SERVLET_REQUEST_GET_FORM_PARAMS,
+    SERVLET_REQUEST_GET_MULTIPART_PARAMS,
+    SERVLET_RESPONSE_WRITE,
+
+    JERSEY_COLD_START_INIT,
+    JERSEY_CONTAINER_CONSTRUCTOR,
+    JERSEY_FILTER_CONSTRUCTOR,
+    JERSEY_FILTER_DOFILTER,
+    JERSEY_HANDLE_REQUEST,
+    JERSEY_RELOAD_CONFIG,
+    JERSEY_RELOAD_DEFAULT,
+    JERSEY_SERVLET_REQUEST_TO_CONTAINER,
+    JERSEY_WRITE_RESPONSE,
+
+    SPRING_COLD_START,
+    SPRING_CONTAINER_HANDLER_CONSTRUCTOR,
+    SPRING_HANDLE_REQUEST,
+
+    SPRINGBOOT2_COLD_START,
+    SPRINGBOOT2_CONTAINER_HANDLER_CONSTRUCTOR,
+    SPRINGBOOT2_HANDLE_REQUEST
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records how long the container spends in each {@link Phase}. Durations are measured with <code>System.nanoTime()</code>
+ * and aggregated across invocations into a count, total, minimum, maximum and a log-linear histogram per phase.
+ *
+ * The recorder is disabled by default and can be turned on with {@link #enable()}. All state lives in arrays that are
+ * allocated when the class is loaded, plus one {@link InvocationMetrics} object per thread, so recording a phase on a
+ * warm thread does not allocate. Start times are kept per thread, which means concurrent requests on different threads
+ * can time the same phase without interfering with each other. Aggregates are updated with atomic operations.
+ *
+ * Use {@link #getStatistics(Phase)} or {@link #getStatistics()} to read the results across invocations, and
+ * {@link #currentInvocation()} to read the phases of the invocation running on the current thread.
+ */
+public final class PhaseRecorder {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    /**
+     * Number of linear sub-buckets in each power of two of the histogram, as a power of two. With 2 bits each bucket
+     * is at most 25% wide.
+     */
+    static final int SUB_BUCKET_BITS = 2;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final int PHASE_COUNT = PHASES.length;
+
+    private static final int COUNT = 0;
+    private static final int TOTAL = 1;
+    private static final int MIN = 2;
+    private static final int MAX = 3;
+    private static final int STAT_COUNT = 4;
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private - Static
+    //-------------------------------------------------------------
+
+    private static volatile boolean enabled = false;
+
+    private static final AtomicLongArray stats = newStats();
+    private static final AtomicLongArray histograms = new AtomicLongArray(PHASE_COUNT * BUCKET_COUNT);
+    private static final ThreadLocal<InvocationMetrics> invocations =
+            ThreadLocal.withInitial(() -> new InvocationMetrics(PHASE_COUNT));
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    private PhaseRecorder() {
+        // static methods only
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public - Static
+    //-------------------------------------------------------------
+
+    /**
+     * Starts recording phases. This should not be left on in production unless the statistics are being consumed.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops recording phases. Statistics recorded so far are kept until {@link #reset()} is called.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of a phase on the current thread. Calling this method again before {@link #stop(Phase)}
+     * restarts the phase.
+     * @param phase The phase to start
+     */
+    public static void start(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        invocations.get().startPhase(phase.ordinal(), System.nanoTime());
+    }
+
+    /**
+     * Marks the end of a phase on the current thread and records its duration. Calls without a matching
+     * {@link #start(Phase)} on the same thread are ignored, so a phase can safely be stopped on more than one exit path.
+     * @param phase The phase to stop
+     * @return The duration of the phase in nanoseconds, or 0 if the recorder is disabled or the phase was not started
+     */
+    public static long stop(Phase phase) {
+        if (!enabled) {
+            return 0L;
+        }
+        long start = invocations.get().takePhaseStart(phase.ordinal());
+        if (start == NOT_STARTED) {
+            return 0L;
+        }
+        long duration = Math.max(0L, System.nanoTime() - start);
+        record(phase, duration);
+        return duration;
+    }
+
+    /**
+     * Whether a phase was started on the current thread and not stopped yet. Code that can run inside itself, such as
+     * a filter chain that forwards the request to another chain, uses this to only time the outermost call.
+     * @param phase The phase
+     * @return <code>true</code> if the recorder is enabled and the phase is running on the current thread
+     */
+    public static boolean isStarted(Phase phase) {
+        return enabled && invocations.get().isPhaseStarted(phase.ordinal());
+    }
+
+    /**
+     * Records a duration measured by the caller. The duration is added to the statistics of the phase and to the
+     * {@link InvocationMetrics} of the current thread.
+     * @param phase The phase the duration belongs to
+     * @param nanos The duration in nanoseconds, negative values are recorded as 0
+     */
+    public static void record(Phase phase, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        long duration = Math.max(0L, nanos);
+        int statsOffset = phase.ordinal() * STAT_COUNT;
+        stats.incrementAndGet(statsOffset + COUNT);
+        stats.addAndGet(statsOffset + TOTAL, duration);
+        updateMin(statsOffset + MIN, duration);
+        updateMax(statsOffset + MAX, duration);
+        histograms.incrementAndGet(phase.ordinal() * BUCKET_COUNT + bucketIndex(duration));
+        invocations.get().addPhase(phase.ordinal(), duration);
+    }
+
+    /**
+     * Returns the measurements of the invocation running on the current thread. The object is created the first time
+     * a thread calls this method and reused afterwards.
+     * @return The invocation metrics of the current thread
+     */
+    public static InvocationMetrics currentInvocation() {
+        return invocations.get();
+    }
+
+    /**
+     * Returns a snapshot of the statistics for a phase. Phases are updated independently of each other and of the
+     * snapshot, so values read while other threads are recording may be off by the in-flight samples.
+     * @param phase The phase
+     * @return A new snapshot object
+     */
+    public static PhaseStatistics getStatistics(Phase phase) {
+        int statsOffset = phase.ordinal() * STAT_COUNT;
+        long count = stats.get(statsOffset + COUNT);
+        long[] buckets = new long[BUCKET_COUNT];
+        int histogramOffset = phase.ordinal() * BUCKET_COUNT;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = histograms.get(histogramOffset + i);
+        }
+        return new PhaseStatistics(phase,
+                                   count,
+                                   stats.get(statsOffset + TOTAL),
+                                   count == 0 ? 0L : stats.get(statsOffset + MIN),
+                                   stats.get(statsOffset + MAX),
+                                   buckets);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of every phase that was recorded at least once.
+     * @return A map of phases to their statistics, in declaration order
+     */
+    public static Map<Phase, PhaseStatistics> getStatistics() {
+        Map<Phase, PhaseStatistics> statistics = new EnumMap<>(Phase.class);
+        for (Phase phase : PHASES) {
+            if (stats.get(phase.ordinal() * STAT_COUNT + COUNT) > 0) {
+                statistics.put(phase, getStatistics(phase));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Clears the statistics of all phases. Phases started on other threads are not affected.
+     */
+    public static void reset() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            int statsOffset = i * STAT_COUNT;
+            stats.set(statsOffset + COUNT, 0L);
+            stats.set(statsOffset + TOTAL, 0L);
+            stats.set(statsOffset + MIN, Long.MAX_VALUE);
+            stats.set(statsOffset + MAX, 0L);
+        }
+        for (int i = 0; i < histograms.length(); i++) {
+            histograms.set(i, 0L);
+        }
+        invocations.get().clearPhaseStarts();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Values below <code>SUB_BUCKET_COUNT</code> get a bucket each. Larger values are grouped by their highest set bit
+     * and then split linearly by the next <code>SUB_BUCKET_BITS</code> bits.
+     */
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (SUB_BUCKET_COUNT + subBucket) * width;
+        return lowerBound + width - 1;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private - Static
+    //-------------------------------------------------------------
+
+    private static AtomicLongArray newStats() {
+        AtomicLongArray array = new AtomicLongArray(PHASE_COUNT * STAT_COUNT);
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            array.set(i * STAT_COUNT + MIN, Long.MAX_VALUE);
+        }
+        return array;
+    }
+
+    private static void updateMin(int index, long value) {
+        long current = stats.get(index);
+        while (value < current && !stats.compareAndSet(index, current, value)) {
+            current = stats.get(index);
+        }
+    }
+
+    private static void updateMax(int index, long value) {
+        long current = stats.get(index);
+        while (value > current && !stats.compareAndSet(index, current, value)) {
+            current = stats.get(index);
+        }
+    }
+}
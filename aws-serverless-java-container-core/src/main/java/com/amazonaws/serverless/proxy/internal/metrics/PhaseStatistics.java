@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+/**
+ * Snapshot of the durations the {@link PhaseRecorder} recorded for a phase. All durations are in nanoseconds.
+ */
+public final class PhaseStatistics {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final Phase phase;
+    private final long count;
+    private final long totalNanos;
+    private final long minNanos;
+    private final long maxNanos;
+    private final long[] buckets;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    PhaseStatistics(Phase phase, long count, long totalNanos, long minNanos, long maxNanos, long[] buckets) {
+        this.phase = phase;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.buckets = buckets;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Returns an approximation of a percentile. The value is the upper bound of the histogram bucket that contains the
+     * percentile, capped at the maximum recorded duration, and is at most 25% higher than the exact value.
+     * @param percentile The percentile, between 0 and 100
+     * @return The approximate duration, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long recorded = 0;
+        for (long bucket : buckets) {
+            recorded += bucket;
+        }
+        if (recorded == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * recorded));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(PhaseRecorder.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0L : totalNanos / count;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Getter/Setter
+    //-------------------------------------------------------------
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Object
+    //-------------------------------------------------------------
+
+    @Override
+    public String toString() {
+        return phase + "{count=" + count
+                + ", meanNanos=" + getMeanNanos()
+                + ", minNanos=" + minNanos
+                + ", p50Nanos=" + getPercentileNanos(50)
+                + ", p99Nanos=" + getPercentileNanos(99)
+                + ", maxNanos=" + maxNanos + "}";
+    }
+}
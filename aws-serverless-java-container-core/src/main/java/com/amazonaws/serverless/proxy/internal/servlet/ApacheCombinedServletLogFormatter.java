@@ -135,8 +135,8 @@ public class ApacheCombinedServletLogFormatter<ContainerRequestType extends Http
         // %b
         if (servletResponse instanceof AwsHttpServletResponse) {
             AwsHttpServletResponse awsResponse = (AwsHttpServletResponse)servletResponse;
-            if (awsResponse.getAwsResponseBodyBytes().length > 0) {
-                logLineBuilder.append(awsResponse.getAwsResponseBodyBytes().length);
+            if (awsResponse.getAwsResponseContentLength() > 0) {
+                logLineBuilder.append(awsResponse.getAwsResponseContentLength());
             } else {
                 logLineBuilder.append("-");
             }
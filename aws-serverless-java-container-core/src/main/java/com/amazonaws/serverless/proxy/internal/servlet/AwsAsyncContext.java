@@ -38,7 +38,7 @@ public class AwsAsyncContext implements AsyncContext {
     private AtomicBoolean completed;
     private AtomicBoolean dispatchStarted;
 
-    private Logger log = LoggerFactory.getLogger(AwsAsyncContext.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsAsyncContext.class);
 
     public AwsAsyncContext(HttpServletRequest request, HttpServletResponse response) {
         log.debug("Initializing async context for request: " + SecurityUtils.crlf(request.getPathInfo()) + " - " + SecurityUtils.crlf(request.getMethod()));
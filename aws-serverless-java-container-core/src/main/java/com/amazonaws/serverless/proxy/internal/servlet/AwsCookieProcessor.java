@@ -36,6 +36,13 @@ public class AwsCookieProcessor implements CookieProcessor {
 
     static final String ANCIENT_DATE = COOKIE_DATE_FORMATTER.format(Instant.ofEpochMilli(10000));
 
+    static final int HEADER_INITIAL_CAPACITY = 128;
+
+    // Must be a power of two, the slot of a date is its epoch second modulo the size
+    static final int EXPIRES_CACHE_SIZE = 16;
+
+    private static final ExpiresDate[] expiresCache = new ExpiresDate[EXPIRES_CACHE_SIZE];
+
     static BitSet createTokenValidSet() {
         BitSet tokenSet = new BitSet(128);
         for (char c = '0'; c <= '9'; c++) tokenSet.set(c);
@@ -55,57 +62,76 @@ public class AwsCookieProcessor implements CookieProcessor {
         return domainValid;
     }
 
-    private final Logger log = LoggerFactory.getLogger(AwsCookieProcessor.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsCookieProcessor.class);
 
     @Override
     public Cookie[] parseCookieHeader(String cookieHeader) {
-        // Return an empty array if the input is null or empty after trimming
-        if (cookieHeader == null || cookieHeader.trim().isEmpty()) {
+        // Return an empty array if the input is null or empty
+        if (cookieHeader == null || cookieHeader.isEmpty()) {
             return new Cookie[0];
         }
 
-        // Parse cookie header and convert to Cookie array
-        return Arrays.stream(cookieHeader.split("\\s*;\\s*"))
-                .map(this::parseCookiePair)
-                .filter(Objects::nonNull) // Filter out invalid pairs
-                .toArray(Cookie[]::new);
+        // Walk the header once, each pair is the text between two semicolons without the surrounding white space
+        List<Cookie> cookies = new ArrayList<>();
+        int length = cookieHeader.length();
+        int start = 0;
+        while (start < length) {
+            int end = cookieHeader.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            int pairStart = start;
+            int pairEnd = end;
+            while (pairStart < pairEnd && isWhitespace(cookieHeader.charAt(pairStart))) {
+                pairStart++;
+            }
+            while (pairEnd > pairStart && isWhitespace(cookieHeader.charAt(pairEnd - 1))) {
+                pairEnd--;
+            }
+            if (pairEnd > pairStart) {
+                Cookie cookie = parseCookiePair(cookieHeader, pairStart, pairEnd);
+                if (cookie != null) {
+                    cookies.add(cookie);
+                }
+            }
+            start = end + 1;
+        }
+        return cookies.toArray(new Cookie[0]);
     }
 
     /**
      * Parse a single cookie pair (name=value).
      *
-     * @param cookiePair The cookie pair string.
+     * @param header The cookie header string.
+     * @param start The index of the first character of the pair in the header.
+     * @param end The index after the last character of the pair in the header.
      * @return A valid Cookie object or null if the pair is invalid.
      */
-    private Cookie parseCookiePair(String cookiePair) {
-        String[] kv = cookiePair.split("=", 2);
-
-        if (kv.length != 2) {
-            log.warn("Ignoring invalid cookie: {}", cookiePair);
+    private Cookie parseCookiePair(String header, int start, int end) {
+        int separator = header.indexOf('=', start);
+        if (separator < 0 || separator >= end) {
+            log.warn("Ignoring invalid cookie: {}", SecurityUtils.crlf(header.substring(start, end)));
             return null;  // Skip malformed cookie pairs
         }
 
-        String cookieName = kv[0];
-        String cookieValue = kv[1];
-
         // Validate name and value
-        if (!isToken(cookieName)){
-            log.warn("Ignoring cookie with invalid name: {}={}", cookieName, cookieValue);
+        if (!isToken(header, start, separator)) {
+            log.warn("Ignoring cookie with invalid name: {}", SecurityUtils.crlf(header.substring(start, end)));
             return null;  // Skip invalid cookie names
         }
 
-        if (!isValidCookieValue(cookieValue)) {
-            log.warn("Ignoring cookie with invalid value: {}={}", cookieName, cookieValue);
+        if (!isValidCookieValue(header, separator + 1, end)) {
+            log.warn("Ignoring cookie with invalid value: {}", SecurityUtils.crlf(header.substring(start, end)));
             return null;  // Skip invalid cookie values
         }
 
-        // Return a new Cookie object after security processing
-        return new Cookie(SecurityUtils.crlf(cookieName), SecurityUtils.crlf(cookieValue));
+        // Tokens and valid cookie values cannot contain CR or LF, no further escaping is needed
+        return new Cookie(header.substring(start, separator), header.substring(separator + 1, end));
     }
 
     @Override
     public String generateHeader(Cookie cookie) {
-        StringBuilder header = new StringBuilder();
+        StringBuilder header = new StringBuilder(HEADER_INITIAL_CAPACITY);
         header.append(cookie.getName()).append('=');
 
         String value = cookie.getValue();
@@ -118,9 +144,8 @@ public class AwsCookieProcessor implements CookieProcessor {
         if (maxAge == 0) {
             appendAttribute(header, COOKIE_EXPIRES_ATTR, ANCIENT_DATE);
         } else if (maxAge > 0){
-            Instant expiresAt = Instant.now().plusSeconds(maxAge);
-            appendAttribute(header, COOKIE_EXPIRES_ATTR, COOKIE_DATE_FORMATTER.format(expiresAt));
-            appendAttribute(header, COOKIE_MAX_AGE_ATTR, String.valueOf(maxAge));
+            appendAttribute(header, COOKIE_EXPIRES_ATTR, formatExpires(Instant.now().getEpochSecond() + maxAge));
+            header.append("; ").append(COOKIE_MAX_AGE_ATTR).append('=').append(maxAge);
         }
 
         String domain = cookie.getDomain();
@@ -158,6 +183,21 @@ public class AwsCookieProcessor implements CookieProcessor {
         return header.toString();
     }
 
+    /**
+     * Formats an expiry date, the dates of the last few seconds are kept so that cookies set with the same max age
+     * in the same second share the formatted value.
+     */
+    static String formatExpires(long epochSecond) {
+        int slot = (int) (epochSecond & (EXPIRES_CACHE_SIZE - 1));
+        ExpiresDate cached = expiresCache[slot];
+        if (cached != null && cached.epochSecond == epochSecond) {
+            return cached.formatted;
+        }
+        String formatted = COOKIE_DATE_FORMATTER.format(Instant.ofEpochSecond(epochSecond));
+        expiresCache[slot] = new ExpiresDate(epochSecond, formatted);
+        return formatted;
+    }
+
     private void appendAttribute(StringBuilder header, String name, String value) {
         header.append("; ").append(name);
         if (!EMPTY_STRING.equals(value)) {
@@ -203,7 +243,8 @@ public class AwsCookieProcessor implements CookieProcessor {
     }
 
     private void validatePath(String path) {
-        for (char ch : path.toCharArray()) {
+        for (int i = 0; i < path.length(); i++) {
+            char ch = path.charAt(i);
             if (ch < 0x20 || ch > 0x7E || ch == ';') {
                 throw new IllegalArgumentException("Invalid cookie path: " + path);
             }
@@ -215,7 +256,8 @@ public class AwsCookieProcessor implements CookieProcessor {
             throw new IllegalArgumentException("Invalid cookie attribute name: " + name);
         }
 
-        for (char ch : value.toCharArray()) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
             if (ch < 0x20 || ch > 0x7E || ch == ';') {
                 throw new IllegalArgumentException("Invalid cookie attribute value: " + ch);
             }
@@ -223,17 +265,16 @@ public class AwsCookieProcessor implements CookieProcessor {
     }
 
     private boolean isValidCookieValue(String value) {
-        int start = 0;
-        int end = value.length();
-        boolean quoted = end > 1 && value.charAt(0) == '"' && value.charAt(end - 1) == '"';
+        return isValidCookieValue(value, 0, value.length());
+    }
 
-        char[] chars = value.toCharArray();
+    private boolean isValidCookieValue(String s, int start, int end) {
+        if (end - start > 1 && s.charAt(start) == '"' && s.charAt(end - 1) == '"') {
+            start++;
+            end--;
+        }
         for (int i = start; i < end; i++) {
-            if (quoted && (i == start || i == end - 1)) {
-                continue;
-            }
-            char c = chars[i];
-            if (!isValidCookieChar(c)) return false;
+            if (!isValidCookieChar(s.charAt(i))) return false;
         }
         return true;
     }
@@ -243,7 +284,8 @@ public class AwsCookieProcessor implements CookieProcessor {
             return false;
         }
         int prev = -1;
-        for (char c : domain.toCharArray()) {
+        for (int i = 0; i < domain.length(); i++) {
+            char c = domain.charAt(i);
             if (!domainValid.get(c) || isInvalidLabelStartOrEnd(prev, c)) {
                 return false;
             }
@@ -258,16 +300,37 @@ public class AwsCookieProcessor implements CookieProcessor {
     }
 
     private boolean isToken(String s) {
-        if (s.isEmpty()) return false;
-        for (char c : s.toCharArray()) {
-            if (!tokenValid.get(c)) {
+        return isToken(s, 0, s.length());
+    }
+
+    private boolean isToken(String s, int start, int end) {
+        if (start >= end) return false;
+        for (int i = start; i < end; i++) {
+            if (!tokenValid.get(s.charAt(i))) {
                 return false;
             }
         }
         return true;
     }
 
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
     private boolean isValidCookieChar(char c) {
         return !(c < 0x21 || c > 0x7E ||  c == 0x22 || c == 0x2c || c == 0x3b || c == 0x5c);
     }
+
+    /**
+     * A formatted expiry date and the second it was formatted for.
+     */
+    private static final class ExpiresDate {
+        private final long epochSecond;
+        private final String formatted;
+
+        ExpiresDate(long epochSecond, String formatted) {
+            this.epochSecond = epochSecond;
+            this.formatted = formatted;
+        }
+    }
 }
@@ -14,6 +14,7 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
 import com.amazonaws.serverless.proxy.RequestReader;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.ContainerConfig;
 import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -33,6 +34,9 @@ public class AwsHttpApiV2HttpServletRequestReader extends RequestReader<HttpApiV
         // clean out the request path based on the container config
         request.setRawPath(stripBasePath(request.getRawPath(), config));
 
+        if (PhaseRecorder.isEnabled()) {
+            PhaseRecorder.currentInvocation().setRequestBase64Encoded(request.isBase64Encoded());
+        }
         AwsHttpApiV2ProxyHttpServletRequest servletRequest = new AwsHttpApiV2ProxyHttpServletRequest(request, lambdaContext, securityContext, config);
         servletRequest.setAttribute(HTTP_API_CONTEXT_PROPERTY, request.getRequestContext());
         servletRequest.setAttribute(HTTP_API_STAGE_VARS_PROPERTY, request.getStageVariables());
@@ -30,7 +30,6 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.SecurityContext;
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
@@ -39,10 +38,9 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Stream;
 
 public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
-    private static Logger log = LoggerFactory.getLogger(AwsHttpApiV2ProxyHttpServletRequest.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsHttpApiV2ProxyHttpServletRequest.class);
 
     private HttpApiV2ProxyRequest request;
     private MultiValuedTreeMap<String, String> queryString;
@@ -50,6 +48,8 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
     private ContainerConfig config;
     private SecurityContext securityContext;
     private AwsAsyncContext asyncContext;
+    private Cookie[] cookies;
+    private ParameterIndex parameterIndex;
 
     /**
      * Protected constructors for implementing classes. This should be called first with the context received from
@@ -62,8 +62,7 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
         request = req;
         config = cfg;
         securityContext = sc;
-        queryString = parseRawQueryString(request.getRawQueryString());
-        headers = headersMapToMultiValue(request.getHeaders());
+        headers = new LazyHeaders(request.getHeaders());
     }
 
     public HttpApiV2ProxyRequest getRequest() {
@@ -78,6 +77,10 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
 
     @Override
     public Cookie[] getCookies() {
+        // the cookies do not change during the request, parse them the first time they are requested
+        if (cookies != null) {
+            return cookies;
+        }
         Cookie[] rhc;
         if (headers == null || !headers.containsKey(HttpHeaders.COOKIE)) {
             rhc = new Cookie[0];
@@ -92,7 +95,15 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
             rc = getCookieProcessor().parseCookieHeader(String.join("; ", request.getCookies()));
         }
 
-        return Stream.concat(Arrays.stream(rhc), Arrays.stream(rc)).toArray(Cookie[]::new);
+        if (rhc.length == 0) {
+            cookies = rc;
+        } else if (rc.length == 0) {
+            cookies = rhc;
+        } else {
+            cookies = Arrays.copyOf(rhc, rhc.length + rc.length);
+            System.arraycopy(rc, 0, cookies, rhc.length, rc.length);
+        }
+        return cookies;
     }
 
     @Override
@@ -156,8 +167,7 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
 
     @Override
     public String getPathInfo() {
-        String pathInfo = cleanUri(request.getRawPath());
-        return decodeRequestPath(pathInfo, LambdaContainerHandler.getContainerConfig());
+        return getDecodedRequestPath(request.getRawPath());
     }
 
     @Override
@@ -276,53 +286,23 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
 
     @Override
     public String getParameter(String s) {
-        String queryStringParameter = getFirstQueryParamValue(queryString, s, config.isQueryStringCaseSensitive());
-        if (queryStringParameter != null) {
-            return queryStringParameter;
-        }
-
-        String[] bodyParams = getFormBodyParameterCaseInsensitive(s);
-        if (bodyParams.length == 0) {
-            return null;
-        } else {
-            return bodyParams[0];
-        }
+        return getParameterIndex().getFirst(s);
     }
 
     @Override
     public Enumeration<String> getParameterNames() {
-        if (queryString == null) {
-            return Collections.emptyEnumeration();
-        }
-
-        return Collections.enumeration(queryString.keySet());
+        return getParameterIndex().getNames();
     }
 
     @Override
     @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS") // suppressing this as according to the specs we should be returning null here if we can't find params
     public String[] getParameterValues(String s) {
-
-        List<String> values = getQueryParamValuesAsList(queryString, s, config.isQueryStringCaseSensitive());
-
-        // copy list so we don't modifying the underlying multi-value query params
-        if (values != null) {
-            values = new ArrayList<>(values);
-        } else {
-            values = new ArrayList<>();
-        }
-        
-        values.addAll(Arrays.asList(getFormBodyParameterCaseInsensitive(s)));
-
-        if (values.size() == 0) {
-            return null;
-        } else {
-            return values.toArray(new String[0]);
-        }
+        return getParameterIndex().getValues(s);
     }
 
     @Override
     public Map<String, String[]> getParameterMap() {
-        return generateParameterMap(queryString, config);
+        return getParameterIndex().getParameterMap();
     }
 
     @Override
@@ -376,7 +356,7 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
 
     @Override
     public BufferedReader getReader() throws IOException {
-        return new BufferedReader(new StringReader(request.getBody()));
+        return bodyStringToReader(request.getBody(), request.isBase64Encoded());
     }
 
     @Override
@@ -478,6 +458,23 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
         return null;
     }
 
+    /**
+     * The query string is only parsed the first time a parameter is read, most requests never look at it.
+     */
+    private MultiValuedTreeMap<String, String> getQueryParameters() {
+        if (queryString == null) {
+            queryString = parseRawQueryString(request.getRawQueryString());
+        }
+        return queryString;
+    }
+
+    private ParameterIndex getParameterIndex() {
+        if (parameterIndex == null) {
+            parameterIndex = newParameterIndex(getQueryParameters(), config, false);
+        }
+        return parameterIndex;
+    }
+
     private MultiValuedTreeMap<String, String> parseRawQueryString(String qs) {
         if (qs == null || "".equals(qs.trim())) {
             return new MultiValuedTreeMap<>();
@@ -503,26 +500,189 @@ public class AwsHttpApiV2ProxyHttpServletRequest extends AwsHttpServletRequest {
         return qsMap;
     }
 
-    private Headers headersMapToMultiValue(Map<String, String> headers) {
-        if (headers == null || headers.size() == 0) {
-            return new Headers();
+    /**
+     * Splits a header value of the HTTP API event into its comma separated values, except for the known headers whose
+     * values contain commas.
+     */
+    private static void addHeaderValues(List<String> values, String name, String value) {
+        // Exceptions for known header values that contain commas
+        if (name.equalsIgnoreCase(HttpHeaders.DATE) ||
+                name.equalsIgnoreCase(HttpHeaders.IF_MODIFIED_SINCE) ||
+                name.equalsIgnoreCase(HttpHeaders.USER_AGENT) ||
+                name.regionMatches(true, 0, "accept-", 0, 7)) {
+            values.add(value);
+            return;
+        }
+
+        Collections.addAll(values, value.split(","));
+    }
+
+    /**
+     * Multi-value view over the single value headers of the HTTP API event. The values of a header are split the first
+     * time the header is read, so a request only pays for the headers it looks at. Operations that need every header,
+     * such as iterating over the names or removing a header, convert all the remaining headers first.
+     */
+    static final class LazyHeaders extends Headers {
+        private static final long serialVersionUID = 42L;
+
+        private transient Map<String, String> source;
+        // whether every name in source is lower case, null until the first lookup that misses the converted headers
+        private transient Boolean lowerCaseSource;
+        // lower case names that are not in source, so that repeated lookups of a missing header do not scan it again
+        private transient Set<String> misses;
+
+        LazyHeaders(Map<String, String> source) {
+            this.source = source == null || source.isEmpty() ? null : source;
         }
 
-        Headers h = new Headers();
-        for (Map.Entry<String, String> hkv : headers.entrySet()) {
-            // Exceptions for known header values that contain commas
-            if (hkv.getKey().equalsIgnoreCase(HttpHeaders.DATE) ||
-                            hkv.getKey().equalsIgnoreCase(HttpHeaders.IF_MODIFIED_SINCE) ||
-                            hkv.getKey().equalsIgnoreCase(HttpHeaders.USER_AGENT) ||
-                            hkv.getKey().toLowerCase(Locale.getDefault()).startsWith("accept-")) {
-                h.add(hkv.getKey(), hkv.getValue());
-                continue;
+        @Override
+        public List<String> get(Object key) {
+            List<String> values = super.get(key);
+            if (values != null || source == null || !(key instanceof String)) {
+                return values;
             }
+            String name = ((String) key).toLowerCase(Locale.ROOT);
+            if (misses != null && misses.contains(name)) {
+                return null;
+            }
+            if (isLowerCaseSource()) {
+                // HTTP API header names are lower case, a single lookup finds every value of the header
+                String value = source.get(name);
+                if (value != null) {
+                    values = new ArrayList<>();
+                    super.put(name, values);
+                    addHeaderValues(values, name, value);
+                }
+            } else {
+                // look at every name so that headers repeated with a different case are merged like in the full
+                // conversion
+                for (Map.Entry<String, String> header : source.entrySet()) {
+                    if (header.getKey().equalsIgnoreCase(name) && header.getValue() != null) {
+                        if (values == null) {
+                            values = new ArrayList<>();
+                            super.put(header.getKey(), values);
+                        }
+                        addHeaderValues(values, header.getKey(), header.getValue());
+                    }
+                }
+            }
+            if (values == null) {
+                if (misses == null) {
+                    misses = new HashSet<>();
+                }
+                misses.add(name);
+            }
+            return values;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            loadAll();
+            return super.containsValue(value);
+        }
+
+        @Override
+        public Set<Entry<String, List<String>>> entrySet() {
+            loadAll();
+            return super.entrySet();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            loadAll();
+            return super.keySet();
+        }
 
-            for (String value : hkv.getValue().split(",")) {
-                h.add(hkv.getKey(), value);
+        @Override
+        public Collection<List<String>> values() {
+            loadAll();
+            return super.values();
+        }
+
+        @Override
+        public int size() {
+            loadAll();
+            return super.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            loadAll();
+            return super.isEmpty();
+        }
+
+        @Override
+        public List<String> remove(Object key) {
+            loadAll();
+            return super.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            source = null;
+            misses = null;
+            super.clear();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            loadAll();
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            loadAll();
+            return super.hashCode();
+        }
+
+        private boolean isLowerCaseSource() {
+            if (lowerCaseSource == null) {
+                boolean lowerCase = true;
+                for (String name : source.keySet()) {
+                    if (!name.equals(name.toLowerCase(Locale.ROOT))) {
+                        lowerCase = false;
+                        break;
+                    }
+                }
+                lowerCaseSource = lowerCase;
+            }
+            return lowerCaseSource;
+        }
+
+        private Object writeReplace() {
+            // the source map is transient, convert the remaining headers before the map of the parent class is written
+            // (a writeObject method would only run after the fields of the parent class are written)
+            loadAll();
+            return this;
+        }
+
+        private void loadAll() {
+            if (source == null) {
+                return;
+            }
+            misses = null;
+            // pick the headers before converting them, names that only differ in case are all added to the same key
+            List<Map.Entry<String, String>> remaining = new ArrayList<>();
+            for (Map.Entry<String, String> header : source.entrySet()) {
+                if (header.getValue() != null && !super.containsKey(header.getKey())) {
+                    remaining.add(header);
+                }
+            }
+            source = null;
+            for (Map.Entry<String, String> header : remaining) {
+                List<String> values = super.get(header.getKey());
+                if (values == null) {
+                    values = new ArrayList<>();
+                    super.put(header.getKey(), values);
+                }
+                addHeaderValues(values, header.getKey(), header.getValue());
             }
         }
-        return h;
     }
 }
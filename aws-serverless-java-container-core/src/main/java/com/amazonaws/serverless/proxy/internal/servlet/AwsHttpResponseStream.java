@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a response using Lambda's HTTP response streaming protocol. The response starts with a JSON prelude that
+ * contains the status code, the headers, and the cookies, followed by a delimiter of eight <code>NUL</code> bytes.
+ * Everything written after the delimiter is the response body, which is forwarded to the Lambda output stream
+ * as-is.
+ *
+ * The prelude is written the first time the body is flushed, after that the status and headers can no longer change.
+ */
+public class AwsHttpResponseStream {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    public static final String CONTENT_TYPE = "application/vnd.awslambda.http-integration-response";
+    private static final byte[] PRELUDE_DELIMITER = new byte[8];
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final OutputStream output;
+    private boolean committed;
+    private long bodyLength;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    public AwsHttpResponseStream(OutputStream output) {
+        this.output = output;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Public
+    //-------------------------------------------------------------
+
+    /**
+     * Whether the prelude has already been written to the stream.
+     * @return <code>true</code> if the status and headers were sent
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * The number of body bytes written after the prelude.
+     * @return The body length
+     */
+    public long getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * Writes the prelude. <code>Set-Cookie</code> headers are sent in the <code>cookies</code> list, other headers
+     * with multiple values are sent as a single, comma-separated value.
+     * @param statusCode The response status code
+     * @param headers The response headers
+     * @throws IOException If the prelude cannot be written
+     * @throws IllegalStateException If the prelude was already written
+     */
+    public void commit(int statusCode, Map<String, List<String>> headers) throws IOException {
+        if (committed) {
+            throw new IllegalStateException("The response stream is already committed");
+        }
+        List<String> cookies = new ArrayList<>();
+        try (JsonGenerator generator = LambdaContainerHandler.getObjectMapper().getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeNumberField("statusCode", statusCode);
+            generator.writeObjectFieldStart("headers");
+            if (headers != null) {
+                for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                    if (header.getValue() == null || header.getValue().isEmpty()) {
+                        continue;
+                    }
+                    if (HttpHeaders.SET_COOKIE.equalsIgnoreCase(header.getKey())) {
+                        cookies.addAll(header.getValue());
+                        continue;
+                    }
+                    generator.writeStringField(header.getKey(), String.join(",", header.getValue()));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("cookies");
+            for (String cookie : cookies) {
+                generator.writeString(cookie);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        output.write(PRELUDE_DELIMITER);
+        committed = true;
+    }
+
+    /**
+     * Forwards body bytes to the Lambda output stream. The prelude must be written first.
+     * @param b The buffer
+     * @param off The offset of the body bytes in the buffer
+     * @param len The number of bytes to write
+     * @throws IOException If the bytes cannot be written
+     */
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (!committed) {
+            throw new IllegalStateException("The response prelude must be written before the body");
+        }
+        output.write(b, off, len);
+        bodyLength += len;
+    }
+
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Writes a complete proxy response, for example one produced by an exception handler, to the stream.
+     * @param response The response object
+     * @throws IOException If the response cannot be written
+     */
+    public void writeResponse(AwsProxyResponse response) throws IOException {
+        Headers headers = new Headers();
+        if (response.getMultiValueHeaders() != null) {
+            headers.putAll(response.getMultiValueHeaders());
+        }
+        if (response.getHeaders() != null) {
+            for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+                if (!headers.containsKey(header.getKey())) {
+                    headers.add(header.getKey(), header.getValue());
+                }
+            }
+        }
+        commit(response.getStatusCode(), headers);
+        if (response.getBody() != null) {
+            byte[] body = response.isBase64Encoded()
+                    ? Base64.getMimeDecoder().decode(response.getBody())
+                    : response.getBody().getBytes(StandardCharsets.UTF_8);
+            write(body, 0, body.length);
+        }
+        flush();
+    }
+}
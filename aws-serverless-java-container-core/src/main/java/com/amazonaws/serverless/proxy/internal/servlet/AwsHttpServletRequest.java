@@ -14,20 +14,15 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.proxy.RequestReader;
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.LruCache;
 import com.amazonaws.serverless.proxy.internal.SecurityUtils;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
 import com.amazonaws.serverless.proxy.model.ContainerConfig;
 import com.amazonaws.serverless.proxy.model.Headers;
 import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
 import com.amazonaws.services.lambda.runtime.Context;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.apache.commons.fileupload2.core.DiskFileItem;
-import org.apache.commons.fileupload2.core.FileItem;
-import org.apache.commons.fileupload2.core.FileUploadException;
-import org.apache.commons.fileupload2.core.DiskFileItemFactory;
-import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.input.NullInputStream;
 import org.slf4j.Logger;
@@ -37,8 +32,10 @@ import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import jakarta.ws.rs.core.MediaType;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -46,7 +43,6 @@ import java.nio.charset.Charset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 /**
@@ -64,6 +60,7 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
     static final String HEADER_VALUE_SEPARATOR = ";";
     static final String HEADER_QUALIFIER_SEPARATOR = ",";
     static final String FORM_DATA_SEPARATOR = "&";
+    static final String MULTIPART_CONTENT_TYPE_PREFIX = "multipart/";
     static final DateTimeFormatter dateFormatter = DateTimeFormatter.RFC_1123_DATE_TIME;
     static final String ENCODING_VALUE_KEY = "charset";
     static final String DISPATCHER_TYPE_ATTRIBUTE = "com.amazonaws.serverless.javacontainer.dispatchertype";
@@ -77,6 +74,8 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
     static final String HOST_HEADER_NAME = "Host";
     static final String PORT_HEADER_NAME = "X-Forwarded-Port";
     static final String CLIENT_IP_HEADER = "X-Forwarded-For";
+    static final int LOCALE_CACHE_SIZE = 256;
+    static final int CONTEXT_PATH_CACHE_SIZE = 64;
 
 
     //-------------------------------------------------------------
@@ -90,14 +89,25 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
     private String queryString;
     private Map<String, List<Part>> multipartFormParameters;
     private Map<String, List<String>> urlEncodedFormParameters;
-    private CookieProcessor cookieProcessor;
+    private String rawRequestPath;
+    private String decodedRequestPath;
 
     protected AwsHttpServletResponse response;
     protected AwsLambdaServletContainerHandler containerHandler;
     protected ServletInputStream requestInputStream;
 
 
-    private static Logger log = LoggerFactory.getLogger(AwsHttpServletRequest.class);
+    private static final CookieProcessor DEFAULT_COOKIE_PROCESSOR = new AwsCookieProcessor();
+    private static final Logger log = LoggerFactory.getLogger(AwsHttpServletRequest.class);
+    private static final int READER_BUFFER_SIZE = 8192;
+    /**
+     * The parsed locales of the Accept-Language values seen so far, shared by all requests.
+     */
+    private static final LruCache<String, List<Locale>> localeCache = new LruCache<>(LOCALE_CACHE_SIZE);
+    /**
+     * The cleaned stage names and service base paths, they rarely change across requests.
+     */
+    private static final LruCache<String, String> contextPathCache = new LruCache<>(CONTEXT_PATH_CACHE_SIZE);
 
 
     //-------------------------------------------------------------
@@ -351,15 +361,29 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
         String contextPath = "";
         if (config.isUseStageAsServletContext() && apiStage != null) {
             log.debug("Using stage as context path");
-            contextPath = cleanUri(apiStage);
+            contextPath = contextPathCache.get(apiStage, AwsHttpServletRequest::cleanUri);
         }
         if (config.getServiceBasePath() != null) {
-            contextPath += cleanUri(config.getServiceBasePath());
+            contextPath += contextPathCache.get(config.getServiceBasePath(), AwsHttpServletRequest::cleanUri);
         }
 
         return contextPath;
     }
 
+    /**
+     * Cleans and decodes the request path for <code>getPathInfo</code>. The result is kept for the duration of the
+     * request and computed again only if the raw path changes.
+     * @param requestPath The raw path of the request
+     * @return The cleaned and decoded path
+     */
+    protected String getDecodedRequestPath(String requestPath) {
+        if (decodedRequestPath == null || !Objects.equals(rawRequestPath, requestPath)) {
+            decodedRequestPath = decodeRequestPath(cleanUri(requestPath), LambdaContainerHandler.getContainerConfig());
+            rawRequestPath = requestPath;
+        }
+        return decodedRequestPath;
+    }
+
     protected StringBuffer generateRequestURL(String requestPath) {
         String url = "";
         url += getServerName();
@@ -373,27 +397,39 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
 
 
 
+    /**
+     * Returns a stream over the request body. Base64 bodies are decoded and text bodies are encoded with the request
+     * character encoding as the stream is read, so the decoded bytes are never copied into one array.
+     * @param body The body of the event
+     * @param isBase64Encoded Whether the body is base64 encoded
+     * @return The body stream
+     * @throws IOException Declared for subclasses, the body is not read when the stream is created
+     */
     protected ServletInputStream bodyStringToInputStream(String body, boolean isBase64Encoded) throws IOException {
         if (body == null) {
             return new AwsServletInputStream(new NullInputStream(0, false, false));
         }
-        byte[] bodyBytes;
         if (isBase64Encoded) {
-            bodyBytes = Base64.getMimeDecoder().decode(body);
-        } else {
-            String encoding = getCharacterEncoding();
-            if (encoding == null) {
-                encoding = Charset.defaultCharset().name();
-            }
-            try {
-                bodyBytes = body.getBytes(encoding);
-            } catch (Exception e) {
-                log.error("Could not read request with character encoding: " + SecurityUtils.crlf(encoding), e);
-                bodyBytes = body.getBytes(Charset.defaultCharset());
-            }
+            return new AwsServletInputStream(StringBodyInputStream.base64(body));
+        }
+        return new AwsServletInputStream(new StringBodyInputStream(body, getBodyCharset()));
+    }
+
+    /**
+     * Returns a reader over the request body. Text bodies are read directly from the body string, base64 bodies are
+     * decoded as they are read and the bytes are converted with the request character encoding.
+     * @param body The body of the event
+     * @param isBase64Encoded Whether the body is base64 encoded
+     * @return The body reader
+     */
+    protected BufferedReader bodyStringToReader(String body, boolean isBase64Encoded) {
+        if (body == null) {
+            return new BufferedReader(new StringReader(""), 1);
         }
-        ByteArrayInputStream requestBodyStream = new ByteArrayInputStream(bodyBytes);
-        return new AwsServletInputStream(requestBodyStream);
+        if (isBase64Encoded) {
+            return new BufferedReader(new InputStreamReader(StringBodyInputStream.base64(body), getBodyCharset()));
+        }
+        return new BufferedReader(new StringReader(body), Math.max(1, Math.min(body.length(), READER_BUFFER_SIZE)));
     }
 
     protected String getFirstQueryParamValue(MultiValuedTreeMap<String, String> queryString, String key, boolean isCaseSensitive) {
@@ -402,10 +438,9 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
                 return queryString.getFirst(key);
             }
 
-            for (String k : queryString.keySet()) {
-                if (k.toLowerCase(Locale.getDefault()).equals(key.toLowerCase(Locale.getDefault()))) {
-                    return queryString.getFirst(k);
-                }
+            List<String> values = ParameterIndex.findQueryValuesIgnoreCase(queryString, key);
+            if (values != null && !values.isEmpty()) {
+                return values.get(0);
             }
         }
 
@@ -430,45 +465,29 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
         }
         String contentType = getContentType();
         if (contentType == null) {
-            urlEncodedFormParameters = new HashMap<>();
+            urlEncodedFormParameters = Collections.emptyMap();
             return urlEncodedFormParameters;
         }
         if (!contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED) || !getMethod().toLowerCase(Locale.ENGLISH).equals("post")) {
-            urlEncodedFormParameters = new HashMap<>();
+            urlEncodedFormParameters = Collections.emptyMap();
             return urlEncodedFormParameters;
         }
-        Timer.start("SERVLET_REQUEST_GET_FORM_PARAMS");
-        String rawBodyContent = null;
+        PhaseRecorder.start(Phase.SERVLET_REQUEST_GET_FORM_PARAMS);
+        byte[] rawBodyContent;
         try {
-            rawBodyContent = IOUtils.toString(getInputStream(), getCharacterEncoding());
+            rawBodyContent = IOUtils.toByteArray(getInputStream());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
-        urlEncodedFormParameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        for (String parameter : rawBodyContent.split(FORM_DATA_SEPARATOR)) {
-            String[] parameterKeyValue = parameter.split(HEADER_KEY_VALUE_SEPARATOR);
-            if (parameterKeyValue.length < 1) {
-                continue;
-            }
-            List<String> values = new ArrayList<>();
-            if (urlEncodedFormParameters.containsKey(parameterKeyValue[0])) {
-                values = urlEncodedFormParameters.get(parameterKeyValue[0]);
-            }
-            if (parameterKeyValue.length > 1) {
-                values.add(decodeValueIfEncoded(parameterKeyValue[1]));
-            }
-            urlEncodedFormParameters.put(decodeValueIfEncoded(parameterKeyValue[0]), values);
-        }
-        Timer.stop("SERVLET_REQUEST_GET_FORM_PARAMS");
+        urlEncodedFormParameters = ParameterIndex.parseFormUrlEncoded(rawBodyContent, getUriCharset());
+        PhaseRecorder.stop(Phase.SERVLET_REQUEST_GET_FORM_PARAMS);
         return urlEncodedFormParameters;
     }
 
      protected CookieProcessor getCookieProcessor(){
-        if (cookieProcessor == null) {
-            cookieProcessor = new AwsCookieProcessor();
-        }
-        return cookieProcessor;
+        // the cookie processor is stateless, all requests share the same instance
+        return DEFAULT_COOKIE_PROCESSOR;
     }
 
     @Override
@@ -492,43 +511,32 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
         return getMultipartFormParametersMap().get(s).get(0);
     }
 
-    @SuppressFBWarnings({"FILE_UPLOAD_FILENAME", "WEAK_FILENAMEUTILS"})
     protected Map<String, List<Part>> getMultipartFormParametersMap() {
         if (multipartFormParameters != null) {
             return multipartFormParameters;
         }
-        if (!JakartaServletFileUpload.isMultipartContent(this)) { // isMultipartContent also checks the content type
-            multipartFormParameters = new HashMap<>();
+        String contentType = getContentType();
+        if (!"POST".equalsIgnoreCase(getMethod()) || contentType == null
+                || !contentType.toLowerCase(Locale.ENGLISH).startsWith(MULTIPART_CONTENT_TYPE_PREFIX)) {
+            multipartFormParameters = Collections.emptyMap();
             return multipartFormParameters;
         }
-        Timer.start("SERVLET_REQUEST_GET_MULTIPART_PARAMS");
+        PhaseRecorder.start(Phase.SERVLET_REQUEST_GET_MULTIPART_PARAMS);
         multipartFormParameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
-        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload =
-                new JakartaServletFileUpload<>(DiskFileItemFactory.builder().get());
-
         try {
-            List<DiskFileItem> items = upload.parseRequest(this);
-            for (FileItem<DiskFileItem> item : items) {
-                String fileName = FilenameUtils.getName(item.getName());
-                AwsProxyRequestPart newPart = new AwsProxyRequestPart(item.get());
-                newPart.setName(item.getFieldName());
-                newPart.setSubmittedFileName(fileName);
-                newPart.setContentType(item.getContentType());
-                newPart.setSize(item.getSize());
-                item.getHeaders().getHeaderNames().forEachRemaining(h -> {
-                    newPart.addHeader(h, item.getHeaders().getHeader(h));
-                });
-
-                addPart(multipartFormParameters, item.getFieldName(), newPart);
+            // The parts are views of the decoded body, the body is read into memory once
+            byte[] body = IOUtils.toByteArray(getInputStream());
+            for (AwsProxyRequestPart part : new MultipartParser(body, getBodyCharset()).parse(contentType)) {
+                addPart(multipartFormParameters, part.getName(), part);
             }
-        } catch (FileUploadException e) {
-            Timer.stop("SERVLET_REQUEST_GET_MULTIPART_PARAMS");
+        } catch (IOException e) {
             log.error("Could not read multipart upload file", e);
         }
-        Timer.stop("SERVLET_REQUEST_GET_MULTIPART_PARAMS");
+        PhaseRecorder.stop(Phase.SERVLET_REQUEST_GET_MULTIPART_PARAMS);
         return multipartFormParameters;
     }
+
     private void addPart(Map<String, List<Part>> params, String fieldName, Part newPart) {
         List<Part> partList = params.get(fieldName);
         if (Objects.isNull(partList)) {
@@ -552,69 +560,74 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
                 return qs.get(key);
             }
 
-            for (String k : qs.keySet()) {
-                if (k.toLowerCase(Locale.getDefault()).equals(key.toLowerCase(Locale.getDefault()))) {
-                    return qs.get(k);
-                }
+            List<String> values = ParameterIndex.findQueryValuesIgnoreCase(qs, key);
+            if (values != null) {
+                return values;
             }
         }
 
         return Collections.emptyList();
     }
 
+    private static Charset getUriCharset() {
+        String encoding = LambdaContainerHandler.getContainerConfig().getUriEncoding();
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            log.warn("Could not decode body content with " + SecurityUtils.crlf(encoding) + " - using the default charset", e);
+            return Charset.defaultCharset();
+        }
+    }
+
+    private Charset getBodyCharset() {
+        String encoding = getCharacterEncoding();
+        if (encoding == null) {
+            return Charset.defaultCharset();
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            log.error("Could not read request with character encoding: " + SecurityUtils.crlf(encoding), e);
+            return Charset.defaultCharset();
+        }
+    }
+
     protected Map<String, String[]> generateParameterMap(MultiValuedTreeMap<String, String> qs, ContainerConfig config) {
         return generateParameterMap(qs, config, false);
     }
     
     protected Map<String, String[]> generateParameterMap(MultiValuedTreeMap<String, String> qs, ContainerConfig config, boolean decodeQueryParams) {
-        Map<String, String[]> output;
+        return newParameterIndex(qs, config, decodeQueryParams).buildParameterMap();
+    }
 
-        Map<String, List<String>> formEncodedParams = getFormUrlEncodedParametersMap();
+    /**
+     * Builds a parameter index from the given query string and the form parameters of the body. The request
+     * implementations keep the index they build, so that all the parameter methods of a request read from it.
+     * @param qs The query string parameters of the request
+     * @param config The container configuration
+     * @param decodeQueryParams Whether the keys and values of the query string must be URL decoded
+     * @return A new parameter index
+     */
+    ParameterIndex newParameterIndex(MultiValuedTreeMap<String, String> qs, ContainerConfig config, boolean decodeQueryParams) {
+        return new ParameterIndex(decodeQueryParams ? decodeQueryString(qs) : qs, config.isQueryStringCaseSensitive(),
+                                  getFormUrlEncodedParametersMap());
+    }
 
-        if (qs == null) {
-            // Just transform the List<String> values to String[]
-            return formEncodedParams.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, (e) -> e.getValue().toArray(new String[0])));
+    private static MultiValuedTreeMap<String, String> decodeQueryString(MultiValuedTreeMap<String, String> qs) {
+        if (qs == null || qs.isEmpty()) {
+            return qs;
         }
-
-        // decode all keys and values in map
-        final MultiValuedTreeMap<String, String> decodedQs = new MultiValuedTreeMap<String, String>();
-        if (decodeQueryParams) {
-            for (Map.Entry<String, List<String>> entry : qs.entrySet()) {
-                String k = decodeValueIfEncoded(entry.getKey());
-                List<String> v = getQueryParamValuesAsList(qs, entry.getKey(), false).stream()
-                        .map(AwsHttpServletRequest::decodeValueIfEncoded)
-                        .collect(Collectors.toList());
-                // addAll in case map has 2 keys that are identical once decoded
-                decodedQs.addAll(k, v);
+        MultiValuedTreeMap<String, String> decodedQs = new MultiValuedTreeMap<>();
+        for (Map.Entry<String, List<String>> entry : qs.entrySet()) {
+            List<String> values = entry.getValue();
+            List<String> decodedValues = new ArrayList<>(values.size());
+            for (String value : values) {
+                decodedValues.add(decodeValueIfEncoded(value));
             }
-        } else {
-            decodedQs.putAll(qs);
+            // addAll in case map has 2 keys that are identical once decoded
+            decodedQs.addAll(decodeValueIfEncoded(entry.getKey()), decodedValues);
         }
-        
-        Map<String, List<String>> queryStringParams;
-        if (config.isQueryStringCaseSensitive()) {
-            queryStringParams = decodedQs;
-        } else {
-            // If it's case insensitive, we check the entire map on every parameter
-            queryStringParams = decodedQs.entrySet().stream().collect(
-                Collectors.toMap(
-                    Map.Entry::getKey,
-                    e -> getQueryParamValuesAsList(decodedQs, e.getKey(), false)
-                ));
-        }
-
-        // Merge formEncodedParams and queryStringParams Maps
-        output = Stream.of(formEncodedParams, queryStringParams).flatMap(m -> m.entrySet().stream())
-            .collect(
-                Collectors.toMap(
-                    Map.Entry::getKey,
-                    e -> e.getValue().toArray(new String[0]),
-                    // If a parameter is in both Maps, we merge the list of values (and ultimately transform to String[])
-                    (formParam, queryParam) -> Stream.of(formParam, queryParam).flatMap(Stream::of).toArray(String[]::new)
-                ));
-
-        return output;
+        return decodedQs;
     }
 
     protected String getSchemeFromHeader(Headers headers) {
@@ -724,7 +737,20 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
         return values;
     }
 
+    /**
+     * Parses the value of an Accept-Language header into a list of locales sorted by preference. The result for a
+     * header value is cached across requests, so the returned list cannot be modified.
+     * @param headerValue The value of the header, if null the list only contains the default locale
+     * @return The locales in the header
+     */
     protected List<Locale> parseAcceptLanguageHeader(String headerValue) {
+        if (headerValue == null) {
+            return Collections.singletonList(Locale.getDefault());
+        }
+        return localeCache.get(headerValue, value -> Collections.unmodifiableList(parseLocales(value)));
+    }
+
+    private List<Locale> parseLocales(String headerValue) {
         // Accept-Language: fr-CH, fr;q=0.9, en;q=0.8, de;q=0.7, *;q=0.5
         List<HeaderValue> values = this.parseHeaderValue(
                 headerValue, ",", ";"
@@ -759,6 +785,10 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
     }
 
     static String decodeRequestPath(String requestPath, ContainerConfig config) {
+        // nothing to decode, URLDecoder would return an equal string
+        if (requestPath.indexOf('%') < 0 && requestPath.indexOf('+') < 0) {
+            return requestPath;
+        }
         try {
             return URLDecoder.decode(requestPath, config.getUriEncoding());
         } catch (UnsupportedEncodingException ex) {
@@ -769,23 +799,42 @@ public abstract class AwsHttpServletRequest implements HttpServletRequest {
 
     }
 
+    /**
+     * Normalizes a path: adds a leading slash, removes a trailing slash and collapses repeated slashes. Paths that are
+     * already clean are returned as they are.
+     */
     static String cleanUri(String uri) {
-        String finalUri = (uri == null ? "/" : uri);
-        if (finalUri.equals("/")) {
-            return finalUri;
+        if (uri == null) {
+            return "/";
         }
-
-        if (!finalUri.startsWith("/")) {
-            finalUri = "/" + finalUri;
+        int length = uri.length();
+        if (length == 0) {
+            // "/" without its trailing slash
+            return "";
         }
-
-        if (finalUri.endsWith("/")) {
-            finalUri = finalUri.substring(0, finalUri.length() - 1);
+        if (length == 1 && uri.charAt(0) == '/') {
+            return uri;
         }
 
-        finalUri = finalUri.replaceAll("/+", "/");
+        boolean leadingSlash = uri.charAt(0) == '/';
+        boolean trailingSlash = uri.charAt(length - 1) == '/';
+        if (leadingSlash && !trailingSlash && uri.indexOf("//") < 0) {
+            return uri;
+        }
 
-        return finalUri;
+        int end = trailingSlash ? length - 1 : length;
+        StringBuilder finalUri = new StringBuilder(end + 1);
+        if (!leadingSlash) {
+            finalUri.append('/');
+        }
+        for (int i = 0; i < end; i++) {
+            char c = uri.charAt(i);
+            if (c == '/' && finalUri.length() > 0 && finalUri.charAt(finalUri.length() - 1) == '/') {
+                continue;
+            }
+            finalUri.append(c);
+        }
+        return finalUri.toString();
     }
 
     static String decodeValueIfEncoded(String value) {
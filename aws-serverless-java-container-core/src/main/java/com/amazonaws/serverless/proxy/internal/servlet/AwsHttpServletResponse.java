@@ -31,9 +31,14 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
@@ -55,6 +60,12 @@ public class AwsHttpServletResponse
 
     static final String HEADER_DATE_PATTERN = "EEE, d MMM yyyy HH:mm:ss z";
     static final String COOKIE_DEFAULT_TIME_ZONE = "GMT";
+    static final int DEFAULT_RESPONSE_STREAM_BUFFER_SIZE = 8192;
+    // body buffers that grew larger than this are not reused by the response of the next invocation
+    static final int MAX_RECYCLED_BUFFER_SIZE = 256 * 1024;
+
+    private static final CookieProcessor DEFAULT_COOKIE_PROCESSOR = new AwsCookieProcessor();
+    private static final Logger log = LoggerFactory.getLogger(AwsHttpServletResponse.class);
 
     //-------------------------------------------------------------
     // Variables - Private
@@ -64,15 +75,18 @@ public class AwsHttpServletResponse
     private int statusCode;
     private String statusMessage;
     private String responseBody;
+    private Charset responseCharset;
     private String characterEncoding;
     private PrintWriter writer;
-    private ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+    private WriterOutputStream writerOutputStream;
+    private ResponseServletOutputStream outputStream;
+    private ResponseBodyOutputStream bodyOutputStream = new ResponseBodyOutputStream();
     private CountDownLatch writersCountDownLatch;
     private HttpServletRequest request;
     private boolean isCommitted = false;
-    private CookieProcessor cookieProcessor;
-
-    private Logger log = LoggerFactory.getLogger(AwsHttpServletResponse.class);
+    private AwsHttpResponseStream responseStream;
+    private int responseStreamBufferSize = DEFAULT_RESPONSE_STREAM_BUFFER_SIZE;
+    private boolean released;
 
 
     //-------------------------------------------------------------
@@ -91,6 +105,24 @@ public class AwsHttpServletResponse
         statusCode = 0;
     }
 
+    /**
+     * Creates the response for a new request and takes over the body buffer of a response released at the end of a
+     * previous invocation, unless the buffer grew beyond {@link #MAX_RECYCLED_BUFFER_SIZE}. Only the buffer is reused:
+     * the released response keeps rejecting changes, so references the application still holds to it cannot modify
+     * the new response.
+     * @param req The new request
+     * @param latch The latch for the new request
+     * @param releasedResponse A response that was passed to {@link #release()}
+     */
+    AwsHttpServletResponse(HttpServletRequest req, CountDownLatch latch, AwsHttpServletResponse releasedResponse) {
+        this(req, latch);
+        if (releasedResponse.released && releasedResponse.bodyOutputStream.buffer().length <= MAX_RECYCLED_BUFFER_SIZE) {
+            bodyOutputStream = releasedResponse.bodyOutputStream;
+            bodyOutputStream.reset();
+            releasedResponse.bodyOutputStream = new ResponseBodyOutputStream(0);
+        }
+    }
+
 
     //-------------------------------------------------------------
     // Implementation - HttpServletResponse
@@ -100,6 +132,7 @@ public class AwsHttpServletResponse
     @SuppressFBWarnings("COOKIE_USAGE")
     @Override
     public void addCookie(Cookie cookie) {
+        checkNotReleased();
         if (request != null && request.getDispatcherType() == DispatcherType.INCLUDE && isCommitted()) {
             throw new IllegalStateException("Cannot add Cookies for include request when response is committed");
         }
@@ -129,6 +162,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void sendError(int i, String s) throws IOException {
+        checkNotReleased();
         request.setAttribute(AwsHttpServletRequest.DISPATCHER_TYPE_ATTRIBUTE, DispatcherType.ERROR);
         setStatus(i);
         flushBuffer();
@@ -137,6 +171,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void sendError(int i) throws IOException {
+        checkNotReleased();
         request.setAttribute(AwsHttpServletRequest.DISPATCHER_TYPE_ATTRIBUTE, DispatcherType.ERROR);
         setStatus(i);
         flushBuffer();
@@ -145,6 +180,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void sendRedirect(String s) throws IOException {
+        checkNotReleased();
         setStatus(SC_MOVED_TEMPORARILY);
         addHeader(HttpHeaders.LOCATION, s);
         flushBuffer();
@@ -153,6 +189,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setDateHeader(String s, long l) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         SimpleDateFormat sdf = new SimpleDateFormat(HEADER_DATE_PATTERN);
         Date responseDate = new Date();
@@ -163,6 +200,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void addDateHeader(String s, long l) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         SimpleDateFormat sdf = new SimpleDateFormat(HEADER_DATE_PATTERN);
         Date responseDate = new Date();
@@ -173,6 +211,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setHeader(String s, String s1) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         if (isContentTypeHeader(s)) {
             setContentType(s1);
@@ -189,6 +228,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void addHeader(String s, String s1) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         // TODO: We should probably have a list of headers that we are not allowed to have multiple values for
         if (isContentTypeHeader(s)) {
@@ -201,6 +241,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setIntHeader(String s, int i) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         setHeader(s, "" + i, true);
     }
@@ -208,6 +249,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void addIntHeader(String s, int i) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         setHeader(s, "" + i, false);
     }
@@ -215,6 +257,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setStatus(int i) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         statusCode = i;
     }
@@ -262,60 +305,20 @@ public class AwsHttpServletResponse
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
-        return new ServletOutputStream() {
-            private WriteListener listener;
-
-            @Override
-            public boolean isReady() {
-                return true;
-            }
-
-
-            @Override
-            public void setWriteListener(WriteListener writeListener) {
-                if (writeListener != null) {
-                    try {
-                        writeListener.onWritePossible();
-                    } catch (IOException e) {
-                        log.error("Output stream is not writable", e);
-                    }
-
-                    listener = writeListener;
-                }
-            }
-
-
-            @Override
-            public void write(int b) throws IOException {
-                try {
-                    bodyOutputStream.write(b);
-                } catch (Exception e) {
-                    log.error("Cannot write to output stream", e);
-                    if (listener != null) {
-                        listener.onError(e);
-                    }
-                }
-            }
-
-            @Override
-            public void flush() throws IOException {
-                flushBuffer();
-            }
-
-            @Override
-            public void close()
-                    throws IOException {
-                super.close();
-                flushBuffer();
-            }
-        };
+        checkNotReleased();
+        if (null == outputStream) {
+            outputStream = new ResponseServletOutputStream();
+        }
+        return outputStream;
     }
 
 
     @Override
     public PrintWriter getWriter() throws IOException {
+        checkNotReleased();
         if (null == writer) {
-            writer = new PrintWriter(new OutputStreamWriter(bodyOutputStream, StandardCharsets.UTF_8));
+            writerOutputStream = new WriterOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(writerOutputStream, StandardCharsets.UTF_8));
         }
         return writer;
     }
@@ -323,6 +326,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setCharacterEncoding(String s) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         characterEncoding = s.toUpperCase(Locale.getDefault());
         // The char encoding is being forced, if we already have a content-type header we recreate it
@@ -334,6 +338,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setContentLength(int i) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         setHeader(HttpHeaders.CONTENT_LENGTH, "" + i, true);
     }
@@ -341,6 +346,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setContentLengthLong(long l) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         setHeader(HttpHeaders.CONTENT_LENGTH, "" + l, true);
     }
@@ -348,6 +354,7 @@ public class AwsHttpServletResponse
 
     @Override
     public void setContentType(String s) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         if (s == null) {
             return;
@@ -377,7 +384,11 @@ public class AwsHttpServletResponse
 
     @Override
     public void setBufferSize(int i) {
-        bodyOutputStream = new ByteArrayOutputStream(i);
+        checkNotReleased();
+        bodyOutputStream = new ResponseBodyOutputStream(i);
+        if (i > 0) {
+            responseStreamBufferSize = i;
+        }
     }
 
 
@@ -389,13 +400,12 @@ public class AwsHttpServletResponse
 
     @Override
     public void flushBuffer() throws IOException {
+        checkNotReleased();
         if (null != writer) {
             writer.flush();
         }
         String charset = characterEncoding;
 
-        byte[] respBody = bodyOutputStream.toByteArray();
-
         // The content type is json but we have no encoding specified, according to the RFC (https://tools.ietf.org/html/rfc4627#section-3)
         // we should attempt to detect the encoding. However, since we are running in Lambda we shouldn't even consider
         // big endian systems and it's highly unlikely we'll have apps using UTF-16/32 we simply force UTF-8
@@ -410,8 +420,18 @@ public class AwsHttpServletResponse
             charset = LambdaContainerHandler.getContainerConfig().getDefaultContentCharset();
         }
 
-        responseBody = new String(respBody, charset);
-        log.debug("Response buffer flushed with {} bytes, latch={}", responseBody.length(), writersCountDownLatch.getCount());
+        try {
+            responseCharset = Charset.forName(charset);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(charset);
+        }
+        // the body string is only decoded if a response writer asks for it, writers that serialize the bytes
+        // directly never need it
+        responseBody = null;
+        if (responseStream != null) {
+            drainResponseStream(true);
+        }
+        log.debug("Response buffer flushed with {} bytes, latch={}", bodyOutputStream.size(), writersCountDownLatch.getCount());
         isCommitted = true;
         writersCountDownLatch.countDown();
     }
@@ -419,27 +439,31 @@ public class AwsHttpServletResponse
 
     @Override
     public void resetBuffer() {
-        bodyOutputStream = new ByteArrayOutputStream();
+        checkNotReleased();
+        bodyOutputStream = new ResponseBodyOutputStream();
     }
 
 
     @Override
     public boolean isCommitted() {
-        return isCommitted;
+        return isCommitted || (responseStream != null && responseStream.isCommitted());
     }
 
 
     @Override
     public void reset() {
+        checkNotReleased();
         headers = new Headers();
         responseBody = null;
+        responseCharset = null;
         writer = null;
-        bodyOutputStream = new ByteArrayOutputStream();
+        bodyOutputStream = new ResponseBodyOutputStream();
     }
 
 
     @Override
     public void setLocale(Locale locale) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         setHeader(HttpHeaders.CONTENT_LANGUAGE, locale.getLanguage(), true);
     }
@@ -456,6 +480,9 @@ public class AwsHttpServletResponse
     //-------------------------------------------------------------
 
     String getAwsResponseBodyString() {
+        if (responseBody == null && responseCharset != null) {
+            responseBody = new String(bodyOutputStream.buffer(), 0, bodyOutputStream.size(), responseCharset);
+        }
         return responseBody;
     }
 
@@ -466,6 +493,87 @@ public class AwsHttpServletResponse
         return new byte[0];
     }
 
+    /**
+     * Returns the internal buffer of the response body without copying it. Only the first
+     * {@link #getAwsResponseBodyLength()} bytes of the array are part of the body.
+     * @return The body buffer
+     */
+    byte[] getAwsResponseBodyBuffer() {
+        return bodyOutputStream.buffer();
+    }
+
+    int getAwsResponseBodyLength() {
+        return bodyOutputStream.size();
+    }
+
+    /**
+     * The total length of the body, including the bytes that were already sent to the response stream in streaming
+     * mode.
+     * @return The number of bytes written to the response body
+     */
+    long getAwsResponseContentLength() {
+        return bodyOutputStream.size() + (responseStream == null ? 0 : responseStream.getBodyLength());
+    }
+
+    /**
+     * Whether {@link #flushBuffer()} was called to complete the response. In streaming mode, the response can be
+     * committed before this happens.
+     * @return <code>true</code> if the response buffer was flushed
+     */
+    boolean isBufferFlushed() {
+        return isCommitted;
+    }
+
+    /**
+     * Switches the response to streaming mode: the body is buffered up to the buffer size and then forwarded to
+     * the given stream, preceded by the status and headers.
+     * @param stream The response stream
+     */
+    void setResponseStream(AwsHttpResponseStream stream) {
+        responseStream = stream;
+    }
+
+    AwsHttpResponseStream getResponseStream() {
+        return responseStream;
+    }
+
+    /**
+     * Sends the remaining body bytes to the response stream, committing the response first if needed.
+     * @throws IOException If the response stream cannot be written
+     */
+    void finishResponseStream() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        drainResponseStream(true);
+    }
+
+    /**
+     * Marks the response as completed and invalidates the output stream and writer handed to the application. After
+     * this, changing the response or writing to its streams throws an <code>IllegalStateException</code>. This is
+     * called once the Lambda response has been produced, before the body buffer is made available for reuse.
+     */
+    void release() {
+        released = true;
+        if (outputStream != null) {
+            outputStream.released = true;
+            outputStream = null;
+        }
+        if (writerOutputStream != null) {
+            writerOutputStream.released = true;
+            writerOutputStream = null;
+        }
+        writer = null;
+    }
+
+    /**
+     * The charset the body is decoded with, this is <code>null</code> until the response has been flushed.
+     * @return The charset for the body string
+     */
+    Charset getAwsResponseCharset() {
+        return responseCharset;
+    }
+
 
     Headers getAwsResponseHeaders() {
         return headers;
@@ -476,10 +584,8 @@ public class AwsHttpServletResponse
     }
 
     CookieProcessor getCookieProcessor(){
-        if (cookieProcessor == null) {
-            cookieProcessor = new AwsCookieProcessor();
-        }
-        return cookieProcessor;
+        // the cookie processor is stateless, all responses share the same instance
+        return DEFAULT_COOKIE_PROCESSOR;
     }
 
     //-------------------------------------------------------------
@@ -487,6 +593,7 @@ public class AwsHttpServletResponse
     //-------------------------------------------------------------
 
     private void setHeader(String key, String value, boolean overwrite) {
+        checkNotReleased();
         if (!canSetHeader()) return;
         String encodedKey = SecurityUtils.crlf(key);
         String encodedValue = SecurityUtils.crlf(value);
@@ -501,7 +608,164 @@ public class AwsHttpServletResponse
         headers.put(encodedKey, values);
     }
 
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("The response was already completed, it cannot be changed anymore");
+        }
+    }
+
+    private static void checkNotReleased(boolean released) {
+        if (released) {
+            throw new IllegalStateException("The response was already completed, its output stream cannot be used anymore");
+        }
+    }
+
+    private void writeBody(int b) throws IOException {
+        bodyOutputStream.write(b);
+        if (responseStream != null && bodyOutputStream.size() >= responseStreamBufferSize) {
+            drainResponseStream(false);
+        }
+    }
+
+    private void writeBody(byte[] b, int off, int len) throws IOException {
+        bodyOutputStream.write(b, off, len);
+        if (responseStream != null && bodyOutputStream.size() >= responseStreamBufferSize) {
+            drainResponseStream(false);
+        }
+    }
+
+    private void drainResponseStream(boolean flush) throws IOException {
+        if (!responseStream.isCommitted()) {
+            responseStream.commit(getStatus(), headers);
+        }
+        if (bodyOutputStream.size() > 0) {
+            responseStream.write(bodyOutputStream.buffer(), 0, bodyOutputStream.size());
+            bodyOutputStream.reset();
+        }
+        if (flush) {
+            responseStream.flush();
+        }
+    }
+
     private boolean canSetHeader() {
         return request == null || request.getDispatcherType() != DispatcherType.INCLUDE;
     }
+
+    /**
+     * The <code>ServletOutputStream</code> returned by {@link #getOutputStream()}. The stream stops accepting writes
+     * once the response is released, so that a reused response cannot receive bytes meant for a previous request.
+     */
+    private class ResponseServletOutputStream extends ServletOutputStream {
+        private WriteListener listener;
+        private boolean released;
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (writeListener != null) {
+                try {
+                    writeListener.onWritePossible();
+                } catch (IOException e) {
+                    log.error("Output stream is not writable", e);
+                }
+
+                listener = writeListener;
+            }
+        }
+
+
+        @Override
+        public void write(int b) throws IOException {
+            checkNotReleased(released);
+            try {
+                writeBody(b);
+            } catch (Exception e) {
+                log.error("Cannot write to output stream", e);
+                if (listener != null) {
+                    listener.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkNotReleased(released);
+            try {
+                writeBody(b, off, len);
+            } catch (Exception e) {
+                log.error("Cannot write to output stream", e);
+                if (listener != null) {
+                    listener.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            checkNotReleased(released);
+            if (responseStream != null) {
+                // when streaming, flushing sends the available bytes without completing the response
+                drainResponseStream(true);
+                return;
+            }
+            flushBuffer();
+        }
+
+        @Override
+        public void close()
+                throws IOException {
+            checkNotReleased(released);
+            super.close();
+            flushBuffer();
+        }
+    }
+
+    /**
+     * The byte sink behind the <code>PrintWriter</code> returned by {@link #getWriter()}.
+     */
+    private class WriterOutputStream extends OutputStream {
+        private boolean released;
+
+        @Override
+        public void write(int b) throws IOException {
+            checkNotReleased(released);
+            writeBody(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkNotReleased(released);
+            writeBody(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            checkNotReleased(released);
+            if (responseStream != null) {
+                drainResponseStream(true);
+            }
+        }
+    }
+
+    /**
+     * Body buffer that gives response writers access to the bytes without the copy made by <code>toByteArray()</code>.
+     */
+    private static class ResponseBodyOutputStream extends ByteArrayOutputStream {
+        ResponseBodyOutputStream() {
+            super();
+        }
+
+        ResponseBodyOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
 }
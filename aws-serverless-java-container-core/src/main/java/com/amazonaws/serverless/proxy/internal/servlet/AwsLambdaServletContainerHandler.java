@@ -15,9 +15,17 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.ExceptionHandler;
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.metrics.InvocationMetrics;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.RequestReader;
 import com.amazonaws.serverless.proxy.ResponseWriter;
 import com.amazonaws.serverless.proxy.SecurityContextWriter;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.services.lambda.runtime.Context;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,7 +36,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -50,8 +62,10 @@ public abstract class AwsLambdaServletContainerHandler<RequestType, ResponseType
     //-------------------------------------------------------------
     // Variables - Private
     //-------------------------------------------------------------
-    private Logger log = LoggerFactory.getLogger(AwsLambdaServletContainerHandler.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsLambdaServletContainerHandler.class);
     private FilterChainManager<AwsServletContext> filterChainManager;
+    private AwsHttpResponseStream activeResponseStream;
+    private final AtomicReference<AwsHttpServletResponse> releasedResponse = new AtomicReference<>();
 
     //-------------------------------------------------------------
     // Variables - Protected
@@ -103,6 +117,67 @@ public abstract class AwsLambdaServletContainerHandler<RequestType, ResponseType
     }
 
 
+    /**
+     * Handles an event in Lambda's HTTP response streaming mode. The response status, headers and cookies are written
+     * to the output stream as a JSON prelude followed by eight <code>NUL</code> bytes, then the body is forwarded to
+     * the output stream as the application writes it to the <code>ServletOutputStream</code> or <code>PrintWriter</code>.
+     * The body is buffered up to the response buffer size (8KB by default, see <code>setBufferSize</code>) before the
+     * response is committed, and it is sent earlier when the application flushes the stream.
+     *
+     * This method should be called from a handler whose function is invoked with the <code>streaming</code> response
+     * mode, for example a Lambda function URL with the <code>RESPONSE_STREAM</code> invoke mode. The content type of
+     * the Lambda response must be {@link AwsHttpResponseStream#CONTENT_TYPE}.
+     *
+     * Errors that occur before the response is committed are written as a complete response using the exception
+     * handler. Once the response is committed, the status can no longer change and errors are only logged.
+     * @param input Lambda's incoming input stream
+     * @param output Lambda's response output stream
+     * @param context Lambda's context object
+     * @throws IOException If an error occurs while writing to the output stream
+     */
+    public void proxyResponseStream(InputStream input, OutputStream output, Context context) throws IOException {
+        InvocationMetrics metrics = beginInvocationMetrics(context);
+        if (metrics != null) {
+            input = metrics.countRequestBytes(input);
+            output = metrics.countResponseBytes(output);
+        }
+        AwsHttpResponseStream responseStream = new AwsHttpResponseStream(output);
+        try {
+            RequestType request;
+            try {
+                request = readEvent(input);
+            } catch (JsonParseException | JsonMappingException e) {
+                log.error("Error while reading request object stream", e);
+                writeBufferedResponse(responseStream, getExceptionHandler().handle(e));
+                return;
+            }
+
+            lambdaContext = context;
+            CountDownLatch latch = new CountDownLatch(1);
+            activeResponseStream = responseStream;
+            try {
+                ContainerResponseType containerResponse = execute(request, context, latch);
+                if (containerResponse instanceof AwsHttpServletResponse
+                        && ((AwsHttpServletResponse) containerResponse).getResponseStream() == responseStream) {
+                    ((AwsHttpServletResponse) containerResponse).finishResponseStream();
+                } else {
+                    // the framework did not go through doFilter, fall back to the buffered response
+                    writeBufferedResponse(responseStream, getResponseWriter().writeResponse(containerResponse, context));
+                }
+                releaseContainerResponse(containerResponse);
+            } catch (Exception e) {
+                writeBufferedResponse(responseStream, handleException(e, latch));
+            } finally {
+                activeResponseStream = null;
+            }
+        } finally {
+            output.flush();
+            output.close();
+            completeInvocationMetrics(metrics);
+        }
+    }
+
+
     //-------------------------------------------------------------
     // Methods - Getter/Setter
     //-------------------------------------------------------------
@@ -137,6 +212,51 @@ public abstract class AwsLambdaServletContainerHandler<RequestType, ResponseType
     // Methods - Protected
     //-------------------------------------------------------------
 
+    /**
+     * Returns the servlet response for a new request. Framework implementations call this method from
+     * <code>getContainerResponse</code>. When {@link com.amazonaws.serverless.proxy.model.ContainerConfig#isReuseContainerObjects()}
+     * is enabled, the new response takes over the body buffer of the response released at the end of the previous
+     * invocation instead of allocating a new one.
+     * @param request The servlet request
+     * @param latch The latch counted down when the response is complete
+     * @return A servlet response ready to be passed to the framework
+     */
+    protected AwsHttpServletResponse newServletResponse(HttpServletRequest request, CountDownLatch latch) {
+        if (getContainerConfig().isReuseContainerObjects()) {
+            // the slot is emptied so that concurrent invocations never share a response object
+            AwsHttpServletResponse released = releasedResponse.getAndSet(null);
+            if (released != null) {
+                return new AwsHttpServletResponse(request, latch, released);
+            }
+        }
+        return new AwsHttpServletResponse(request, latch);
+    }
+
+    /**
+     * When per-invocation objects are reused, marks the response as completed so that the application cannot change
+     * it anymore, and keeps its body buffer for the next invocation.
+     * @param containerResponse The container response that is no longer needed
+     */
+    @Override
+    protected void releaseContainerResponse(ContainerResponseType containerResponse) {
+        if (!getContainerConfig().isReuseContainerObjects() || containerResponse == null
+                || containerResponse.getClass() != AwsHttpServletResponse.class) {
+            return;
+        }
+        AwsHttpServletResponse response = (AwsHttpServletResponse) containerResponse;
+        response.release();
+        releasedResponse.set(response);
+    }
+
+    /**
+     * Drops the body buffer kept for reuse, the invocations after a restore allocate a new one. This keeps the buffer
+     * out of the snapshot.
+     */
+    @Override
+    protected void trimBeforeCheckpoint() {
+        releasedResponse.set(null);
+    }
+
     /**
      * Applies the filter chain in the request lifecycle
      * @param request The Request object. This must be an implementation of HttpServletRequest
@@ -149,19 +269,48 @@ public abstract class AwsLambdaServletContainerHandler<RequestType, ResponseType
         if (AwsHttpServletRequest.class.isAssignableFrom(request.getClass())) {
             ((AwsHttpServletRequest)request).setContainerHandler(this);
         }
+        if (activeResponseStream != null && response instanceof AwsHttpServletResponse
+                && ((AwsHttpServletResponse) response).getResponseStream() == null) {
+            ((AwsHttpServletResponse) response).setResponseStream(activeResponseStream);
+        }
 
-        FilterChain chain = getFilterChain(request, servlet);
-        chain.doFilter(request, response);
-        if(requiresAsyncReDispatch(request)) {
-            chain = getFilterChain(request, servlet);
+        // a request dispatcher forward runs a nested chain on the same thread, only the outermost chain is timed
+        boolean outermostChain = !PhaseRecorder.isStarted(Phase.FILTER_CHAIN);
+        if (outermostChain) {
+            PhaseRecorder.start(Phase.FILTER_CHAIN);
+        }
+        try {
+            FilterChain chain = getFilterChain(request, servlet);
             chain.doFilter(request, response);
+            if(requiresAsyncReDispatch(request)) {
+                chain = getFilterChain(request, servlet);
+                chain.doFilter(request, response);
+            }
+        } finally {
+            if (outermostChain) {
+                PhaseRecorder.stop(Phase.FILTER_CHAIN);
+            }
         }
-        // if for some reason the response wasn't flushed yet, we force it here unless it's being processed asynchronously (WebFlux)
-        if (!response.isCommitted() && request.getDispatcherType() != DispatcherType.ASYNC) {
+        // if for some reason the response wasn't flushed yet, we force it here unless it's being processed asynchronously (WebFlux).
+        // A streamed response is committed as soon as it sends data, so we check whether it was flushed instead
+        boolean flushed = response instanceof AwsHttpServletResponse
+                ? ((AwsHttpServletResponse) response).isBufferFlushed() : response.isCommitted();
+        if (!flushed && request.getDispatcherType() != DispatcherType.ASYNC) {
             response.flushBuffer();
         }
     }
 
+    private void writeBufferedResponse(AwsHttpResponseStream responseStream, ResponseType response) throws IOException {
+        if (responseStream.isCommitted()) {
+            log.error("Response stream already committed, cannot write the response");
+            return;
+        }
+        if (!(response instanceof AwsProxyResponse)) {
+            throw new IOException("Response streaming requires an AwsProxyResponse return type");
+        }
+        responseStream.writeResponse((AwsProxyResponse) response);
+    }
+
     private boolean requiresAsyncReDispatch(HttpServletRequest request) {
         if (request.isAsyncStarted()) {
             AsyncContext asyncContext = request.getAsyncContext();
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
+import com.amazonaws.serverless.proxy.OutputStreamResponseWriter;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the <code>AwsProxyResponse</code> JSON for an <code>AwsHttpServletResponse</code> straight to the Lambda output
+ * stream. The body bytes are read from the response buffer in place: text bodies are escaped and Base64 bodies are
+ * encoded by the JSON generator as it writes them, so the body is never copied into a <code>String</code>. The JSON
+ * is the same as the one produced by serializing the return value of
+ * {@link AwsProxyHttpServletResponseWriter#writeResponse(AwsHttpServletResponse, Context)}, which this class still
+ * supports for the <code>proxy</code> method.
+ *
+ * To use this writer, pass it to the <code>responseWriter</code> method of the handler builder and call the
+ * <code>proxyStream</code> method of the handler from a <code>RequestStreamHandler</code>.
+ */
+public class AwsProxyHttpServletOutputStreamResponseWriter extends AwsProxyHttpServletResponseWriter
+        implements OutputStreamResponseWriter<AwsHttpServletResponse> {
+
+    public AwsProxyHttpServletOutputStreamResponseWriter() {
+        this(false);
+    }
+
+    public AwsProxyHttpServletOutputStreamResponseWriter(boolean singleValueHeaders) {
+        super(singleValueHeaders);
+    }
+
+    //-------------------------------------------------------------
+    // Methods - Implementation
+    //-------------------------------------------------------------
+
+    @Override
+    public void writeResponse(AwsHttpServletResponse containerResponse, Context lambdaContext, OutputStream output)
+            throws InvalidResponseObjectException, IOException {
+        if (containerResponse == null) {
+            throw new InvalidResponseObjectException("Null container response", null);
+        }
+        PhaseRecorder.start(Phase.SERVLET_RESPONSE_WRITE);
+        try (JsonGenerator generator = LambdaContainerHandler.getObjectMapper().getFactory().createGenerator(output)) {
+            // the handler owns the Lambda output stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            generator.writeStartObject();
+            generator.writeNumberField("statusCode", containerResponse.getStatus());
+            String statusDescription = getStatusDescription(containerResponse);
+            if (statusDescription != null) {
+                generator.writeStringField("statusDescription", statusDescription);
+            }
+
+            Headers headers = containerResponse.getAwsResponseHeaders();
+            if (isWriteSingleValueHeaders()) {
+                generator.writeObjectFieldStart("headers");
+                if (headers != null) {
+                    for (String key : headers.keySet()) {
+                        generator.writeStringField(key, headers.getFirst(key));
+                    }
+                }
+                generator.writeEndObject();
+            }
+            if (headers != null) {
+                generator.writeObjectFieldStart("multiValueHeaders");
+                for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                    generator.writeFieldName(header.getKey());
+                    if (header.getValue() == null) {
+                        generator.writeNull();
+                        continue;
+                    }
+                    generator.writeStartArray();
+                    for (String value : header.getValue()) {
+                        generator.writeString(value);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+            }
+
+            boolean base64Encoded = false;
+            Charset charset = containerResponse.getAwsResponseCharset();
+            if (charset != null) {
+                byte[] body = containerResponse.getAwsResponseBodyBuffer();
+                int bodyLength = containerResponse.getAwsResponseBodyLength();
+                generator.writeFieldName("body");
+                if (!isBinary(containerResponse.getContentType()) && isValidUtf8(body, bodyLength)) {
+                    if (StandardCharsets.UTF_8.equals(charset) || (isAsciiCompatible(charset) && isAscii(body, bodyLength))) {
+                        generator.writeUTF8String(body, 0, bodyLength);
+                    } else {
+                        // the body is decoded with a different charset, we keep the same string the
+                        // default writer would return
+                        generator.writeString(containerResponse.getAwsResponseBodyString());
+                    }
+                } else {
+                    generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, body, 0, bodyLength);
+                    base64Encoded = true;
+                }
+            }
+            generator.writeBooleanField("isBase64Encoded", base64Encoded);
+            generator.writeEndObject();
+            generator.flush();
+            if (PhaseRecorder.isEnabled()) {
+                PhaseRecorder.currentInvocation().setResponseBase64Encoded(base64Encoded);
+            }
+        } finally {
+            PhaseRecorder.stop(Phase.SERVLET_RESPONSE_WRITE);
+        }
+    }
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+    }
+
+    private static boolean isAscii(byte[] input, int length) {
+        for (int i = 0; i < length; i++) {
+            if (input[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
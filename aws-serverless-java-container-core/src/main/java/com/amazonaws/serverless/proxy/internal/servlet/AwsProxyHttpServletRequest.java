@@ -34,7 +34,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.security.Principal;
@@ -42,8 +41,6 @@ import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Implementation of the <code>HttpServletRequest</code> interface that supports <code>AwsProxyRequest</code> object.
@@ -59,8 +56,10 @@ public class AwsProxyHttpServletRequest extends AwsHttpServletRequest {
     private AwsProxyRequest request;
     private SecurityContext securityContext;
     private AwsAsyncContext asyncContext;
-    private static Logger log = LoggerFactory.getLogger(AwsProxyHttpServletRequest.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsProxyHttpServletRequest.class);
     private ContainerConfig config;
+    private Cookie[] cookies;
+    private ParameterIndex parameterIndex;
 
     //-------------------------------------------------------------
     // Constructors
@@ -103,7 +102,11 @@ public class AwsProxyHttpServletRequest extends AwsHttpServletRequest {
         if (cookieHeader == null) {
             return new Cookie[0];
         }
-        return this.parseCookieHeaderValue(cookieHeader);
+        // the Cookie header does not change during the request, parse it the first time it is requested
+        if (cookies == null) {
+            cookies = this.parseCookieHeaderValue(cookieHeader);
+        }
+        return cookies;
     }
 
 
@@ -175,8 +178,7 @@ public class AwsProxyHttpServletRequest extends AwsHttpServletRequest {
 
     @Override
     public String getPathInfo() {
-        String pathInfo = cleanUri(request.getPath());
-        return decodeRequestPath(pathInfo, LambdaContainerHandler.getContainerConfig());
+        return getDecodedRequestPath(request.getPath());
     }
 
 
@@ -328,83 +330,26 @@ public class AwsProxyHttpServletRequest extends AwsHttpServletRequest {
 
     @Override
     public String getParameter(String s) {
-
-        // decode key if ALB
-        if (request.getRequestSource() == RequestSource.ALB) {
-            s = decodeValueIfEncoded(s);
-        }
-
-       String queryStringParameter = getFirstQueryParamValue(request.getMultiValueQueryStringParameters(), s, config.isQueryStringCaseSensitive());
-       if (queryStringParameter != null) {
-           if (request.getRequestSource() == RequestSource.ALB) {
-               queryStringParameter = decodeValueIfEncoded(queryStringParameter);
-           }
-           return queryStringParameter;
-       }
-
-       String[] bodyParams = getFormBodyParameterCaseInsensitive(s);
-       if (bodyParams.length == 0) {
-           return null;
-       } else {
-           return bodyParams[0];
-       }
+        return getParameterIndex().getFirst(decodeParameterName(s));
     }
 
 
     @Override
     public Enumeration<String> getParameterNames() {
-        Set<String> formParameterNames = getFormUrlEncodedParametersMap().keySet();
-        if (request.getMultiValueQueryStringParameters() == null) {
-            return Collections.enumeration(formParameterNames);
-        }
-
-        Set<String> paramNames = request.getMultiValueQueryStringParameters().keySet();
-        if (request.getRequestSource() == RequestSource.ALB) {
-            paramNames = paramNames.stream().map(AwsProxyHttpServletRequest::decodeValueIfEncoded).collect(Collectors.toSet());
-        }
-
-        return Collections.enumeration(
-                Stream.concat(formParameterNames.stream(), paramNames.stream())
-                .collect(Collectors.toSet()));
+        return getParameterIndex().getNames();
     }
 
 
     @Override
     @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS") // suppressing this as according to the specs we should be returning null here if we can't find params
     public String[] getParameterValues(String s) {
-    
-        // decode key if ALB
-        if (request.getRequestSource() == RequestSource.ALB) {
-            s = decodeValueIfEncoded(s);
-        }
-
-        List<String> values = getQueryParamValuesAsList(request.getMultiValueQueryStringParameters(), s, config.isQueryStringCaseSensitive());
-        
-        // copy list so we don't modifying the underlying multi-value query params
-        if (values != null) {
-            values = new ArrayList<>(values);
-        } else {
-            values = new ArrayList<>();
-        }
-        
-        // decode values if ALB
-        if (values != null && request.getRequestSource() == RequestSource.ALB) {
-            values = values.stream().map(AwsHttpServletRequest::decodeValueIfEncoded).collect(Collectors.toList());
-        }
-
-        values.addAll(Arrays.asList(getFormBodyParameterCaseInsensitive(s)));
-        
-        if (values.size() == 0) {
-            return null;
-        } else {
-            return values.toArray(new String[0]);
-        }
+        return getParameterIndex().getValues(decodeParameterName(s));
     }
 
 
     @Override
     public Map<String, String[]> getParameterMap() {
-        return generateParameterMap(request.getMultiValueQueryStringParameters(), config, request.getRequestSource() == RequestSource.ALB);
+        return getParameterIndex().getParameterMap();
     }
 
 
@@ -465,7 +410,7 @@ public class AwsProxyHttpServletRequest extends AwsHttpServletRequest {
     @Override
     public BufferedReader getReader()
             throws IOException {
-        return new BufferedReader(new StringReader(request.getBody()));
+        return bodyStringToReader(request.getBody(), request.isBase64Encoded());
     }
 
 
@@ -623,5 +568,16 @@ public class AwsProxyHttpServletRequest extends AwsHttpServletRequest {
         return request.getMultiValueHeaders().get(key);
     }
 
+    private ParameterIndex getParameterIndex() {
+        if (parameterIndex == null) {
+            // ALB does not decode the query string, the keys and values are decoded once when the index is built
+            parameterIndex = newParameterIndex(request.getMultiValueQueryStringParameters(), config,
+                                               request.getRequestSource() == RequestSource.ALB);
+        }
+        return parameterIndex;
+    }
 
+    private String decodeParameterName(String name) {
+        return request.getRequestSource() == RequestSource.ALB ? decodeValueIfEncoded(name) : name;
+    }
 }
@@ -14,6 +14,7 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
 import com.amazonaws.serverless.proxy.RequestReader;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.ContainerConfig;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -54,6 +55,9 @@ public class AwsProxyHttpServletRequestReader extends RequestReader<AwsProxyRequ
             // put single as we always expect to have one and only one content type in a request.
             request.getMultiValueHeaders().putSingle(HttpHeaders.CONTENT_TYPE, getContentTypeWithCharset(contentType, config));
         }
+        if (PhaseRecorder.isEnabled()) {
+            PhaseRecorder.currentInvocation().setRequestBase64Encoded(request.isBase64Encoded());
+        }
         AwsProxyHttpServletRequest servletRequest = new AwsProxyHttpServletRequest(request, lambdaContext, securityContext, config);
         servletRequest.setServletContext(servletContext);
         servletRequest.setAttribute(API_GATEWAY_CONTEXT_PROPERTY, request.getRequestContext());
@@ -16,7 +16,8 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
 import com.amazonaws.serverless.proxy.ResponseWriter;
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.model.Headers;
 import com.amazonaws.serverless.proxy.model.RequestSource;
@@ -25,6 +26,8 @@ import com.amazonaws.services.lambda.runtime.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -53,15 +56,18 @@ public class AwsProxyHttpServletResponseWriter extends ResponseWriter<AwsHttpSer
     @Override
     public AwsProxyResponse writeResponse(AwsHttpServletResponse containerResponse, Context lambdaContext)
             throws InvalidResponseObjectException {
-        Timer.start("SERVLET_RESPONSE_WRITE");
+        PhaseRecorder.start(Phase.SERVLET_RESPONSE_WRITE);
         AwsProxyResponse awsProxyResponse = new AwsProxyResponse();
         if (containerResponse.getAwsResponseBodyString() != null) {
             String responseString;
 
-            if (!isBinary(containerResponse.getContentType()) && isValidUtf8(containerResponse.getAwsResponseBodyBytes())) {
+            byte[] body = containerResponse.getAwsResponseBodyBuffer();
+            int bodyLength = containerResponse.getAwsResponseBodyLength();
+            if (!isBinary(containerResponse.getContentType()) && isValidUtf8(body, bodyLength)) {
                 responseString = containerResponse.getAwsResponseBodyString();
             } else {
-                responseString = Base64.getEncoder().encodeToString(containerResponse.getAwsResponseBodyBytes());
+                ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(body, 0, bodyLength));
+                responseString = new String(encoded.array(), 0, encoded.limit(), StandardCharsets.US_ASCII);
                 awsProxyResponse.setBase64Encoded(true);
             }
 
@@ -73,16 +79,37 @@ public class AwsProxyHttpServletResponseWriter extends ResponseWriter<AwsHttpSer
         }
 
         awsProxyResponse.setStatusCode(containerResponse.getStatus());
+        awsProxyResponse.setStatusDescription(getStatusDescription(containerResponse));
 
+        if (PhaseRecorder.isEnabled()) {
+            PhaseRecorder.currentInvocation().setResponseBase64Encoded(awsProxyResponse.isBase64Encoded());
+        }
+        PhaseRecorder.stop(Phase.SERVLET_RESPONSE_WRITE);
+        return awsProxyResponse;
+    }
+
+    //-------------------------------------------------------------
+    // Methods - Protected
+    //-------------------------------------------------------------
+
+    protected boolean isWriteSingleValueHeaders() {
+        return writeSingleValueHeaders;
+    }
+
+    /**
+     * Application Load Balancer expects a status description in the response. For other event sources, this method
+     * returns <code>null</code>.
+     * @param containerResponse The container response
+     * @return The status description, for example "200 OK", or <code>null</code>
+     */
+    protected String getStatusDescription(AwsHttpServletResponse containerResponse) {
         Status responseStatus = Response.Status.fromStatusCode(containerResponse.getStatus());
 
         if (containerResponse.getAwsProxyRequest() != null && containerResponse.getAwsProxyRequest().getRequestSource() == RequestSource.ALB
                 && responseStatus != null) {
-            awsProxyResponse.setStatusDescription(containerResponse.getStatus() + " " + responseStatus.getReasonPhrase());
+            return containerResponse.getStatus() + " " + responseStatus.getReasonPhrase();
         }
-
-        Timer.stop("SERVLET_RESPONSE_WRITE");
-        return awsProxyResponse;
+        return null;
     }
 
     private Map<String, String> toSingleValueHeaders(Headers h) {
@@ -96,7 +123,7 @@ public class AwsProxyHttpServletResponseWriter extends ResponseWriter<AwsHttpSer
         return out;
     }
 
-    private boolean isBinary(String contentType) {
+    protected boolean isBinary(String contentType) {
         if(contentType != null) {
             int semidx = contentType.indexOf(';');
             if(semidx >= 0) {
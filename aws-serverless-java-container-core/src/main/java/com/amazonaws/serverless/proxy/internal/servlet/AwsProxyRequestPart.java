@@ -22,6 +22,7 @@ import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -39,6 +40,15 @@ public class AwsProxyRequestPart
     private String contentType;
     private MultiValuedTreeMap<String, String> headers;
     private byte[] content;
+    private int contentOffset;
+    private int contentLength;
+    /**
+     * The raw headers of a part read by the {@link MultipartParser}, parsed the first time the headers are needed.
+     */
+    private byte[] rawHeaders;
+    private int rawHeadersOffset;
+    private int rawHeadersLength;
+    private Charset rawHeadersCharset;
 
 
     //-------------------------------------------------------------
@@ -47,6 +57,31 @@ public class AwsProxyRequestPart
 
     public AwsProxyRequestPart(byte[] content) {
         this.content = content.clone();
+        this.contentLength = content.length;
+    }
+
+    /**
+     * Creates a part that is a view of a multipart body. The content and the headers are not copied.
+     * @param body The multipart body
+     * @param contentOffset The position of the part content in the body
+     * @param contentLength The length of the part content
+     * @param headersOffset The position of the part headers in the body
+     * @param headersLength The length of the part headers
+     * @param headersCharset The charset of the part headers
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // the part is a view of the request body, which is never modified
+    AwsProxyRequestPart(byte[] body, int contentOffset, int contentLength, int headersOffset, int headersLength,
+                        Charset headersCharset) {
+        this.content = body;
+        this.contentOffset = contentOffset;
+        this.contentLength = contentLength;
+        this.size = contentLength;
+        if (headersLength > 0) {
+            this.rawHeaders = body;
+            this.rawHeadersOffset = headersOffset;
+            this.rawHeadersLength = headersLength;
+            this.rawHeadersCharset = headersCharset;
+        }
     }
 
 
@@ -57,7 +92,7 @@ public class AwsProxyRequestPart
 
     @Override
     public InputStream getInputStream() throws IOException {
-        return new ByteArrayInputStream(content);
+        return new ByteArrayInputStream(content, contentOffset, contentLength);
     }
 
 
@@ -91,7 +126,7 @@ public class AwsProxyRequestPart
         String canonicalFilePath = SecurityUtils.getValidFilePath(s);
         FileOutputStream fos = new FileOutputStream(canonicalFilePath);
         try {
-            fos.write(content);
+            fos.write(content, contentOffset, contentLength);
         } finally {
             fos.close();
         }
@@ -106,6 +141,7 @@ public class AwsProxyRequestPart
 
     @Override
     public String getHeader(String s) {
+        parseRawHeaders();
         if (headers == null) {
             return null;
         }
@@ -115,6 +151,7 @@ public class AwsProxyRequestPart
 
     @Override
     public Collection<String> getHeaders(String s) {
+        parseRawHeaders();
         if (headers == null) {
             return Collections.emptyList();
         }
@@ -124,6 +161,7 @@ public class AwsProxyRequestPart
 
     @Override
     public Collection<String> getHeaderNames() {
+        parseRawHeaders();
         if (headers == null) {
             return Collections.emptyList();
         }
@@ -136,6 +174,7 @@ public class AwsProxyRequestPart
     //-------------------------------------------------------------
 
     public void addHeader(String key, String value) {
+        parseRawHeaders();
         if (headers == null) {
             headers = new MultiValuedTreeMap<>(String.CASE_INSENSITIVE_ORDER);
         }
@@ -173,6 +212,21 @@ public class AwsProxyRequestPart
 
 
     public void setHeaders(MultiValuedTreeMap<String, String> headers) {
+        parseRawHeaders();
         this.headers = headers;
     }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void parseRawHeaders() {
+        if (rawHeaders == null) {
+            return;
+        }
+        byte[] source = rawHeaders;
+        rawHeaders = null;
+        MultipartParser.parseHeaders(source, rawHeadersOffset, rawHeadersOffset + rawHeadersLength, rawHeadersCharset, this);
+    }
 }
@@ -59,10 +59,11 @@ public class AwsServletContext
     //-------------------------------------------------------------
     private Map<String, FilterHolder> filters;
     private Map<String, AwsServletRegistration> servletRegistrations;
+    private volatile ServletMappings servletMappings;
     private Map<String, Object> attributes;
     private Map<String, String> initParameters;
     private AwsLambdaServletContainerHandler containerHandler;
-    private Logger log = LoggerFactory.getLogger(AwsServletContext.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsServletContext.class);
 
 
     //-------------------------------------------------------------
@@ -80,7 +81,7 @@ public class AwsServletContext
         this.attributes = new HashMap<>();
         this.initParameters = new HashMap<>();
         this.filters = new LinkedHashMap<>();
-        this.servletRegistrations = new HashMap<>();
+        this.servletRegistrations = new LinkedHashMap<>();
     }
 
     //-------------------------------------------------------------
@@ -222,29 +223,26 @@ public class AwsServletContext
         return new AwsProxyRequestDispatcher(s, true, containerHandler);
     }
 
+    /**
+     * Returns the servlet mapped to a request path. The mappings are compiled the first time this method is called
+     * after a servlet or a mapping is added.
+     * @param path The path of the request, relative to the context
+     * @return The servlet that should handle the path, or null if none matches
+     */
     public Servlet getServletForPath(String path) {
-        String[] pathParts = path.split("/");
-        for (AwsServletRegistration reg : servletRegistrations.values()) {
-            for (String p : reg.getMappings()) {
-                if ("".equals(p) || "/".equals(p) || "/*".equals(p)) {
-                    return reg.getServlet();
-                }
-                // if  I have no path and I haven't matched something now I'll just move on to the next
-                if ("".equals(path) || "/".equals(path)) {
-                    continue;
-                }
-                String[] regParts = p.split("/");
-                for (int i = 0; i < regParts.length; i++) {
-                    if (!regParts[i].equals(pathParts[i]) && !"*".equals(regParts[i])) {
-                        break;
-                    }
-                    if (i == regParts.length - 1 && (regParts[i].equals(pathParts[i]) || "*".equals(regParts[i]))) {
-                        return reg.getServlet();
-                    }
-                }
-            }
+        ServletMappings mappings = servletMappings;
+        if (mappings == null) {
+            mappings = new ServletMappings(servletRegistrations.values());
+            servletMappings = mappings;
         }
-        return null;
+        return mappings.getServlet(path);
+    }
+
+    /**
+     * Discards the compiled servlet mappings, they are compiled again on the next lookup.
+     */
+    void servletMappingsChanged() {
+        servletMappings = null;
     }
 
     @Override
@@ -335,6 +333,7 @@ public class AwsServletContext
             Class<? extends Servlet> servletClass = (Class<? extends Servlet>) this.getClassLoader().loadClass(s1);
             Servlet servlet = createServlet(servletClass);
             servletRegistrations.put(s, new AwsServletRegistration(s, servlet, this));
+            servletMappingsChanged();
             return servletRegistrations.get(s);
         } catch (ServletException | ClassNotFoundException e) {
             throw new RuntimeException(e);
@@ -345,6 +344,7 @@ public class AwsServletContext
     @Override
     public ServletRegistration.Dynamic addServlet(String s, Servlet servlet) {
         servletRegistrations.put(s, new AwsServletRegistration(s, servlet, this));
+        servletMappingsChanged();
         return servletRegistrations.get(s);
     }
 
@@ -354,6 +354,7 @@ public class AwsServletContext
         try {
             Servlet servlet = createServlet(aClass);
             servletRegistrations.put(s, new AwsServletRegistration(s, servlet, this));
+            servletMappingsChanged();
             return servletRegistrations.get(s);
         } catch (ServletException e) {
             throw new RuntimeException(e);
@@ -22,7 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 
 public class AwsServletInputStream extends ServletInputStream {
-    private static Logger log = LoggerFactory.getLogger(AwsServletInputStream.class);
+    private static final Logger log = LoggerFactory.getLogger(AwsServletInputStream.class);
     private InputStream bodyStream;
     private ReadListener listener;
     private boolean finished;
@@ -73,4 +73,26 @@ public class AwsServletInputStream extends ServletInputStream {
         }
         return readByte;
     }
+
+    @Override
+    public int read(byte[] b, int off, int len)
+            throws IOException {
+        if (bodyStream == null || bodyStream instanceof NullInputStream) {
+            return -1;
+        }
+        int read = bodyStream.read(b, off, len);
+        if (read == -1) {
+            finished = true;
+        }
+        return read;
+    }
+
+    @Override
+    public int available()
+            throws IOException {
+        if (bodyStream == null || bodyStream instanceof NullInputStream) {
+            return 0;
+        }
+        return bodyStream.available();
+    }
 }
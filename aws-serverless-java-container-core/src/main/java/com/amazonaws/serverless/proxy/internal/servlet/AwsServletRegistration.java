@@ -51,6 +51,9 @@ public class AwsServletRegistration implements ServletRegistration, ServletRegis
             }
             servletPathMappings.put(s, this);
         }
+        if (ctx != null) {
+            ctx.servletMappingsChanged();
+        }
         return failedMappings;
     }
 
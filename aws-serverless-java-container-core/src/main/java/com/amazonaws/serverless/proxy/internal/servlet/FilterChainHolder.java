@@ -21,6 +21,7 @@ import jakarta.servlet.*;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implementation of the <code>FilterChain</code> interface. FilterChainHolder objects should be accessed through the
@@ -35,8 +36,9 @@ public class FilterChainHolder implements FilterChain {
 
     private List<FilterHolder> filters;
     int currentFilter;
+    private final AtomicBoolean inUse;
 
-    private Logger log = LoggerFactory.getLogger(FilterChainHolder.class);
+    private static final Logger log = LoggerFactory.getLogger(FilterChainHolder.class);
 
 
     //-------------------------------------------------------------
@@ -56,7 +58,19 @@ public class FilterChainHolder implements FilterChain {
      * @param allFilters A populated list of <code>FilterHolder</code> objects
      */
     FilterChainHolder(List<FilterHolder> allFilters) {
+        this(allFilters, null);
+    }
+
+
+    /**
+     * Creates a chain holder that is reused across requests. The flag is cleared once a request has gone through the
+     * chain, which tells the {@link FilterChainManager} that it can hand out the holder again.
+     * @param allFilters A populated list of <code>FilterHolder</code> objects
+     * @param inUse The flag set by the manager while the holder is in use, or <code>null</code> if it is not reused
+     */
+    FilterChainHolder(List<FilterHolder> allFilters, AtomicBoolean inUse) {
         filters = allFilters;
+        this.inUse = inUse;
         resetHolder();
     }
 
@@ -65,31 +79,15 @@ public class FilterChainHolder implements FilterChain {
     // Implementation - FilterChain
     //-------------------------------------------------------------
 
-    @SuppressFBWarnings("CRLF_INJECTION_LOGS")
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) throws IOException, ServletException {
-        currentFilter++;
-        // TODO: We do not check for async filters here
-
-        // if we still have filters, keep running through the chain
-        if (currentFilter <= filters.size() - 1) {
-            FilterHolder holder = filters.get(currentFilter);
-
-            // confirm that this filter needs to be executed
-            if (!holder.getRegistration().getDispatcherTypes().contains(servletRequest.getDispatcherType())) {
-                // skip to the next filter - we have already incremented the currentFilter
-                doFilter(servletRequest, servletResponse);
+        boolean firstFilter = currentFilter == -1;
+        try {
+            runNextFilter(servletRequest, servletResponse);
+        } finally {
+            if (firstFilter && inUse != null) {
+                inUse.set(false);
             }
-
-            // lazily initialize filters when they are needed
-            if (!holder.isFilterInitialized()) {
-                holder.init();
-            }
-            log.debug("Starting {}: filter {}-{}", servletRequest.getDispatcherType(),
-                      currentFilter, holder.getFilterName());
-            holder.getFilter().doFilter(servletRequest, servletResponse, this);
-            log.debug("Executed {}: filter {}-{}", servletRequest.getDispatcherType(),
-                      currentFilter, holder.getFilterName());
         }
     }
 
@@ -143,11 +141,49 @@ public class FilterChainHolder implements FilterChain {
     }
 
 
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    @SuppressFBWarnings("CRLF_INJECTION_LOGS")
+    private void runNextFilter(ServletRequest servletRequest, ServletResponse servletResponse) throws IOException, ServletException {
+        currentFilter++;
+        // TODO: We do not check for async filters here
+
+        // if we still have filters, keep running through the chain
+        if (currentFilter <= filters.size() - 1) {
+            FilterHolder holder = filters.get(currentFilter);
+
+            // confirm that this filter needs to be executed
+            if (!holder.getRegistration().getDispatcherTypes().contains(servletRequest.getDispatcherType())) {
+                // skip to the next filter - we have already incremented the currentFilter
+                doFilter(servletRequest, servletResponse);
+            }
+
+            // lazily initialize filters when they are needed
+            if (!holder.isFilterInitialized()) {
+                holder.init();
+            }
+            // the level check avoids boxing the index and allocating the arguments array on every request
+            boolean debug = log.isDebugEnabled();
+            if (debug) {
+                log.debug("Starting {}: filter {}-{}", servletRequest.getDispatcherType(),
+                          currentFilter, holder.getFilterName());
+            }
+            holder.getFilter().doFilter(servletRequest, servletResponse, this);
+            if (debug) {
+                log.debug("Executed {}: filter {}-{}", servletRequest.getDispatcherType(),
+                          currentFilter, holder.getFilterName());
+            }
+        }
+    }
+
+
     /**
      * Resets the chain holder to the beginning of the filter chain. This method is used from the constructor as well as when
      * the {@link FilterChainManager} return a holder from the cache.
      */
-    private void resetHolder() {
+    void resetHolder() {
         currentFilter = -1;
     }
 
@@ -12,18 +12,20 @@
  */
 package com.amazonaws.serverless.proxy.internal.servlet;
 
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This object is in charge of matching a servlet request to a set of filters, creating the filter chain for a request,
@@ -46,10 +48,10 @@ public abstract class FilterChainManager<ServletContextType extends ServletConte
     // Variables - Private
     //-------------------------------------------------------------
 
-    // we use the synchronizedMap because we do not expect high concurrency on this object. Lambda only allows one
-    // event at a time per container
-    private Map<TargetCacheKey, List<FilterHolder>> filterCache = Collections.synchronizedMap(new HashMap<TargetCacheKey, List<FilterHolder>>());
-    private int filtersSize = -1;
+    // chains are cached by dispatcher type, then servlet name and request path so that a lookup does not allocate a key
+    private final Map<DispatcherType, Map<String, Map<String, CachedFilterChain>>> filterCache = new EnumMap<>(DispatcherType.class);
+    // filter url patterns compiled by dispatcher type, built again when filters or their mappings change
+    private volatile CompiledFilters compiledFilters;
     protected ServletContextType servletContext;
 
 
@@ -59,6 +61,9 @@ public abstract class FilterChainManager<ServletContextType extends ServletConte
 
     FilterChainManager(ServletContextType context) {
         servletContext = context;
+        for (DispatcherType type : DispatcherType.values()) {
+            filterCache.put(type, new ConcurrentHashMap<>());
+        }
     }
 
 
@@ -91,51 +96,43 @@ public abstract class FilterChainManager<ServletContextType extends ServletConte
     FilterChainHolder getFilterChain(final HttpServletRequest request, Servlet servlet) {
         String targetPath = request.getRequestURI();
         DispatcherType type = request.getDispatcherType();
-
-        // only return the cached result if the filter list hasn't changed in the meanwhile
-        if (getFilterHolders().size() == filtersSize && getFilterChainCache(type, targetPath, servlet) != null) {
-            return getFilterChainCache(type, targetPath, servlet);
-        }
-
-        AwsServletRegistration servletRegistration = (AwsServletRegistration)servletContext.getServletRegistrations()
-                .values().stream()
-                .filter((Predicate<ServletRegistration>) servletRegistration1 -> ((AwsServletRegistration) servletRegistration1).getServlet().equals(servlet))
-                .findFirst().orElse(null);
-
-        FilterChainHolder chainHolder = new FilterChainHolder();
-
         Map<String, FilterHolder> registrations = getFilterHolders();
-        if (registrations == null || registrations.size() == 0) {
-            if (servletRegistration != null) {
-                chainHolder.addFilter(new FilterHolder(new ServletExecutionFilter(servletRegistration), servletContext));
+        int filterCount = registrations == null ? 0 : registrations.size();
+
+        Map<String, CachedFilterChain> pathCache = targetPath == null ? null : getPathCache(type, servlet);
+        if (pathCache != null) {
+            CachedFilterChain cached = pathCache.get(targetPath);
+            // only return the cached result if the filter list hasn't changed in the meanwhile
+            if (cached != null && cached.filterCount == filterCount) {
+                return cached.newChain();
             }
-            return chainHolder;
         }
-        for (Map.Entry<String, FilterHolder> entry : registrations.entrySet()) {
-            FilterHolder holder = entry.getValue();
-            // we only check the dispatcher type if it's not empty. Otherwise we assume it's a REQUEST as per section 6.2.5
-            // of servlet specs
-            if (holder.getRegistration().getDispatcherTypes().size() > 0 && !holder.getRegistration().getDispatcherTypes().contains(type)) {
-                continue;
+
+        AwsServletRegistration servletRegistration = null;
+        for (ServletRegistration registration : servletContext.getServletRegistrations().values()) {
+            if (((AwsServletRegistration) registration).getServlet().equals(servlet)) {
+                servletRegistration = (AwsServletRegistration) registration;
+                break;
             }
-            for (String path : holder.getRegistration().getUrlPatternMappings()) {
-                if (pathMatches(targetPath, path)) {
-                    chainHolder.addFilter(holder);
+        }
+
+        FilterChainHolder chainHolder = new FilterChainHolder();
+        if (registrations != null) {
+            for (CompiledFilter filter : getCompiledFilters(registrations).forType(type)) {
+                if (filter.matches(targetPath)) {
+                    chainHolder.addFilter(filter.holder);
                 }
+                // TODO: We do not allow programmatic registration of servlets so we never check for servlet name
+                // we assume we only ever have one servlet.
             }
-
-            // TODO: We do not allow programmatic registration of servlets so we never check for servlet name
-            // we assume we only ever have one servlet.
         }
 
         if (servletRegistration != null) {
             chainHolder.addFilter(new FilterHolder(new ServletExecutionFilter(servletRegistration), servletContext));
         }
 
-        putFilterChainCache(type, targetPath, servlet, chainHolder);
-        // update total filter size
-        if (filtersSize != registrations.size()) {
-            filtersSize = registrations.size();
+        if (pathCache != null) {
+            pathCache.put(targetPath, new CachedFilterChain(chainHolder.getFilters(), filterCount));
         }
         return chainHolder;
     }
@@ -146,54 +143,43 @@ public abstract class FilterChainManager<ServletContextType extends ServletConte
     //-------------------------------------------------------------
 
     /**
-     * Retrieves a filter chain from the cache. The cache is lazily loaded as filter chains are requested. If the chain
-     * is not available in the cache, the method returns null. This method returns a new instance of FilterChainHolder
-     * initialized with the cached list of {@link FilterHolder} objects
+     * Returns the cached chains for a dispatcher type and servlet, keyed by request path. Returns <code>null</code> when
+     * the chain cannot be cached because the dispatcher type is null.
      * @param type The dispatcher type for the incoming request
-     * @param targetPath The request path - this is extracted with the <code>getPath</code> method of the request object
      * @param servlet The final servlet in the filter chain (if any)
-     * @return A populated FilterChainHolder
+     * @return The map of request paths to cached chains
      */
-    private FilterChainHolder getFilterChainCache(final DispatcherType type, final String targetPath, Servlet servlet) {
-        TargetCacheKey key = new TargetCacheKey();
-        key.setDispatcherType(type);
-        key.setTargetPath(targetPath);
-        if (servlet != null) {
-            key.setServletName(servlet.getServletConfig().getServletName());
-        }
-
-        if (!filterCache.containsKey(key)) {
+    private Map<String, CachedFilterChain> getPathCache(final DispatcherType type, Servlet servlet) {
+        if (type == null) {
             return null;
         }
-
-        return new FilterChainHolder(filterCache.get(key));
+        String servletName = "";
+        if (servlet != null && servlet.getServletConfig() != null && servlet.getServletConfig().getServletName() != null) {
+            servletName = servlet.getServletConfig().getServletName();
+        }
+        Map<String, Map<String, CachedFilterChain>> servletCache = filterCache.get(type);
+        Map<String, CachedFilterChain> pathCache = servletCache.get(servletName);
+        if (pathCache == null) {
+            pathCache = servletCache.computeIfAbsent(servletName, k -> new ConcurrentHashMap<>());
+        }
+        return pathCache;
     }
 
 
     /**
-     * Adds a filter chain to the local cache. The key for the filter chain in the cache is generated with the dispatcher
-     * type and the path from the request. If we cannot compute the key for a filter chain, because either the path or
-     * dispatcher are null, this method returns without saving the chain in the cache. It's up to the <code>getFilterChain</code>
-     * method to retry this.
-     * @param type DispatcherType from the incoming request
-     * @param targetPath The target path in the API
-     * @param servlet The final servlet in the filter chain (if any)
-    * @param holder The FilterChainHolder object to save in the cache
+     * Returns the compiled url patterns of the registered filters, compiling them again if filters, url patterns or
+     * dispatcher types were added since they were last compiled.
+     * @param registrations The registered filters
+     * @return The compiled filters
      */
-    private void putFilterChainCache(final DispatcherType type, final String targetPath, Servlet servlet, final FilterChainHolder holder) {
-        TargetCacheKey key = new TargetCacheKey();
-        key.setDispatcherType(type);
-        key.setTargetPath(targetPath);
-        if (servlet != null) {
-            key.setServletName(servlet.getServletConfig().getServletName());
+    private CompiledFilters getCompiledFilters(Map<String, FilterHolder> registrations) {
+        long version = CompiledFilters.version(registrations);
+        CompiledFilters compiled = compiledFilters;
+        if (compiled == null || compiled.version != version) {
+            compiled = new CompiledFilters(registrations, version);
+            compiledFilters = compiled;
         }
-
-        // we couldn't compute the hash code because either the target path or dispatcher type were null
-        if (key.hashCode() == -1) {
-            return;
-        }
-        filterCache.put(key, holder.getFilters());
-
+        return compiled;
     }
 
 
@@ -205,45 +191,7 @@ public abstract class FilterChainManager<ServletContextType extends ServletConte
      * @return true if the given mapping path can apply to the target, false otherwise.
      */
     boolean pathMatches(final String target, final String mapping) {
-        // easiest case, they are exactly the same
-        if (target.toLowerCase(Locale.ENGLISH).equals(mapping.toLowerCase(Locale.ENGLISH))) {
-            return true;
-        }
-
-        String finalTarget = target;
-        String finalMapping = mapping;
-        // strip first slash
-        if (target.startsWith("/")) {
-            finalTarget = target.replaceFirst("/", "");
-        }
-        if (mapping.startsWith("/")) {
-            finalMapping = mapping.replaceFirst("/", "");
-        }
-
-        String[] targetParts = finalTarget.split(PATH_PART_SEPARATOR);
-        String[] mappingParts = finalMapping.split(PATH_PART_SEPARATOR);
-
-        // another simple case, the filter applies to everything
-        if (mappingParts.length == 1 && mappingParts[0].equals("*")) {
-            return true;
-        }
-
-        for (int i = 0; i < targetParts.length; i++) {
-            if (mappingParts.length < i + 1) {
-                // if we haven't matched anything yet we never will
-                return false;
-            }
-            // the exact work doesn't match the and holder is not a wildcard
-            if (!targetParts[i].equals(mappingParts[i])) {
-                if (mappingParts[i].equals("*")) {
-                    break;
-                } else {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+        return UrlPattern.compile(mapping).matches(target);
     }
 
 
@@ -252,96 +200,110 @@ public abstract class FilterChainManager<ServletContextType extends ServletConte
     //-------------------------------------------------------------
 
     /**
-     * Object used as a key for the filter chain cache. It contains a target path and dispatcher type property. It overrides
-     * the default <code>hashCode</code> and <code>equals</code> methods to return a consistent hash for comparison.
+     * A filter chain in the cache. The filter list is shared by all the chains created for it. When per-invocation
+     * objects are reused, the entry also keeps a chain holder that is handed out again once its previous request has
+     * gone through the chain.
      */
-    protected static class TargetCacheKey {
-
-    //-------------------------------------------------------------
-    // Variables - Private
-    //-------------------------------------------------------------
-
-        private String targetPath;
-        private DispatcherType dispatcherType;
-        private String servletName;
-
-
-    //-------------------------------------------------------------
-    // Methods - Public
-    //-------------------------------------------------------------
-
-        /**
-         * The hash code for a cache key is calculated using the target path and dispatcher type. First, the target path
-         * is cleaned following these rules:
-         *  1. trim white spaces
-         *  2. Add "/" as first character if not there
-         *  3. Remove "/" as last character if it is there
-         *
-         * Once the path is cleaned, a string in the form of TARGET_PATH:DISPATCHER_TYPE is generated and used for the
-         * hash code
-         * @return An int representing the hash code fo the generated string
-         */
-        @Override
-        public int hashCode() {
-            String hashPath = targetPath;
-            if (targetPath == null) {
-                hashPath = "/";
-            }
+    private static final class CachedFilterChain {
+        private final List<FilterHolder> filters;
+        private final int filterCount;
+        private final FilterChainHolder reusableChain;
+        private final AtomicBoolean reusableChainInUse = new AtomicBoolean(false);
+
+        CachedFilterChain(List<FilterHolder> filters, int filterCount) {
+            this.filters = filters;
+            this.filterCount = filterCount;
+            reusableChain = new FilterChainHolder(filters, reusableChainInUse);
+        }
 
-            String hashDispatcher = "";
-            if (dispatcherType != null) {
-                hashDispatcher = dispatcherType.name();
+        FilterChainHolder newChain() {
+            if (LambdaContainerHandler.getContainerConfig().isReuseContainerObjects()
+                    && reusableChainInUse.compareAndSet(false, true)) {
+                reusableChain.resetHolder();
+                return reusableChain;
             }
+            return new FilterChainHolder(filters);
+        }
+    }
 
-            // clean up path
-            String hashString = hashPath.trim();
-            if (hashString.endsWith(PATH_PART_SEPARATOR)) {
-                hashString = hashString.substring(0, hashString.length() - 1);
-            }
-            if (!hashString.startsWith(PATH_PART_SEPARATOR)) {
-                hashString = PATH_PART_SEPARATOR + hashString;
+    /**
+     * A registered filter and its compiled url patterns.
+     */
+    private static final class CompiledFilter {
+        private final FilterHolder holder;
+        private final UrlPattern[] patterns;
+
+        CompiledFilter(FilterHolder holder) {
+            this.holder = holder;
+            Collection<String> mappings = holder.getRegistration().getUrlPatternMappings();
+            patterns = new UrlPattern[mappings.size()];
+            int i = 0;
+            for (String mapping : mappings) {
+                patterns[i++] = UrlPattern.compile(mapping);
             }
-            hashString += ":" + hashDispatcher;
+        }
 
-            if (servletName != null) {
-                hashString += ":" + servletName;
+        boolean matches(String path) {
+            for (UrlPattern pattern : patterns) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
             }
-
-            return hashString.hashCode();
+            return false;
         }
+    }
 
-
-
-        @Override
-        public boolean equals(Object key) {
-            if (key == null) {
-                return false;
+    /**
+     * The registered filters that apply to each dispatcher type, in registration order. Filters without dispatcher
+     * types apply to all of them, as well as to requests without one.
+     */
+    private static final class CompiledFilters {
+        private final long version;
+        private final Map<DispatcherType, CompiledFilter[]> filtersByType = new EnumMap<>(DispatcherType.class);
+        private final CompiledFilter[] untypedFilters;
+
+        CompiledFilters(Map<String, FilterHolder> registrations, long version) {
+            this.version = version;
+            List<CompiledFilter> all = new ArrayList<>(registrations.size());
+            for (FilterHolder holder : registrations.values()) {
+                all.add(new CompiledFilter(holder));
+            }
+            for (DispatcherType type : DispatcherType.values()) {
+                List<CompiledFilter> filters = new ArrayList<>(all.size());
+                for (CompiledFilter filter : all) {
+                    Collection<DispatcherType> types = filter.holder.getRegistration().getDispatcherTypes();
+                    if (types.isEmpty() || types.contains(type)) {
+                        filters.add(filter);
+                    }
+                }
+                filtersByType.put(type, filters.toArray(new CompiledFilter[0]));
             }
-            if (key.getClass().equals(this.getClass())) {
-                return this.hashCode() == key.hashCode();
+            List<CompiledFilter> untyped = new ArrayList<>();
+            for (CompiledFilter filter : all) {
+                if (filter.holder.getRegistration().getDispatcherTypes().isEmpty()) {
+                    untyped.add(filter);
+                }
             }
-
-            return false;
+            untypedFilters = untyped.toArray(new CompiledFilter[0]);
         }
 
-
-    //-------------------------------------------------------------
-    // Methods - Getter/Setter
-    //-------------------------------------------------------------
-
-        void setTargetPath(String targetPath) {
-            this.targetPath = targetPath;
+        CompiledFilter[] forType(DispatcherType type) {
+            return type == null ? untypedFilters : filtersByType.get(type);
         }
 
-
-        void setDispatcherType(DispatcherType dispatcherType) {
-            this.dispatcherType = dispatcherType;
-        }
-        public void setServletName(String servletName) {
-            this.servletName = servletName;
+        /**
+         * Changes when a filter, a url pattern or a dispatcher type is added. Registrations are only ever added to, so
+         * their counts are enough to tell that the compiled filters are out of date.
+         */
+        static long version(Map<String, FilterHolder> registrations) {
+            long patterns = 0;
+            long types = 0;
+            for (FilterHolder holder : registrations.values()) {
+                patterns += holder.getRegistration().getUrlPatternMappings().size();
+                types += holder.getRegistration().getDispatcherTypes().size();
+            }
+            return ((long) registrations.size() << 42) ^ (patterns << 21) ^ types;
         }
-
-
     }
 
     @SuppressFBWarnings("URF_UNREAD_FIELD")
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parser for <code>multipart/form-data</code> bodies (RFC 7578). The whole body of a Lambda event is in memory, so
+ * the parser scans the decoded body once and returns parts that are views of the body array, nothing is copied or
+ * spooled to disk. Only the <code>Content-Disposition</code> and <code>Content-Type</code> headers of a part are read
+ * while scanning, the other headers are parsed the first time the part is asked for them.
+ *
+ * Parts without a field name are skipped. A <code>multipart/mixed</code> part is expanded into its files, which all
+ * get the field name of the enclosing part.
+ */
+final class MultipartParser {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final String CONTENT_DISPOSITION = "content-disposition";
+    private static final String CONTENT_TYPE = "content-type";
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DASH = '-';
+    private static final byte[] HEADERS_END = {CR, LF, CR, LF};
+    private static final String FORM_DATA = "form-data";
+    private static final String ATTACHMENT = "attachment";
+    private static final String MULTIPART_MIXED = "multipart/mixed";
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final byte[] body;
+    private final Charset headerCharset;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * @param body The decoded body, the parts keep a reference to it
+     * @param headerCharset The charset of the part headers
+     */
+    MultipartParser(byte[] body, Charset headerCharset) {
+        this.body = body;
+        this.headerCharset = headerCharset;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Parses the whole body.
+     * @param contentType The content type of the request, which gives the boundary
+     * @return The parts in the order of the body
+     * @throws IOException If the content type has no boundary or the body is not a valid multipart body
+     */
+    List<AwsProxyRequestPart> parse(String contentType) throws IOException {
+        List<AwsProxyRequestPart> parts = new ArrayList<>();
+        parse(getBoundary(contentType), 0, body.length, null, parts);
+        return parts;
+    }
+
+    /**
+     * Parses the parameters of a header value such as <code>form-data; name="file"; filename="a.txt"</code>.
+     * Parameter names are lower case. Quotes are removed from quoted values, backslashes are kept so that Windows
+     * paths survive, and RFC 2231 encoded values (<code>filename*=UTF-8''...</code>) are decoded.
+     * @param value The header value
+     * @return The parameters, empty if there are none
+     */
+    static Map<String, String> parseParameters(String value) {
+        Map<String, String> parameters = new HashMap<>();
+        int length = value.length();
+        int i = value.indexOf(';');
+        if (i < 0) {
+            return parameters;
+        }
+        i++;
+        while (i < length) {
+            int nameStart = i;
+            while (i < length && value.charAt(i) != '=' && value.charAt(i) != ';') {
+                i++;
+            }
+            String name = value.substring(nameStart, i).trim().toLowerCase(Locale.ENGLISH);
+            String parameterValue = null;
+            if (i < length && value.charAt(i) == '=') {
+                i++;
+                while (i < length && Character.isWhitespace(value.charAt(i))) {
+                    i++;
+                }
+                if (i < length && value.charAt(i) == '"') {
+                    int valueStart = ++i;
+                    boolean escaped = false;
+                    while (i < length && (escaped || value.charAt(i) != '"')) {
+                        escaped = !escaped && value.charAt(i) == '\\';
+                        i++;
+                    }
+                    parameterValue = value.substring(valueStart, i);
+                    while (i < length && value.charAt(i) != ';') {
+                        i++;
+                    }
+                } else {
+                    int valueStart = i;
+                    while (i < length && value.charAt(i) != ';') {
+                        i++;
+                    }
+                    parameterValue = value.substring(valueStart, i).trim();
+                }
+            }
+            i++;
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.endsWith("*") && parameterValue != null) {
+                name = name.substring(0, name.length() - 1);
+                parameterValue = decodeExtendedValue(parameterValue);
+            }
+            parameters.put(name, parameterValue);
+        }
+        return parameters;
+    }
+
+    /**
+     * Parses all the headers of a part. Header names are lower case.
+     */
+    static void parseHeaders(byte[] bytes, int start, int end, Charset charset, AwsProxyRequestPart part) {
+        String headers = new String(bytes, start, end - start, charset);
+        String name = null;
+        StringBuilder value = new StringBuilder();
+        for (String line : headers.split("\r\n")) {
+            if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                if (name != null) {
+                    value.append(' ').append(line.trim());
+                }
+                continue;
+            }
+            if (name != null) {
+                part.addHeader(name, value.toString());
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                name = null;
+                continue;
+            }
+            name = line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH);
+            value.setLength(0);
+            value.append(line.substring(colon + 1).trim());
+        }
+        if (name != null) {
+            part.addHeader(name, value.toString());
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void parse(String boundary, int start, int end, String enclosingFieldName, List<AwsProxyRequestPart> parts)
+            throws IOException {
+        if (boundary == null || boundary.isEmpty()) {
+            throw new IOException("The request was rejected because no multipart boundary was found");
+        }
+        byte[] delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        int[] skip = skipTable(delimiter);
+
+        // Like commons-fileupload, the first boundary does not need to start a line, the preamble is skipped
+        byte[] firstDelimiter = Arrays.copyOfRange(delimiter, 2, delimiter.length);
+        int position = indexOf(start, end, firstDelimiter, skipTable(firstDelimiter));
+        if (position < 0) {
+            throw new IOException("The multipart body does not contain its boundary");
+        }
+        position += firstDelimiter.length;
+
+        while (true) {
+            if (position + 1 < end && body[position] == DASH && body[position + 1] == DASH) {
+                return;
+            }
+            while (position < end && (body[position] == ' ' || body[position] == '\t')) {
+                position++;
+            }
+            if (position + 1 >= end || body[position] != CR || body[position + 1] != LF) {
+                throw new IOException("Unexpected characters after a multipart boundary");
+            }
+            position += 2;
+
+            int headersStart = position;
+            int headersEnd;
+            int contentStart;
+            if (startsWith(position, end, HEADERS_END, 2)) {
+                headersEnd = position;
+                contentStart = position + 2;
+            } else {
+                headersEnd = indexOf(position, end, HEADERS_END, null);
+                if (headersEnd < 0) {
+                    throw new IOException("The headers of a multipart part are not terminated");
+                }
+                contentStart = headersEnd + HEADERS_END.length;
+            }
+            int contentEnd = indexOf(contentStart, end, delimiter, skip);
+            if (contentEnd < 0) {
+                throw new IOException("The multipart body ended unexpectedly");
+            }
+            addPart(headersStart, headersEnd, contentStart, contentEnd, enclosingFieldName, parts);
+            position = contentEnd + delimiter.length;
+        }
+    }
+
+    private void addPart(int headersStart, int headersEnd, int contentStart, int contentEnd, String enclosingFieldName,
+                         List<AwsProxyRequestPart> parts) throws IOException {
+        String disposition = findHeader(headersStart, headersEnd, CONTENT_DISPOSITION);
+        String contentType = findHeader(headersStart, headersEnd, CONTENT_TYPE);
+        Map<String, String> parameters = disposition == null ? null : parseParameters(disposition);
+        String fileName = getFileName(disposition, parameters);
+
+        String fieldName = enclosingFieldName;
+        if (fieldName == null) {
+            fieldName = getFieldName(disposition, parameters);
+            if (fieldName == null) {
+                return;
+            }
+            if (contentType != null && contentType.toLowerCase(Locale.ENGLISH).startsWith(MULTIPART_MIXED)) {
+                parse(getBoundary(contentType), contentStart, contentEnd, fieldName, parts);
+                return;
+            }
+        } else if (fileName == null) {
+            // Only the files of a multipart/mixed part are form fields
+            return;
+        }
+
+        AwsProxyRequestPart part = new AwsProxyRequestPart(body, contentStart, contentEnd - contentStart,
+                                                           headersStart, headersEnd - headersStart, headerCharset);
+        part.setName(fieldName);
+        part.setSubmittedFileName(fileName == null ? null : getBaseName(fileName));
+        part.setContentType(contentType);
+        parts.add(part);
+    }
+
+    /**
+     * Returns the value of a header of a part without parsing the other headers. Folded values are unfolded.
+     */
+    private String findHeader(int start, int end, String name) {
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineEnd(lineStart, end);
+            int nameEnd = lineStart + name.length();
+            if (nameEnd < lineEnd && regionMatchesIgnoreCase(lineStart, name)) {
+                int colon = nameEnd;
+                while (colon < lineEnd && (body[colon] == ' ' || body[colon] == '\t')) {
+                    colon++;
+                }
+                if (colon < lineEnd && body[colon] == ':') {
+                    StringBuilder value = new StringBuilder(new String(body, colon + 1, lineEnd - colon - 1, headerCharset).trim());
+                    int next = lineEnd + 2;
+                    while (next < end && (body[next] == ' ' || body[next] == '\t')) {
+                        int nextEnd = lineEnd(next, end);
+                        value.append(' ').append(new String(body, next, nextEnd - next, headerCharset).trim());
+                        next = nextEnd + 2;
+                    }
+                    return value.toString();
+                }
+            }
+            lineStart = lineEnd + 2;
+        }
+        return null;
+    }
+
+    private int lineEnd(int start, int end) {
+        for (int i = start; i + 1 < end; i++) {
+            if (body[i] == CR && body[i + 1] == LF) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private boolean regionMatchesIgnoreCase(int start, String name) {
+        for (int i = 0; i < name.length(); i++) {
+            int c = body[start + i];
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(int start, int end, byte[] pattern, int patternOffset) {
+        if (end - start < pattern.length - patternOffset) {
+            return false;
+        }
+        for (int i = patternOffset; i < pattern.length; i++) {
+            if (body[start + i - patternOffset] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds a pattern in the body with the Boyer-Moore-Horspool algorithm, or with a plain scan when there is no
+     * skip table.
+     */
+    private int indexOf(int start, int end, byte[] pattern, int[] skip) {
+        int last = pattern.length - 1;
+        int position = start;
+        while (position + last < end) {
+            int i = last;
+            while (body[position + i] == pattern[i]) {
+                if (i == 0) {
+                    return position;
+                }
+                i--;
+            }
+            position += skip == null ? 1 : skip[body[position + last] & 0xFF];
+        }
+        return -1;
+    }
+
+    private static int[] skipTable(byte[] pattern) {
+        int[] skip = new int[256];
+        for (int i = 0; i < skip.length; i++) {
+            skip[i] = pattern.length;
+        }
+        for (int i = 0; i < pattern.length - 1; i++) {
+            skip[pattern[i] & 0xFF] = pattern.length - 1 - i;
+        }
+        return skip;
+    }
+
+    private static String getBoundary(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        return parseParameters(contentType).get("boundary");
+    }
+
+    private static String getFieldName(String disposition, Map<String, String> parameters) {
+        if (disposition == null || !disposition.toLowerCase(Locale.ENGLISH).startsWith(FORM_DATA)) {
+            return null;
+        }
+        String name = parameters.get("name");
+        return name == null ? null : name.trim();
+    }
+
+    private static String getFileName(String disposition, Map<String, String> parameters) {
+        if (disposition == null) {
+            return null;
+        }
+        String lowerCaseDisposition = disposition.toLowerCase(Locale.ENGLISH);
+        if (!lowerCaseDisposition.startsWith(FORM_DATA) && !lowerCaseDisposition.startsWith(ATTACHMENT)) {
+            return null;
+        }
+        if (!parameters.containsKey("filename")) {
+            return null;
+        }
+        String fileName = parameters.get("filename");
+        return fileName == null ? "" : fileName.trim();
+    }
+
+    /**
+     * Removes the path from a file name sent by the client, whether it uses Unix or Windows separators.
+     */
+    private static String getBaseName(String fileName) {
+        int separator = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        return fileName.substring(separator + 1);
+    }
+
+    /**
+     * Decodes an RFC 2231 extended value: <code>charset'language'percent-encoded-value</code>.
+     */
+    private static String decodeExtendedValue(String value) {
+        int charsetEnd = value.indexOf('\'');
+        int languageEnd = charsetEnd < 0 ? -1 : value.indexOf('\'', charsetEnd + 1);
+        if (languageEnd < 0) {
+            return value;
+        }
+        Charset charset;
+        try {
+            charset = Charset.forName(value.substring(0, charsetEnd));
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length());
+        for (int i = languageEnd + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' && i + 2 < value.length()
+                    && Character.digit(value.charAt(i + 1), 16) >= 0 && Character.digit(value.charAt(i + 2), 16) >= 0) {
+                bytes.write((Character.digit(value.charAt(i + 1), 16) << 4) + Character.digit(value.charAt(i + 2), 16));
+                i += 2;
+            } else {
+                bytes.write(c);
+            }
+        }
+        return new String(bytes.toByteArray(), charset);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The parameters of a request: the query string parameters followed by the form parameters of the body. The
+ * request builds the index the first time one of the parameter methods is called and all of them read from it.
+ *
+ * Query string parameters are looked up with or without case depending on the container configuration, form
+ * parameters are always looked up ignoring case.
+ */
+final class ParameterIndex {
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final MultiValuedTreeMap<String, String> queryString;
+    private final boolean queryStringCaseSensitive;
+    private final Map<String, List<String>> formParameters;
+    private Map<String, String[]> parameterMap;
+    /**
+     * Query string values by lower case key, built once when the query string is not case sensitive.
+     */
+    private Map<String, List<String>> queryValuesByLowerCaseKey;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    /**
+     * @param queryString The decoded query string parameters, may be null
+     * @param queryStringCaseSensitive Whether query string parameters are looked up with case
+     * @param formParameters The decoded form parameters, keyed ignoring case
+     */
+    ParameterIndex(MultiValuedTreeMap<String, String> queryString, boolean queryStringCaseSensitive,
+                   Map<String, List<String>> formParameters) {
+        this.queryString = queryString;
+        this.queryStringCaseSensitive = queryStringCaseSensitive;
+        this.formParameters = formParameters;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Returns the first query string value of the parameter or, if there is none, its first form value.
+     */
+    String getFirst(String name) {
+        List<String> queryValues = getQueryValues(name);
+        if (queryValues != null && !queryValues.isEmpty() && queryValues.get(0) != null) {
+            return queryValues.get(0);
+        }
+        List<String> formValues = formParameters.get(name);
+        return formValues == null || formValues.isEmpty() ? null : formValues.get(0);
+    }
+
+    /**
+     * Returns the query string values of the parameter followed by its form values, or null if it has none.
+     */
+    String[] getValues(String name) {
+        List<String> queryValues = getQueryValues(name);
+        List<String> formValues = formParameters.get(name);
+        int querySize = queryValues == null ? 0 : queryValues.size();
+        int formSize = formValues == null ? 0 : formValues.size();
+        if (querySize + formSize == 0) {
+            return null;
+        }
+        String[] values = new String[querySize + formSize];
+        for (int i = 0; i < querySize; i++) {
+            values[i] = queryValues.get(i);
+        }
+        for (int i = 0; i < formSize; i++) {
+            values[querySize + i] = formValues.get(i);
+        }
+        return values;
+    }
+
+    Enumeration<String> getNames() {
+        return Collections.enumeration(getParameterMap().keySet());
+    }
+
+    /**
+     * Returns the parameter map, built the first time it is requested. Form values come first when a parameter is
+     * both in the form and in the query string. When the query string is not case sensitive, each parameter gets the
+     * values of the query string key that matches it ignoring case and sorts first.
+     * @return An unmodifiable map
+     */
+    Map<String, String[]> getParameterMap() {
+        if (parameterMap == null) {
+            parameterMap = Collections.unmodifiableMap(buildParameterMap());
+        }
+        return parameterMap;
+    }
+
+    /**
+     * Builds a new parameter map, see {@link #getParameterMap()}.
+     */
+    Map<String, String[]> buildParameterMap() {
+        int size = formParameters.size() + (queryString == null ? 0 : queryString.size());
+        Map<String, String[]> output = new LinkedHashMap<>(Math.max(16, size * 2));
+        for (Map.Entry<String, List<String>> entry : formParameters.entrySet()) {
+            output.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+        if (queryString == null || queryString.isEmpty()) {
+            return output;
+        }
+
+        // Merge the query string parameters into the form parameters. If a parameter is in both, the form values come first
+        for (Map.Entry<String, List<String>> entry : queryString.entrySet()) {
+            // If it's case insensitive, each parameter gets the values of the first key that matches it ignoring case
+            List<String> values = queryStringCaseSensitive ? entry.getValue() : getQueryValues(entry.getKey());
+            String[] formValues = output.get(entry.getKey());
+            if (formValues == null) {
+                output.put(entry.getKey(), values.toArray(new String[0]));
+            } else {
+                String[] merged = Arrays.copyOf(formValues, formValues.length + values.size());
+                for (int i = 0; i < values.size(); i++) {
+                    merged[formValues.length + i] = values.get(i);
+                }
+                output.put(entry.getKey(), merged);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Returns the values of a query string parameter, or null if the query string does not have it. When several
+     * keys match the name ignoring case, the one that sorts first is used so that the result does not depend on the
+     * order of the parameters in the request.
+     */
+    List<String> getQueryValues(String name) {
+        if (queryString == null) {
+            return null;
+        }
+        if (queryStringCaseSensitive) {
+            return queryString.get(name);
+        }
+        if (queryValuesByLowerCaseKey == null) {
+            queryValuesByLowerCaseKey = indexByLowerCaseKey(queryString);
+        }
+        return queryValuesByLowerCaseKey.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the values of the query string key that matches the name ignoring case, like {@link #getQueryValues}
+     * does for a query string that is not case sensitive, without building an index. When several keys match, the
+     * one that sorts first is used.
+     * @param queryString The query string parameters, may be null
+     * @param name The parameter name
+     * @return The values of the matching key, or null if no key matches
+     */
+    static List<String> findQueryValuesIgnoreCase(MultiValuedTreeMap<String, String> queryString, String name) {
+        if (queryString == null) {
+            return null;
+        }
+        String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        String matchedKey = null;
+        List<String> matchedValues = null;
+        for (Map.Entry<String, List<String>> entry : queryString.entrySet()) {
+            if (entry.getKey().toLowerCase(Locale.ROOT).equals(lowerCaseName)
+                    && (matchedKey == null || entry.getKey().compareTo(matchedKey) < 0)) {
+                matchedKey = entry.getKey();
+                matchedValues = entry.getValue();
+            }
+        }
+        return matchedValues;
+    }
+
+    /**
+     * Parses an <code>application/x-www-form-urlencoded</code> body in one pass. Names and values are percent
+     * decoded in place in the given array, which is modified, and converted to strings with the given charset.
+     * A parameter without a value, or with an empty value, is added without values and empty parameters are skipped.
+     * @param body The raw body, modified by the parsing
+     * @param charset The charset of the percent encoded bytes
+     * @return The form parameters, keyed ignoring case
+     * @throws IllegalArgumentException If a percent escape is not valid
+     */
+    static MultiValuedTreeMap<String, String> parseFormUrlEncoded(byte[] body, Charset charset) {
+        MultiValuedTreeMap<String, String> parameters = new MultiValuedTreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int start = 0;
+        while (start < body.length) {
+            int end = start;
+            int separator = -1;
+            while (end < body.length && body[end] != '&') {
+                if (body[end] == '=' && separator < 0) {
+                    separator = end;
+                }
+                end++;
+            }
+            if (end > start) {
+                int nameEnd = separator < 0 ? end : separator;
+                String name = decode(body, start, nameEnd, charset);
+                if (!parameters.containsKey(name)) {
+                    parameters.put(name, new ArrayList<>(1));
+                }
+                if (separator >= 0 && separator + 1 < end) {
+                    parameters.add(name, decode(body, separator + 1, end, charset));
+                }
+            }
+            start = end + 1;
+        }
+        return parameters;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    /**
+     * Folds the keys of the query string to lower case with the root locale, so that the lookups do not depend on
+     * the default locale of the JVM. The values of keys that only differ by case are not merged, the key that sorts
+     * first wins.
+     */
+    private static Map<String, List<String>> indexByLowerCaseKey(MultiValuedTreeMap<String, String> queryString) {
+        Map<String, List<String>> valuesByLowerCaseKey = new HashMap<>(Math.max(16, queryString.size() * 2));
+        Map<String, String> keysByLowerCaseKey = new HashMap<>(Math.max(16, queryString.size() * 2));
+        for (Map.Entry<String, List<String>> entry : queryString.entrySet()) {
+            String lowerCaseKey = entry.getKey().toLowerCase(Locale.ROOT);
+            String previous = keysByLowerCaseKey.putIfAbsent(lowerCaseKey, entry.getKey());
+            if (previous == null) {
+                valuesByLowerCaseKey.put(lowerCaseKey, entry.getValue());
+            } else if (entry.getKey().compareTo(previous) < 0) {
+                keysByLowerCaseKey.put(lowerCaseKey, entry.getKey());
+                valuesByLowerCaseKey.put(lowerCaseKey, entry.getValue());
+            }
+        }
+        return valuesByLowerCaseKey;
+    }
+
+    /**
+     * Percent decodes the bytes between start and end in place, like {@link java.net.URLDecoder} decodes a string.
+     */
+    private static String decode(byte[] bytes, int start, int end, Charset charset) {
+        int position = start;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '+') {
+                b = ' ';
+            } else if (b == '%') {
+                if (i + 2 >= end) {
+                    throw new IllegalArgumentException("Incomplete trailing escape (%) pattern");
+                }
+                int high = Character.digit(bytes[i + 1], 16);
+                int low = Character.digit(bytes[i + 2], 16);
+                if (high < 0 || low < 0) {
+                    throw new IllegalArgumentException("Illegal hex characters in escape (%) pattern");
+                }
+                b = (byte) ((high << 4) + low);
+                i += 2;
+            }
+            bytes[position++] = b;
+        }
+        return new String(bytes, start, position - start, charset);
+    }
+}
@@ -14,11 +14,16 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.*;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.jackson.BlackbirdEventCodec;
+import com.amazonaws.serverless.proxy.internal.jackson.JacksonEventCodec;
+import com.amazonaws.serverless.proxy.internal.jackson.StreamingEventCodec;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -51,6 +56,9 @@ public abstract class ServletLambdaContainerHandlerBuilder<
     protected ExceptionHandler<ResponseType> exceptionHandler;
     protected Class<RequestType> requestTypeClass;
     protected Class<ResponseType> responseTypeClass;
+    protected EventCodec<RequestType, ResponseType> eventCodec;
+    protected List<RequestType> primingEvents = new ArrayList<>();
+    protected List<String> primingEventResources = new ArrayList<>();
 
     /**
      * Validates that all of the required fields are populated.
@@ -123,6 +131,55 @@ public abstract class ServletLambdaContainerHandlerBuilder<
         return (ExceptionHandler<ResponseType>) new AwsProxyExceptionHandler();
     }
 
+    /**
+     * Returns the codec used by handlers when none was set with {@link #eventCodec(EventCodec)}. When the streaming
+     * event parser is enabled in the container configuration and the builder types are supported, this is a
+     * {@link StreamingEventCodec} that does not use databind at all. Otherwise, on Java 9 and later this is a
+     * {@link BlackbirdEventCodec}, in GraalVM native images and on Java 8 it is a {@link JacksonEventCodec}. Both
+     * read events with the shared <code>ObjectMapper</code> returned by {@link LambdaContainerHandler#getObjectMapper()}.
+     * @return The default event codec for the request and response types of this builder
+     */
+    @SuppressWarnings("unchecked")
+    protected EventCodec<RequestType, ResponseType> defaultEventCodec() {
+        if (LambdaContainerHandler.getContainerConfig().isUseStreamingEventParser()
+                && StreamingEventCodec.isSupported(requestTypeClass, responseTypeClass)) {
+            // the response type was checked above
+            return (EventCodec<RequestType, ResponseType>) (EventCodec<?, ?>) new StreamingEventCodec<>(requestTypeClass);
+        }
+        if (BlackbirdEventCodec.isSupported()) {
+            return new BlackbirdEventCodec<>(requestTypeClass, responseTypeClass);
+        }
+        return new JacksonEventCodec<>(requestTypeClass, responseTypeClass);
+    }
+
+    /**
+     * Sets the event codec, or the default one if none was set in the builder, on a newly built handler. Implementations
+     * should call this method from {@link #build()}.
+     * @param handler The handler created by the builder
+     */
+    protected void applyEventCodec(HandlerType handler) {
+        handler.setEventCodec(eventCodec != null ? eventCodec : defaultEventCodec());
+    }
+
+    /**
+     * Registers the priming events and resources set in the builder with a newly built handler. Implementations should
+     * call this method from {@link #build()}, the events are sent once the handler is initialized.
+     * @param handler The handler created by the builder
+     * @throws ContainerInitializationException If a priming events resource cannot be read
+     */
+    protected void applyPrimingEvents(HandlerType handler) throws ContainerInitializationException {
+        for (RequestType event : primingEvents) {
+            handler.addPrimingEvent(event);
+        }
+        for (String resource : primingEventResources) {
+            try {
+                handler.addPrimingEvents(resource);
+            } catch (IOException e) {
+                throw new ContainerInitializationException("Could not read priming events from " + resource, e);
+            }
+        }
+    }
+
     /**
      * Sets the initialization wrapper to be used by the {@link ServletLambdaContainerHandlerBuilder#buildAndInitialize()}
      * method to start the framework implementations
@@ -166,6 +223,39 @@ public abstract class ServletLambdaContainerHandlerBuilder<
         return self();
     }
 
+    /**
+     * Sets the codec the handler uses to read events and write responses in <code>proxyStream</code>. If this is not
+     * set, the builder picks the codec returned by {@link #defaultEventCodec()}.
+     * @param eventCodec An event codec for the request and response types of the handler
+     * @return This builder object
+     */
+    public Builder eventCodec(EventCodec<RequestType, ResponseType> eventCodec) {
+        this.eventCodec = eventCodec;
+        return self();
+    }
+
+    /**
+     * Adds a synthetic event the handler sends through the container once the framework is initialized, while the
+     * function is still in its init phase. See {@link com.amazonaws.serverless.proxy.PrimingEvents} for helper methods
+     * that create events.
+     * @param event The priming event
+     * @return This builder object
+     */
+    public Builder primingEvent(RequestType event) {
+        primingEvents.add(event);
+        return self();
+    }
+
+    /**
+     * Adds the priming events stored in a classpath resource, either a single event or a JSON array of events.
+     * @param resourceName The name of the resource
+     * @return This builder object
+     */
+    public Builder primingEvents(String resourceName) {
+        primingEventResources.add(resourceName);
+        return self();
+    }
+
     /**
      * Uses an async initializer with the given start time to calculate the 10 seconds timeout.
      *
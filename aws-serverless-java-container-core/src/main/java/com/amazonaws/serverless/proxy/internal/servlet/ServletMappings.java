@@ -0,0 +1,264 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import jakarta.servlet.Servlet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The servlet mappings of a servlet context compiled into a tree of path segments. The context builds it again when
+ * servlets or mappings are added, looking up the servlet of a path walks the tree without allocating.
+ *
+ * A path is matched in this order:
+ * <ol>
+ *     <li>The context root mapping <code>""</code>, only for the <code>/</code> path</li>
+ *     <li>The longest mapping whose segments are a prefix of the path segments. A <code>*</code> segment matches any
+ *     single segment, and a trailing <code>/*</code> also matches the path without it</li>
+ *     <li>The <code>/*</code> mapping, a path prefix that matches every path</li>
+ *     <li>Extension mappings such as <code>*.do</code>, on the last segment of the path</li>
+ *     <li>The default servlet, mapped to <code>/</code></li>
+ * </ol>
+ * When more than one servlet has the same mapping the first one registered wins.
+ *
+ * A <code>*</code> in the middle of a mapping stands for exactly one segment, as it did before the mappings were
+ * compiled: <code>/a/*&#47;c</code> maps <code>/a/b/c</code> and the paths under it, but not <code>/a/b/d</code>.
+ * {@link UrlPattern} matches the rest of the path for the same <code>*</code>. Filter registrations reject patterns
+ * with a wildcard in the middle, so the two never disagree on the mappings of an application.
+ */
+final class ServletMappings {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final String CONTEXT_ROOT_MAPPING = "";
+    private static final String ROOT_PREFIX_MAPPING = "/*";
+    private static final String DEFAULT_MAPPING = "/";
+    private static final String WILDCARD_SEGMENT = "*";
+    private static final String EXTENSION_PREFIX = "*.";
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final Node root = new Node(0);
+    private final List<String> extensions = new ArrayList<>();
+    private final List<Servlet> extensionServlets = new ArrayList<>();
+    private Servlet contextRootServlet;
+    private Servlet rootPrefixServlet;
+    private Servlet defaultServlet;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    ServletMappings(Collection<AwsServletRegistration> registrations) {
+        for (AwsServletRegistration registration : registrations) {
+            for (String mapping : registration.getMappings()) {
+                add(mapping, registration.getServlet());
+            }
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Returns the servlet mapped to the path, or null if no mapping matches and there is no default servlet.
+     */
+    Servlet getServlet(String path) {
+        if (contextRootServlet != null && isContextRoot(path)) {
+            return contextRootServlet;
+        }
+        Node match = match(root, path, 0);
+        if (match != null) {
+            return match.servlet;
+        }
+        if (rootPrefixServlet != null) {
+            return rootPrefixServlet;
+        }
+        Servlet extensionServlet = matchExtension(path);
+        if (extensionServlet != null) {
+            return extensionServlet;
+        }
+        return defaultServlet;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private void add(String mapping, Servlet servlet) {
+        if (CONTEXT_ROOT_MAPPING.equals(mapping)) {
+            if (contextRootServlet == null) {
+                contextRootServlet = servlet;
+            }
+            return;
+        }
+        if (ROOT_PREFIX_MAPPING.equals(mapping)) {
+            if (rootPrefixServlet == null) {
+                rootPrefixServlet = servlet;
+            }
+            return;
+        }
+        if (DEFAULT_MAPPING.equals(mapping)) {
+            if (defaultServlet == null) {
+                defaultServlet = servlet;
+            }
+            return;
+        }
+        if (mapping.startsWith(EXTENSION_PREFIX)) {
+            String extension = mapping.substring(EXTENSION_PREFIX.length());
+            if (!extensions.contains(extension)) {
+                extensions.add(extension);
+                extensionServlets.add(servlet);
+            }
+            return;
+        }
+
+        Node node = root;
+        Node parent = null;
+        for (String segment : mapping.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            parent = node;
+            // a wildcard stands for one segment here, unlike in a filter URL pattern
+            node = WILDCARD_SEGMENT.equals(segment) ? node.wildcardChild() : node.child(segment);
+        }
+        if (node == root) {
+            return;
+        }
+        if (node.servlet == null) {
+            node.servlet = servlet;
+        }
+        // a trailing /* also matches the path without it
+        if (node == parent.wildcard && parent != root && parent.servlet == null) {
+            parent.servlet = servlet;
+        }
+    }
+
+    /**
+     * Returns the deepest node with a servlet that matches the beginning of the path from the given position, or null.
+     * Exact segments are preferred over wildcards at the same depth.
+     */
+    private static Node match(Node node, String path, int position) {
+        int length = path.length();
+        while (position < length && path.charAt(position) == '/') {
+            position++;
+        }
+        Node best = node.servlet != null ? node : null;
+        if (position >= length) {
+            return best;
+        }
+        int end = path.indexOf('/', position);
+        if (end < 0) {
+            end = length;
+        }
+
+        Node child = node.find(path, position, end);
+        Node candidate = child == null ? null : match(child, path, end);
+        if (node.wildcard != null) {
+            Node wildcardCandidate = match(node.wildcard, path, end);
+            if (wildcardCandidate != null && (candidate == null || wildcardCandidate.depth > candidate.depth)) {
+                candidate = wildcardCandidate;
+            }
+        }
+        return candidate != null ? candidate : best;
+    }
+
+    private static boolean isContextRoot(String path) {
+        return path.isEmpty() || "/".equals(path);
+    }
+
+    private Servlet matchExtension(String path) {
+        int lastSlash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= lastSlash) {
+            return null;
+        }
+        int extensionLength = path.length() - dot - 1;
+        for (int i = 0; i < extensions.size(); i++) {
+            String extension = extensions.get(i);
+            if (extension.length() == extensionLength && path.regionMatches(dot + 1, extension, 0, extensionLength)) {
+                return extensionServlets.get(i);
+            }
+        }
+        return null;
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - Node
+    //-------------------------------------------------------------
+
+    /**
+     * A path segment of one or more mappings. Children are kept in arrays so that they can be compared with a region
+     * of the path without extracting the segment.
+     */
+    private static final class Node {
+        private static final String[] NO_SEGMENTS = new String[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final int depth;
+        private String[] segments = NO_SEGMENTS;
+        private Node[] children = NO_CHILDREN;
+        private Node wildcard;
+        private Servlet servlet;
+
+        Node(int depth) {
+            this.depth = depth;
+        }
+
+        Node child(String segment) {
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].equals(segment)) {
+                    return children[i];
+                }
+            }
+            Node child = new Node(depth + 1);
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = segment;
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node(depth + 1);
+            }
+            return wildcard;
+        }
+
+        Node find(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && path.regionMatches(start, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Input stream over the characters of a request body string. The characters are encoded with the given charset as
+ * the stream is read, a chunk at a time, so the encoded body never exists as a whole on the heap. Characters that
+ * cannot be encoded are replaced the same way {@link String#getBytes(Charset)} replaces them.
+ */
+final class StringBodyInputStream extends InputStream {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final int MAX_BUFFER_SIZE = 8192;
+    private static final int MIN_BUFFER_SIZE = 16;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final CharBuffer source;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer;
+    private boolean flushed;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    StringBodyInputStream(String body, Charset charset) {
+        source = CharBuffer.wrap(body);
+        encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long encodedLength = (long) body.length() * (long) Math.ceil(encoder.maxBytesPerChar());
+        buffer = ByteBuffer.allocate((int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, encodedLength)));
+        buffer.flip();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    /**
+     * Returns a stream that decodes a base64 body as it is read. The MIME decoder skips line separators and any other
+     * character outside of the base64 alphabet, like {@link Base64#getMimeDecoder()} does when it decodes the whole
+     * string.
+     * @param body The base64 encoded body
+     * @return The stream of decoded bytes
+     */
+    static InputStream base64(String body) {
+        return Base64.getMimeDecoder().wrap(new StringBodyInputStream(body, StandardCharsets.US_ASCII));
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - InputStream
+    //-------------------------------------------------------------
+
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int read = Math.min(len, buffer.remaining());
+        buffer.get(b, off, read);
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    /**
+     * Encodes the next chunk of the body when the buffer has been read entirely.
+     * @return false when the whole body has been read
+     */
+    private boolean fill() {
+        while (!buffer.hasRemaining()) {
+            if (flushed) {
+                return false;
+            }
+            buffer.clear();
+            CoderResult result = encoder.encode(source, buffer, true);
+            if (result.isUnderflow() && encoder.flush(buffer).isUnderflow()) {
+                flushed = true;
+            }
+            buffer.flip();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import java.util.Arrays;
+
+/**
+ * A filter URL pattern, split into path segments once so that matching a request path does not allocate. Patterns
+ * are matched the way the servlet specification describes them:
+ * <ul>
+ *     <li><code>/*</code> and <code>*</code> match every path</li>
+ *     <li><code>/prefix/*</code> matches <code>/prefix</code> and every path under it</li>
+ *     <li>A <code>*</code> segment in the middle of a pattern matches the rest of the path, as it always did in this
+ *     library: <code>/a/*&#47;c</code> is the same as <code>/a/*</code>. Servlet mappings, see
+ *     {@link ServletMappings}, match a single segment for the same <code>*</code>. Filter registrations reject these
+ *     patterns, so only <code>FilterChainManager.pathMatches</code> sees them</li>
+ *     <li><code>*.ext</code> matches paths whose last segment ends with <code>.ext</code></li>
+ *     <li>Any other pattern matches the same path, ignoring trailing slashes</li>
+ * </ul>
+ * A path that is equal to the pattern ignoring case always matches.
+ */
+final class UrlPattern {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final String WILDCARD_SEGMENT = "*";
+    private static final String EXTENSION_PREFIX = "*.";
+
+    private enum Kind { ALL, PREFIX, EXTENSION, EXACT }
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final String pattern;
+    private final Kind kind;
+    private final String[] segments;
+    private final String extension;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    private UrlPattern(String pattern, Kind kind, String[] segments, String extension) {
+        this.pattern = pattern;
+        this.kind = kind;
+        this.segments = segments;
+        this.extension = extension;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    static UrlPattern compile(String pattern) {
+        if (pattern.startsWith(EXTENSION_PREFIX)) {
+            return new UrlPattern(pattern, Kind.EXTENSION, null, pattern.substring(1));
+        }
+        String[] segments = (pattern.startsWith(FilterChainManager.PATH_PART_SEPARATOR) ? pattern.substring(1) : pattern)
+                .split(FilterChainManager.PATH_PART_SEPARATOR);
+        for (int i = 0; i < segments.length; i++) {
+            if (WILDCARD_SEGMENT.equals(segments[i])) {
+                if (i == 0) {
+                    return new UrlPattern(pattern, Kind.ALL, null, null);
+                }
+                // the first wildcard matches the rest of the path, the segments after it are ignored, unlike in a
+                // servlet mapping where it stands for one segment
+                return new UrlPattern(pattern, Kind.PREFIX, Arrays.copyOf(segments, i), null);
+            }
+        }
+        return new UrlPattern(pattern, Kind.EXACT, segments, null);
+    }
+
+    boolean matches(String path) {
+        if (kind == Kind.ALL) {
+            return true;
+        }
+        if (path == null) {
+            return false;
+        }
+        if (path.equalsIgnoreCase(pattern)) {
+            return true;
+        }
+        switch (kind) {
+            case EXTENSION:
+                return path.endsWith(extension) && path.lastIndexOf('/') < path.length() - extension.length();
+            case PREFIX:
+                return segmentsMatch(path, false);
+            default:
+                return segmentsMatch(path, true);
+        }
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    /**
+     * Compares the segments of the path, split the same way as the pattern, with the segments of the pattern.
+     * @param path The request path
+     * @param exact Whether the path must have exactly the pattern segments, otherwise they only have to be its first ones
+     */
+    private boolean segmentsMatch(String path, boolean exact) {
+        int start = path.startsWith(FilterChainManager.PATH_PART_SEPARATOR) ? 1 : 0;
+        int end = path.length();
+        // trailing empty segments are dropped, as String.split does for the pattern
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        int count = 0;
+        // an empty path has a single empty segment, a path made of slashes has none
+        if (end > start || path.length() == start) {
+            int position = start;
+            while (position <= end) {
+                int segmentEnd = path.indexOf('/', position);
+                if (segmentEnd < 0 || segmentEnd > end) {
+                    segmentEnd = end;
+                }
+                if (count == segments.length) {
+                    return !exact;
+                }
+                String segment = segments[count];
+                int length = segmentEnd - position;
+                if (segment.length() != length || !path.regionMatches(position, segment, 0, length)) {
+                    return false;
+                }
+                count++;
+                position = segmentEnd + 1;
+            }
+        }
+        return count == segments.length;
+    }
+}
@@ -22,6 +22,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.BitSet;
 
 /**
  * Simple path validator filter. This is a default implementation to prevent malformed paths from hitting the framework
@@ -38,13 +39,16 @@ public class UrlPathValidator implements Filter {
     //public static final Pattern PATH_PATTERN = Pattern.compile("^(/[-\\w:@&?=+,.!/~*'%$_;]*)?$");
     public static final String PARAM_INVALID_STATUS_CODE = "invalid_status_code";
 
+    // ASCII characters java.net.URI accepts in a path without escaping them, as defined in RFC 2396
+    static final BitSet pathValid = createPathValidSet();
+
 
     //-------------------------------------------------------------
     // Variables - Private
     //-------------------------------------------------------------
 
     private int invalidStatusCode;
-    private Logger log = LoggerFactory.getLogger(UrlPathValidator.class);
+    private static final Logger log = LoggerFactory.getLogger(UrlPathValidator.class);
 
 
     //-------------------------------------------------------------
@@ -79,24 +83,29 @@ public class UrlPathValidator implements Filter {
             return;
         }
 
-        // switching to this mechanism to avoid ReDOS attacks on the path pattern regex
-        try {
-            new URI(path);
-        } catch (URISyntaxException e) {
-            log.error("Invalid uri path in doFilter", e);
-            setErrorResponse(servletResponse);
-            return;
+        // switching to this mechanism to avoid ReDOS attacks on the path pattern regex. Plain absolute paths are
+        // checked against the characters URI accepts, anything else is left to the URI parser
+        if (!isPlainAbsolutePath(path)) {
+            try {
+                new URI(path);
+            } catch (URISyntaxException e) {
+                log.error("Invalid uri path in doFilter", e);
+                setErrorResponse(servletResponse);
+                return;
+            }
         }
 
         // Logic taken from the Apache UrlValidator. I opted not to include Apache lib as a dependency to save space
         // in the final Lambda function package
         // https://github.com/apache/commons-validator/blob/trunk/src/main/java/org/apache/commons/validator/UrlValidator.java
-        int slashCount = countStrings("/", path);
-        int dot2Count = countStrings("..", path);
-        int slash2Count = countStrings("//", path);
-        if (dot2Count > 0 && (slashCount - slash2Count - 1) <= dot2Count){
-            setErrorResponse(servletResponse);
-            return;
+        if (path.contains("..")) {
+            int slashCount = countStrings("/", path);
+            int dot2Count = countStrings("..", path);
+            int slash2Count = countStrings("//", path);
+            if ((slashCount - slash2Count - 1) <= dot2Count) {
+                setErrorResponse(servletResponse);
+                return;
+            }
         }
 
         filterChain.doFilter(servletRequest, servletResponse);
@@ -121,6 +130,44 @@ public class UrlPathValidator implements Filter {
     // Methods - Private
     //-------------------------------------------------------------
 
+    static BitSet createPathValidSet() {
+        BitSet pathSet = new BitSet(128);
+        for (char c = '0'; c <= '9'; c++) pathSet.set(c);
+        for (char c = 'a'; c <= 'z'; c++) pathSet.set(c);
+        for (char c = 'A'; c <= 'Z'; c++) pathSet.set(c);
+        // unreserved marks, path characters and segment separators
+        for (char c : "-_.!~*'():@&=+$,;/".toCharArray()) pathSet.set(c);
+        return pathSet;
+    }
+
+    /**
+     * Returns true if the path starts with a single slash and only contains characters and escapes that
+     * {@link URI} accepts in a path. Such a path is always parsed successfully, other paths may or may not be.
+     */
+    static boolean isPlainAbsolutePath(String path) {
+        int length = path.length();
+        // a path starting with two slashes would be parsed as an authority
+        if (length == 0 || path.charAt(0) != '/' || (length > 1 && path.charAt(1) == '/')) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= length || !isHexDigit(path.charAt(i + 1)) || !isHexDigit(path.charAt(i + 2))) {
+                    return false;
+                }
+                i += 2;
+            } else if (!pathValid.get(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
     private void setErrorResponse(ServletResponse resp) {
         ((HttpServletResponse)resp).setStatus(invalidStatusCode);
     }
@@ -12,23 +12,37 @@
  */
 package com.amazonaws.serverless.proxy.internal.testutils;
 
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
+
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Name based timers. Timers accept any name; names that match one of the {@link Phase} constants are also recorded by
+ * the {@link PhaseRecorder}, which shares its enabled flag with this class.
+ *
+ * @deprecated Use {@link PhaseRecorder} instead
+ */
+@Deprecated
 public final class Timer {
-    private volatile static Map<String, TimerInfo> timers = new LinkedHashMap<>();
-    private volatile static boolean enabled = false;
+    private static final Map<String, TimerInfo> timers = Collections.synchronizedMap(new LinkedHashMap<>());
 
     public static void start(String timerName) {
-        if (!enabled) {
+        if (!PhaseRecorder.isEnabled()) {
             return;
         }
 
         timers.put(timerName, new TimerInfo(System.currentTimeMillis()));
+        Phase phase = toPhase(timerName);
+        if (phase != null) {
+            PhaseRecorder.start(phase);
+        }
     }
 
     public static long stop(String timerName) {
-        if (!enabled) {
+        if (!PhaseRecorder.isEnabled()) {
             return 0L;
         }
 
@@ -39,6 +53,10 @@ public final class Timer {
 
         long stopTime = System.currentTimeMillis();
         info.stop(stopTime);
+        Phase phase = toPhase(timerName);
+        if (phase != null) {
+            PhaseRecorder.stop(phase);
+        }
 
         return stopTime;
     }
@@ -53,14 +71,23 @@ public final class Timer {
     }
 
     public static void enable() {
-        enabled = true;
+        PhaseRecorder.enable();
     }
 
     public static void disable() {
-        enabled = false;
+        PhaseRecorder.disable();
+    }
+
+    private static Phase toPhase(String timerName) {
+        for (Phase phase : Phase.values()) {
+            if (phase.name().equals(timerName)) {
+                return phase;
+            }
+        }
+        return null;
     }
 
-    private static class TimerInfo {
+    public static class TimerInfo {
         private long startTime;
         private long stopTime;
         private long duration;
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2024 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.amazonaws.serverless.proxy.model;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Open addressing hash map used as the storage of {@link MultiValuedTreeMap}. Entries are kept in dense arrays in
+ * insertion order, next to the hash of their key, and an index table with linear probing maps hashes to positions in
+ * the dense arrays. Iterating the map walks the dense arrays, so the order is the insertion order. A lookup computes
+ * the hash of the key once and only compares keys whose cached hash matches.
+ *
+ * In case-insensitive mode the keys must be strings, the hash is computed over the case-folded characters without
+ * allocating a lower case copy and keys are compared with {@link String#equalsIgnoreCase(String)}, which matches the
+ * semantics of {@link String#CASE_INSENSITIVE_ORDER}. The first spelling of a key is the one that is kept.
+ *
+ * Null keys are not supported. The arrays are allocated on the first insertion, so empty maps are cheap.
+ *
+ * @param <K> The type for the map key
+ * @param <V> The type for the map values
+ */
+final class CompactHashMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    //-------------------------------------------------------------
+    // Constants
+    //-------------------------------------------------------------
+
+    private static final long serialVersionUID = 42L;
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+
+    //-------------------------------------------------------------
+    // Variables - Private
+    //-------------------------------------------------------------
+
+    private final boolean caseInsensitive;
+
+    /**
+     * Open addressing table, each slot is {@link #EMPTY}, {@link #DELETED} or the position of the entry plus one.
+     * Its length is a power of two and at least twice the length of the dense arrays.
+     */
+    private int[] index;
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    /**
+     * Number of positions used in the dense arrays, including the entries that were removed.
+     */
+    private int used;
+    private int size;
+    private int modCount;
+
+    private transient Set<Entry<K, V>> entrySet;
+
+
+    //-------------------------------------------------------------
+    // Constructors
+    //-------------------------------------------------------------
+
+    CompactHashMap(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+
+    //-------------------------------------------------------------
+    // Implementation - Map
+    //-------------------------------------------------------------
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int position = find(key);
+        return position < 0 ? null : (V) values[position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        int hash = hash(key);
+        int slot = findSlot(key, hash);
+        if (slot >= 0) {
+            int position = index[slot] - 1;
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+        ensureCapacity();
+        int position = used++;
+        keys[position] = key;
+        values[position] = value;
+        hashes[position] = hash;
+        insertSlot(hash, position);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null || size == 0 || (caseInsensitive && !(key instanceof String))) {
+            return null;
+        }
+        int slot = findSlot(key, hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        int position = index[slot] - 1;
+        V previous = (V) values[position];
+        removeAt(slot, position);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (keys == null) {
+            return;
+        }
+        Arrays.fill(index, EMPTY);
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Package
+    //-------------------------------------------------------------
+
+    boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    /**
+     * Hash of a string that ignores the case of its characters. Characters are folded the same way as
+     * {@link String#equalsIgnoreCase(String)} compares them, with a fast path for ASCII.
+     */
+    static int caseInsensitiveHash(String key) {
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    c = (char) (c + ('a' - 'A'));
+                }
+            } else {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            hash = 31 * hash + c;
+        }
+        return hash;
+    }
+
+
+    //-------------------------------------------------------------
+    // Methods - Private
+    //-------------------------------------------------------------
+
+    private int hash(Object key) {
+        int hash = caseInsensitive ? caseInsensitiveHash((String) key) : key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean keyEquals(Object stored, Object key) {
+        if (stored == key) {
+            return true;
+        }
+        return caseInsensitive ? ((String) stored).equalsIgnoreCase((String) key) : stored.equals(key);
+    }
+
+    /**
+     * Returns the position of the key in the dense arrays, or -1.
+     */
+    private int find(Object key) {
+        if (key == null || size == 0 || (caseInsensitive && !(key instanceof String))) {
+            return -1;
+        }
+        int slot = findSlot(key, hash(key));
+        return slot < 0 ? -1 : index[slot] - 1;
+    }
+
+    /**
+     * Returns the slot of the index table that points to the key, or -1.
+     */
+    private int findSlot(Object key, int hash) {
+        if (index == null) {
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != DELETED && hashes[entry - 1] == hash && keyEquals(keys[entry - 1], key)) {
+                return slot;
+            }
+        }
+    }
+
+    private void insertSlot(int hash, int position) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        while (index[slot] > EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = position + 1;
+    }
+
+    private void removeAt(int slot, int position) {
+        index[slot] = DELETED;
+        keys[position] = null;
+        values[position] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Makes room for one more entry. The dense arrays are compacted when removed entries take a quarter of them,
+     * and doubled otherwise. The index table is rebuilt in both cases, which also clears the deleted slots.
+     */
+    private void ensureCapacity() {
+        if (keys == null) {
+            keys = new Object[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+            hashes = new int[INITIAL_CAPACITY];
+            index = new int[INITIAL_CAPACITY * 2];
+            return;
+        }
+        if (used < keys.length) {
+            return;
+        }
+        int capacity = size + (size >> 2) >= keys.length ? keys.length * 2 : keys.length;
+        Object[] newKeys = new Object[capacity];
+        Object[] newValues = new Object[capacity];
+        int[] newHashes = new int[capacity];
+        int[] newIndex = capacity == keys.length ? index : new int[capacity * 2];
+        Arrays.fill(newIndex, EMPTY);
+        int position = 0;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != null) {
+                newKeys[position] = keys[i];
+                newValues[position] = values[i];
+                newHashes[position] = hashes[i];
+                position++;
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        hashes = newHashes;
+        index = newIndex;
+        used = position;
+        for (int i = 0; i < used; i++) {
+            insertSlot(hashes[i], i);
+        }
+        modCount++;
+    }
+
+
+    //-------------------------------------------------------------
+    // Inner classes
+    //-------------------------------------------------------------
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactHashMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            int position = find(entry.getKey());
+            return position >= 0 && Objects.equals(values[position], entry.getValue());
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            while (next < used && keys[next] == null) {
+                next++;
+            }
+            return next < used;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new EntryView(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0 || keys[last] == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(findSlot(keys[last], hashes[last]), last);
+            expectedModCount = modCount;
+            last = -1;
+        }
+    }
+
+    /**
+     * Entry that reads and writes the dense arrays. Entries stay valid until the map is resized.
+     */
+    private final class EntryView implements Entry<K, V> {
+        private final int position;
+        private final K key;
+
+        @SuppressWarnings("unchecked")
+        EntryView(int position) {
+            this.position = position;
+            this.key = (K) keys[position];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return keys[position] == key ? (V) values[position] : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            if (keys[position] != key) {
+                throw new IllegalStateException("The entry was removed from the map");
+            }
+            V previous = (V) values[position];
+            values[position] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
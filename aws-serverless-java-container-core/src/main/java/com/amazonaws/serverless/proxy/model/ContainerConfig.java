@@ -43,6 +43,8 @@ public class ContainerConfig {
         configuration.setDefaultContentCharset(DEFAULT_CONTENT_CHARSET);
         configuration.setInitializationTimeout(MAX_INIT_TIMEOUT_MS);
         configuration.setDisableExceptionMapper(false);
+        configuration.setUseStreamingEventParser(false);
+        configuration.setReuseContainerObjects(false);
 
         return configuration;
     }
@@ -63,6 +65,8 @@ public class ContainerConfig {
     private final HashSet<String> binaryContentTypes;
     private int initializationTimeout;
     private boolean disableExceptionMapper;
+    private boolean useStreamingEventParser;
+    private boolean reuseContainerObjects;
 
     public ContainerConfig() {
         validFilePaths = new ArrayList<>();
@@ -331,4 +335,49 @@ public class ContainerConfig {
     public void setDisableExceptionMapper(boolean disable) {
         this.disableExceptionMapper = disable;
     }
+
+    /**
+     * Whether the <code>proxyStream</code> method reads events with the single-pass streaming parsers instead of
+     * binding them through Jackson databind.
+     * @return <code>true</code> if the streaming event parsers are enabled, <code>false</code> otherwise.
+     */
+    public boolean isUseStreamingEventParser() {
+        return useStreamingEventParser;
+    }
+
+    /**
+     * Tells the container to read the event JSON in <code>proxyStream</code> with a single pass over the token stream,
+     * copying headers, query string parameters and the body directly into the request model. This saves the databind
+     * overhead on every invocation. Streaming parsers are available for the API Gateway REST API, HTTP API and
+     * Application Load Balancer event types; other event types are always read with databind. Unlike databind, the
+     * streaming parsers skip unknown properties for every event type. When this is enabled before a handler is built,
+     * the builders also default to a codec that writes <code>AwsProxyResponse</code> objects without databind. By
+     * default this is set to <code>false</code>.
+     * @param useStreamingEventParser Set this value to <code>true</code> to enable the streaming event parsers.
+     */
+    public void setUseStreamingEventParser(boolean useStreamingEventParser) {
+        this.useStreamingEventParser = useStreamingEventParser;
+    }
+
+    /**
+     * Whether the container handler resets and reuses its per-invocation objects, such as the servlet response,
+     * instead of allocating new ones for every event.
+     * @return <code>true</code> if per-invocation objects are reused, <code>false</code> otherwise.
+     */
+    public boolean isReuseContainerObjects() {
+        return reuseContainerObjects;
+    }
+
+    /**
+     * Tells the container handler to recycle the body buffer of the servlet response, as well as the filter chain
+     * objects, between invocations. Once the Lambda response has been written, the servlet response is marked as
+     * completed: changing it, or writing to the output streams and writers obtained from it, throws an
+     * <code>IllegalStateException</code> if the application keeps using them. Only enable this if the application does
+     * not hold on to the response or the filter chain after the request completes, for example in a background thread.
+     * By default this is set to <code>false</code>.
+     * @param reuse Set this value to <code>true</code> to reuse per-invocation objects.
+     */
+    public void setReuseContainerObjects(boolean reuse) {
+        this.reuseContainerObjects = reuse;
+    }
 }
@@ -17,16 +17,24 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import jakarta.ws.rs.core.MultivaluedMap;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.TreeMap;
 
 /**
- * Simple implementation of a multi valued tree map to use for case-insensitive headers
+ * Simple implementation of a multi valued map to use for headers and query string parameters.
+ *
+ * The keys are stored in an open addressing hash table and iterate in insertion order. When the map is created with
+ * {@link String#CASE_INSENSITIVE_ORDER}, as {@link Headers} are, the keys are compared ignoring case using a
+ * case-folded hash, which avoids the character by character comparisons of a tree lookup. The value lists created by
+ * the map keep a single value inline and only allocate an array for keys that have more than one value. Any other
+ * comparator falls back to a sorted tree map.
  *
  * @param <Key> The type for the map key
  * @param <Value> The type for the map values
@@ -39,11 +47,21 @@ public class MultiValuedTreeMap<Key, Value> implements MultivaluedMap<Key, Value
 
 
     public MultiValuedTreeMap() {
-        map = new TreeMap<>();
+        map = new CompactHashMap<>(false);
     }
 
     public MultiValuedTreeMap(Comparator<Key> comparator) {
-        map = new TreeMap<>(comparator);
+        if (comparator == null) {
+            map = new CompactHashMap<>(false);
+        } else if (comparator == (Comparator<?>) String.CASE_INSENSITIVE_ORDER) {
+            map = new CompactHashMap<>(true);
+        } else {
+            map = new TreeMap<>(comparator);
+        }
+    }
+
+    private MultiValuedTreeMap(Map<Key, List<Value>> storage) {
+        map = storage;
     }
 
     @Override
@@ -186,7 +204,7 @@ public class MultiValuedTreeMap<Key, Value> implements MultivaluedMap<Key, Value
     private List<Value> findKey(Key key) {
         List<Value> values = this.get(key);
         if (values == null) {
-            values = new ArrayList<>();
+            values = new ValueList<>();
             put(key, values);
         }
         return values;
@@ -194,12 +212,19 @@ public class MultiValuedTreeMap<Key, Value> implements MultivaluedMap<Key, Value
 
     @Override
     @SuppressFBWarnings("CN_IDIOM_NO_SUPER_CALL")
+    @SuppressWarnings("unchecked")
     public MultiValuedTreeMap<Key, Value> clone() {
-        MultiValuedTreeMap<Key, Value> clone = new MultiValuedTreeMap<>();
-        for (Key key : keySet()) {
-            List<Value> value = get(key);
-            List<Value> newValue = new ArrayList<>(value);
-            clone.put(key, newValue);
+        Map<Key, List<Value>> storage;
+        if (map instanceof CompactHashMap) {
+            storage = new CompactHashMap<>(((CompactHashMap<Key, List<Value>>) map).isCaseInsensitive());
+        } else {
+            storage = new TreeMap<>(((TreeMap<Key, List<Value>>) map).comparator());
+        }
+        MultiValuedTreeMap<Key, Value> clone = new MultiValuedTreeMap<>(storage);
+        for (Map.Entry<Key, List<Value>> entry : entrySet()) {
+            List<Value> newValue = new ValueList<>();
+            newValue.addAll(entry.getValue());
+            clone.put(entry.getKey(), newValue);
         }
         return clone;
     }
@@ -223,4 +248,98 @@ public class MultiValuedTreeMap<Key, Value> implements MultivaluedMap<Key, Value
         }
         return "[" + result.toString() + "]";
     }
+
+    /**
+     * List of the values of a key. The first value is stored in a field, the array is only allocated when a second
+     * value is added.
+     */
+    static final class ValueList<Value> extends AbstractList<Value> implements RandomAccess, Serializable {
+        private static final long serialVersionUID = 42L;
+
+        private Value single;
+        private Object[] elements;
+        private int size;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Value get(int index) {
+            checkIndex(index, size);
+            return elements == null ? single : (Value) elements[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Value set(int index, Value value) {
+            checkIndex(index, size);
+            if (elements == null) {
+                Value previous = single;
+                single = value;
+                return previous;
+            }
+            Value previous = (Value) elements[index];
+            elements[index] = value;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Value value) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            if (size == 0 && elements == null) {
+                single = value;
+            } else {
+                if (elements == null) {
+                    elements = new Object[4];
+                    elements[0] = single;
+                    single = null;
+                } else if (size == elements.length) {
+                    elements = Arrays.copyOf(elements, size * 2);
+                }
+                System.arraycopy(elements, index, elements, index + 1, size - index);
+                elements[index] = value;
+            }
+            size++;
+            modCount++;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Value remove(int index) {
+            checkIndex(index, size);
+            Value previous;
+            if (elements == null) {
+                previous = single;
+                single = null;
+            } else {
+                previous = (Value) elements[index];
+                System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+                elements[size - 1] = null;
+            }
+            size--;
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            single = null;
+            if (elements != null) {
+                Arrays.fill(elements, 0, size, null);
+            }
+            size = 0;
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private static void checkIndex(int index, int size) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+    }
 }
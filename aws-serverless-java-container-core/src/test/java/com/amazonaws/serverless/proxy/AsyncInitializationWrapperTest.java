@@ -1,12 +1,19 @@
 package com.amazonaws.serverless.proxy;
 
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.internal.InitializableLambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import org.junit.jupiter.api.Test;
 
 import java.lang.management.ManagementFactory;
 import java.time.Clock;
 import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AsyncInitializationWrapperTest {
 
@@ -25,4 +32,74 @@ public class AsyncInitializationWrapperTest {
 
         assertEquals(initTime, init.getActualStartTimeMs());
     }
+
+    @Test
+    void start_initializedInTime_primesHandler() throws ContainerInitializationException {
+        boolean[] primed = new boolean[1];
+        InitializableLambdaContainerHandler handler = new InitializableLambdaContainerHandler() {
+            @Override
+            public void initialize() {
+            }
+
+            @Override
+            public void prime() {
+                primed[0] = true;
+            }
+        };
+        AsyncInitializationWrapper init = new AsyncInitializationWrapper(Instant.now().toEpochMilli());
+        init.start(handler);
+        assertEquals(0, init.getInitializationLatch().getCount());
+        assertTrue(primed[0]);
+    }
+
+    @Test
+    void start_initializedInTime_primesWithinRemainingInitTime() throws ContainerInitializationException {
+        long[] primingTimeout = { -1 };
+        InitializableLambdaContainerHandler handler = new InitializableLambdaContainerHandler() {
+            @Override
+            public void initialize() {
+            }
+
+            @Override
+            public void prime(long timeout, TimeUnit unit) {
+                primingTimeout[0] = unit.toMillis(timeout);
+            }
+        };
+        new AsyncInitializationWrapper(Instant.now().toEpochMilli() - 4_000).start(handler);
+        assertTrue(primingTimeout[0] > 0);
+        assertTrue(primingTimeout[0] <= 6_000);
+
+        // no time left in the init phase
+        primingTimeout[0] = -1;
+        new AsyncInitializationWrapper(Instant.now().toEpochMilli() - 9_950).start(handler);
+        assertEquals(-1, primingTimeout[0]);
+    }
+
+    @Test
+    void beforeCheckpoint_initializationRunning_waitsForLatch() throws Exception {
+        CountDownLatch initializing = new CountDownLatch(1);
+        InitializableLambdaContainerHandler handler = () -> {
+            try {
+                initializing.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // a start time in the past leaves no time to wait for the initialization
+        AsyncInitializationWrapper init = new AsyncInitializationWrapper(Instant.now().toEpochMilli() - 20_000);
+        init.start(handler);
+
+        int timeout = LambdaContainerHandler.getContainerConfig().getInitializationTimeout();
+        LambdaContainerHandler.getContainerConfig().setInitializationTimeout(10);
+        try {
+            assertThrows(ContainerInitializationException.class, () -> init.beforeCheckpoint(null));
+            initializing.countDown();
+            LambdaContainerHandler.getContainerConfig().setInitializationTimeout(timeout);
+            init.beforeCheckpoint(null);
+            assertEquals(0, init.getInitializationLatch().getCount());
+            init.afterRestore(null);
+        } finally {
+            LambdaContainerHandler.getContainerConfig().setInitializationTimeout(timeout);
+        }
+    }
 }
@@ -2,7 +2,11 @@ package com.amazonaws.serverless.proxy.internal;
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.*;
+import com.amazonaws.serverless.proxy.internal.metrics.InvocationMetrics;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
+import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletOutputStreamResponseWriter;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletRequestReader;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsProxyHttpServletResponseWriter;
 import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
@@ -12,15 +16,32 @@ import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.services.lambda.runtime.Context;
 import org.apache.hc.client5.http.impl.classic.RequestAbortedException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class LambdaContainerHandlerTest {
     private boolean isRuntimeException = false;
     private boolean throwException = false;
+    private int handledRequests = 0;
 
     ExceptionContainerHandlerTest handler = new ExceptionContainerHandlerTest(
             AwsProxyRequest.class, AwsProxyResponse.class,
@@ -69,6 +90,259 @@ public class LambdaContainerHandlerTest {
         assertEquals("OK", resp.getBody());
     }
 
+    @Test
+    void proxyStream_streamingEventParser_returnsResponse() throws IOException {
+        throwException = false;
+        LambdaContainerHandler.getContainerConfig().setDisableExceptionMapper(false);
+        LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(true);
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            handler.proxyStream(new AwsProxyRequestBuilder("/test", "GET").buildStream(), output, new MockLambdaContext());
+            AwsProxyResponse resp = LambdaContainerHandler.getObjectMapper().readValue(output.toByteArray(), AwsProxyResponse.class);
+            assertEquals(200, resp.getStatusCode());
+            assertEquals("OK", resp.getBody());
+
+            output = new ByteArrayOutputStream();
+            handler.proxyStream(new ByteArrayInputStream("{\"path\": [".getBytes(StandardCharsets.UTF_8)), output, new MockLambdaContext());
+            resp = LambdaContainerHandler.getObjectMapper().readValue(output.toByteArray(), AwsProxyResponse.class);
+            assertEquals(502, resp.getStatusCode());
+        } finally {
+            LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(false);
+        }
+    }
+
+    @Test
+    void proxyStream_outputStreamResponseWriter_writesResponse() throws IOException {
+        ExceptionContainerHandlerTest streamHandler = new ExceptionContainerHandlerTest(
+                AwsProxyRequest.class, AwsProxyResponse.class,
+                new AwsProxyHttpServletRequestReader(), new AwsProxyHttpServletOutputStreamResponseWriter(),
+                new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler(), new InitializationWrapper()
+        );
+        LambdaContainerHandler.getContainerConfig().setDisableExceptionMapper(false);
+
+        throwException = false;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        streamHandler.proxyStream(new AwsProxyRequestBuilder("/test", "GET").buildStream(), output, new MockLambdaContext());
+        AwsProxyResponse resp = LambdaContainerHandler.getObjectMapper().readValue(output.toByteArray(), AwsProxyResponse.class);
+        assertEquals(200, resp.getStatusCode());
+        assertEquals("OK", resp.getBody());
+
+        throwException = true;
+        isRuntimeException = true;
+        output = new ByteArrayOutputStream();
+        streamHandler.proxyStream(new AwsProxyRequestBuilder("/test", "GET").buildStream(), output, new MockLambdaContext());
+        resp = LambdaContainerHandler.getObjectMapper().readValue(output.toByteArray(), AwsProxyResponse.class);
+        assertEquals(502, resp.getStatusCode());
+    }
+
+    @Test
+    void start_primingEvents_areProxiedOnce() throws Exception {
+        throwException = false;
+        handler.addPrimingEvent(PrimingEvents.restApi("GET", "/test"));
+        handler.addPrimingEvent(PrimingEvents.alb("POST", "/test"));
+        handler.getInitializationWrapper().start(handler);
+        assertEquals(2, handledRequests);
+        assertNull(handler.lambdaContext);
+
+        // the checkpoint and the first request do not prime the container again
+        handler.prime();
+        handler.beforeCheckpoint(null);
+        handler.proxy(new AwsProxyRequestBuilder("/test", "GET").build(), new MockLambdaContext());
+        assertEquals(3, handledRequests);
+
+        // failures are logged and do not stop the initialization
+        ExceptionContainerHandlerTest failingHandler = new ExceptionContainerHandlerTest(
+                AwsProxyRequest.class, AwsProxyResponse.class,
+                new AwsProxyHttpServletRequestReader(), new AwsProxyHttpServletResponseWriter(),
+                new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler(), new InitializationWrapper()
+        );
+        failingHandler.addPrimingEvent(PrimingEvents.restApi("GET", "/test"));
+        failingHandler.addPrimingEvent(PrimingEvents.alb("POST", "/test"));
+        throwException = true;
+        isRuntimeException = true;
+        LambdaContainerHandler.getContainerConfig().setDisableExceptionMapper(true);
+        try {
+            failingHandler.getInitializationWrapper().start(failingHandler);
+        } finally {
+            LambdaContainerHandler.getContainerConfig().setDisableExceptionMapper(false);
+        }
+        assertEquals(5, handledRequests);
+    }
+
+    @Test
+    void prime_eventsAddedAfterStart_sentBeforeCheckpoint() throws Exception {
+        throwException = false;
+        handler.getInitializationWrapper().start(handler);
+        assertEquals(0, handledRequests);
+
+        // starting a handler without events does not prime it
+        handler.addPrimingEvent(PrimingEvents.restApi("GET", "/test"));
+        handler.beforeCheckpoint(null);
+        assertEquals(1, handledRequests);
+        assertThrows(IllegalStateException.class, () -> handler.addPrimingEvent(PrimingEvents.restApi("GET", "/test")));
+    }
+
+    @Test
+    void prime_timeoutElapsed_skipsRemainingEvents() {
+        throwException = false;
+        handler.addPrimingEvent(PrimingEvents.restApi("GET", "/test"));
+        handler.addPrimingEvent(PrimingEvents.alb("POST", "/test"));
+        handler.prime(0, TimeUnit.MILLISECONDS);
+        assertEquals(0, handledRequests);
+
+        handler.prime();
+        assertEquals(0, handledRequests);
+    }
+
+    @Test
+    void proxy_notPrimedAtStart_requestsDoNotPrime() {
+        throwException = false;
+        handler.addPrimingEvent(PrimingEvents.restApi("GET", "/test"));
+        Context context = new MockLambdaContext();
+        // priming during the first request would add the priming requests to its latency
+        handler.proxy(new AwsProxyRequestBuilder("/test", "GET").build(), context);
+        assertEquals(1, handledRequests);
+        assertSame(context, handler.lambdaContext);
+
+        handler.proxy(new AwsProxyRequestBuilder("/test", "GET").build(), context);
+        assertEquals(2, handledRequests);
+    }
+
+    @Test
+    void addPrimingEvents_resource_readsSingleEventAndArray(@TempDir Path resources) throws IOException {
+        String event = LambdaContainerHandler.getObjectMapper().writeValueAsString(PrimingEvents.restApi("GET", "/test"));
+        Files.write(resources.resolve("single.json"), event.getBytes(StandardCharsets.UTF_8));
+        Files.write(resources.resolve("array.json"), ("[" + event + ", " + event + "]").getBytes(StandardCharsets.UTF_8));
+
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { resources.toUri().toURL() }, previous)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            handler.addPrimingEvents("single.json");
+            handler.addPrimingEvents("array.json");
+            assertThrows(IOException.class, () -> handler.addPrimingEvents("missing.json"));
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+        EventCodec<AwsProxyRequest, AwsProxyResponse> codec = handler.getEventCodec();
+        int[] decodedEvents = new int[1];
+        handler.setEventCodec(new EventCodec<AwsProxyRequest, AwsProxyResponse>() {
+            @Override
+            public AwsProxyRequest readEvent(InputStream input) throws IOException {
+                decodedEvents[0]++;
+                return codec.readEvent(input);
+            }
+
+            @Override
+            public void writeResponse(AwsProxyResponse response, OutputStream output) throws IOException {
+                codec.writeResponse(response, output);
+            }
+        });
+        throwException = false;
+        handler.prime();
+        assertEquals(3, handledRequests);
+        // events read from resources are decoded with the codec of the handler, like real events
+        assertEquals(3, decodedEvents[0]);
+    }
+
+    @Test
+    void addPrimingEvents_notEventObjects_throwsIOException(@TempDir Path resources) throws IOException {
+        Files.write(resources.resolve("invalid.json"), "[\"GET /test\"]".getBytes(StandardCharsets.UTF_8));
+
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { resources.toUri().toURL() }, previous)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            assertThrows(IOException.class, () -> handler.addPrimingEvents("invalid.json"));
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+        }
+    }
+
+    @Test
+    void checkpointLifecycle_simulated_primesBeforeCheckpoint() throws Exception {
+        throwException = false;
+        handler.addPrimingEvent(PrimingEvents.restApi("GET", "/test"));
+        handler.beforeCheckpoint(null);
+        assertEquals(1, handledRequests);
+        assertNull(handler.lambdaContext);
+
+        handler.proxy(new AwsProxyRequestBuilder("/test", "GET").build(), new MockLambdaContext());
+        handler.afterRestore(null);
+        assertNull(handler.lambdaContext);
+    }
+
+    @Test
+    void proxyStream_metricsSink_reportsEachInvocationOnce() throws Exception {
+        throwException = false;
+        LambdaContainerHandler.getContainerConfig().setDisableExceptionMapper(false);
+        List<long[]> reports = new ArrayList<>();
+        handler.getInitializationWrapper().start(handler);
+        handler.setMetricsSink(metrics -> reports.add(new long[] {
+                metrics.isColdStart() ? 1 : 0,
+                metrics.getInitializationDurationMs(),
+                metrics.getRequestBytes(),
+                metrics.getResponseBytes(),
+                metrics.getPhaseCount(Phase.EVENT_READ),
+                metrics.getPhaseCount(Phase.REQUEST_READ),
+                metrics.getPhaseCount(Phase.SERVLET_RESPONSE_WRITE),
+                metrics.getPhaseCount(Phase.EVENT_WRITE)
+        }));
+        try {
+            byte[] event = LambdaContainerHandler.getObjectMapper().writeValueAsBytes(new AwsProxyRequestBuilder("/test", "GET").build());
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            handler.proxyStream(new ByteArrayInputStream(event), output, new MockLambdaContext());
+            handler.proxyStream(new ByteArrayInputStream(event), new ByteArrayOutputStream(), new MockLambdaContext());
+            handler.afterRestore(null);
+            handler.proxy(new AwsProxyRequestBuilder("/test", "GET").build(), new MockLambdaContext());
+
+            assertEquals(3, reports.size());
+            long[] first = reports.get(0);
+            assertEquals(1, first[0]);
+            assertTrue(first[1] >= 0);
+            assertEquals(event.length, first[2]);
+            assertEquals(output.size(), first[3]);
+            assertArrayEquals(new long[] { 1, 1, 1, 1 }, Arrays.copyOfRange(first, 4, 8));
+
+            long[] second = reports.get(1);
+            assertEquals(0, second[0]);
+            assertEquals(-1, second[1]);
+
+            // after a restore the first invocation is a cold start, the sizes are only known for streams
+            long[] restored = reports.get(2);
+            assertEquals(1, restored[0]);
+            assertEquals(-1, restored[1]);
+            assertEquals(-1, restored[2]);
+            assertEquals(-1, restored[3]);
+        } finally {
+            handler.setMetricsSink(null);
+            PhaseRecorder.disable();
+            PhaseRecorder.reset();
+        }
+    }
+
+    @Test
+    void setMetricsSink_checkpointAndClear_flushesAndDisablesRecorder() throws Exception {
+        int[] flushes = new int[1];
+        handler.setMetricsSink(new MetricsSink() {
+            @Override
+            public void invocationCompleted(InvocationMetrics metrics) {
+            }
+
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        });
+        try {
+            assertTrue(PhaseRecorder.isEnabled());
+            handler.beforeCheckpoint(null);
+            assertEquals(1, flushes[0]);
+        } finally {
+            handler.setMetricsSink(null);
+        }
+        assertFalse(PhaseRecorder.isEnabled());
+        PhaseRecorder.reset();
+    }
+
     public class ExceptionContainerHandlerTest extends LambdaContainerHandler<AwsProxyRequest, AwsProxyResponse, HttpServletRequest, AwsHttpServletResponse> {
 
         public static final String RUNTIME_MESSAGE = "test RuntimeException";
@@ -85,6 +359,7 @@ public class LambdaContainerHandlerTest {
 
         @Override
         protected void handleRequest(HttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext) throws Exception {
+            handledRequests++;
             if (throwException) {
                 if (isRuntimeException) {
                     throw new RuntimeException(RUNTIME_MESSAGE);
@@ -0,0 +1,53 @@
+package com.amazonaws.serverless.proxy.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+    @Test
+    void get_sameKey_computedOnce() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        AtomicInteger computations = new AtomicInteger();
+        assertEquals("A", cache.get("a", k -> { computations.incrementAndGet(); return k.toUpperCase(); }));
+        assertEquals("A", cache.get("a", k -> { computations.incrementAndGet(); return k.toUpperCase(); }));
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void get_maxSizeReached_leastRecentlyUsedEvicted() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.get("a", k -> "1");
+        cache.get("b", k -> "2");
+        cache.get("a", k -> "x");
+        cache.get("c", k -> "3");
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("a", k -> "x"));
+        assertEquals("new", cache.get("b", k -> "new"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_nullKeyOrValue_notCached() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        assertEquals("null", cache.get(null, String::valueOf));
+        assertNull(cache.get("a", k -> null));
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String, String>(0));
+    }
+
+    @Test
+    void parseCharacterEncoding_cachedContentType_defaultStillApplied() {
+        String contentType = "application/json; charset=UTF-16";
+        assertEquals(StandardCharsets.UTF_16, HttpUtils.parseCharacterEncoding(contentType, null));
+        assertEquals(StandardCharsets.UTF_16, HttpUtils.parseCharacterEncoding(contentType, StandardCharsets.UTF_8));
+        assertNull(HttpUtils.parseCharacterEncoding("application/json", null));
+        assertEquals(StandardCharsets.UTF_8, HttpUtils.parseCharacterEncoding("application/json", StandardCharsets.UTF_8));
+        assertEquals(StandardCharsets.UTF_8, HttpUtils.parseCharacterEncoding("text/plain; charset=unknown", StandardCharsets.UTF_8));
+    }
+}
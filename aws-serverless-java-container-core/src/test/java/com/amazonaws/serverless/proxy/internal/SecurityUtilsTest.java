@@ -1,5 +1,7 @@
 package com.amazonaws.serverless.proxy.internal;
 
+import com.amazonaws.serverless.proxy.model.AlbContext;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,6 +42,31 @@ public class SecurityUtilsTest {
         }
     }
 
+    @Test
+    public void crlf_cleanAndDirtyStrings_onlyCrlfRemoved() {
+        String clean = "no line breaks \t here";
+        assertSame(clean, SecurityUtils.crlf(clean));
+        assertEquals("ab", SecurityUtils.crlf("\r\na\rb\n"));
+        assertEquals("", SecurityUtils.crlf("\n"));
+        assertNull(SecurityUtils.crlf(null));
+    }
+
+    @Test
+    public void isValidHost_apiGatewayAlbAndOtherHosts() {
+        assertTrue(SecurityUtils.isValidHost("abc123.execute-api.us-east-1.amazonaws.com", "abc123", null, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost("abc123.execute-api.us-west-2.amazonaws.com", "abc123", null, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost("evil.abc123.execute-api.us-east-1.amazonaws.com", "abc123", null, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost("abc1234.execute-api.us-east-1.amazonaws.com", "abc123", null, "us-east-1"));
+        assertTrue(SecurityUtils.isValidHost("null.execute-api.null.amazonaws.com", null, null, null));
+
+        AlbContext elb = new AlbContext();
+        assertTrue(SecurityUtils.isValidHost("my-lb-1234.us-east-1.elb.amazonaws.com", null, elb, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost("my-lb-1234.us-west-2.elb.amazonaws.com", null, elb, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost("elb.amazonaws.com", null, elb, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost("example.com", "abc123", null, "us-east-1"));
+        assertFalse(SecurityUtils.isValidHost(null, "abc123", null, "us-east-1"));
+    }
+
     @Test
     public void getValidFilePath_nullOrEmpty_returnsNull() {
         assertNull(SecurityUtils.getValidFilePath(""));
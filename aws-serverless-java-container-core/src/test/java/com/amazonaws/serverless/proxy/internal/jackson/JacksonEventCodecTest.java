@@ -0,0 +1,113 @@
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.EventCodec;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JacksonEventCodecTest {
+    private static final ObjectMapper mapper = LambdaContainerHandler.getObjectMapper();
+
+    @AfterEach
+    void resetConfig() {
+        LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(false);
+        System.clearProperty(BlackbirdEventCodec.NATIVE_IMAGE_PROPERTY);
+    }
+
+    @Test
+    void readEvent_allCodecs_matchDefaultMapper() throws IOException {
+        AwsProxyRequestBuilder builder = new AwsProxyRequestBuilder("/hello", "POST")
+                .header("Accept", "text/plain")
+                .queryString("a", "1")
+                .queryString("a", "2")
+                .cookie("session", "abc")
+                .authorizerPrincipal("user")
+                .body("{\"name\": \"value\"}");
+        String restEvent = IOUtils.toString(builder.buildStream(), StandardCharsets.UTF_8);
+        String httpApiEvent = IOUtils.toString(builder.toHttpApiV2RequestStream(), StandardCharsets.UTF_8);
+        String albEvent = IOUtils.toString(new AwsProxyRequestBuilder("/hello", "GET").alb().buildStream(), StandardCharsets.UTF_8);
+
+        for (boolean streaming : new boolean[] { false, true }) {
+            LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(streaming);
+            assertReadMatches(restEvent, new JacksonEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class), AwsProxyRequest.class);
+            assertReadMatches(restEvent, new BlackbirdEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class), AwsProxyRequest.class);
+            assertReadMatches(albEvent, new BlackbirdEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class), AwsProxyRequest.class);
+            assertReadMatches(httpApiEvent, new JacksonEventCodec<>(HttpApiV2ProxyRequest.class, AwsProxyResponse.class), HttpApiV2ProxyRequest.class);
+            assertReadMatches(httpApiEvent, new BlackbirdEventCodec<>(HttpApiV2ProxyRequest.class, AwsProxyResponse.class), HttpApiV2ProxyRequest.class);
+        }
+    }
+
+    @Test
+    void writeResponse_allCodecs_matchDefaultMapper() throws IOException {
+        AwsProxyResponse response = new AwsProxyResponse(201);
+        response.addHeader("Content-Type", "application/json");
+        response.addHeader("Set-Cookie", "a=1");
+        response.addHeader("Set-Cookie", "b=2");
+        response.setBody("{\"message\": \"héllo\"}");
+        response.setStatusDescription("201 Created");
+        String expected = mapper.writeValueAsString(response);
+
+        assertEquals(mapper.readTree(expected), mapper.readTree(write(new JacksonEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class), response)));
+        assertEquals(mapper.readTree(expected), mapper.readTree(write(new BlackbirdEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class), response)));
+    }
+
+    @Test
+    void constructor_customMapper_isUsed() {
+        ObjectMapper custom = new ObjectMapper();
+        assertSame(custom, new JacksonEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class, custom).getObjectMapper());
+        assertNotSame(new JacksonEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class).getObjectMapper(),
+                new BlackbirdEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class).getObjectMapper());
+    }
+
+    @Test
+    void constructor_defaultMapper_blackbirdOnlyWithSharedConfiguration() {
+        assertSame(mapper, new JacksonEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class).getObjectMapper());
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        try {
+            ObjectMapper blackbirdMapper = new BlackbirdEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class).getObjectMapper();
+            assertNotSame(mapper, blackbirdMapper);
+            assertTrue(blackbirdMapper.isEnabled(SerializationFeature.INDENT_OUTPUT));
+            // Afterburner and Blackbird must not be registered on the same mapper
+            assertEquals(Collections.singleton(new BlackbirdModule().getTypeId()), blackbirdMapper.getRegisteredModuleIds());
+            assertTrue(mapper.getRegisteredModuleIds().contains(new AfterburnerModule().getTypeId()));
+        } finally {
+            mapper.disable(SerializationFeature.INDENT_OUTPUT);
+        }
+    }
+
+    @Test
+    void isSupported_nativeImage_returnsFalse() {
+        assertTrue(BlackbirdEventCodec.isSupported());
+        System.setProperty(BlackbirdEventCodec.NATIVE_IMAGE_PROPERTY, "runtime");
+        assertFalse(BlackbirdEventCodec.isSupported());
+    }
+
+    private static <T> void assertReadMatches(String event, EventCodec<T, AwsProxyResponse> codec, Class<T> type) throws IOException {
+        T expected = mapper.readValue(event, type);
+        T actual = codec.readEvent(new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(mapper.valueToTree(expected), mapper.valueToTree(actual));
+    }
+
+    private static String write(EventCodec<AwsProxyRequest, AwsProxyResponse> codec, AwsProxyResponse response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        codec.writeResponse(response, output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingEventCodecTest {
+    private static final ObjectMapper mapper = LambdaContainerHandler.getObjectMapper();
+
+    @Test
+    void readEvent_builderEvents_matchDefaultMapper() throws IOException {
+        AwsProxyRequestBuilder builder = new AwsProxyRequestBuilder("/hello", "POST")
+                .header("Accept", "text/plain")
+                .queryString("a", "1")
+                .cookie("session", "abc")
+                .authorizerPrincipal("user")
+                .body("{\"name\": \"value\"}");
+        String restEvent = IOUtils.toString(builder.buildStream(), StandardCharsets.UTF_8);
+        String httpApiEvent = IOUtils.toString(builder.toHttpApiV2RequestStream(), StandardCharsets.UTF_8);
+
+        AwsProxyRequest rest = new StreamingEventCodec<>(AwsProxyRequest.class).readEvent(stream(restEvent));
+        assertEquals(mapper.valueToTree(mapper.readValue(restEvent, AwsProxyRequest.class)), mapper.valueToTree(rest));
+        HttpApiV2ProxyRequest httpApi = new StreamingEventCodec<>(HttpApiV2ProxyRequest.class).readEvent(stream(httpApiEvent));
+        assertEquals(mapper.valueToTree(mapper.readValue(httpApiEvent, HttpApiV2ProxyRequest.class)), mapper.valueToTree(httpApi));
+    }
+
+    @Test
+    void writeResponse_matchesDefaultMapper() throws IOException {
+        StreamingEventCodec<AwsProxyRequest> codec = new StreamingEventCodec<>(AwsProxyRequest.class);
+
+        AwsProxyResponse response = new AwsProxyResponse(201);
+        response.addHeader("Content-Type", "application/json");
+        response.addHeader("Set-Cookie", "a=1");
+        response.addHeader("Set-Cookie", "b=2");
+        response.getMultiValueHeaders().put("X-Null", null);
+        response.setHeaders(Collections.singletonMap("X-Single", "\"quoted\""));
+        response.setBody("{\"message\": \"héllo\"}");
+        response.setBase64Encoded(true);
+        response.setStatusDescription("201 Created");
+        assertEquals(mapper.readTree(mapper.writeValueAsString(response)), mapper.readTree(write(codec, response)));
+
+        AwsProxyResponse empty = new AwsProxyResponse(204);
+        assertEquals(mapper.readTree(mapper.writeValueAsString(empty)), mapper.readTree(write(codec, empty)));
+        assertEquals("null", write(codec, null));
+    }
+
+    @Test
+    void isSupported_onlyProxyTypes() {
+        assertTrue(StreamingEventCodec.isSupported(AwsProxyRequest.class, AwsProxyResponse.class));
+        assertTrue(StreamingEventCodec.isSupported(HttpApiV2ProxyRequest.class, AwsProxyResponse.class));
+        assertFalse(StreamingEventCodec.isSupported(AwsProxyRequest.class, Map.class));
+        assertFalse(StreamingEventCodec.isSupported(Map.class, AwsProxyResponse.class));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingEventCodec<>(Map.class));
+    }
+
+    private static ByteArrayInputStream stream(String event) {
+        return new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String write(StreamingEventCodec<AwsProxyRequest> codec, AwsProxyResponse response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        codec.writeResponse(response, output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
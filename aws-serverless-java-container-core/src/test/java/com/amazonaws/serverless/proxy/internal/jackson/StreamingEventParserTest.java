@@ -0,0 +1,182 @@
+package com.amazonaws.serverless.proxy.internal.jackson;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingEventParserTest {
+    private static final ObjectMapper mapper = LambdaContainerHandler.getObjectMapper();
+
+    private static final String REST_API_EVENT = "{\n" +
+            "  \"resource\": \"/{proxy+}\",\n" +
+            "  \"path\": \"/hello/world\",\n" +
+            "  \"httpMethod\": \"POST\",\n" +
+            "  \"headers\": {\"Content-Type\": \"application/json\", \"X-Number\": 12},\n" +
+            "  \"multiValueHeaders\": {\"Content-Type\": [\"application/json\"], \"Accept\": [\"text/html\", \"application/json\"], \"X-Null\": null},\n" +
+            "  \"queryStringParameters\": {\"name\": \"me\"},\n" +
+            "  \"multiValueQueryStringParameters\": {\"name\": [\"me\", \"you\"]},\n" +
+            "  \"pathParameters\": {\"proxy\": \"hello/world\"},\n" +
+            "  \"stageVariables\": null,\n" +
+            "  \"unknownObject\": {\"nested\": [1, 2, {\"deep\": true}]},\n" +
+            "  \"requestContext\": {\n" +
+            "    \"accountId\": \"123456789012\",\n" +
+            "    \"resourceId\": \"us4z18\",\n" +
+            "    \"stage\": \"test\",\n" +
+            "    \"requestId\": \"41b45ea3-70b5-11e6-b7bd-69b5aaebc7d9\",\n" +
+            "    \"identity\": {\"sourceIp\": \"127.0.0.1\", \"userAgent\": \"curl\"},\n" +
+            "    \"resourcePath\": \"/{proxy+}\",\n" +
+            "    \"httpMethod\": \"POST\",\n" +
+            "    \"apiId\": \"wt6mne2s9k\"\n" +
+            "  },\n" +
+            "  \"body\": \"{\\\"message\\\": \\\"h\\u00e9llo\\\"}\",\n" +
+            "  \"isBase64Encoded\": \"true\"\n" +
+            "}";
+
+    @Test
+    void restApiEvent_matchesDatabind() throws IOException {
+        assertMatchesDatabind(REST_API_EVENT, AwsProxyRequest.class);
+
+        AwsProxyRequest request = parse(REST_API_EVENT, AwsProxyRequest.class);
+        assertEquals("POST", request.getHttpMethod());
+        assertEquals("12", request.getHeaders().get("x-number"));
+        assertEquals(2, request.getMultiValueHeaders().get("accept").size());
+        assertNull(request.getMultiValueHeaders().get("X-Null"));
+        assertNull(request.getStageVariables());
+        assertTrue(request.isBase64Encoded());
+        assertEquals("us4z18", request.getRequestContext().getResourceId());
+        assertEquals("{\"message\": \"héllo\"}", request.getBody());
+    }
+
+    @Test
+    void builderEvents_matchDatabind() throws IOException {
+        AwsProxyRequestBuilder builder = new AwsProxyRequestBuilder("/hello", "GET")
+                .header("Accept", "text/plain")
+                .queryString("a", "1")
+                .queryString("a", "2")
+                .cookie("session", "abc")
+                .authorizerPrincipal("user");
+        assertMatchesDatabind(IOUtils.toString(builder.buildStream(), StandardCharsets.UTF_8), AwsProxyRequest.class);
+        assertMatchesDatabind(IOUtils.toString(builder.toHttpApiV2RequestStream(), StandardCharsets.UTF_8), HttpApiV2ProxyRequest.class);
+
+        AwsProxyRequestBuilder alb = new AwsProxyRequestBuilder("/hello", "POST").alb().body("text body");
+        assertMatchesDatabind(IOUtils.toString(alb.buildStream(), StandardCharsets.UTF_8), AwsProxyRequest.class);
+    }
+
+    @Test
+    void httpApiEvent_matchesDatabind() throws IOException {
+        String event = "{\"version\": \"2.0\", \"routeKey\": \"$default\", \"rawPath\": \"/my/path\", " +
+                "\"rawQueryString\": \"a=1&a=2\", \"cookies\": [\"c1=v1\", \"c2=v2\"], " +
+                "\"headers\": {\"header1\": \"value1,value2\"}, \"queryStringParameters\": {\"a\": \"1,2\"}, " +
+                "\"requestContext\": {\"accountId\": \"123456789012\", \"apiId\": \"api-id\", " +
+                "\"authorizer\": {\"jwt\": {\"claims\": {\"claim1\": \"value1\"}, \"scopes\": [\"scope1\"]}}, " +
+                "\"http\": {\"method\": \"POST\", \"path\": \"/my/path\", \"protocol\": \"HTTP/1.1\", \"sourceIp\": \"IP\", \"userAgent\": \"agent\"}, " +
+                "\"requestId\": \"id\", \"routeKey\": \"$default\", \"stage\": \"$default\", \"timeEpoch\": 1583348638390}, " +
+                "\"body\": \"SGVsbG8=\", \"isBase64Encoded\": true, \"pathParameters\": null, " +
+                "\"stageVariables\": {\"stageVariable1\": \"value1\"}}";
+        assertMatchesDatabind(event, HttpApiV2ProxyRequest.class);
+
+        HttpApiV2ProxyRequest request = parse(event, HttpApiV2ProxyRequest.class);
+        assertEquals(2, request.getCookies().size());
+        assertTrue(request.isBase64Encoded());
+        assertEquals("value1,value2", request.getHeaders().get("header1"));
+        assertTrue(request.getRequestContext().getAuthorizer().isJwt());
+        assertNull(request.getPathParameters());
+    }
+
+    @Test
+    void restApiRequestContext_authorizers_matchDatabind() throws IOException {
+        String cognito = "{\"path\": \"/a\", \"requestContext\": {\"requestTimeEpoch\": \"1583348638390\", " +
+                "\"elb\": {\"targetGroupArn\": \"arn\"}, \"identity\": {\"apiKey\": \"key\", \"caller\": \"me\", \"clientCert\": {\"x\": 1}}, " +
+                "\"authorizer\": {\"principalId\": \"user\", \"claims\": {\"sub\": \"42\", \"cognito:username\": \"name\", " +
+                "\"email_verified\": \"true\", \"auth_time\": 1583348638, \"exp\": 1583352238, \"custom:tier\": \"gold\"}}}}";
+        assertMatchesDatabind(cognito, AwsProxyRequest.class);
+
+        AwsProxyRequest request = parse(cognito, AwsProxyRequest.class);
+        assertEquals(1583348638390L, request.getRequestContext().getRequestTimeEpoch());
+        assertEquals("name", request.getRequestContext().getAuthorizer().getClaims().getUsername());
+        assertEquals("gold", request.getRequestContext().getAuthorizer().getClaims().getClaim("custom:tier"));
+        assertTrue(request.getRequestContext().getAuthorizer().getClaims().isEmailVerified());
+
+        String custom = "{\"requestContext\": {\"authorizer\": {\"principalId\": \"user\", \"tier\": \"gold\", \"count\": 3}}}";
+        assertMatchesDatabind(custom, AwsProxyRequest.class);
+        assertEquals("3", parse(custom, AwsProxyRequest.class).getRequestContext().getAuthorizer().getContextValue("count"));
+    }
+
+    @Test
+    void httpApiRequestContext_authorizers_matchDatabind() throws IOException {
+        String lambda = "{\"requestContext\": {\"timeEpoch\": 1583348638390, \"authorizer\": {\"lambda\": " +
+                "{\"tier\": \"gold\", \"count\": 3, \"nested\": {\"list\": [1, 2.5, true, null]}}}}}";
+        assertMatchesDatabind(lambda, HttpApiV2ProxyRequest.class);
+        HttpApiV2ProxyRequest request = parse(lambda, HttpApiV2ProxyRequest.class);
+        assertTrue(request.getRequestContext().getAuthorizer().isLambda());
+        assertEquals(3, request.getRequestContext().getAuthorizer().getLambdaAuthorizerContext().get("count"));
+
+        String iam = "{\"requestContext\": {\"authorizer\": {\"iam\": {\"accessKey\": \"AKIA\", \"accountId\": \"123\", " +
+                "\"callerId\": \"caller\", \"principalOrgId\": null, \"userArn\": \"arn\", \"userId\": \"id\"}, \"other\": {}}}}";
+        assertMatchesDatabind(iam, HttpApiV2ProxyRequest.class);
+        assertEquals("AKIA", parse(iam, HttpApiV2ProxyRequest.class).getRequestContext().getAuthorizer().getIamAuthorizer().getAccessKey());
+    }
+
+    @Test
+    void httpApiEvent_unknownProperty_isSkipped() throws IOException {
+        HttpApiV2ProxyRequest request = parse("{\"rawPath\": \"/a\", \"newField\": {\"x\": [1]}, \"body\": \"b\"}",
+                HttpApiV2ProxyRequest.class);
+        assertEquals("/a", request.getRawPath());
+        assertEquals("b", request.getBody());
+    }
+
+    @Test
+    void nullEvent_returnsNull() throws IOException {
+        assertNull(parse("null", AwsProxyRequest.class));
+        assertNull(parse(" null ", HttpApiV2ProxyRequest.class));
+    }
+
+    @Test
+    void emptyOrInvalidEvent_throwsMappingException() {
+        assertThrows(JsonMappingException.class, () -> parse("", AwsProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("[]", AwsProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"path\": {\"a\": 1}}", AwsProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"multiValueHeaders\": {\"a\": \"b\"}}", AwsProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"headers\": [\"a\"]}", HttpApiV2ProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"isBase64Encoded\": [true]}", HttpApiV2ProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"cookies\": \"a=b\"}", HttpApiV2ProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"requestContext\": {\"identity\": \"a\"}}", AwsProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"requestContext\": {\"requestTimeEpoch\": \"now\"}}", AwsProxyRequest.class));
+        assertThrows(JsonMappingException.class, () -> parse("{\"requestContext\": {\"timeEpoch\": [1]}}", HttpApiV2ProxyRequest.class));
+    }
+
+    @Test
+    void forType_unsupportedType_returnsNull() {
+        assertNull(StreamingEventParser.forType(AwsProxyResponse.class, mapper));
+        assertNotNull(StreamingEventParser.forType(AwsProxyRequest.class, mapper));
+    }
+
+    private static <T> T parse(String event, Class<T> type) throws IOException {
+        StreamingEventParser<T> parser = StreamingEventParser.forType(type, mapper);
+        return parser.parse(stream(event));
+    }
+
+    private static <T> void assertMatchesDatabind(String event, Class<T> type) throws IOException {
+        T expected = mapper.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).readValue(stream(event));
+        T actual = parse(event, type);
+        assertEquals(mapper.valueToTree(expected), mapper.valueToTree(actual));
+    }
+
+    private static InputStream stream(String event) {
+        return new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8));
+    }
+}
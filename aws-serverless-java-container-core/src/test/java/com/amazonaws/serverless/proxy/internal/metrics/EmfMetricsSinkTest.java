@@ -0,0 +1,94 @@
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmfMetricsSinkTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final PrintStream printStream = new PrintStream(output, true);
+
+    @Test
+    void invocationCompleted_batchSizeOne_writesEmfLine() throws IOException {
+        EmfMetricsSink sink = new EmfMetricsSink("test-namespace", 1, printStream, "my-function");
+        InvocationMetrics invocation = invocation(true);
+        invocation.addPhase(Phase.FILTER_CHAIN.ordinal(), 1_500_000L);
+        invocation.setRequestBase64Encoded(true);
+        invocation.setInitializationDurationMs(2500L);
+        sink.invocationCompleted(invocation);
+
+        String[] lines = lines();
+        assertEquals(1, lines.length);
+        JsonNode line = LambdaContainerHandler.getObjectMapper().readTree(lines[0]);
+        JsonNode directive = line.get("_aws").get("CloudWatchMetrics").get(0);
+        assertEquals("test-namespace", directive.get("Namespace").asText());
+        assertEquals("FunctionName", directive.get("Dimensions").get(0).get(0).asText());
+        assertTrue(line.get("_aws").get("Timestamp").isNumber());
+        assertEquals("my-function", line.get("FunctionName").asText());
+
+        assertEquals(1.5, line.get("FILTER_CHAIN").asDouble());
+        assertEquals(1, line.get("RequestBase64Encoded").asInt());
+        assertEquals(0, line.get("ResponseBase64Encoded").asInt());
+        assertEquals(1, line.get("ColdStart").asInt());
+        assertEquals(2500, line.get("InitDuration").asInt());
+        assertTrue(line.has("Latency"));
+        // phases that did not run and unknown sizes are omitted
+        assertFalse(line.has("EVENT_READ"));
+        assertFalse(line.has("RequestSize"));
+        for (JsonNode metric : directive.get("Metrics")) {
+            assertTrue(line.has(metric.get("Name").asText()));
+        }
+    }
+
+    @Test
+    void invocationCompleted_batch_writesArraysWhenFull() throws IOException {
+        EmfMetricsSink sink = new EmfMetricsSink("test-namespace", 3, printStream, null);
+        sink.invocationCompleted(invocation(true));
+        sink.invocationCompleted(invocation(false));
+        assertEquals(0, output.size());
+
+        sink.invocationCompleted(invocation(false));
+        String[] lines = lines();
+        assertEquals(1, lines.length);
+        JsonNode line = LambdaContainerHandler.getObjectMapper().readTree(lines[0]);
+        assertEquals(0, line.get("_aws").get("CloudWatchMetrics").get(0).get("Dimensions").get(0).size());
+        assertFalse(line.has("FunctionName"));
+        assertEquals(3, line.get("Latency").size());
+        assertEquals("[1,0,0]", line.get("ColdStart").toString());
+
+        output.reset();
+        sink.flush();
+        assertEquals(0, output.size());
+        sink.invocationCompleted(invocation(false));
+        sink.flush();
+        line = LambdaContainerHandler.getObjectMapper().readTree(lines()[0]);
+        assertEquals(0, line.get("ColdStart").asInt());
+    }
+
+    @Test
+    void constructor_invalidBatchSize_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new EmfMetricsSink("test-namespace", 0));
+        assertThrows(IllegalArgumentException.class, () -> new EmfMetricsSink("test-namespace", EmfMetricsSink.MAX_BATCH_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> new EmfMetricsSink("", 1));
+    }
+
+    private static InvocationMetrics invocation(boolean coldStart) {
+        InvocationMetrics invocation = new InvocationMetrics(Phase.values().length);
+        invocation.begin();
+        invocation.end();
+        invocation.setColdStart(coldStart);
+        return invocation;
+    }
+
+    private String[] lines() {
+        return new String(output.toByteArray(), StandardCharsets.UTF_8).trim().split("\n");
+    }
+}
@@ -0,0 +1,147 @@
+package com.amazonaws.serverless.proxy.internal.metrics;
+
+import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseRecorderTest {
+
+    @BeforeEach
+    void setUp() {
+        PhaseRecorder.reset();
+        PhaseRecorder.enable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        PhaseRecorder.disable();
+        PhaseRecorder.reset();
+    }
+
+    @Test
+    void stop_disabled_recordsNothing() {
+        PhaseRecorder.disable();
+        PhaseRecorder.start(Phase.SERVLET_RESPONSE_WRITE);
+        assertEquals(0L, PhaseRecorder.stop(Phase.SERVLET_RESPONSE_WRITE));
+        assertEquals(0L, PhaseRecorder.getStatistics(Phase.SERVLET_RESPONSE_WRITE).getCount());
+        assertTrue(PhaseRecorder.getStatistics().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void timer_arbitraryAndPhaseNames_trackedByName() {
+        Timer.start("custom-timer");
+        Timer.start(Phase.FILTER_CHAIN.name());
+        assertTrue(Timer.stop("custom-timer") > 0);
+        Timer.stop(Phase.FILTER_CHAIN.name());
+
+        Timer.TimerInfo info = Timer.getTimer("custom-timer");
+        assertNotNull(info);
+        assertTrue(info.getDuration() >= 0);
+        assertTrue(Timer.getTimers().containsKey(Phase.FILTER_CHAIN.name()));
+        assertEquals(1L, PhaseRecorder.getStatistics(Phase.FILTER_CHAIN).getCount());
+        assertThrows(IllegalArgumentException.class, () -> Timer.stop("never-started"));
+    }
+
+    @Test
+    void isStarted_startedOnCurrentThread_untilStopped() {
+        assertFalse(PhaseRecorder.isStarted(Phase.FILTER_CHAIN));
+        PhaseRecorder.start(Phase.FILTER_CHAIN);
+        assertTrue(PhaseRecorder.isStarted(Phase.FILTER_CHAIN));
+        PhaseRecorder.stop(Phase.FILTER_CHAIN);
+        assertFalse(PhaseRecorder.isStarted(Phase.FILTER_CHAIN));
+    }
+
+    @Test
+    void stop_afterStart_recordsDuration() throws InterruptedException {
+        PhaseRecorder.start(Phase.SPRINGBOOT2_HANDLE_REQUEST);
+        Thread.sleep(2);
+        long duration = PhaseRecorder.stop(Phase.SPRINGBOOT2_HANDLE_REQUEST);
+
+        assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(2));
+        PhaseStatistics statistics = PhaseRecorder.getStatistics(Phase.SPRINGBOOT2_HANDLE_REQUEST);
+        assertEquals(1L, statistics.getCount());
+        assertEquals(duration, statistics.getTotalNanos());
+        assertEquals(duration, statistics.getMinNanos());
+        assertEquals(duration, statistics.getMaxNanos());
+        assertEquals(duration, statistics.getPercentileNanos(50));
+    }
+
+    @Test
+    void stop_withoutStart_isIgnored() {
+        PhaseRecorder.start(Phase.JERSEY_WRITE_RESPONSE);
+        PhaseRecorder.stop(Phase.JERSEY_WRITE_RESPONSE);
+        assertEquals(0L, PhaseRecorder.stop(Phase.JERSEY_WRITE_RESPONSE));
+        assertEquals(0L, PhaseRecorder.stop(Phase.JERSEY_FILTER_DOFILTER));
+
+        assertEquals(1L, PhaseRecorder.getStatistics(Phase.JERSEY_WRITE_RESPONSE).getCount());
+        Map<Phase, PhaseStatistics> statistics = PhaseRecorder.getStatistics();
+        assertEquals(1, statistics.size());
+        assertTrue(statistics.containsKey(Phase.JERSEY_WRITE_RESPONSE));
+    }
+
+    @Test
+    void record_multipleInvocations_buildsHistogram() {
+        for (int i = 1; i <= 100; i++) {
+            PhaseRecorder.record(Phase.SERVLET_RESPONSE_WRITE, i * 1000L);
+        }
+
+        PhaseStatistics statistics = PhaseRecorder.getStatistics(Phase.SERVLET_RESPONSE_WRITE);
+        assertEquals(100L, statistics.getCount());
+        assertEquals(1000L, statistics.getMinNanos());
+        assertEquals(100_000L, statistics.getMaxNanos());
+        assertEquals(50_500L, statistics.getMeanNanos());
+        assertBetween(50_000L, statistics.getPercentileNanos(50));
+        assertBetween(99_000L, statistics.getPercentileNanos(99));
+        assertEquals(100_000L, statistics.getPercentileNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentileNanos(101));
+    }
+
+    @Test
+    void start_concurrentThreads_keepSeparateStartTimes() throws InterruptedException {
+        int threads = 8;
+        int iterations = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    PhaseRecorder.start(Phase.JERSEY_FILTER_DOFILTER);
+                    PhaseRecorder.stop(Phase.JERSEY_FILTER_DOFILTER);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals((long) threads * iterations, PhaseRecorder.getStatistics(Phase.JERSEY_FILTER_DOFILTER).getCount());
+    }
+
+    @Test
+    void bucketIndex_boundaries_matchUpperBounds() {
+        long[] values = { 0L, 1L, 3L, 4L, 5L, 7L, 8L, 9L, 1023L, 1024L, 123_456_789L, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = PhaseRecorder.bucketIndex(value);
+            assertTrue(index >= 0 && index < PhaseRecorder.BUCKET_COUNT);
+            assertTrue(PhaseRecorder.bucketUpperBound(index) >= value);
+            if (index > 0) {
+                assertTrue(PhaseRecorder.bucketUpperBound(index - 1) < value);
+            }
+        }
+        assertEquals(Long.MAX_VALUE, PhaseRecorder.bucketUpperBound(PhaseRecorder.BUCKET_COUNT - 1));
+    }
+
+    private static void assertBetween(long exact, long approximate) {
+        assertTrue(approximate >= exact && approximate <= exact * 1.25, "Expected ~" + exact + " but was " + approximate);
+    }
+}
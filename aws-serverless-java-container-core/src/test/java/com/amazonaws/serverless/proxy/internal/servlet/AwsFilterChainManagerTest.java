@@ -1,5 +1,6 @@
 package com.amazonaws.serverless.proxy.internal.servlet;
 
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
 import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
 import com.amazonaws.serverless.proxy.internal.testutils.MockServlet;
@@ -68,68 +69,107 @@ public class AwsFilterChainManagerTest {
     }
 
     @Test
-    void cacheKey_compare_samePath() {
-        FilterChainManager.TargetCacheKey cacheKey = new FilterChainManager.TargetCacheKey();
-        cacheKey.setDispatcherType(DispatcherType.REQUEST);
-        cacheKey.setTargetPath("/first/path");
+    void paths_pathMatches_specPatterns() {
+        assertTrue(chainManager.pathMatches("/a/b.do", "*.do"));
+        assertFalse(chainManager.pathMatches("/a.done", "*.do"));
+        assertFalse(chainManager.pathMatches("/a.do/b", "*.do"));
+
+        assertTrue(chainManager.pathMatches("/users", "/users/*"));
+        assertTrue(chainManager.pathMatches("/users/", "/users/*"));
+        assertFalse(chainManager.pathMatches("/usersettings", "/users/*"));
+        assertFalse(chainManager.pathMatches("/a", "/a/b/*"));
+
+        assertTrue(chainManager.pathMatches("/a/b/", "/a/b"));
+        assertTrue(chainManager.pathMatches("/A/B", "/a/b"));
+        assertFalse(chainManager.pathMatches("/a", "/a/b"));
+        assertFalse(chainManager.pathMatches("/a/b/c", "/a/b"));
+    }
 
-        FilterChainManager.TargetCacheKey secondCacheKey = new FilterChainManager.TargetCacheKey();
-        secondCacheKey.setDispatcherType(DispatcherType.REQUEST);
-        secondCacheKey.setTargetPath("/first/path");
+    @Test
+    void paths_pathMatches_midPathWildcardMatchesRestOfPath() {
+        assertTrue(chainManager.pathMatches("/a/b/c", "/a/*/c"));
+        assertTrue(chainManager.pathMatches("/a/b/d/e", "/a/*/c"));
+        assertTrue(chainManager.pathMatches("/a", "/a/*/c"));
+        assertTrue(chainManager.pathMatches("/x/y", "*/c"));
+        assertFalse(chainManager.pathMatches("/b/b/c", "/a/*/c"));
+    }
 
-        assertEquals(cacheKey.hashCode(), secondCacheKey.hashCode());
-        assertEquals(cacheKey, secondCacheKey);
+    @Test
+    void filterRegistration_midPathWildcard_rejectedWhileServletMappingMatchesOneSegment() {
+        AwsServletContext context = new AwsServletContext(null);
+        FilterRegistration.Dynamic reg = context.addFilter("MidPath", new MockFilter());
+        context.addServlet(SERVLET1_NAME, new MockServlet()).addMapping("/a/*/c");
+
+        // pathMatches would match the rest of the path, the servlet mapping only matches one segment
+        assertThrows(IllegalArgumentException.class,
+                     () -> reg.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/a/*/c"));
+        assertTrue(chainManager.pathMatches("/a/b/d", "/a/*/c"));
+        assertNull(context.getServletForPath("/a/b/d"));
+        assertNotNull(context.getServletForPath("/a/b/c"));
     }
 
     @Test
-    void cacheKey_compare_differentDispatcher() {
-        FilterChainManager.TargetCacheKey cacheKey = new FilterChainManager.TargetCacheKey();
-        cacheKey.setDispatcherType(DispatcherType.REQUEST);
-        cacheKey.setTargetPath("/first/path");
+    void filterChain_multiplePatternsMatch_filterAddedOnce() {
+        AwsServletContext context = new AwsServletContext(null);
+        FilterRegistration.Dynamic reg = context.addFilter("MultiPattern", new MockFilter());
+        reg.addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/multi/*", "*.json");
+        AwsFilterChainManager manager = new AwsFilterChainManager(context);
 
-        FilterChainManager.TargetCacheKey secondCacheKey = new FilterChainManager.TargetCacheKey();
-        secondCacheKey.setDispatcherType(DispatcherType.ASYNC);
-        secondCacheKey.setTargetPath("/first/path");
+        AwsProxyHttpServletRequest req = new AwsProxyHttpServletRequest(
+                new AwsProxyRequestBuilder("/multi/data.json", "GET").build(), lambdaContext, null
+        );
+        req.setServletContext(context);
+        FilterChainHolder fcHolder = manager.getFilterChain(req, null);
+        assertEquals(1, fcHolder.filterCount());
+        assertEquals("MultiPattern", fcHolder.getFilter(0).getFilterName());
 
-        assertNotEquals(cacheKey.hashCode(), secondCacheKey.hashCode());
-        assertNotEquals(cacheKey, secondCacheKey);
+        req = new AwsProxyHttpServletRequest(
+                new AwsProxyRequestBuilder("/other/data.json", "GET").build(), lambdaContext, null
+        );
+        req.setServletContext(context);
+        assertEquals(1, manager.getFilterChain(req, null).filterCount());
     }
 
     @Test
-    void cacheKey_compare_differentServlet() {
-        FilterChainManager.TargetCacheKey cacheKey = new FilterChainManager.TargetCacheKey();
-        cacheKey.setDispatcherType(DispatcherType.REQUEST);
-        cacheKey.setTargetPath("/first/path");
-        cacheKey.setServletName("Dispatcher servlet");
-
-        FilterChainManager.TargetCacheKey secondCacheKey = new FilterChainManager.TargetCacheKey();
-        secondCacheKey.setDispatcherType(DispatcherType.REQUEST);
-        secondCacheKey.setTargetPath("/first/path");
-        cacheKey.setServletName("Real servlet");
-
-        assertNotEquals(cacheKey.hashCode(), secondCacheKey.hashCode());
-        assertNotEquals(cacheKey, secondCacheKey);
+    void filterChain_sameRequestPath_cachedPerDispatcherType() {
+        AwsProxyHttpServletRequest req = new AwsProxyHttpServletRequest(
+                new AwsProxyRequestBuilder("/first/second", "GET").build(), lambdaContext, null
+        );
+        req.setServletContext(servletContext);
+        assertEquals(1, chainManager.getFilterChain(req, null).filterCount());
+
+        req.setAttribute(AwsHttpServletRequest.DISPATCHER_TYPE_ATTRIBUTE, DispatcherType.ASYNC);
+        assertEquals(0, chainManager.getFilterChain(req, null).filterCount());
+
+        req.setAttribute(AwsHttpServletRequest.DISPATCHER_TYPE_ATTRIBUTE, DispatcherType.REQUEST);
+        assertEquals(1, chainManager.getFilterChain(req, null).filterCount());
     }
 
     @Test
-    void cacheKey_compare_additionalChars() {
-        FilterChainManager.TargetCacheKey cacheKey = new FilterChainManager.TargetCacheKey();
-        cacheKey.setDispatcherType(DispatcherType.REQUEST);
-        cacheKey.setTargetPath("/first/path");
-
-        FilterChainManager.TargetCacheKey secondCacheKey = new FilterChainManager.TargetCacheKey();
-        secondCacheKey.setDispatcherType(DispatcherType.REQUEST);
-        secondCacheKey.setTargetPath("/first/path/");
-        assertEquals(cacheKey.hashCode(), secondCacheKey.hashCode());
-        assertEquals(cacheKey, secondCacheKey);
-
-        secondCacheKey.setTargetPath(" /first/path");
-        assertEquals(cacheKey.hashCode(), secondCacheKey.hashCode());
-        assertEquals(cacheKey, secondCacheKey);
-
-        secondCacheKey.setTargetPath("first/path/");
-        assertEquals(cacheKey.hashCode(), secondCacheKey.hashCode());
-        assertEquals(cacheKey, secondCacheKey);
+    void filterChain_reuseContainerObjects_reusesHolderOnceRequestCompletes() throws IOException, ServletException {
+        LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(true);
+        try {
+            AwsProxyHttpServletRequest req = new AwsProxyHttpServletRequest(
+                    new AwsProxyRequestBuilder("/second/reused", "GET").build(), lambdaContext, null
+            );
+            req.setServletContext(servletContext);
+            AwsHttpServletResponse resp = new AwsHttpServletResponse(req, new CountDownLatch(1));
+
+            // the first lookup fills the cache, the next one gets the reusable holder
+            chainManager.getFilterChain(req, null);
+            FilterChainHolder fcHolder = chainManager.getFilterChain(req, null);
+            // the holder is still in use, a concurrent lookup gets a new one
+            FilterChainHolder concurrentHolder = chainManager.getFilterChain(req, null);
+            assertNotSame(fcHolder, concurrentHolder);
+
+            fcHolder.doFilter(req, resp);
+            FilterChainHolder nextHolder = chainManager.getFilterChain(req, null);
+            assertSame(fcHolder, nextHolder);
+            assertEquals(-1, nextHolder.currentFilter);
+            assertEquals(REQUEST_CUSTOM_ATTRIBUTE_VALUE, req.getAttribute(REQUEST_CUSTOM_ATTRIBUTE_NAME));
+        } finally {
+            LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(false);
+        }
     }
 
     @Test
@@ -1,6 +1,7 @@
 package com.amazonaws.serverless.proxy.internal.servlet;
 
 import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.proxy.PrimingEvents;
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
 import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
@@ -50,4 +51,13 @@ public class AwsHttpApiV2HttpServletRequestReaderTest {
             fail("Could not read request");
         }
     }
+
+    @Test
+    void primingEvent_read_populatesMethodAndPath() throws InvalidRequestEventException {
+        HttpServletRequest servletRequest = reader.readRequest(PrimingEvents.httpApiV2("POST", "/prime"), null, null,
+                LambdaContainerHandler.getContainerConfig());
+        assertEquals("POST", servletRequest.getMethod());
+        assertEquals("/prime", servletRequest.getPathInfo());
+        assertEquals("127.0.0.1", servletRequest.getRemoteAddr());
+    }
 }
@@ -0,0 +1,136 @@
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.proxy.model.ContainerConfig;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.serverless.proxy.model.HttpApiV2HttpContext;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
+import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequestContext;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AwsHttpApiV2ProxyHttpServletRequestTest {
+
+    @Test
+    void headers_readOneHeader_splitsValuesCaseInsensitively() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-custom", "one,two");
+        headers.put("user-agent", "Mozilla/5.0 (X11; Linux x86_64)");
+        headers.put("accept-language", "en-US,en;q=0.5");
+        AwsHttpApiV2ProxyHttpServletRequest request = request(headers, null);
+
+        assertEquals("one", request.getHeader("X-Custom"));
+        assertEquals(2, Collections.list(request.getHeaders("X-CUSTOM")).size());
+        assertEquals("Mozilla/5.0 (X11; Linux x86_64)", request.getHeader("User-Agent"));
+        assertEquals(1, Collections.list(request.getHeaders("accept-language")).size());
+        assertNull(request.getHeader("x-missing"));
+        assertFalse(request.getHeaders("x-missing").hasMoreElements());
+    }
+
+    @Test
+    void headers_namesDifferOnlyInCase_valuesMerged() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-custom", "one");
+        headers.put("X-Custom", "two");
+        headers.put("x-other", "three");
+
+        List<String> values = Collections.list(request(headers, null).getHeaders("x-custom"));
+        assertEquals(2, values.size());
+        assertTrue(values.contains("one"));
+        assertTrue(values.contains("two"));
+
+        AwsHttpApiV2ProxyHttpServletRequest request = request(headers, null);
+        assertEquals(2, Collections.list(request.getHeaderNames()).size());
+        assertEquals(2, Collections.list(request.getHeaders("X-CUSTOM")).size());
+    }
+
+    @Test
+    void headers_setCharacterEncoding_visibleInHeaderNamesAndValues() throws UnsupportedEncodingException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("content-type", "application/json");
+        headers.put("host", "example.com");
+        AwsHttpApiV2ProxyHttpServletRequest request = request(headers, null);
+
+        request.setCharacterEncoding("UTF-8");
+        assertEquals("application/json; charset=UTF-8", request.getContentType());
+        assertEquals(2, Collections.list(request.getHeaderNames()).size());
+        assertEquals("application/json; charset=UTF-8", request.getHeader("Content-Type"));
+    }
+
+    @Test
+    void headers_nullHeaders_emptyView() {
+        AwsHttpApiV2ProxyHttpServletRequest request = request(null, null);
+        assertNull(request.getHeader("host"));
+        assertFalse(request.getHeaderNames().hasMoreElements());
+        assertEquals(-1, request.getContentLength());
+    }
+
+    @Test
+    void lazyHeaders_missingHeader_missCachedUntilPut() {
+        Map<String, String> source = new HashMap<>();
+        source.put("x-custom", "one");
+        AwsHttpApiV2ProxyHttpServletRequest.LazyHeaders headers = new AwsHttpApiV2ProxyHttpServletRequest.LazyHeaders(source);
+
+        assertNull(headers.get("X-Missing"));
+        source.put("x-missing", "late");
+        assertNull(headers.get("x-missing"));
+        headers.putSingle("X-Missing", "set");
+        assertEquals("set", headers.getFirst("x-missing"));
+        assertEquals("one", headers.getFirst("X-CUSTOM"));
+    }
+
+    @Test
+    void lazyHeaders_serialized_writesUnreadHeaders() throws IOException, ClassNotFoundException {
+        Map<String, String> source = new HashMap<>();
+        source.put("x-custom", "one,two");
+        source.put("host", "example.com");
+        AwsHttpApiV2ProxyHttpServletRequest.LazyHeaders headers = new AwsHttpApiV2ProxyHttpServletRequest.LazyHeaders(source);
+        assertEquals("example.com", headers.getFirst("host"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(headers);
+        }
+        Headers copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Headers) in.readObject();
+        }
+
+        assertEquals(2, copy.size());
+        assertEquals(2, copy.get("X-Custom").size());
+        assertEquals("example.com", copy.getFirst("Host"));
+    }
+
+    @Test
+    void parameters_readLazily_decodesQueryString() {
+        AwsHttpApiV2ProxyHttpServletRequest request = request(null, "name=a%20b&tag=1&tag=2&flag");
+        assertEquals("a b", request.getParameter("name"));
+        assertArrayEquals(new String[] {"1", "2"}, request.getParameterValues("tag"));
+        assertEquals(3, Collections.list(request.getParameterNames()).size());
+        assertNull(request(null, null).getParameter("name"));
+    }
+
+    private static AwsHttpApiV2ProxyHttpServletRequest request(Map<String, String> headers, String rawQueryString) {
+        HttpApiV2ProxyRequest request = new HttpApiV2ProxyRequest();
+        request.setRawPath("/hello");
+        request.setRawQueryString(rawQueryString);
+        request.setHeaders(headers);
+        HttpApiV2ProxyRequestContext context = new HttpApiV2ProxyRequestContext();
+        HttpApiV2HttpContext http = new HttpApiV2HttpContext();
+        http.setMethod("GET");
+        context.setHttp(http);
+        request.setRequestContext(context);
+        return new AwsHttpApiV2ProxyHttpServletRequest(request, null, null, ContainerConfig.defaultConfig());
+    }
+}
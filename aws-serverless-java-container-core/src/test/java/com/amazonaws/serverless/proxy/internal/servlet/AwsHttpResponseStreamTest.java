@@ -0,0 +1,255 @@
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.AwsProxyExceptionHandler;
+import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AwsHttpResponseStreamTest {
+
+    @Test
+    void commit_writesPreludeAndDelimiter() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        AwsHttpResponseStream stream = new AwsHttpResponseStream(output);
+        Headers headers = new Headers();
+        headers.add("Content-Type", "text/plain");
+        headers.add("X-Multi", "a");
+        headers.add("X-Multi", "b");
+        headers.add("Set-Cookie", "one=1");
+        headers.add("Set-Cookie", "two=2");
+        stream.commit(201, headers);
+        stream.write("hello".getBytes(StandardCharsets.UTF_8), 0, 5);
+
+        assertTrue(stream.isCommitted());
+        assertEquals(5, stream.getBodyLength());
+        JsonNode prelude = output.prelude();
+        assertEquals(201, prelude.get("statusCode").asInt());
+        assertEquals("text/plain", prelude.get("headers").get("Content-Type").asText());
+        assertEquals("a,b", prelude.get("headers").get("X-Multi").asText());
+        assertNull(prelude.get("headers").get("Set-Cookie"));
+        assertEquals(2, prelude.get("cookies").size());
+        assertEquals("hello", output.body());
+        assertThrows(IllegalStateException.class, () -> stream.commit(200, headers));
+    }
+
+    @Test
+    void write_beforeCommit_throwsIllegalState() {
+        AwsHttpResponseStream stream = new AwsHttpResponseStream(new FakeStreamingOutput());
+        assertThrows(IllegalStateException.class, () -> stream.write(new byte[1], 0, 1));
+    }
+
+    @Test
+    void writeResponse_base64Body_isDecoded() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        AwsProxyResponse response = new AwsProxyResponse(500);
+        response.addHeader("Content-Type", "application/octet-stream");
+        response.setBody("AAEC");
+        response.setBase64Encoded(true);
+        new AwsHttpResponseStream(output).writeResponse(response);
+
+        assertEquals(500, output.prelude().get("statusCode").asInt());
+        assertArrayEquals(new byte[] { 0, 1, 2 }, output.bodyBytes());
+    }
+
+    @Test
+    void proxyResponseStream_flushedChunks_areSentBeforeServletReturns() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        StreamingContainerHandler handler = new StreamingContainerHandler(new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) throws IOException {
+                HttpServletResponse response = (HttpServletResponse) res;
+                response.setStatus(202);
+                response.setContentType("text/event-stream");
+                response.addCookie(new Cookie("session", "abc"));
+                ServletOutputStream out = response.getOutputStream();
+                out.write("data: first\n\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                // the first chunk reached Lambda before the handler completed
+                assertTrue(response.isCommitted());
+                assertEquals("data: first\n\n", output.body());
+                response.setStatus(500); // ignored, the status was already sent
+                out.write("data: second\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        handler.proxyResponseStream(new AwsProxyRequestBuilder("/stream", "GET").buildStream(), output, new MockLambdaContext());
+
+        assertTrue(output.closed);
+        JsonNode prelude = output.prelude();
+        assertEquals(202, prelude.get("statusCode").asInt());
+        assertTrue(prelude.get("headers").get("Content-Type").asText().startsWith("text/event-stream"));
+        assertTrue(prelude.get("cookies").get(0).asText().startsWith("session=abc"));
+        assertEquals("data: first\n\ndata: second\n\n", output.body());
+    }
+
+    @Test
+    void proxyResponseStream_largeBody_isSentInBufferSizedChunks() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        StreamingContainerHandler handler = new StreamingContainerHandler(new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) throws IOException {
+                res.setBufferSize(1024);
+                ServletOutputStream out = res.getOutputStream();
+                byte[] chunk = "0123456789".getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < 100; i++) {
+                    out.write(chunk);
+                }
+                // 1000 bytes fit in the buffer, nothing was sent yet
+                assertFalse(res.isCommitted());
+                for (int i = 0; i < 4; i++) {
+                    out.write(chunk);
+                }
+                assertTrue(res.isCommitted());
+            }
+        });
+
+        handler.proxyResponseStream(new AwsProxyRequestBuilder("/stream", "GET").buildStream(), output, new MockLambdaContext());
+
+        assertEquals(200, output.prelude().get("statusCode").asInt());
+        assertEquals(1040, output.bodyBytes().length);
+    }
+
+    @Test
+    void proxyResponseStream_smallResponse_isCommittedAtTheEnd() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        StreamingContainerHandler handler = new StreamingContainerHandler(new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) throws IOException {
+                res.setContentType("application/json");
+                res.getWriter().print("{\"ok\":true}");
+                assertFalse(res.isCommitted());
+                ((HttpServletResponse) res).setHeader("X-Late-Header", "set before commit");
+            }
+        });
+
+        handler.proxyResponseStream(new AwsProxyRequestBuilder("/stream", "GET").buildStream(), output, new MockLambdaContext());
+
+        assertEquals("set before commit", output.prelude().get("headers").get("X-Late-Header").asText());
+        assertEquals("{\"ok\":true}", output.body());
+    }
+
+    @Test
+    void proxyResponseStream_exceptionBeforeCommit_writesErrorResponse() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        StreamingContainerHandler handler = new StreamingContainerHandler(new GenericServlet() {
+            @Override
+            public void service(ServletRequest req, ServletResponse res) {
+                throw new IllegalStateException("failure");
+            }
+        });
+
+        handler.proxyResponseStream(new AwsProxyRequestBuilder("/stream", "GET").buildStream(), output, new MockLambdaContext());
+
+        assertEquals(502, output.prelude().get("statusCode").asInt());
+        assertTrue(output.body().contains("\"message\""));
+    }
+
+    @Test
+    void proxyResponseStream_invalidEvent_writesErrorResponse() throws IOException {
+        FakeStreamingOutput output = new FakeStreamingOutput();
+        StreamingContainerHandler handler = new StreamingContainerHandler(null);
+
+        handler.proxyResponseStream(new ByteArrayInputStream("{\"path\": [".getBytes(StandardCharsets.UTF_8)), output, new MockLambdaContext());
+
+        assertEquals(502, output.prelude().get("statusCode").asInt());
+        assertTrue(output.closed);
+    }
+
+    /**
+     * Records what the handler writes to the Lambda output stream, in place of the runtime's streaming response.
+     */
+    private static class FakeStreamingOutput extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            closed = true;
+        }
+
+        private int delimiterIndex() {
+            byte[] bytes = toByteArray();
+            for (int i = 0; i + 8 <= bytes.length; i++) {
+                if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + 8), new byte[8])) {
+                    return i;
+                }
+            }
+            fail("Delimiter not found in the response stream");
+            return -1;
+        }
+
+        JsonNode prelude() throws IOException {
+            return LambdaContainerHandler.getObjectMapper().readTree(Arrays.copyOfRange(toByteArray(), 0, delimiterIndex()));
+        }
+
+        byte[] bodyBytes() {
+            byte[] bytes = toByteArray();
+            return Arrays.copyOfRange(bytes, delimiterIndex() + 8, bytes.length);
+        }
+
+        String body() {
+            return new String(bodyBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class StreamingContainerHandler extends AwsLambdaServletContainerHandler<AwsProxyRequest, AwsProxyResponse, HttpServletRequest, AwsHttpServletResponse> {
+        private final GenericServlet servlet;
+
+        StreamingContainerHandler(GenericServlet servlet) {
+            super(AwsProxyRequest.class, AwsProxyResponse.class, new AwsProxyHttpServletRequestReader(),
+                    new AwsProxyHttpServletResponseWriter(), new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler());
+            this.servlet = servlet;
+            if (servlet != null) {
+                AwsServletRegistration registration = (AwsServletRegistration) getServletContext().addServlet("streaming", servlet);
+                registration.addMapping("/*");
+                try {
+                    servlet.init(registration.getServletConfig());
+                } catch (ServletException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        protected AwsHttpServletResponse getContainerResponse(HttpServletRequest request, CountDownLatch latch) {
+            return new AwsHttpServletResponse(request, latch);
+        }
+
+        @Override
+        protected void handleRequest(HttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext) throws Exception {
+            ((AwsHttpServletRequest) containerRequest).setServletContext(getServletContext());
+            ((AwsHttpServletRequest) containerRequest).setResponse(containerResponse);
+            doFilter(containerRequest, containerResponse, servlet);
+        }
+
+        @Override
+        public void initialize() throws ContainerInitializationException {
+
+        }
+    }
+}
@@ -117,6 +117,50 @@ public class AwsHttpServletRequestTest {
         assertEquals("strawberry", cookies[0].getValue());
     }
 
+    @Test
+    void headers_getCookies_whiteSpaceEmptyPairsAndQuotedValues() {
+        AwsProxyRequest cookieRequest = new AwsProxyRequestBuilder("/cookie", "GET")
+                .header(HttpHeaders.COOKIE, " first=1 ;; second=\"quoted\";\tthird=a=b ; novalue; empty=; ").build();
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(cookieRequest, mockContext, null, config);
+        Cookie[] cookies = request.getCookies();
+
+        assertEquals(4, cookies.length);
+        assertEquals("first", cookies[0].getName());
+        assertEquals("1", cookies[0].getValue());
+        assertEquals("\"quoted\"", cookies[1].getValue());
+        assertEquals("third", cookies[2].getName());
+        assertEquals("a=b", cookies[2].getValue());
+        assertEquals("empty", cookies[3].getName());
+        assertEquals("", cookies[3].getValue());
+        assertSame(cookies, request.getCookies());
+    }
+
+    @Test
+    void cleanUri_variousPaths_normalized() {
+        assertEquals("/", AwsHttpServletRequest.cleanUri(null));
+        assertEquals("/", AwsHttpServletRequest.cleanUri("/"));
+        assertEquals("", AwsHttpServletRequest.cleanUri(""));
+        assertEquals("/", AwsHttpServletRequest.cleanUri("//"));
+        assertEquals("/prod", AwsHttpServletRequest.cleanUri("prod"));
+        assertEquals("/a/b", AwsHttpServletRequest.cleanUri("a//b/"));
+        assertEquals("/a/", AwsHttpServletRequest.cleanUri("/a//"));
+        assertEquals("/a/b", AwsHttpServletRequest.cleanUri("///a///b"));
+        String clean = "/already/clean";
+        assertSame(clean, AwsHttpServletRequest.cleanUri(clean));
+    }
+
+    @Test
+    void getPathInfo_encodedPath_decodedOncePerPath() {
+        AwsProxyRequest proxyRequest = new AwsProxyRequestBuilder("/a%20b//c+d/", "GET").build();
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(proxyRequest, mockContext, null, config);
+        String pathInfo = request.getPathInfo();
+        assertEquals("/a b/c d", pathInfo);
+        assertSame(pathInfo, request.getPathInfo());
+
+        proxyRequest.setPath("/other");
+        assertEquals("/other", request.getPathInfo());
+    }
+
     @Test
     void headers_parseHeaderValue_complexAccept() {
         AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(complexAcceptHeader, mockContext, null, config);
@@ -420,6 +464,22 @@ public class AwsHttpServletRequestTest {
         assertTrue(paramMap.size() == 2);
     }
 
+    @Test
+    void parameterMap_generateParameterMap_usesArgumentsOfEveryCall() {
+        ContainerConfig caseSensitiveConfig = ContainerConfig.defaultConfig();
+        caseSensitiveConfig.setQueryStringCaseSensitive(true);
+        ContainerConfig caseInsensitiveConfig = ContainerConfig.defaultConfig();
+        caseInsensitiveConfig.setQueryStringCaseSensitive(false);
+        AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(differentCasing, mockContext, null, caseSensitiveConfig);
+        MultiValuedTreeMap<String, String> qs = request.getAwsProxyRequest().getMultiValueQueryStringParameters();
+
+        // the parameter methods build and keep the index of the request, generateParameterMap does not use it
+        assertArrayEquals(new String[] {"two", "three"}, request.getParameterValues("one"));
+        assertArrayEquals(new String[] {"four"}, request.generateParameterMap(qs, caseInsensitiveConfig).get("one"));
+        assertArrayEquals(new String[] {"two", "three"}, request.generateParameterMap(qs, caseSensitiveConfig).get("one"));
+        assertArrayEquals(new String[] {"two", "three"}, request.getParameterValues("one"));
+    }
+
     @Test
     void queryParamValues_getQueryParamValues() {
         AwsProxyHttpServletRequest request = new AwsProxyHttpServletRequest(new AwsProxyRequest(), mockContext, null);
@@ -6,6 +6,7 @@ import com.amazonaws.serverless.proxy.model.Headers;
 
 import org.junit.jupiter.api.Test;
 
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.Cookie;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
@@ -134,6 +135,16 @@ public class AwsHttpServletResponseTest {
         assertTrue(Math.abs(dateDiff) < COOKIE_GRACE_COMPARE_MILLIS);
     }
 
+    @Test
+    void cookie_formatExpires_sameSecondSameValue() {
+        long epochSecond = 1700000000L;
+        String formatted = AwsCookieProcessor.formatExpires(epochSecond);
+        assertEquals("Tue, 14 Nov 2023 22:13:20 GMT", formatted);
+        assertSame(formatted, AwsCookieProcessor.formatExpires(epochSecond));
+        assertEquals("Tue, 14 Nov 2023 22:13:36 GMT", AwsCookieProcessor.formatExpires(epochSecond + AwsCookieProcessor.EXPIRES_CACHE_SIZE));
+        assertEquals(formatted, AwsCookieProcessor.formatExpires(epochSecond));
+    }
+
     @Test
     void cookie_addCookieWithoutMaxAge_expectNoExpires() {
         AwsHttpServletResponse resp = new AwsHttpServletResponse(null, null);
@@ -357,6 +368,74 @@ public class AwsHttpServletResponseTest {
         assertEquals("ü",resp.getAwsResponseBodyString());
     }
 
+    @Test
+    void newResponse_releasedResponse_keepsOnlyBuffer() throws IOException {
+        AwsHttpServletResponse released = new AwsHttpServletResponse(null, new CountDownLatch(1));
+        released.setStatus(404);
+        released.setContentType("text/plain; charset=ISO-8859-1");
+        released.addHeader("X-Test", "first");
+        released.getWriter().print("first response");
+        released.flushBuffer();
+        byte[] buffer = released.getAwsResponseBodyBuffer();
+        released.release();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AwsHttpServletResponse resp = new AwsHttpServletResponse(null, latch, released);
+        assertSame(buffer, resp.getAwsResponseBodyBuffer());
+
+        assertFalse(resp.isCommitted());
+        assertEquals(new AwsHttpServletResponse(null, null).getStatus(), resp.getStatus());
+        assertNull(resp.getHeader("X-Test"));
+        assertNull(resp.getContentType());
+        assertEquals(0, resp.getAwsResponseBodyLength());
+        assertNull(resp.getAwsResponseCharset());
+
+        resp.getOutputStream().write("second".getBytes(StandardCharsets.UTF_8));
+        resp.flushBuffer();
+        assertEquals(0, latch.getCount());
+        assertEquals("second", resp.getAwsResponseBodyString());
+    }
+
+    @Test
+    void release_staleOutputStreamAndWriter_throwIllegalState() throws IOException {
+        AwsHttpServletResponse resp = new AwsHttpServletResponse(null, new CountDownLatch(1));
+        ServletOutputStream staleStream = resp.getOutputStream();
+        assertSame(staleStream, resp.getOutputStream());
+        resp.flushBuffer();
+        resp.release();
+        assertThrows(IllegalStateException.class, () -> staleStream.write(1));
+
+        AwsHttpServletResponse next = new AwsHttpServletResponse(null, new CountDownLatch(1), resp);
+        PrintWriter staleWriter = next.getWriter();
+        next.flushBuffer();
+        next.release();
+        staleWriter.print("late");
+        assertThrows(IllegalStateException.class, staleWriter::flush);
+        assertEquals(0, new AwsHttpServletResponse(null, new CountDownLatch(1), next).getAwsResponseBodyLength());
+    }
+
+    @Test
+    void release_staleResponse_mutatorsThrowAndNextResponseUnchanged() throws IOException {
+        AwsHttpServletResponse stale = new AwsHttpServletResponse(null, new CountDownLatch(1));
+        stale.getOutputStream().write("first".getBytes(StandardCharsets.UTF_8));
+        stale.flushBuffer();
+        stale.release();
+        AwsHttpServletResponse next = new AwsHttpServletResponse(null, new CountDownLatch(1), stale);
+
+        assertThrows(IllegalStateException.class, () -> stale.setHeader("X-Stale", "true"));
+        assertThrows(IllegalStateException.class, () -> stale.addHeader("X-Stale", "true"));
+        assertThrows(IllegalStateException.class, () -> stale.setStatus(500));
+        assertThrows(IllegalStateException.class, () -> stale.addCookie(new Cookie("stale", "true")));
+        assertThrows(IllegalStateException.class, () -> stale.setContentType("text/plain"));
+        assertThrows(IllegalStateException.class, () -> stale.sendError(500));
+        assertThrows(IllegalStateException.class, stale::getOutputStream);
+        assertThrows(IllegalStateException.class, stale::resetBuffer);
+
+        assertEquals(200, next.getStatus());
+        assertTrue(next.getHeaderNames().isEmpty());
+        assertEquals(0, next.getAwsResponseBodyLength());
+    }
+
     private int getMaxAge(String header) {
         Matcher ageMatcher = MAX_AGE_PATTERN.matcher(header);
         assertTrue(ageMatcher.find());
@@ -0,0 +1,126 @@
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
+import com.amazonaws.serverless.proxy.AwsProxyExceptionHandler;
+import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.PrimingEvents;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.services.lambda.runtime.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AwsLambdaServletContainerHandlerTest {
+
+    @AfterEach
+    void resetConfig() {
+        LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(false);
+    }
+
+    @Test
+    void proxy_reuseContainerObjects_recyclesBodyBuffer() {
+        LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(true);
+        RecordingContainerHandler handler = new RecordingContainerHandler();
+
+        AwsProxyResponse first = handler.proxy(new AwsProxyRequestBuilder("/first", "GET").build(), new MockLambdaContext());
+        AwsProxyResponse second = handler.proxy(new AwsProxyRequestBuilder("/second", "GET").build(), new MockLambdaContext());
+
+        assertEquals(2, handler.responses.size());
+        assertNotSame(handler.responses.get(0), handler.responses.get(1));
+        assertSame(handler.buffers.get(0), handler.buffers.get(1));
+        assertEquals("/first", first.getBody());
+        assertEquals("/second", second.getBody());
+        assertEquals("/first", first.getMultiValueHeaders().getFirst("X-Path"));
+        assertEquals("/second", second.getMultiValueHeaders().getFirst("X-Path"));
+        assertEquals(1, second.getMultiValueHeaders().get("X-Path").size());
+        // the stream from the first invocation was invalidated when its response was released
+        assertThrows(IllegalStateException.class, () -> handler.streams.get(0).write(1));
+        assertThrows(IllegalStateException.class, () -> handler.responses.get(0).setHeader("X-Path", "/stale"));
+        assertEquals("/second", handler.responses.get(1).getHeader("X-Path"));
+    }
+
+    @Test
+    void proxy_reuseDisabled_allocatesNewResponses() {
+        RecordingContainerHandler handler = new RecordingContainerHandler();
+
+        handler.proxy(new AwsProxyRequestBuilder("/first", "GET").build(), new MockLambdaContext());
+        handler.proxy(new AwsProxyRequestBuilder("/second", "GET").build(), new MockLambdaContext());
+
+        assertNotSame(handler.responses.get(0), handler.responses.get(1));
+    }
+
+    @Test
+    void newServletResponse_responseNotReleased_allocatesNewResponse() {
+        LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(true);
+        RecordingContainerHandler handler = new RecordingContainerHandler();
+
+        AwsHttpServletResponse first = handler.newServletResponse(null, new CountDownLatch(1));
+        AwsHttpServletResponse second = handler.newServletResponse(null, new CountDownLatch(1));
+        assertNotSame(first, second);
+
+        byte[] buffer = first.getAwsResponseBodyBuffer();
+        handler.releaseContainerResponse(first);
+        AwsHttpServletResponse third = handler.newServletResponse(null, new CountDownLatch(1));
+        assertNotSame(first, third);
+        assertSame(buffer, third.getAwsResponseBodyBuffer());
+    }
+
+    @Test
+    void beforeCheckpoint_primesAndDropsRecycledResponse() throws Exception {
+        LambdaContainerHandler.getContainerConfig().setReuseContainerObjects(true);
+        RecordingContainerHandler handler = new RecordingContainerHandler();
+        handler.addPrimingEvent(PrimingEvents.restApi("GET", "/primed"));
+
+        handler.beforeCheckpoint(null);
+        assertEquals(1, handler.responses.size());
+        byte[] buffer = handler.buffers.get(0);
+        assertNotSame(buffer, handler.newServletResponse(null, new CountDownLatch(1)).getAwsResponseBodyBuffer());
+    }
+
+    private static class RecordingContainerHandler extends AwsLambdaServletContainerHandler<AwsProxyRequest, AwsProxyResponse, HttpServletRequest, AwsHttpServletResponse> {
+        private final List<AwsHttpServletResponse> responses = new ArrayList<>();
+        private final List<ServletOutputStream> streams = new ArrayList<>();
+        private final List<byte[]> buffers = new ArrayList<>();
+
+        RecordingContainerHandler() {
+            super(AwsProxyRequest.class, AwsProxyResponse.class, new AwsProxyHttpServletRequestReader(),
+                    new AwsProxyHttpServletResponseWriter(), new AwsProxySecurityContextWriter(), new AwsProxyExceptionHandler());
+        }
+
+        @Override
+        protected AwsHttpServletResponse getContainerResponse(HttpServletRequest request, CountDownLatch latch) {
+            AwsHttpServletResponse response = newServletResponse(request, latch);
+            responses.add(response);
+            return response;
+        }
+
+        @Override
+        protected void handleRequest(HttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext) throws IOException {
+            containerResponse.setStatus(200);
+            containerResponse.addHeader("X-Path", containerRequest.getRequestURI());
+            ServletOutputStream out = containerResponse.getOutputStream();
+            streams.add(out);
+            out.write(containerRequest.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            buffers.add(containerResponse.getAwsResponseBodyBuffer());
+            containerResponse.flushBuffer();
+        }
+
+        @Override
+        public void initialize() throws ContainerInitializationException {
+
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.exceptions.InvalidRequestEventException;
+import com.amazonaws.serverless.exceptions.InvalidResponseObjectException;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.internal.testutils.MockLambdaContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AwsProxyHttpServletOutputStreamResponseWriterTest {
+    private static final MockLambdaContext lambdaContext = new MockLambdaContext();
+
+    @Test
+    void writeResponse_utf8TextBody_matchesDefaultWriter() throws Exception {
+        AwsHttpServletResponse response = response(new AwsProxyRequestBuilder("/test", "GET"));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.addHeader("X-Custom", "one");
+        response.addHeader("X-Custom", "two");
+        response.getWriter().print("{\"message\": \"héllo \\\"quoted\\\"\n☃\"}");
+        response.flushBuffer();
+
+        JsonNode output = assertMatchesDefaultWriter(response, false);
+        assertFalse(output.get("isBase64Encoded").asBoolean());
+        assertEquals("{\"message\": \"héllo \\\"quoted\\\"\n☃\"}", output.get("body").asText());
+        assertEquals(2, output.get("multiValueHeaders").get("X-Custom").size());
+    }
+
+    @Test
+    void writeResponse_defaultCharset_matchesDefaultWriter() throws Exception {
+        AwsHttpServletResponse response = response(new AwsProxyRequestBuilder("/test", "GET"));
+        response.setContentType("text/plain");
+        response.getWriter().print("plain ascii");
+        response.flushBuffer();
+        assertMatchesDefaultWriter(response, true);
+
+        response = response(new AwsProxyRequestBuilder("/test", "GET"));
+        response.setContentType("text/plain");
+        response.getWriter().print("non ascii é");
+        response.flushBuffer();
+        assertMatchesDefaultWriter(response, true);
+    }
+
+    @Test
+    void writeResponse_binaryBody_isBase64Encoded() throws Exception {
+        byte[] image = new byte[] { (byte) 0x89, 'P', 'N', 'G', 0, 1, 2, (byte) 0xff, (byte) 0xfe };
+        AwsHttpServletResponse response = response(new AwsProxyRequestBuilder("/test", "GET"));
+        response.setContentType("image/png");
+        response.getOutputStream().write(image);
+        response.flushBuffer();
+
+        JsonNode output = assertMatchesDefaultWriter(response, false);
+        assertTrue(output.get("isBase64Encoded").asBoolean());
+        assertArrayEquals(image, Base64.getDecoder().decode(output.get("body").asText()));
+
+        // invalid UTF-8 with a text content type is encoded too
+        response = response(new AwsProxyRequestBuilder("/test", "GET"));
+        response.setContentType("text/plain");
+        response.getOutputStream().write(new byte[] { 'a', (byte) 0xc3 });
+        response.flushBuffer();
+        output = assertMatchesDefaultWriter(response, false);
+        assertTrue(output.get("isBase64Encoded").asBoolean());
+    }
+
+    @Test
+    void writeResponse_albRequest_includesStatusDescription() throws Exception {
+        AwsHttpServletResponse response = response(new AwsProxyRequestBuilder("/test", "GET").alb());
+        response.setStatus(404);
+        response.getWriter().print("not found");
+        response.flushBuffer();
+
+        JsonNode output = assertMatchesDefaultWriter(response, true);
+        assertEquals("404 Not Found", output.get("statusDescription").asText());
+    }
+
+    @Test
+    void writeResponse_notFlushed_hasNoBody() throws Exception {
+        AwsHttpServletResponse response = response(new AwsProxyRequestBuilder("/test", "GET"));
+        response.setStatus(204);
+
+        JsonNode output = assertMatchesDefaultWriter(response, false);
+        assertNull(output.get("body"));
+        assertEquals(204, output.get("statusCode").asInt());
+    }
+
+    @Test
+    void writeResponse_nullResponse_throwsInvalidResponse() {
+        assertThrows(InvalidResponseObjectException.class, () ->
+                new AwsProxyHttpServletOutputStreamResponseWriter().writeResponse(null, lambdaContext, new ByteArrayOutputStream()));
+    }
+
+    private static JsonNode assertMatchesDefaultWriter(AwsHttpServletResponse response, boolean singleValueHeaders)
+            throws InvalidResponseObjectException, IOException {
+        AwsProxyResponse expected = new AwsProxyHttpServletResponseWriter(singleValueHeaders).writeResponse(response, lambdaContext);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new AwsProxyHttpServletOutputStreamResponseWriter(singleValueHeaders).writeResponse(response, lambdaContext, output);
+
+        JsonNode actual = LambdaContainerHandler.getObjectMapper().readTree(output.toByteArray());
+        assertEquals(LambdaContainerHandler.getObjectMapper().valueToTree(expected), actual);
+        // the text bodies must be byte-for-byte identical to the strings produced by the default writer
+        if (expected.getBody() != null) {
+            assertArrayEquals(LambdaContainerHandler.getObjectMapper().writeValueAsString(expected.getBody()).getBytes(StandardCharsets.UTF_8),
+                    LambdaContainerHandler.getObjectMapper().writeValueAsBytes(actual.get("body")));
+        }
+        return actual;
+    }
+
+    private static AwsHttpServletResponse response(AwsProxyRequestBuilder builder) throws InvalidRequestEventException {
+        HttpServletRequest request = new AwsProxyHttpServletRequestReader().readRequest(builder.build(), null, lambdaContext,
+                LambdaContainerHandler.getContainerConfig());
+        return new AwsHttpServletResponse(request, new CountDownLatch(1));
+    }
+}
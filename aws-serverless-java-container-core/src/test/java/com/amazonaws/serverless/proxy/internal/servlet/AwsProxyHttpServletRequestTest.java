@@ -5,6 +5,7 @@ import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
 
 import com.amazonaws.services.lambda.runtime.Context;
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -14,6 +15,7 @@ import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.SecurityContext;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -530,6 +532,23 @@ public class AwsProxyHttpServletRequestTest {
         assertEquals(Locale.CANADA_FRENCH, servletRequest.getLocale());
     }
 
+    @MethodSource("data")
+    @ParameterizedTest
+    void getLocales_sameAcceptHeaderTwice_sameCachedLocales(String type) {
+        initAwsProxyHttpServletRequestTest(type);
+        AwsProxyRequestBuilder req = getRequestWithHeaders();
+        req.header(HttpHeaders.ACCEPT_LANGUAGE, "it-IT, it;q=0.9");
+        HttpServletRequest first = getRequest(req, null, null);
+        HttpServletRequest second = getRequest(req, null, null);
+
+        assertEquals(Locale.ITALY, first.getLocale());
+        assertEquals(Collections.list(first.getLocales()), Collections.list(second.getLocales()));
+        AwsHttpServletRequest request = new AwsProxyHttpServletRequest(req.build(), null, null);
+        List<Locale> locales = request.parseAcceptLanguageHeader("it-IT, it;q=0.9");
+        assertSame(locales, request.parseAcceptLanguageHeader("it-IT, it;q=0.9"));
+        assertThrows(UnsupportedOperationException.class, () -> locales.add(Locale.ENGLISH));
+    }
+
     @MethodSource("data")
     @ParameterizedTest
     void getLocales_validAcceptHeaderMultipleLocales_expectFullLocaleListOrdered(String type) {
@@ -580,6 +599,42 @@ public class AwsProxyHttpServletRequestTest {
         }
     }
 
+    @MethodSource("data")
+    @ParameterizedTest
+    void inputStream_base64Body_expectDecodedStreamAndReader(String type) throws IOException {
+        initAwsProxyHttpServletRequestTest(type);
+        byte[] body = new byte[20000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+        AwsProxyRequestBuilder proxyReq = new AwsProxyRequestBuilder("/hello", "POST")
+                .binaryBody(new ByteArrayInputStream(body));
+        assertArrayEquals(body, IOUtils.toByteArray(getRequest(proxyReq, null, null).getInputStream()));
+
+        proxyReq = new AwsProxyRequestBuilder("/hello", "POST")
+                .header(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8")
+                .binaryBody(new ByteArrayInputStream("h\u00e9llo\nworld".getBytes(StandardCharsets.UTF_8)));
+        HttpServletRequest req = getRequest(proxyReq, null, null);
+        assertEquals("h\u00e9llo", req.getReader().readLine());
+    }
+
+    @MethodSource("data")
+    @ParameterizedTest
+    void inputStream_textBody_expectEncodedWithCharacterEncoding(String type) throws IOException {
+        initAwsProxyHttpServletRequestTest(type);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            body.append("caf\u00e9 \u2603 ");
+        }
+        AwsProxyRequestBuilder proxyReq = new AwsProxyRequestBuilder("/hello", "POST")
+                .header(HttpHeaders.CONTENT_TYPE, "text/plain; charset=UTF-8")
+                .body(body.toString());
+        HttpServletRequest req = getRequest(proxyReq, null, null);
+        assertArrayEquals(body.toString().getBytes(StandardCharsets.UTF_8), IOUtils.toByteArray(req.getInputStream()));
+        assertTrue(req.getInputStream().read() == -1);
+        assertEquals(body.toString(), IOUtils.toString(getRequest(proxyReq, null, null).getReader()));
+    }
+
     @MethodSource("data")
     @ParameterizedTest
     void getHeaders_emptyHeaders_expectEmptyEnumeration(String type) {
@@ -220,6 +220,94 @@ public class AwsServletContextTest {
         assertEquals(srv2, ctx.getServletForPath("/srv3"));
     }
 
+    @Test
+    void servletMappings_longestPrefixWildcardAndExtension_expectCorrectServlet() {
+        AwsServletContext ctx = new AwsServletContext(null);
+        TestServlet defaultServlet = new TestServlet("default");
+        TestServlet api = new TestServlet("api");
+        TestServlet pets = new TestServlet("pets");
+        TestServlet owners = new TestServlet("owners");
+        TestServlet actions = new TestServlet("actions");
+
+        ctx.addServlet("default", defaultServlet).addMapping("/");
+        ctx.addServlet("api", api).addMapping("/api/*");
+        ctx.addServlet("pets", pets).addMapping("/api/pets/deep/path");
+        ctx.addServlet("owners", owners).addMapping("/api/*/owners");
+        ctx.addServlet("actions", actions).addMapping("*.do");
+
+        assertEquals(api, ctx.getServletForPath("/api"));
+        assertEquals(api, ctx.getServletForPath("/api/pets"));
+        assertEquals(pets, ctx.getServletForPath("/api/pets/deep/path/1"));
+        assertEquals(owners, ctx.getServletForPath("/api/pets/owners"));
+        assertEquals(api, ctx.getServletForPath("/api/pets/deep"));
+        assertEquals(actions, ctx.getServletForPath("/submit.do"));
+        assertEquals(defaultServlet, ctx.getServletForPath("/submit.done"));
+        assertEquals(defaultServlet, ctx.getServletForPath("/"));
+
+        TestServlet late = new TestServlet("late");
+        ctx.addServlet("late", late).addMapping("/late");
+        assertEquals(late, ctx.getServletForPath("/late/1"));
+    }
+
+    @Test
+    void servletMappings_midPathWildcard_matchesOneSegment() {
+        AwsServletContext ctx = new AwsServletContext(null);
+        TestServlet owners = new TestServlet("owners");
+        ctx.addServlet("owners", owners).addMapping("/a/*/c");
+
+        assertEquals(owners, ctx.getServletForPath("/a/b/c"));
+        assertEquals(owners, ctx.getServletForPath("/a/b/c/d"));
+        // UrlPattern matches the rest of the path for the same wildcard, see AwsFilterChainManagerTest
+        assertNull(ctx.getServletForPath("/a/b/d/e"));
+        assertNull(ctx.getServletForPath("/a/b"));
+        assertNull(ctx.getServletForPath("/a"));
+    }
+
+    @Test
+    void servletMappings_rootPrefixMapping_beatsExtensionAndDefault() {
+        AwsServletContext ctx = new AwsServletContext(null);
+        TestServlet defaultServlet = new TestServlet("default");
+        TestServlet all = new TestServlet("all");
+        TestServlet api = new TestServlet("api");
+        TestServlet actions = new TestServlet("actions");
+
+        ctx.addServlet("default", defaultServlet).addMapping("/");
+        ctx.addServlet("actions", actions).addMapping("*.do");
+        ctx.addServlet("all", all).addMapping("/*");
+        ctx.addServlet("api", api).addMapping("/api/*");
+
+        assertEquals(all, ctx.getServletForPath("/submit.do"));
+        assertEquals(all, ctx.getServletForPath("/pets/1"));
+        assertEquals(all, ctx.getServletForPath("/"));
+        assertEquals(api, ctx.getServletForPath("/api/submit.do"));
+    }
+
+    @Test
+    void servletMappings_contextRootMapping_onlyMatchesRoot() {
+        AwsServletContext ctx = new AwsServletContext(null);
+        TestServlet defaultServlet = new TestServlet("default");
+        TestServlet contextRoot = new TestServlet("root");
+        TestServlet all = new TestServlet("all");
+
+        ctx.addServlet("root", contextRoot).addMapping("");
+        assertEquals(contextRoot, ctx.getServletForPath("/"));
+        assertEquals(contextRoot, ctx.getServletForPath(""));
+        assertNull(ctx.getServletForPath("/pets"));
+
+        ctx.addServlet("default", defaultServlet).addMapping("/");
+        ctx.addServlet("all", all).addMapping("/*");
+        assertEquals(contextRoot, ctx.getServletForPath("/"));
+        assertEquals(all, ctx.getServletForPath("/pets"));
+    }
+
+    @Test
+    void servletMappings_mappingLongerThanPath_expectNoMatch() {
+        AwsServletContext ctx = new AwsServletContext(null);
+        ctx.addServlet("srv1", new TestServlet("srv1")).addMapping("/a/b/c");
+        assertNull(ctx.getServletForPath("/a"));
+        assertNull(ctx.getServletForPath("/a/b"));
+    }
+
     @Test
     void addServlet_callsDefaultConstructor() throws ServletException {
         AwsServletContext ctx = new AwsServletContext(null);
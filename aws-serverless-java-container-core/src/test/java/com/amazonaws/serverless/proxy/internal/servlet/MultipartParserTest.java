@@ -0,0 +1,143 @@
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultipartParserTest {
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=\"abc123\"";
+
+    @Test
+    void parse_fieldsAndFile_partsAreViewsOfTheBody() throws IOException {
+        String body = "preamble\r\n"
+                + "--abc123\r\n"
+                + "Content-Disposition: form-data; name=\"field\"\r\n"
+                + "\r\n"
+                + "value\r\n"
+                + "--abc123  \r\n"
+                + "content-disposition: form-data; name=\"file\"; filename=\"C:\\Users\\me\\a.txt\"\r\n"
+                + "Content-Type: text/plain\r\n"
+                + "X-Custom: one\r\n"
+                + "  two\r\n"
+                + "\r\n"
+                + "line1\r\nline2\r\n-- not a boundary\r\n"
+                + "--abc123--\r\n"
+                + "epilogue";
+        List<AwsProxyRequestPart> parts = parse(body);
+
+        assertEquals(2, parts.size());
+        AwsProxyRequestPart field = parts.get(0);
+        assertEquals("field", field.getName());
+        assertNull(field.getSubmittedFileName());
+        assertNull(field.getContentType());
+        assertEquals("value", IOUtils.toString(field.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(5, field.getSize());
+
+        AwsProxyRequestPart file = parts.get(1);
+        assertEquals("file", file.getName());
+        assertEquals("a.txt", file.getSubmittedFileName());
+        assertEquals("text/plain", file.getContentType());
+        assertEquals("line1\r\nline2\r\n-- not a boundary", IOUtils.toString(file.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals("one two", file.getHeader("x-custom"));
+        assertEquals("text/plain", file.getHeader("Content-Type"));
+        assertEquals(Arrays.asList("content-disposition", "content-type", "x-custom"),
+                     file.getHeaderNames().stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void parse_emptyHeadersAndContent_partsKept() throws IOException {
+        String body = "--abc123\r\n"
+                + "Content-Disposition: form-data; name=\"empty\"\r\n"
+                + "\r\n"
+                + "\r\n"
+                + "--abc123\r\n"
+                + "\r\n"
+                + "no name\r\n"
+                + "--abc123--";
+        List<AwsProxyRequestPart> parts = parse(body);
+        assertEquals(1, parts.size());
+        assertEquals("empty", parts.get(0).getName());
+        assertEquals(0, parts.get(0).getSize());
+        assertEquals(-1, parts.get(0).getInputStream().read());
+    }
+
+    @Test
+    void parse_boundaryNotAtLineStart_preambleSkipped() throws IOException {
+        List<AwsProxyRequestPart> parts = parse("\n--abc123\r\nContent-Disposition: form-data; name=\"a\"\r\n\r\n1\r\n--abc123--");
+        assertEquals(1, parts.size());
+        assertEquals("1", IOUtils.toString(parts.get(0).getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parse_multipartMixed_filesGetTheEnclosingName() throws IOException {
+        String body = "--abc123\r\n"
+                + "Content-Disposition: form-data; name=\"files\"\r\n"
+                + "Content-Type: multipart/mixed; boundary=inner\r\n"
+                + "\r\n"
+                + "--inner\r\n"
+                + "Content-Disposition: attachment; filename=\"one.txt\"\r\n"
+                + "\r\n"
+                + "1\r\n"
+                + "--inner\r\n"
+                + "Content-Disposition: attachment; filename*=UTF-8''na%C3%AFve.txt\r\n"
+                + "\r\n"
+                + "2\r\n"
+                + "--inner--\r\n"
+                + "--abc123--\r\n";
+        List<AwsProxyRequestPart> parts = parse(body);
+        assertEquals(2, parts.size());
+        assertEquals("files", parts.get(0).getName());
+        assertEquals("one.txt", parts.get(0).getSubmittedFileName());
+        assertEquals("files", parts.get(1).getName());
+        assertEquals("na\u00efve.txt", parts.get(1).getSubmittedFileName());
+        assertEquals("2", IOUtils.toString(parts.get(1).getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parse_invalidBodies_throw() {
+        assertThrows(IOException.class, () -> parse("no boundary here"));
+        assertThrows(IOException.class, () -> parse("--abc123\r\nContent-Disposition: form-data; name=a\r\n\r\nvalue"));
+        assertThrows(IOException.class, () -> parse("--abc123\r\nContent-Disposition: form-data; name=a"));
+        assertThrows(IOException.class, () -> parse("--abc123garbage"));
+        assertThrows(IOException.class, () -> new MultipartParser(new byte[0], StandardCharsets.UTF_8).parse("multipart/form-data"));
+    }
+
+    @Test
+    void parseParameters_quotedAndUnquotedValues() {
+        Map<String, String> parameters = MultipartParser.parseParameters("form-data; Name=\"a;b\\\"c\"; size = 10 ; flag; filename=");
+        assertEquals("a;b\\\"c", parameters.get("name"));
+        assertEquals("10", parameters.get("size"));
+        assertTrue(parameters.containsKey("flag"));
+        assertNull(parameters.get("flag"));
+        assertEquals("", parameters.get("filename"));
+        assertEquals(Collections.emptyMap(), MultipartParser.parseParameters("form-data"));
+    }
+
+    @Test
+    void write_partView_writesOnlyThePartContent() throws IOException {
+        List<AwsProxyRequestPart> parts = parse("--abc123\r\nContent-Disposition: form-data; name=\"f\"; filename=\"f.bin\"\r\n\r\n"
+                                                        + "content\r\n--abc123--");
+        File file = File.createTempFile("multipart", ".bin");
+        try {
+            parts.get(0).write(file.getAbsolutePath());
+            assertEquals("content", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    private static List<AwsProxyRequestPart> parse(String body) throws IOException {
+        return new MultipartParser(body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8).parse(CONTENT_TYPE);
+    }
+}
@@ -0,0 +1,134 @@
+package com.amazonaws.serverless.proxy.internal.servlet;
+
+import com.amazonaws.serverless.proxy.internal.testutils.AwsProxyRequestBuilder;
+import com.amazonaws.serverless.proxy.model.MultiValuedTreeMap;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterIndexTest {
+
+    @Test
+    void parseFormUrlEncoded_encodedValues_decodedInPlace() {
+        MultiValuedTreeMap<String, String> form = parse("name=Bob+B%21&city=M%C3%BCnchen&json=%7B%22a%22%3A1%7D");
+        assertEquals("Bob B!", form.getFirst("name"));
+        assertEquals("M\u00fcnchen", form.getFirst("city"));
+        assertEquals("{\"a\":1}", form.getFirst("json"));
+    }
+
+    @Test
+    void parseFormUrlEncoded_repeatedAndMixedCaseNames_valuesMerged() {
+        MultiValuedTreeMap<String, String> form = parse("tag=1&TAG=2&tag=3");
+        assertEquals(1, form.size());
+        assertEquals(Arrays.asList("1", "2", "3"), form.get("Tag"));
+    }
+
+    @Test
+    void parseFormUrlEncoded_edgeCases_keepsValueAfterFirstSeparator() {
+        MultiValuedTreeMap<String, String> form = parse("a=b=c&&empty=&flag&=x");
+        assertEquals("b=c", form.getFirst("a"));
+        assertTrue(form.get("empty").isEmpty());
+        assertTrue(form.get("flag").isEmpty());
+        assertEquals("x", form.getFirst(""));
+        assertEquals(4, form.size());
+        assertTrue(parse("").isEmpty());
+    }
+
+    @Test
+    void parseFormUrlEncoded_invalidEscape_throws() {
+        assertThrows(IllegalArgumentException.class, () -> parse("a=%zz"));
+        assertThrows(IllegalArgumentException.class, () -> parse("a=%4"));
+    }
+
+    @Test
+    void getValues_queryAndForm_queryValuesFirst() {
+        MultiValuedTreeMap<String, String> query = new MultiValuedTreeMap<>();
+        query.add("one", "two");
+        ParameterIndex index = new ParameterIndex(query, false, parse("ONE=three&four=five"));
+
+        assertArrayEquals(new String[] {"two", "three"}, index.getValues("One"));
+        assertEquals("two", index.getFirst("one"));
+        assertEquals("five", index.getFirst("FOUR"));
+        assertNull(index.getValues("six"));
+        assertNull(index.getFirst("six"));
+        assertEquals(Arrays.asList("ONE", "four", "one"), Collections.list(index.getNames()));
+    }
+
+    @Test
+    void getQueryValues_caseInsensitive_smallestKeyWins() {
+        MultiValuedTreeMap<String, String> query = new MultiValuedTreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            query.add("param" + i, "lower" + i);
+            query.add("PARAM" + i, "upper" + i);
+        }
+        ParameterIndex insensitive = new ParameterIndex(query, false, Collections.emptyMap());
+        ParameterIndex sensitive = new ParameterIndex(query, true, Collections.emptyMap());
+
+        assertEquals(Collections.singletonList("upper42"), insensitive.getQueryValues("Param42"));
+        assertEquals(Collections.singletonList("lower42"), sensitive.getQueryValues("param42"));
+        assertNull(sensitive.getQueryValues("Param42"));
+        assertNull(insensitive.getQueryValues("param100"));
+        assertArrayEquals(new String[] {"upper7"}, insensitive.getParameterMap().get("param7"));
+        assertNull(new ParameterIndex(null, false, Collections.emptyMap()).getQueryValues("param1"));
+    }
+
+    @Test
+    void findQueryValuesIgnoreCase_sameResultAsIndex() {
+        MultiValuedTreeMap<String, String> query = new MultiValuedTreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            query.add("param" + i, "lower" + i);
+            query.add("PARAM" + i, "upper" + i);
+        }
+        ParameterIndex insensitive = new ParameterIndex(query, false, Collections.emptyMap());
+
+        assertEquals(insensitive.getQueryValues("Param4"), ParameterIndex.findQueryValuesIgnoreCase(query, "Param4"));
+        assertEquals(Collections.singletonList("upper4"), ParameterIndex.findQueryValuesIgnoreCase(query, "param4"));
+        assertNull(ParameterIndex.findQueryValuesIgnoreCase(query, "param10"));
+        assertNull(ParameterIndex.findQueryValuesIgnoreCase(null, "param1"));
+    }
+
+    @Test
+    void getQueryValues_turkishDefaultLocale_sameResultAsFind() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            MultiValuedTreeMap<String, String> query = new MultiValuedTreeMap<>();
+            query.add("TITLE", "upper");
+            ParameterIndex insensitive = new ParameterIndex(query, false, Collections.emptyMap());
+
+            // the Turkish locale lower cases "I" to a dotless "i", the lookups must not depend on it
+            assertEquals(Collections.singletonList("upper"), insensitive.getQueryValues("title"));
+            assertEquals(Collections.singletonList("upper"), ParameterIndex.findQueryValuesIgnoreCase(query, "title"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void getParameterMap_multipleCalls_sameUnmodifiableMap() {
+        AwsProxyRequestBuilder builder = new AwsProxyRequestBuilder("/hello", "POST")
+                .form("name", "Stef")
+                .queryString("tag", "1");
+        HttpServletRequest request = new AwsProxyHttpServletRequest(builder.build(), null, null);
+
+        Map<String, String[]> parameters = request.getParameterMap();
+        assertSame(parameters, request.getParameterMap());
+        assertThrows(UnsupportedOperationException.class, () -> parameters.put("other", new String[0]));
+        assertEquals("Stef", request.getParameter("NAME"));
+        assertArrayEquals(new String[] {"1"}, request.getParameterValues("tag"));
+        List<String> names = Collections.list(request.getParameterNames());
+        assertEquals(2, names.size());
+    }
+
+    private static MultiValuedTreeMap<String, String> parse(String body) {
+        return ParameterIndex.parseFormUrlEncoded(body.getBytes(StandardCharsets.US_ASCII), StandardCharsets.UTF_8);
+    }
+}
@@ -3,6 +3,11 @@ package com.amazonaws.serverless.proxy.internal.servlet;
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.AwsProxyExceptionHandler;
 import com.amazonaws.serverless.proxy.AwsProxySecurityContextWriter;
+import com.amazonaws.serverless.proxy.PrimingEvents;
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
+import com.amazonaws.serverless.proxy.internal.jackson.BlackbirdEventCodec;
+import com.amazonaws.serverless.proxy.internal.jackson.JacksonEventCodec;
+import com.amazonaws.serverless.proxy.internal.jackson.StreamingEventCodec;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -45,6 +50,44 @@ public class ServletLambdaContainerHandlerBuilderTest {
         assertEquals("test", test.name);
     }
 
+    @Test
+    void applyEventCodec_noCodecSet_usesBlackbirdOnModernJvm() {
+        TestHandler handler = new TestHandler();
+        assertTrue(handler.getEventCodec() instanceof JacksonEventCodec);
+        assertFalse(handler.getEventCodec() instanceof BlackbirdEventCodec);
+
+        new TestBuilder().defaultProxy().applyEventCodec(handler);
+        assertTrue(handler.getEventCodec() instanceof BlackbirdEventCodec);
+    }
+
+    @Test
+    void applyEventCodec_streamingParserEnabled_usesStreamingCodec() {
+        TestHandler handler = new TestHandler();
+        LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(true);
+        try {
+            new TestBuilder().defaultProxy().applyEventCodec(handler);
+        } finally {
+            LambdaContainerHandler.getContainerConfig().setUseStreamingEventParser(false);
+        }
+        assertTrue(handler.getEventCodec() instanceof StreamingEventCodec);
+    }
+
+    @Test
+    void applyEventCodec_codecSet_usesCodec() {
+        TestHandler handler = new TestHandler();
+        JacksonEventCodec<AwsProxyRequest, AwsProxyResponse> codec = new JacksonEventCodec<>(AwsProxyRequest.class, AwsProxyResponse.class);
+        new TestBuilder().defaultProxy().eventCodec(codec).applyEventCodec(handler);
+        assertSame(codec, handler.getEventCodec());
+    }
+
+    @Test
+    void applyPrimingEvents_missingResource_throwsInitializationException() throws ContainerInitializationException {
+        TestHandler handler = new TestHandler();
+        new TestBuilder().defaultProxy().primingEvent(PrimingEvents.restApi("GET", "/")).applyPrimingEvents(handler);
+        assertThrows(ContainerInitializationException.class,
+                () -> new TestBuilder().defaultProxy().primingEvents("missing-priming-events.json").applyPrimingEvents(handler));
+    }
+
     public static final class TestHandler extends AwsLambdaServletContainerHandler<AwsProxyRequest, AwsProxyResponse, HttpServletRequest, AwsHttpServletResponse> {
 
         public TestHandler() {
@@ -9,12 +9,17 @@ import jakarta.servlet.FilterConfig;
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class UrlPathValidatorTest {
@@ -90,6 +95,27 @@ public class UrlPathValidatorTest {
         }
     }
 
+    @Test
+    void isPlainAbsolutePath_fastPathOnlyForPathsUriAccepts() throws URISyntaxException {
+        for (String path : Arrays.asList("/", "/pets/1", "/a//b", "/a:b@c;d=e,f+g$h&i", "/%41%7e", "/-_.!~*'()")) {
+            assertTrue(UrlPathValidator.isPlainAbsolutePath(path), path);
+            new URI(path);
+        }
+        for (String path : Arrays.asList("", "pets", "//host/path", "/a b", "/a?b", "/a#b", "/%4", "/%zz", "/%\u0663\u0663",
+                                         "/[x]", "/\u00e9", "/a\\b")) {
+            assertFalse(UrlPathValidator.isPlainAbsolutePath(path), path);
+        }
+    }
+
+    @Test
+    void doFilter_pathTraversal_setsDefaultStatusCode() throws Exception {
+        AwsProxyHttpServletRequest req = new AwsProxyHttpServletRequest(new AwsProxyRequestBuilder("/a/../..", "GET").build(), null, null);
+        AwsHttpServletResponse resp = new AwsHttpServletResponse(req, null);
+        UrlPathValidator pathValidator = new UrlPathValidator();
+        pathValidator.init(null);
+        pathValidator.doFilter(req, resp, null);
+        assertEquals(UrlPathValidator.DEFAULT_ERROR_CODE, resp.getStatus());
+    }
 
     private FilterConfig mockFilterConfig(Map<String, String> initParams) {
         return new FilterConfig() {
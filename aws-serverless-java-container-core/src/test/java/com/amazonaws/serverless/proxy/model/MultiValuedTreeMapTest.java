@@ -1,8 +1,21 @@
 package com.amazonaws.serverless.proxy.model;
 
 
+import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -52,4 +65,114 @@ public class MultiValuedTreeMapTest {
         assertEquals(3, map.get("Test").size());
         assertEquals("test3", map.getFirst("Test"));
     }
+
+    @Test
+    void put_manyKeysAndRemovals_keepsInsertionOrderAndLookups() {
+        Headers map = new Headers();
+        for (int i = 0; i < 100; i++) {
+            map.add("X-Header-" + i, "value" + i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(Arrays.asList("value" + i), map.remove("x-header-" + i));
+        }
+        for (int i = 100; i < 150; i++) {
+            map.add("X-Header-" + i, "value" + i);
+        }
+
+        assertEquals(100, map.size());
+        List<String> keys = new ArrayList<>(map.keySet());
+        assertEquals("X-Header-1", keys.get(0));
+        assertEquals("X-Header-149", keys.get(keys.size() - 1));
+        for (int i = 0; i < 150; i++) {
+            assertEquals(i < 100 && i % 2 == 0 ? null : "value" + i, map.getFirst("x-HEADER-" + i));
+        }
+    }
+
+    @Test
+    void entrySet_iteratorRemoveAndSetValue_updatesMap() {
+        MultiValuedTreeMap<String, String> map = new MultiValuedTreeMap<>();
+        map.add("a", "1");
+        map.add("b", "2");
+        map.add("c", "3");
+
+        Iterator<Map.Entry<String, List<String>>> entries = map.entrySet().iterator();
+        entries.next().setValue(new ArrayList<>(Arrays.asList("4")));
+        entries.next();
+        entries.remove();
+        assertEquals("4", map.getFirst("a"));
+        assertFalse(map.containsKey("b"));
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<>(map.keySet()));
+
+        map.keySet().remove("a");
+        assertEquals(1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("c"));
+    }
+
+    @Test
+    void valueList_addRemoveAndSet_behavesLikeList() {
+        MultiValuedTreeMap<String, String> map = new MultiValuedTreeMap<>();
+        map.add("key", "1");
+        List<String> values = map.get("key");
+        values.add("2");
+        values.add(0, "0");
+        for (int i = 3; i < 10; i++) {
+            values.add(Integer.toString(i));
+        }
+        assertEquals(10, values.size());
+        assertEquals("0", values.set(0, "zero"));
+        assertEquals("1", values.remove(1));
+        assertEquals(Arrays.asList("zero", "2", "3", "4", "5", "6", "7", "8", "9"), values);
+        assertThrows(IndexOutOfBoundsException.class, () -> values.get(9));
+
+        map.putSingle("key", "single");
+        assertEquals(Arrays.asList("single"), map.get("key"));
+    }
+
+    @Test
+    void equals_sameEntriesDifferentTypes_expectEqual() {
+        Headers headers = new Headers();
+        headers.add("Content-Type", "application/json");
+        Map<String, List<String>> other = Collections.singletonMap("Content-Type", Arrays.asList("application/json"));
+        assertEquals(headers, other);
+        assertEquals(other.hashCode(), headers.hashCode());
+        assertTrue(headers.equalsIgnoreValueOrder(headers.clone()));
+    }
+
+    @Test
+    void clone_headers_keepsCaseInsensitivity() {
+        Headers headers = new Headers();
+        headers.add("Content-Type", "application/json");
+        MultiValuedTreeMap<String, String> clone = headers.clone();
+        assertEquals("application/json", clone.getFirst("content-type"));
+        clone.add("content-type", "text/plain");
+        assertEquals(1, headers.get("Content-Type").size());
+    }
+
+    @Test
+    void jackson_roundTrip_keepsValues() throws IOException {
+        Headers headers = LambdaContainerHandler.getObjectMapper()
+                .readValue("{\"Accept\":[\"text/html\",\"application/json\"],\"X-Trace\":[\"1\"]}", Headers.class);
+        assertEquals(2, headers.get("accept").size());
+        assertEquals("1", headers.getFirst("x-trace"));
+        assertEquals("{\"Accept\":[\"text/html\",\"application/json\"],\"X-Trace\":[\"1\"]}",
+                     LambdaContainerHandler.getObjectMapper().writeValueAsString(headers));
+    }
+
+    @Test
+    void serialization_roundTrip_keepsValues() throws IOException, ClassNotFoundException {
+        Headers headers = new Headers();
+        headers.add("Accept", "text/html");
+        headers.add("accept", "application/json");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(headers);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Headers copy = (Headers) input.readObject();
+            assertEquals(Arrays.asList("text/html", "application/json"), copy.get("ACCEPT"));
+        }
+    }
 }
@@ -13,7 +13,8 @@
 package com.amazonaws.serverless.proxy.jersey;
 
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.jersey.suppliers.AwsProxyServletRequestSupplier;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -63,7 +64,7 @@ public class JerseyHandlerFilter implements Filter, Container {
 
     private ApplicationHandler jersey;
     private Application app;
-    private Logger log = LoggerFactory.getLogger(JerseyHandlerFilter.class);
+    private static final Logger log = LoggerFactory.getLogger(JerseyHandlerFilter.class);
     private URI baseUri;
 
 
@@ -72,12 +73,12 @@ public class JerseyHandlerFilter implements Filter, Container {
      * @param jaxApplication The JAX RS application to load
      */
     JerseyHandlerFilter(Application jaxApplication) {
-        Timer.start("JERSEY_FILTER_CONSTRUCTOR");
+        PhaseRecorder.start(Phase.JERSEY_FILTER_CONSTRUCTOR);
         app = jaxApplication;
 
         jersey = new ApplicationHandler(app);
         jersey.onStartup(this);
-        Timer.stop("JERSEY_FILTER_CONSTRUCTOR");
+        PhaseRecorder.stop(Phase.JERSEY_FILTER_CONSTRUCTOR);
     }
 
     @Override
@@ -89,7 +90,7 @@ public class JerseyHandlerFilter implements Filter, Container {
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
-        Timer.start("JERSEY_FILTER_DOFILTER");
+        PhaseRecorder.start(Phase.JERSEY_FILTER_DOFILTER);
         // we use a latch to make the processing inside Jersey synchronous
         CountDownLatch jerseyLatch = new CountDownLatch(1);
 
@@ -105,7 +106,7 @@ public class JerseyHandlerFilter implements Filter, Container {
             log.error("Interrupted while processing request", e);
             throw new InternalServerErrorException(e);
         }
-        Timer.stop("JERSEY_FILTER_DOFILTER");
+        PhaseRecorder.stop(Phase.JERSEY_FILTER_DOFILTER);
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
@@ -130,7 +131,7 @@ public class JerseyHandlerFilter implements Filter, Container {
     // servlet implementation
     @SuppressFBWarnings({ "SERVLET_HEADER", "SERVLET_QUERY_STRING" })
     private ContainerRequest servletRequestToContainerRequest(ServletRequest request) {
-        Timer.start("JERSEY_SERVLET_REQUEST_TO_CONTAINER");
+        PhaseRecorder.start(Phase.JERSEY_SERVLET_REQUEST_TO_CONTAINER);
         HttpServletRequest servletRequest = (HttpServletRequest)request;
 
         if (baseUri == null) {
@@ -180,7 +181,7 @@ public class JerseyHandlerFilter implements Filter, Container {
             requestContext.getHeaders().addAll(headerKey, Collections.list(servletRequest.getHeaders(headerKey)));
         }
 
-        Timer.stop("JERSEY_SERVLET_REQUEST_TO_CONTAINER");
+        PhaseRecorder.stop(Phase.JERSEY_SERVLET_REQUEST_TO_CONTAINER);
         return requestContext;
     }
 
@@ -223,14 +224,14 @@ public class JerseyHandlerFilter implements Filter, Container {
      */
     @Override
     public void reload() {
-        Timer.start("JERSEY_RELOAD_DEFAULT");
+        PhaseRecorder.start(Phase.JERSEY_RELOAD_DEFAULT);
         jersey.onShutdown(this);
 
         jersey = new ApplicationHandler(app);
 
         jersey.onReload(this);
         jersey.onStartup(this);
-        Timer.stop("JERSEY_RELOAD_DEFAULT");
+        PhaseRecorder.stop(Phase.JERSEY_RELOAD_DEFAULT);
     }
 
 
@@ -241,7 +242,7 @@ public class JerseyHandlerFilter implements Filter, Container {
      */
     @Override
     public void reload(ResourceConfig resourceConfig) {
-        Timer.start("JERSEY_RELOAD_CONFIG");
+        PhaseRecorder.start(Phase.JERSEY_RELOAD_CONFIG);
         jersey.onShutdown(this);
 
         app = resourceConfig;
@@ -249,6 +250,6 @@ public class JerseyHandlerFilter implements Filter, Container {
 
         jersey.onReload(this);
         jersey.onStartup(this);
-        Timer.stop("JERSEY_RELOAD_CONFIG");
+        PhaseRecorder.stop(Phase.JERSEY_RELOAD_CONFIG);
     }
 }
@@ -13,9 +13,11 @@
 package com.amazonaws.serverless.proxy.jersey;
 
 
+import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.*;
 import com.amazonaws.serverless.proxy.internal.servlet.*;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.jersey.suppliers.AwsProxyServletContextSupplier;
 import com.amazonaws.serverless.proxy.jersey.suppliers.AwsProxyServletRequestSupplier;
 import com.amazonaws.serverless.proxy.jersey.suppliers.AwsProxyServletResponseSupplier;
@@ -97,8 +99,7 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Aws
                 new AwsProxySecurityContextWriter(),
                 new AwsProxyExceptionHandler(),
                 jaxRsApplication);
-        newHandler.initialize();
-        return newHandler;
+        return start(newHandler);
     }
 
     /**
@@ -119,8 +120,23 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Aws
                 new AwsHttpApiV2SecurityContextWriter(),
                 new AwsProxyExceptionHandler(),
                 jaxRsApplication);
-        newHandler.initialize();
-        return newHandler;
+        return start(newHandler);
+    }
+
+
+    /**
+     * Initializes the handler with its initialization wrapper, which also primes it and registers it for checkpoints,
+     * like the builders of the other frameworks do.
+     */
+    private static <RequestType, ResponseType> JerseyLambdaContainerHandler<RequestType, ResponseType> start(
+            JerseyLambdaContainerHandler<RequestType, ResponseType> handler) {
+        try {
+            handler.getInitializationWrapper().start(handler);
+        } catch (ContainerInitializationException e) {
+            // initialize() does not throw, only a custom wrapper could
+            throw new RuntimeException("Could not initialize Jersey container handler", e);
+        }
+        return handler;
     }
 
 
@@ -148,7 +164,7 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Aws
                                         Application jaxRsApplication) {
 
         super(requestTypeClass, responseTypeClass, requestReader, responseWriter, securityContextWriter, exceptionHandler);
-        Timer.start("JERSEY_CONTAINER_CONSTRUCTOR");
+        PhaseRecorder.start(Phase.JERSEY_CONTAINER_CONSTRUCTOR);
         initialized = false;
         if (jaxRsApplication instanceof ResourceConfig) {
             ((ResourceConfig)jaxRsApplication).register(new AbstractBinder() {
@@ -174,7 +190,7 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Aws
         }
 
         this.jerseyFilter = new JerseyHandlerFilter(jaxRsApplication);
-        Timer.stop("JERSEY_CONTAINER_CONSTRUCTOR");
+        PhaseRecorder.stop(Phase.JERSEY_CONTAINER_CONSTRUCTOR);
     }
 
     //-------------------------------------------------------------
@@ -188,24 +204,24 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Aws
         if (!initialized) {
             initialize();
         }
-        Timer.start("JERSEY_HANDLE_REQUEST");
+        PhaseRecorder.start(Phase.JERSEY_HANDLE_REQUEST);
 
         if (AwsHttpServletRequest.class.isAssignableFrom(httpServletRequest.getClass())) {
             ((AwsHttpServletRequest)httpServletRequest).setServletContext(getServletContext());
         }
 
         doFilter(httpServletRequest, httpServletResponse, null);
-        Timer.stop("JERSEY_HANDLE_REQUEST");
+        PhaseRecorder.stop(Phase.JERSEY_HANDLE_REQUEST);
     }
 
     @Override
     protected AwsHttpServletResponse getContainerResponse(HttpServletRequest request, CountDownLatch latch) {
-        return new AwsHttpServletResponse(request, latch);
+        return newServletResponse(request, latch);
     }
 
     @Override
     public void initialize() {
-        Timer.start("JERSEY_COLD_START_INIT");
+        PhaseRecorder.start(Phase.JERSEY_COLD_START_INIT);
 
         // manually add the filter to the chain. This should the last one and match all uris
         FilterRegistration.Dynamic jerseyFilterReg = getServletContext().addFilter("JerseyFilter", jerseyFilter);
@@ -214,7 +230,7 @@ public class JerseyLambdaContainerHandler<RequestType, ResponseType> extends Aws
                 true, "/*"
         );
 
-        Timer.stop("JERSEY_COLD_START_INIT");
+        PhaseRecorder.stop(Phase.JERSEY_COLD_START_INIT);
         initialized = true;
     }
 
@@ -13,7 +13,8 @@
 package com.amazonaws.serverless.proxy.jersey;
 
 
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.glassfish.jersey.server.ContainerException;
@@ -47,7 +48,7 @@ class JerseyServletResponseWriter
     //-------------------------------------------------------------
 
     private HttpServletResponse servletResponse;
-    private Logger log = LoggerFactory.getLogger(JerseyServletResponseWriter.class);
+    private static final Logger log = LoggerFactory.getLogger(JerseyServletResponseWriter.class);
     private CountDownLatch jerseyLatch;
 
     //-------------------------------------------------------------
@@ -79,7 +80,7 @@ class JerseyServletResponseWriter
     @SuppressFBWarnings("HTTP_RESPONSE_SPLITTING") // suppress this because headers are sanitized in the setHeader method of the servlet response
     public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse containerResponse)
             throws ContainerException {
-        Timer.start("JERSEY_WRITE_RESPONSE");
+        PhaseRecorder.start(Phase.JERSEY_WRITE_RESPONSE);
         servletResponse.setStatus(containerResponse.getStatusInfo().getStatusCode());
         for (final Map.Entry<String, List<String>> e : containerResponse.getStringHeaders().entrySet()) {
             for (final String value : e.getValue()) {
@@ -87,11 +88,11 @@ class JerseyServletResponseWriter
             }
         }
         try {
-            Timer.stop("JERSEY_WRITE_RESPONSE");
+            PhaseRecorder.stop(Phase.JERSEY_WRITE_RESPONSE);
             return servletResponse.getOutputStream();
         } catch (IOException e) {
             log.error("Could not get servlet response output stream", e);
-            Timer.stop("JERSEY_WRITE_RESPONSE");
+            PhaseRecorder.stop(Phase.JERSEY_WRITE_RESPONSE);
             throw new InternalServerErrorException("Could not get servlet response output stream", e);
         }
 
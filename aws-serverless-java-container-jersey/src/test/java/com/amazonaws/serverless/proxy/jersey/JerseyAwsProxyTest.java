@@ -30,6 +30,7 @@ import org.apache.commons.codec.binary.Base64;
 import org.glassfish.jersey.logging.LoggingFeature;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -137,6 +138,12 @@ public class JerseyAwsProxyTest {
         }
     }
 
+    @Test
+    void getAwsProxyHandler_startedWithInitializationWrapper() {
+        // the wrapper measures the initialization and primes the handler
+        assertTrue(handlerWithoutRegisteredDependencies.getInitializationWrapper().getInitializationDurationMs() >= 0);
+    }
+
     @MethodSource("data")
     @ParameterizedTest
     void headers_getHeaders_echo(String reqType) {
@@ -14,7 +14,8 @@ package com.amazonaws.serverless.proxy.spring;
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.*;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.internal.servlet.*;
@@ -106,10 +107,10 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Aws
                                         ConfigurableWebApplicationContext applicationContext,
                                         InitializationWrapper init) {
         super(requestTypeClass, responseTypeClass, requestReader, responseWriter, securityContextWriter, exceptionHandler);
-        Timer.start("SPRING_CONTAINER_HANDLER_CONSTRUCTOR");
+        PhaseRecorder.start(Phase.SPRING_CONTAINER_HANDLER_CONSTRUCTOR);
         appContext = applicationContext;
         setInitializationWrapper(init);
-        Timer.stop("SPRING_CONTAINER_HANDLER_CONSTRUCTOR");
+        PhaseRecorder.stop(Phase.SPRING_CONTAINER_HANDLER_CONSTRUCTOR);
     }
 
 
@@ -125,7 +126,7 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Aws
 
     @Override
     protected AwsHttpServletResponse getContainerResponse(HttpServletRequest request, CountDownLatch latch) {
-        return new AwsHttpServletResponse(request, latch);
+        return newServletResponse(request, latch);
     }
 
 
@@ -145,7 +146,7 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Aws
 
     @Override
     protected void handleRequest(HttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext) throws Exception {
-        Timer.start("SPRING_HANDLE_REQUEST");
+        PhaseRecorder.start(Phase.SPRING_HANDLE_REQUEST);
 
         if (refreshContext) {
             appContext.refresh();
@@ -160,14 +161,14 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Aws
         // process filters
         Servlet reqServlet = ((AwsServletContext)getServletContext()).getServletForPath(containerRequest.getPathInfo());
         doFilter(containerRequest, containerResponse, reqServlet);
-        Timer.stop("SPRING_HANDLE_REQUEST");
+        PhaseRecorder.stop(Phase.SPRING_HANDLE_REQUEST);
     }
 
 
     @Override
     public void initialize()
             throws ContainerInitializationException {
-        Timer.start("SPRING_COLD_START");
+        PhaseRecorder.start(Phase.SPRING_COLD_START);
         if (profiles != null) {
             appContext.getEnvironment().setActiveProfiles(profiles);
         }
@@ -175,7 +176,7 @@ public class SpringLambdaContainerHandler<RequestType, ResponseType> extends Aws
         registerServlets();
         // call initialize on AwsLambdaServletContainerHandler to initialize servlets that are set to load on startup
         super.initialize();
-        Timer.stop("SPRING_COLD_START");
+        PhaseRecorder.stop(Phase.SPRING_COLD_START);
     }
 
     /**
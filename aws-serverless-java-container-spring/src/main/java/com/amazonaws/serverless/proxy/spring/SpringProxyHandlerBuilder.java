@@ -68,6 +68,8 @@ public class SpringProxyHandlerBuilder<RequestType> extends ServletLambdaContain
         }
 
         SpringLambdaContainerHandler<RequestType, AwsProxyResponse> handler = createHandler(ctx);
+        applyEventCodec(handler);
+        applyPrimingEvents(handler);
         if (profiles != null) {
             handler.activateSpringProfiles(profiles);
         }
@@ -33,6 +33,11 @@ import com.fasterxml.jackson.core.JsonToken;
  * This is necessary to ensure proper JSON serialization/deserialization.
  * It is registered with META-INF/spring/aot.factories
  *
+ * The hints are registered even for applications that read events with the
+ * StreamingEventCodec. The codec is selected from the container configuration
+ * at run time, and the SpringDelegatingLambdaContainerHandler and the custom
+ * runtime event loop always read events with an ObjectMapper.
+ *
  * @author Oleg Zhurakousky
  */
 public class AwsSpringAotTypesProcessor implements BeanFactoryInitializationAotProcessor {
@@ -32,7 +32,8 @@ import com.amazonaws.serverless.proxy.internal.servlet.AwsHttpServletResponse;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsLambdaServletContainerHandler;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsServletContext;
 import com.amazonaws.serverless.proxy.internal.servlet.AwsServletRegistration;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.Phase;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
@@ -136,14 +137,14 @@ public class SpringBootLambdaContainerHandler<RequestType, ResponseType> extends
                                             InitializationWrapper init,
                                             WebApplicationType applicationType) {
         super(requestTypeClass, responseTypeClass, requestReader, responseWriter, securityContextWriter, exceptionHandler);
-        Timer.start("SPRINGBOOT2_CONTAINER_HANDLER_CONSTRUCTOR");
+        PhaseRecorder.start(Phase.SPRINGBOOT2_CONTAINER_HANDLER_CONSTRUCTOR);
         initialized = false;
         this.springBootInitializer = springBootInitializer;
         springWebApplicationType = applicationType;
         setInitializationWrapper(init);
         SpringBootLambdaContainerHandler.setInstance(this);
 
-        Timer.stop("SPRINGBOOT2_CONTAINER_HANDLER_CONSTRUCTOR");
+        PhaseRecorder.stop(Phase.SPRINGBOOT2_CONTAINER_HANDLER_CONSTRUCTOR);
     }
 
     // this is not pretty. However, because SpringBoot wants to control all of the initialization
@@ -161,13 +162,13 @@ public class SpringBootLambdaContainerHandler<RequestType, ResponseType> extends
 
     @Override
     protected AwsHttpServletResponse getContainerResponse(HttpServletRequest request, CountDownLatch latch) {
-        return new AwsHttpServletResponse(request, latch);
+        return newServletResponse(request, latch);
     }
 
     @Override
     protected void handleRequest(HttpServletRequest containerRequest, AwsHttpServletResponse containerResponse, Context lambdaContext) throws Exception {
         // this method of the AwsLambdaServletContainerHandler sets the servlet context
-        Timer.start("SPRINGBOOT2_HANDLE_REQUEST");
+        PhaseRecorder.start(Phase.SPRINGBOOT2_HANDLE_REQUEST);
 
         // wire up the application context on the first invocation
         if (!initialized) {
@@ -181,14 +182,14 @@ public class SpringBootLambdaContainerHandler<RequestType, ResponseType> extends
             ((AwsHttpServletRequest)containerRequest).setResponse(containerResponse);
         }
         doFilter(containerRequest, containerResponse, reqServlet);
-        Timer.stop("SPRINGBOOT2_HANDLE_REQUEST");
+        PhaseRecorder.stop(Phase.SPRINGBOOT2_HANDLE_REQUEST);
     }
 
 
     @Override
     public void initialize()
             throws ContainerInitializationException {
-        Timer.start("SPRINGBOOT2_COLD_START");
+        PhaseRecorder.start(Phase.SPRINGBOOT2_COLD_START);
 
         SpringApplicationBuilder builder = new SpringApplicationBuilder(getEmbeddedContainerClasses())
                 .web(springWebApplicationType); // .REACTIVE, .SERVLET
@@ -205,7 +206,7 @@ public class SpringBootLambdaContainerHandler<RequestType, ResponseType> extends
         }
         super.initialize();
         initialized = true;
-        Timer.stop("SPRINGBOOT2_COLD_START");
+        PhaseRecorder.stop(Phase.SPRINGBOOT2_COLD_START);
     }
 
     private Class<?>[] getEmbeddedContainerClasses() {
@@ -68,6 +68,8 @@ public final class SpringBootProxyHandlerBuilder<RequestType> extends ServletLam
                 initializationWrapper,
                 applicationType
         );
+        applyEventCodec(handler);
+        applyPrimingEvents(handler);
         if (profiles != null) {
             handler.activateSpringProfiles(profiles);
         }
@@ -77,9 +77,25 @@ function sample {
     done
 }
 
+function benchmarks {
+    # the benchmarks depend on every framework module, the allocation budget check runs in the verify phase
+    install jersey -DskipTests
+    install spring -DskipTests
+    install springboot3 -DskipTests
+    cd ${WORKING_DIR}/ && mvn -q -P benchmarks -pl aws-serverless-java-container-benchmarks clean verify $@
+    if [[ "$?" -ne 0 ]]; then
+        exit 1
+    fi
+}
+
 # set up the master pom otherwise we won't be able to find new dependencies
 cd ${WORKING_DIR}/ && mvn -q --non-recursive clean install
 
+if [[ "$FRAMEWORK" = benchmarks ]] ; then
+    benchmarks ${EXTRA_PARAMS}
+    exit 0
+fi
+
 install ${FRAMEWORK} ${EXTRA_PARAMS}
 if [[ "$RUN_ARCHETYPE" = true ]] ; then
     archetype ${FRAMEWORK}
@@ -2,7 +2,7 @@ package com.amazonaws.serverless.sample.jersey;
 
 
 import com.amazonaws.serverless.proxy.internal.LambdaContainerHandler;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.jersey.JerseyLambdaContainerHandler;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
@@ -33,8 +33,8 @@ public class StreamLambdaHandler implements RequestStreamHandler {
             = JerseyLambdaContainerHandler.getAwsProxyHandler(jerseyApplication);
 
     public StreamLambdaHandler() {
-        // we enable the timer for debugging. This SHOULD NOT be enabled in production.
-        Timer.enable();
+        // we enable the phase recorder for debugging. This SHOULD NOT be enabled in production.
+        PhaseRecorder.enable();
     }
 
     @Override
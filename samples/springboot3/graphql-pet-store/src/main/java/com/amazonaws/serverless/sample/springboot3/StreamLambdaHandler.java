@@ -2,7 +2,7 @@ package com.amazonaws.serverless.sample.springboot3;
 
 
 import com.amazonaws.serverless.exceptions.ContainerInitializationException;
-import com.amazonaws.serverless.proxy.internal.testutils.Timer;
+import com.amazonaws.serverless.proxy.internal.metrics.PhaseRecorder;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
@@ -38,8 +38,8 @@ public class StreamLambdaHandler implements RequestStreamHandler {
     }
 
     public StreamLambdaHandler() {
-        // we enable the timer for debugging. This SHOULD NOT be enabled in production.
-        Timer.enable();
+        // we enable the phase recorder for debugging. This SHOULD NOT be enabled in production.
+        PhaseRecorder.enable();
     }
 
     @Override